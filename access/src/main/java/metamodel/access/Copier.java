@@ -0,0 +1,238 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+import metamodel.access.field.FieldHelper;
+import metamodel.field.AbstractField;
+
+/**
+ * Copies field values from one instance to another instance of the same type.
+ * <p>
+ * All fields are resolved when the copier is created. Each field gets a short copy step, built from method handles of
+ * the exact field types, and copying runs these steps in a loop. So copying neither looks up fields nor boxes
+ * primitive values, and the call depth stays the same for classes with many fields:
+ *
+ * <pre>
+ * private static final Copier&lt;SubClassWithSameFieldName&gt; COPIER = Copier.of(SubClassWithSameFieldName.class,
+ *         SubClassWithSameFieldName_.class);
+ * 
+ * COPIER.copy(source, target);
+ * </pre>
+ *
+ * Shadowed fields, ie. fields with the same name in a class and its superclass, are distinct definitions with
+ * different declaring classes, each of them is copied. Copiers are immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of copied objects
+ */
+public final class Copier<BASE> {
+
+	private static final MethodHandle NOOP;
+	private static final MethodHandle IS_NOT_NULL;
+	private static final MethodHandle FIELD_SET;
+
+	static {
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.lookup();
+			NOOP = lookup.findStatic(Copier.class, "noop", MethodType.methodType(void.class));
+			IS_NOT_NULL = lookup.findStatic(Copier.class, "isNotNull",
+			        MethodType.methodType(boolean.class, Object.class));
+			FIELD_SET = lookup.findVirtual(Field.class, "set",
+			        MethodType.methodType(void.class, Object.class, Object.class));
+		} catch (final NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final AbstractField<? super BASE, ?>[] fieldDefinitions;
+	/** (Object source, Object target)void for each field, copies the field. */
+	private final MethodHandle[] copySteps;
+	/** (Object source, Object target)void for each field, copies a primitive field or a non-null reference. */
+	private final MethodHandle[] mergeSteps;
+
+	/**
+	 * Create a copier for all fields of a metamodel class, including the fields of its superclasses.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return copier
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type
+	 */
+	public static <BASE> Copier<BASE> of(final Class<BASE> type, final Class<?> metamodelClass)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		Metamodels.checkDescribes(type, metamodelClass);
+		final List<AbstractField<?, ?>> fields = Metamodels.getFields(metamodelClass);
+		return new Copier<>(fields.toArray(Copier.<BASE> newArray(fields.size())));
+	}
+
+	/**
+	 * Create a copier for a subset of fields.
+	 *
+	 * @param fieldDefinitions metamodel field definitions of the fields to copy
+	 * @return copier
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	@SafeVarargs
+	public static <BASE> Copier<BASE> of(final AbstractField<? super BASE, ?>... fieldDefinitions)
+	        throws NoSuchFieldException, SecurityException {
+		final AbstractField<? super BASE, ?>[] copy = newArray(fieldDefinitions.length);
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = fieldDefinitions[i];
+		}
+		return new Copier<>(copy);
+	}
+
+	/**
+	 * Create a copier for a subset of fields.
+	 *
+	 * @param fieldDefinitions metamodel field definitions of the fields to copy
+	 * @return copier
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Copier<BASE> of(final List<? extends AbstractField<? super BASE, ?>> fieldDefinitions)
+	        throws NoSuchFieldException, SecurityException {
+		return new Copier<>(fieldDefinitions.toArray(Copier.<BASE> newArray(fieldDefinitions.size())));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> AbstractField<? super BASE, ?>[] newArray(final int length) {
+		return (AbstractField<? super BASE, ?>[]) new AbstractField<?, ?>[length];
+	}
+
+	private Copier(final AbstractField<? super BASE, ?>[] fieldDefinitions) throws NoSuchFieldException,
+	        SecurityException {
+		this.fieldDefinitions = fieldDefinitions;
+		copySteps = new MethodHandle[fieldDefinitions.length];
+		mergeSteps = new MethodHandle[fieldDefinitions.length];
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			final Field field = FieldHelper.getHandle(fieldDefinitions[i]).getField();
+			copySteps[i] = copyStep(field, false);
+			mergeSteps[i] = copyStep(field, true);
+		}
+	}
+
+	/**
+	 * Create the routine that copies one field.
+	 *
+	 * @param field accessible field
+	 * @param skipNull {@code true} if null values should not be copied
+	 * @return (Object source, Object target)void
+	 */
+	private static MethodHandle copyStep(final Field field, final boolean skipNull) {
+		final Class<?> type = field.getType();
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		final MethodHandle getter;
+		MethodHandle setter;
+		try {
+			getter = lookup.unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+		final MethodType setterType = MethodType.methodType(void.class, Object.class, type);
+		try {
+			setter = lookup.unreflectSetter(field).asType(setterType);
+		} catch (final IllegalAccessException e) {
+			// final field, write it by reflection
+			setter = FIELD_SET.bindTo(field).asType(setterType);
+		}
+		if (skipNull && !type.isPrimitive()) {
+			final MethodHandle test = MethodHandles.dropArguments(
+			        IS_NOT_NULL.asType(MethodType.methodType(boolean.class, type)), 0, Object.class);
+			final MethodHandle skip = MethodHandles.dropArguments(NOOP, 0, Object.class, type);
+			setter = MethodHandles.guardWithTest(test, setter, skip);
+		}
+		// (target, value) -> (target, source) -> (source, target)
+		final MethodHandle step = MethodHandles.filterArguments(setter, 1, getter);
+		return MethodHandles.permuteArguments(step, MethodType.methodType(void.class, Object.class, Object.class), 1,
+		        0);
+	}
+
+	/**
+	 * @return definitions of the copied fields
+	 */
+	public List<AbstractField<? super BASE, ?>> getFieldDefinitions() {
+		return Arrays.asList(fieldDefinitions.clone());
+	}
+
+	/**
+	 * Copy all fields from source to target.
+	 *
+	 * @param source object to read from
+	 * @param target object to write to
+	 * @return target
+	 * @throws IllegalArgumentException if source or target is {@code null} or no instance of a declaring class
+	 */
+	public BASE copy(final BASE source, final BASE target) throws IllegalArgumentException {
+		try {
+			for (final MethodHandle step : copySteps) {
+				step.invokeExact((Object) source, (Object) target);
+			}
+		} catch (final Throwable e) {
+			throw InvokerHelper.unchecked(e);
+		}
+		return target;
+	}
+
+	/**
+	 * Copy all fields from source to target, unless the value of source is {@code null}. Primitive fields are always
+	 * copied.
+	 *
+	 * @param source object to read from
+	 * @param target object to write to
+	 * @return target
+	 * @throws IllegalArgumentException if source or target is {@code null} or no instance of a declaring class
+	 */
+	public BASE merge(final BASE source, final BASE target) throws IllegalArgumentException {
+		try {
+			for (final MethodHandle step : mergeSteps) {
+				step.invokeExact((Object) source, (Object) target);
+			}
+		} catch (final Throwable e) {
+			throw InvokerHelper.unchecked(e);
+		}
+		return target;
+	}
+
+	@SuppressWarnings("unused")
+	private static void noop() {
+		// nothing to do
+	}
+
+	@SuppressWarnings("unused")
+	private static boolean isNotNull(final Object value) {
+		return value != null;
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Builds method handles that behave like reflective invocations. Used by CallableHelper and ConstructorHelper.
+ * <p>
+ * The resulting invokers have a generic type, ie. every parameter and the return value is of type {@link Object}, so
+ * they can be called with {@link MethodHandle#invokeExact(Object...)} without knowing the real signature and without
+ * packing the arguments into an array. Exceptions thrown by the invoked member are wrapped in an
+ * {@link InvocationTargetException}, just like {@link java.lang.reflect.Method#invoke(Object, Object...)} does.
+ *
+ * @author Michael Kroll
+ */
+public class InvokerHelper {
+
+	/** thrown for a {@code null} receiver, before the member is invoked. */
+	private static final class NullReceiverException extends NullPointerException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private static final MethodHandle WRAP_TARGET_EXCEPTION;
+	private static final MethodHandle CHECK_RECEIVER;
+
+	static {
+		try {
+			WRAP_TARGET_EXCEPTION = MethodHandles.lookup().findStatic(InvokerHelper.class, "wrapTargetException",
+			        MethodType.methodType(Object.class, Throwable.class));
+			CHECK_RECEIVER = MethodHandles.lookup().findStatic(InvokerHelper.class, "checkReceiver",
+			        MethodType.methodType(Object.class, Object.class));
+		} catch (final NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/** Hide Utility Constructor. */
+	private InvokerHelper() {
+	}
+
+	/**
+	 * Create a generic invoker for a method handle.
+	 *
+	 * @param target handle of an accessible member
+	 * @return invoker with all parameters and the return value of type {@link Object}, returning {@code null} for
+	 *         {@code void} targets
+	 */
+	public static MethodHandle toGenericInvoker(final MethodHandle target) {
+		return toGenericInvoker(target, false);
+	}
+
+	/**
+	 * Create a generic invoker for a method handle.
+	 * <p>
+	 * If the first parameter is a receiver, a {@code null} receiver raises a {@link NullPointerException}, that is not
+	 * wrapped and passed through by {@link #reflective(Throwable)} and {@link #unchecked(Throwable)}, just like
+	 * {@link java.lang.reflect.Method#invoke(Object, Object...)} throws it.
+	 *
+	 * @param target handle of an accessible member
+	 * @param receiver {@code true} if the first parameter of target is the object to invoke an instance method on
+	 * @return invoker with all parameters and the return value of type {@link Object}, returning {@code null} for
+	 *         {@code void} targets
+	 */
+	public static MethodHandle toGenericInvoker(final MethodHandle target, final boolean receiver) {
+		final MethodType targetType = target.type();
+		final MethodHandle handler = MethodHandles.dropArguments(
+		        WRAP_TARGET_EXCEPTION.asType(MethodType.methodType(targetType.returnType(), Throwable.class)), 1,
+		        targetType.parameterList());
+		MethodHandle wrapped = MethodHandles.catchException(target, Throwable.class, handler);
+		if (receiver) {
+			final Class<?> receiverType = targetType.parameterType(0);
+			wrapped = MethodHandles.filterArguments(wrapped, 0, CHECK_RECEIVER.asType(MethodType.methodType(
+			        receiverType, receiverType)));
+		}
+		return wrapped.asType(MethodType.genericMethodType(targetType.parameterCount()));
+	}
+
+	/**
+	 * Translate a throwable of a generic invoker into an unchecked exception, eg. for use in functional interfaces.
+	 * <p>
+	 * Unchecked exceptions of the invoked member are passed through, checked ones are wrapped in an
+	 * {@link UndeclaredThrowableException}. Errors are thrown directly. Exceptions raised while adapting the
+	 * arguments are reported as {@link IllegalArgumentException}.
+	 *
+	 * @param e throwable caught from an invoker
+	 * @return exception to be thrown
+	 */
+	public static RuntimeException unchecked(final Throwable e) {
+		final Throwable cause;
+		if (e instanceof NullReceiverException) {
+			return (RuntimeException) e;
+		} else if (e instanceof InvocationTargetException) {
+			cause = ((InvocationTargetException) e).getTargetException();
+		} else if (e instanceof ClassCastException || e instanceof NullPointerException) {
+			return new IllegalArgumentException(e.getMessage(), e);
+		} else {
+			cause = e;
+		}
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new UndeclaredThrowableException(cause);
+	}
+
+	/**
+	 * Translate a throwable of a generic invoker into the exceptions a reflective invocation would throw.
+	 * <p>
+	 * {@link InvocationTargetException}s are thrown directly, just like errors. Exceptions raised while adapting the
+	 * arguments are reported as {@link IllegalArgumentException}.
+	 *
+	 * @param e throwable caught from an invoker
+	 * @return exception to be thrown
+	 * @throws InvocationTargetException if the invoked member threw an exception
+	 */
+	public static RuntimeException reflective(final Throwable e) throws InvocationTargetException {
+		if (e instanceof InvocationTargetException) {
+			throw (InvocationTargetException) e;
+		}
+		if (e instanceof NullReceiverException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof ClassCastException || e instanceof NullPointerException) {
+			return new IllegalArgumentException(e.getMessage(), e);
+		}
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		// generic invokers only throw InvocationTargetExceptions
+		return new IllegalStateException(e);
+	}
+
+	@SuppressWarnings("unused")
+	private static Object checkReceiver(final Object receiver) {
+		if (receiver == null) {
+			throw new NullReceiverException();
+		}
+		return receiver;
+	}
+
+	@SuppressWarnings("unused")
+	private static Object wrapTargetException(final Throwable e) throws InvocationTargetException {
+		throw new InvocationTargetException(e);
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caches resolved members (fields, methods, constructors) by their metamodel definition.
+ * <p>
+ * Entries are attached to the declaring class via {@link ClassValue}, so the cache never keeps a class or its class
+ * loader reachable. Lookups of already resolved definitions are lock-free. Definitions whose member cannot be found are
+ * cached as well, so repeated lookups of missing members do not hit reflection again.
+ * <p>
+ * Entries are keyed by {@link #key(Object)} and {@link #parameterClasses(Object)}, which caches of declared members
+ * override with the name and parameter types of the member. Definitions that are created on the fly, eg.
+ * {@code new Constructor0Impl<>(type)} per use, therefore share one entry instead of adding a new one each time.
+ * Lookups neither allocate nor write to a shared counter, hits and misses are counted in stripes per thread.
+ *
+ * @author Michael Kroll
+ * @param <DEF> type of metamodel definition
+ * @param <MEMBER> type of resolved member
+ */
+public abstract class MemberCache<DEF, MEMBER> {
+
+	/** marker for definitions whose member does not exist. */
+	private static final Object MISSING = new Object();
+	private static final Class<?>[] NO_PARAMETERS = new Class<?>[0];
+
+	/** members with the same key, that differ in their parameter types. */
+	private static final class Entry {
+		private final Class<?>[] parameterClasses;
+		private final Object member;
+
+		Entry(final Class<?>[] parameterClasses, final Object member) {
+			this.parameterClasses = parameterClasses;
+			this.member = member;
+		}
+	}
+
+	/** sum of counts in stripes, so that threads rarely increment the same cache line. */
+	private static final class StripedCount {
+		private static final int STRIPES = 16;
+		/** longs per stripe, to keep stripes on different cache lines. */
+		private static final int PADDING = 8;
+
+		private final AtomicLongArray counts = new AtomicLongArray(STRIPES * PADDING);
+
+		void increment() {
+			counts.incrementAndGet(((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING);
+		}
+
+		long sum() {
+			long sum = 0;
+			for (int i = 0; i < STRIPES; i++) {
+				sum += counts.get(i * PADDING);
+			}
+			return sum;
+		}
+	}
+
+	private final ClassValue<ConcurrentMap<Object, Entry[]>> members =
+	        new ClassValue<ConcurrentMap<Object, Entry[]>>() {
+		        @Override
+		        protected ConcurrentMap<Object, Entry[]> computeValue(final Class<?> type) {
+			        return new ConcurrentHashMap<>();
+		        }
+	        };
+
+	private final StripedCount hitCount = new StripedCount();
+	private final StripedCount missCount = new StripedCount();
+
+	/**
+	 * Get the member for a definition, resolving it on first access.
+	 *
+	 * @param declaringClass class that declares the member
+	 * @param definition metamodel definition
+	 * @return resolved member or {@code null} if it does not exist
+	 * @throws SecurityException
+	 */
+	@SuppressWarnings("unchecked")
+	public MEMBER get(final Class<?> declaringClass, final DEF definition) throws SecurityException {
+		final ConcurrentMap<Object, Entry[]> classMembers = members.get(declaringClass);
+		final Object key = key(definition);
+		final Class<?>[] parameterClasses = parameterClasses(definition);
+		Object member = find(classMembers.get(key), parameterClasses);
+		if (member == null) {
+			missCount.increment();
+			member = resolve(definition);
+			if (member == null) {
+				member = MISSING;
+			}
+			member = add(classMembers, key, new Entry(parameterClasses.clone(), member));
+		} else {
+			hitCount.increment();
+		}
+		return member == MISSING ? null : (MEMBER) member;
+	}
+
+	private static Object find(final Entry[] entries, final Class<?>[] parameterClasses) {
+		if (entries != null) {
+			for (final Entry entry : entries) {
+				if (Arrays.equals(entry.parameterClasses, parameterClasses)) {
+					return entry.member;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Add an entry, unless another thread added an entry with the same parameter types before.
+	 *
+	 * @return member of the entry in the cache
+	 */
+	private static Object add(final ConcurrentMap<Object, Entry[]> classMembers, final Object key, final Entry entry) {
+		while (true) {
+			final Entry[] entries = classMembers.get(key);
+			final Object concurrentlyResolved = find(entries, entry.parameterClasses);
+			if (concurrentlyResolved != null) {
+				return concurrentlyResolved;
+			}
+			if (entries == null) {
+				if (classMembers.putIfAbsent(key, new Entry[] { entry }) == null) {
+					return entry.member;
+				}
+			} else {
+				final Entry[] added = Arrays.copyOf(entries, entries.length + 1);
+				added[entries.length] = entry;
+				if (classMembers.replace(key, entries, added)) {
+					return entry.member;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all cached members of a class, eg. after it was redefined.
+	 *
+	 * @param declaringClass class that declares the members
+	 */
+	public void invalidate(final Class<?> declaringClass) {
+		members.remove(declaringClass);
+	}
+
+	/**
+	 * @return number of lookups that found a resolved member
+	 */
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * @return number of lookups that had to resolve the member
+	 */
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * Get the key of a definition within its declaring class. Definitions with equal keys and equal
+	 * {@link #parameterClasses(Object) parameter types} share one cache entry.
+	 *
+	 * @param definition metamodel definition
+	 * @return the definition itself, subclasses may return the name of the defined member
+	 */
+	protected Object key(final DEF definition) {
+		return definition;
+	}
+
+	/**
+	 * Get the parameter types of a definition, that tell apart members with the same {@link #key(Object) key}.
+	 *
+	 * @param definition metamodel definition
+	 * @return no types, subclasses may return the parameter types of a method or constructor, that are not modified
+	 */
+	protected Class<?>[] parameterClasses(final DEF definition) {
+		return NO_PARAMETERS;
+	}
+
+	/**
+	 * Resolve the member for a definition.
+	 *
+	 * @param definition metamodel definition
+	 * @return accessible member or {@code null} if it does not exist
+	 * @throws SecurityException
+	 */
+	protected abstract MEMBER resolve(DEF definition) throws SecurityException;
+}
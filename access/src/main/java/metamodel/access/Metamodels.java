@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import metamodel.constructor.AbstractConstructor;
+import metamodel.field.AbstractField;
+import metamodel.method.AbstractMethod;
+
+/**
+ * Reads the definitions that a generated metamodel class lists.
+ * <p>
+ * Fields and methods are collected along the {@code extends}-chain of the metamodel class, starting with the topmost
+ * superclass, so a metamodel like {@code SubClass_ extends Base_} yields the definitions of {@code Base_} first.
+ * Fields with the same name in super- and subclass are both returned, as they describe different fields. Constructors
+ * are only taken from the metamodel class itself. Within one metamodel class the order is that of
+ * {@link Class#getDeclaredFields()}, which usually is the order of declaration, but is not guaranteed to be.
+ *
+ * @author Michael Kroll
+ */
+public class Metamodels {
+
+	/** Hide Utility Constructor. */
+	private Metamodels() {
+	}
+
+	/**
+	 * Get all field definitions of a metamodel class and its superclasses.
+	 *
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return field definitions
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<AbstractField<?, ?>> getFields(final Class<?> metamodelClass) {
+		return (List<AbstractField<?, ?>>) (List<?>) getDefinitions(metamodelClass, AbstractField.class, true);
+	}
+
+	/**
+	 * Get all method definitions of a metamodel class and its superclasses.
+	 *
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return method definitions
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<AbstractMethod<?, ?>> getMethods(final Class<?> metamodelClass) {
+		return (List<AbstractMethod<?, ?>>) (List<?>) getDefinitions(metamodelClass, AbstractMethod.class, true);
+	}
+
+	/**
+	 * Get all constructor definitions of a metamodel class.
+	 *
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return constructor definitions
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<AbstractConstructor<?>> getConstructors(final Class<?> metamodelClass) {
+		return (List<AbstractConstructor<?>>) (List<?>) getDefinitions(metamodelClass, AbstractConstructor.class,
+		        false);
+	}
+
+	/**
+	 * Check that all definitions of a metamodel class describe members of type.
+	 *
+	 * @param type class that should be described
+	 * @param metamodelClass generated metamodel class
+	 * @throws IllegalArgumentException if a definition belongs to a class that is not type or one of its superclasses
+	 */
+	public static void checkDescribes(final Class<?> type, final Class<?> metamodelClass)
+	        throws IllegalArgumentException {
+		for (final AbstractField<?, ?> field : getFields(metamodelClass)) {
+			checkDeclaringClass(type, metamodelClass, field.getDeclaringClass());
+		}
+		for (final AbstractMethod<?, ?> method : getMethods(metamodelClass)) {
+			checkDeclaringClass(type, metamodelClass, method.getDeclaringClass());
+		}
+		for (final AbstractConstructor<?> constructor : getConstructors(metamodelClass)) {
+			if (constructor.getDeclaringClass() != type) {
+				throw new IllegalArgumentException(metamodelClass.getName() + " is no metamodel of " + type.getName());
+			}
+		}
+	}
+
+	private static void checkDeclaringClass(final Class<?> type, final Class<?> metamodelClass,
+	        final Class<?> declaringClass) {
+		if (!declaringClass.isAssignableFrom(type)) {
+			throw new IllegalArgumentException(metamodelClass.getName() + " is no metamodel of " + type.getName());
+		}
+	}
+
+	private static List<Object> getDefinitions(final Class<?> metamodelClass, final Class<?> definitionType,
+	        final boolean includeSuperclasses) {
+		final LinkedList<Class<?>> hierarchy = new LinkedList<>();
+		for (Class<?> clazz = metamodelClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			hierarchy.addFirst(clazz);
+			if (!includeSuperclasses) {
+				break;
+			}
+		}
+		final List<Object> result = new ArrayList<>();
+		for (final Class<?> clazz : hierarchy) {
+			for (final Field field : clazz.getDeclaredFields()) {
+				final int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) && Modifier.isPublic(modifiers)
+				        && definitionType.isAssignableFrom(field.getType())) {
+					try {
+						if (!field.isAccessible()) {
+							field.setAccessible(true);
+						}
+						final Object definition = field.get(null);
+						if (definition != null) {
+							result.add(definition);
+						}
+					} catch (final IllegalAccessException e) {
+						throw new IllegalArgumentException("cannot read definition " + field, e);
+					}
+				}
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+import java.util.Arrays;
+import java.util.List;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.field.AbstractField;
+
+/**
+ * Reads a fixed list of fields of one class at once. The fields are resolved when the projection is created, reading
+ * them is a loop over the resolved handles:
+ *
+ * <pre>
+ * private static final Projection&lt;POJO&gt; EXPORT = Projection.of(POJO_.myint, POJO_.myInteger, POJO_.rawList);
+ * 
+ * ProjectionRow row = EXPORT.newRow();
+ * for (POJO pojo : pojos) {
+ * 	EXPORT.read(pojo, row);
+ * 	write(row.getInt(0), row.get(1), row.get(2));
+ * }
+ * </pre>
+ *
+ * Primitive fields are stored unboxed in a {@link ProjectionRow}, so reading into a reused row does not allocate.
+ * Projections are immutable and may be shared between threads, rows are not.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the fields
+ */
+public final class Projection<BASE> {
+
+	private final AbstractField<? super BASE, ?>[] fieldDefinitions;
+	private final FieldHandle[] handles;
+	/** type of each field, if it is primitive, {@code null} otherwise. */
+	private final Class<?>[] primitiveTypes;
+
+	/**
+	 * Create a projection.
+	 *
+	 * @param fieldDefinitions metamodel field definitions, in the order of the resulting columns
+	 * @return projection
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	@SafeVarargs
+	public static <BASE> Projection<BASE> of(final AbstractField<? super BASE, ?>... fieldDefinitions)
+	        throws NoSuchFieldException, SecurityException {
+		final AbstractField<? super BASE, ?>[] copy = newArray(fieldDefinitions.length);
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = fieldDefinitions[i];
+		}
+		return new Projection<>(copy);
+	}
+
+	/**
+	 * Create a projection.
+	 *
+	 * @param fieldDefinitions metamodel field definitions, in the order of the resulting columns
+	 * @return projection
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Projection<BASE> of(final List<? extends AbstractField<? super BASE, ?>> fieldDefinitions)
+	        throws NoSuchFieldException, SecurityException {
+		return new Projection<>(fieldDefinitions.toArray(Projection.<BASE> newArray(fieldDefinitions.size())));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> AbstractField<? super BASE, ?>[] newArray(final int length) {
+		return (AbstractField<? super BASE, ?>[]) new AbstractField<?, ?>[length];
+	}
+
+	private Projection(final AbstractField<? super BASE, ?>[] fieldDefinitions) throws NoSuchFieldException,
+	        SecurityException {
+		this.fieldDefinitions = fieldDefinitions;
+		handles = new FieldHandle[fieldDefinitions.length];
+		primitiveTypes = new Class<?>[fieldDefinitions.length];
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			handles[i] = FieldHelper.getHandle(fieldDefinitions[i]);
+			final Class<?> type = handles[i].getField().getType();
+			primitiveTypes[i] = type.isPrimitive() ? type : null;
+		}
+	}
+
+	/**
+	 * @return number of fields, ie. columns of a row
+	 */
+	public int getFieldCount() {
+		return fieldDefinitions.length;
+	}
+
+	/**
+	 * @param index column index
+	 * @return field definition of column
+	 */
+	public AbstractField<? super BASE, ?> getFieldDefinition(final int index) {
+		return fieldDefinitions[index];
+	}
+
+	/**
+	 * @return field definitions, in the order of the columns
+	 */
+	public List<AbstractField<? super BASE, ?>> getFieldDefinitions() {
+		return Arrays.asList(fieldDefinitions.clone());
+	}
+
+	/**
+	 * @param index column index
+	 * @return type of the field, if it is primitive, {@code null} otherwise
+	 */
+	Class<?> getPrimitiveType(final int index) {
+		return primitiveTypes[index];
+	}
+
+	/**
+	 * Create a row buffer, that can be reused for reading many objects.
+	 *
+	 * @return new, empty row
+	 */
+	public ProjectionRow newRow() {
+		return new ProjectionRow(this);
+	}
+
+	/**
+	 * Read all fields of an object into a row.
+	 *
+	 * @param object instance to read from
+	 * @param row row of this projection, previous values are overwritten
+	 * @return row
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or row belongs to another
+	 *             projection
+	 */
+	public ProjectionRow read(final BASE object, final ProjectionRow row) throws IllegalArgumentException {
+		if (row.getProjection() != this) {
+			throw new IllegalArgumentException("row belongs to another projection");
+		}
+		final long[] primitives = row.primitives;
+		final Object[] references = row.references;
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			final Class<?> type = primitiveTypes[i];
+			if (type == null) {
+				references[i] = handle.get(object);
+			} else if (type == int.class) {
+				primitives[i] = handle.getInt(object);
+			} else if (type == long.class) {
+				primitives[i] = handle.getLong(object);
+			} else if (type == double.class) {
+				primitives[i] = Double.doubleToRawLongBits(handle.getDouble(object));
+			} else if (type == boolean.class) {
+				primitives[i] = handle.getBoolean(object) ? 1 : 0;
+			} else if (type == float.class) {
+				primitives[i] = Float.floatToRawIntBits(handle.getFloat(object));
+			} else if (type == short.class) {
+				primitives[i] = handle.getShort(object);
+			} else if (type == byte.class) {
+				primitives[i] = handle.getByte(object);
+			} else {
+				primitives[i] = handle.getChar(object);
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Read all fields of an object into an array. Primitive values are boxed.
+	 *
+	 * @param object instance to read from
+	 * @param target array of at least {@link #getFieldCount()} elements
+	 * @return target
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or target is too small
+	 */
+	public Object[] read(final BASE object, final Object[] target) throws IllegalArgumentException {
+		if (target.length < handles.length) {
+			throw new IllegalArgumentException("target has " + target.length + " elements, " + handles.length
+			        + " are needed");
+		}
+		for (int i = 0; i < handles.length; i++) {
+			target[i] = handles[i].get(object);
+		}
+		return target;
+	}
+
+	/**
+	 * Read all fields of an object into a new array. Primitive values are boxed.
+	 *
+	 * @param object instance to read from
+	 * @return values of the fields
+	 * @throws IllegalArgumentException if object is no instance of the declaring class
+	 */
+	public Object[] read(final BASE object) throws IllegalArgumentException {
+		return read(object, new Object[handles.length]);
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+/**
+ * Row buffer of a {@link Projection}. Values of primitive fields are stored without boxing, they are read by the
+ * getter of the exact field type, eg. {@link #getInt(int)} for an {@code int} field. {@link #get(int)} works for all
+ * columns, it boxes primitive values.
+ * <p>
+ * Rows are meant to be reused for many objects and are not thread safe.
+ *
+ * @author Michael Kroll
+ * @see Projection#newRow()
+ */
+public final class ProjectionRow {
+
+	private final Projection<?> projection;
+	/** values of primitive columns, floating point values are stored by their raw bits. */
+	final long[] primitives;
+	/** values of reference columns. */
+	final Object[] references;
+
+	ProjectionRow(final Projection<?> projection) {
+		this.projection = projection;
+		primitives = new long[projection.getFieldCount()];
+		references = new Object[projection.getFieldCount()];
+	}
+
+	/**
+	 * @return projection that reads into this row
+	 */
+	public Projection<?> getProjection() {
+		return projection;
+	}
+
+	/**
+	 * @return number of columns
+	 */
+	public int size() {
+		return references.length;
+	}
+
+	/**
+	 * Get the value of a column, primitives are boxed.
+	 *
+	 * @param index column index
+	 * @return value
+	 */
+	public Object get(final int index) {
+		final Class<?> type = projection.getPrimitiveType(index);
+		if (type == null) {
+			return references[index];
+		} else if (type == int.class) {
+			return getInt(index);
+		} else if (type == long.class) {
+			return getLong(index);
+		} else if (type == double.class) {
+			return getDouble(index);
+		} else if (type == boolean.class) {
+			return getBoolean(index);
+		} else if (type == float.class) {
+			return getFloat(index);
+		} else if (type == short.class) {
+			return getShort(index);
+		} else if (type == byte.class) {
+			return getByte(index);
+		} else {
+			return getChar(index);
+		}
+	}
+
+	/**
+	 * @param index column index of a {@code boolean} field
+	 * @return value
+	 * @throws IllegalArgumentException if the field has another type
+	 */
+	public boolean getBoolean(final int index) throws IllegalArgumentException {
+		return primitive(index, boolean.class) != 0;
+	}
+
+	/**
+	 * @param index column index of a {@code byte} field
+	 * @return value
+	 * @throws IllegalArgumentException if the field has another type
+	 */
+	public byte getByte(final int index) throws IllegalArgumentException {
+		return (byte) primitive(index, byte.class);
+	}
+
+	/**
+	 * @param index column index of a {@code char} field
+	 * @return value
+	 * @throws IllegalArgumentException if the field has another type
+	 */
+	public char getChar(final int index) throws IllegalArgumentException {
+		return (char) primitive(index, char.class);
+	}
+
+	/**
+	 * @param index column index of a {@code short} field
+	 * @return value
+	 * @throws IllegalArgumentException if the field has another type
+	 */
+	public short getShort(final int index) throws IllegalArgumentException {
+		return (short) primitive(index, short.class);
+	}
+
+	/**
+	 * @param index column index of an {@code int} field
+	 * @return value
+	 * @throws IllegalArgumentException if the field has another type
+	 */
+	public int getInt(final int index) throws IllegalArgumentException {
+		return (int) primitive(index, int.class);
+	}
+
+	/**
+	 * @param index column index of a {@code long} field
+	 * @return value
+	 * @throws IllegalArgumentException if the field has another type
+	 */
+	public long getLong(final int index) throws IllegalArgumentException {
+		return primitive(index, long.class);
+	}
+
+	/**
+	 * @param index column index of a {@code float} field
+	 * @return value
+	 * @throws IllegalArgumentException if the field has another type
+	 */
+	public float getFloat(final int index) throws IllegalArgumentException {
+		return Float.intBitsToFloat((int) primitive(index, float.class));
+	}
+
+	/**
+	 * @param index column index of a {@code double} field
+	 * @return value
+	 * @throws IllegalArgumentException if the field has another type
+	 */
+	public double getDouble(final int index) throws IllegalArgumentException {
+		return Double.longBitsToDouble(primitive(index, double.class));
+	}
+
+	private long primitive(final int index, final Class<?> type) {
+		if (projection.getPrimitiveType(index) != type) {
+			throw new IllegalArgumentException("column " + index + " (" + projection.getFieldDefinition(index).getName()
+			        + ") is no " + type.getName() + " field");
+		}
+		return primitives[index];
+	}
+}
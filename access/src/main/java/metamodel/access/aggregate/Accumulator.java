@@ -0,0 +1,268 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+import java.util.Arrays;
+
+import metamodel.access.field.FieldHandle;
+
+/**
+ * State of an {@link Aggregate} for all groups of one part of the input. Groups are numbered from 0 in the order they
+ * are created, their state is kept in primitive arrays indexed by group. Accumulators are not thread-safe, each part
+ * of a parallel aggregation has its own ones, that are merged at the end.
+ *
+ * @author Michael Kroll
+ */
+abstract class Accumulator {
+
+	static final int INITIAL_CAPACITY = 16;
+
+	/** Operation of {@link LongValues} and {@link DoubleValues}. */
+	enum Operation {
+		SUM, MIN, MAX
+	}
+
+	/**
+	 * Add an object to a group.
+	 *
+	 * @param group number of the group, at most the number of groups added before
+	 * @param object object to add
+	 */
+	abstract void add(int group, Object object);
+
+	/**
+	 * Add the state of all groups of another accumulator of the same aggregate.
+	 *
+	 * @param other other accumulator
+	 * @param groups group of this accumulator for each group of other
+	 */
+	abstract void merge(Accumulator other, int[] groups);
+
+	/**
+	 * @param group number of the group
+	 * @return result of the group
+	 */
+	abstract Object get(int group);
+
+	static int capacity(final int length, final int group) {
+		return group < length ? length : Math.max(Math.max(length * 2, INITIAL_CAPACITY), group + 1);
+	}
+
+	/** Number of objects of each group. */
+	static final class Count extends Accumulator {
+		private long[] counts = new long[0];
+
+		@Override
+		void add(final int group, final Object object) {
+			if (group >= counts.length) {
+				counts = Arrays.copyOf(counts, capacity(counts.length, group));
+			}
+			counts[group]++;
+		}
+
+		@Override
+		void merge(final Accumulator other, final int[] groups) {
+			final long[] otherCounts = ((Count) other).counts;
+			for (int otherGroup = 0; otherGroup < groups.length; otherGroup++) {
+				final int group = groups[otherGroup];
+				if (group >= counts.length) {
+					counts = Arrays.copyOf(counts, capacity(counts.length, group));
+				}
+				counts[group] += otherCounts[otherGroup];
+			}
+		}
+
+		@Override
+		Object get(final int group) {
+			return counts[group];
+		}
+	}
+
+	/** Sum, minimum or maximum of an integral field. Sums overflow like {@code long} arithmetic. */
+	static final class LongValues extends Accumulator {
+		private final FieldHandle handle;
+		private final Class<?> type;
+		private final Operation operation;
+		private long[] values = new long[0];
+
+		LongValues(final FieldHandle handle, final Operation operation) {
+			this.handle = handle;
+			type = handle.getField().getType();
+			this.operation = operation;
+		}
+
+		private void apply(final int group, final long value) {
+			if (group >= values.length) {
+				final int length = values.length;
+				values = Arrays.copyOf(values, capacity(length, group));
+				if (operation != Operation.SUM) {
+					Arrays.fill(values, length, values.length, operation == Operation.MIN ? Long.MAX_VALUE
+					        : Long.MIN_VALUE);
+				}
+			}
+			switch (operation) {
+			case SUM:
+				values[group] += value;
+				break;
+			case MIN:
+				values[group] = Math.min(values[group], value);
+				break;
+			default:
+				values[group] = Math.max(values[group], value);
+			}
+		}
+
+		@Override
+		void add(final int group, final Object object) {
+			apply(group, PrimitiveValues.readLong(handle, type, object));
+		}
+
+		@Override
+		void merge(final Accumulator other, final int[] groups) {
+			final long[] otherValues = ((LongValues) other).values;
+			for (int otherGroup = 0; otherGroup < groups.length; otherGroup++) {
+				apply(groups[otherGroup], otherValues[otherGroup]);
+			}
+		}
+
+		@Override
+		Object get(final int group) {
+			return values[group];
+		}
+	}
+
+	/** Sum, minimum or maximum of a floating point field. {@code NaN} values make the result {@code NaN}. */
+	static final class DoubleValues extends Accumulator {
+		private final FieldHandle handle;
+		private final Class<?> type;
+		private final Operation operation;
+		private double[] values = new double[0];
+
+		DoubleValues(final FieldHandle handle, final Operation operation) {
+			this.handle = handle;
+			type = handle.getField().getType();
+			this.operation = operation;
+		}
+
+		private void apply(final int group, final double value) {
+			if (group >= values.length) {
+				final int length = values.length;
+				values = Arrays.copyOf(values, capacity(length, group));
+				if (operation != Operation.SUM) {
+					Arrays.fill(values, length, values.length, operation == Operation.MIN ? Double.POSITIVE_INFINITY
+					        : Double.NEGATIVE_INFINITY);
+				}
+			}
+			switch (operation) {
+			case SUM:
+				values[group] += value;
+				break;
+			case MIN:
+				values[group] = Math.min(values[group], value);
+				break;
+			default:
+				values[group] = Math.max(values[group], value);
+			}
+		}
+
+		@Override
+		void add(final int group, final Object object) {
+			apply(group, PrimitiveValues.readDouble(handle, type, object));
+		}
+
+		@Override
+		void merge(final Accumulator other, final int[] groups) {
+			final double[] otherValues = ((DoubleValues) other).values;
+			for (int otherGroup = 0; otherGroup < groups.length; otherGroup++) {
+				apply(groups[otherGroup], otherValues[otherGroup]);
+			}
+		}
+
+		@Override
+		Object get(final int group) {
+			return values[group];
+		}
+	}
+
+	/**
+	 * Average of a numeric field. Integral fields are summed as {@code long}, floating point ones as {@code double}.
+	 */
+	static final class Average extends Accumulator {
+		private final FieldHandle handle;
+		private final Class<?> type;
+		private final boolean floating;
+		private long[] longSums = new long[0];
+		private double[] doubleSums = new double[0];
+		private long[] counts = new long[0];
+
+		Average(final FieldHandle handle) {
+			this.handle = handle;
+			type = handle.getField().getType();
+			floating = type == double.class || type == float.class;
+		}
+
+		private void ensure(final int group) {
+			if (group >= counts.length) {
+				final int capacity = capacity(counts.length, group);
+				counts = Arrays.copyOf(counts, capacity);
+				if (floating) {
+					doubleSums = Arrays.copyOf(doubleSums, capacity);
+				} else {
+					longSums = Arrays.copyOf(longSums, capacity);
+				}
+			}
+		}
+
+		@Override
+		void add(final int group, final Object object) {
+			ensure(group);
+			if (floating) {
+				doubleSums[group] += PrimitiveValues.readDouble(handle, type, object);
+			} else {
+				longSums[group] += PrimitiveValues.readLong(handle, type, object);
+			}
+			counts[group]++;
+		}
+
+		@Override
+		void merge(final Accumulator other, final int[] groups) {
+			final Average average = (Average) other;
+			for (int otherGroup = 0; otherGroup < groups.length; otherGroup++) {
+				final int group = groups[otherGroup];
+				ensure(group);
+				if (floating) {
+					doubleSums[group] += average.doubleSums[otherGroup];
+				} else {
+					longSums[group] += average.longSums[otherGroup];
+				}
+				counts[group] += average.counts[otherGroup];
+			}
+		}
+
+		@Override
+		Object get(final int group) {
+			return (floating ? doubleSums[group] : (double) longSums[group]) / counts[group];
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+/**
+ * Function that reduces the objects of a group to one value, eg. the sum of a field. Aggregates are created by
+ * {@link Aggregates} and evaluated by an {@link Aggregation}. They are immutable and may be shared between threads and
+ * aggregations.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of aggregated objects
+ * @param <RESULT> type of the result of each group
+ */
+public abstract class Aggregate<BASE, RESULT> {
+
+	private final String name;
+
+	Aggregate(final String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @return new, empty state for one part of the input
+	 */
+	abstract Accumulator newAccumulator();
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,389 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+import java.util.Locale;
+
+import metamodel.access.aggregate.Accumulator.Operation;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.field.AbstractField;
+import metamodel.field.ByteField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.ShortField;
+import metamodel.field.SingularField;
+
+/**
+ * Creates {@link Aggregate aggregates} of fields:
+ *
+ * <pre>
+ * Aggregate&lt;POJO, Long&gt; total = sum(POJO_.myint);
+ * Aggregate&lt;POJO, Double&gt; average = avg(POJO_.myint);
+ * </pre>
+ *
+ * Numeric fields are read without boxing. Sums, minimums and maximums of integral fields are {@code long} values, of
+ * floating point fields {@code double} values. Averages are always {@code double} values.
+ *
+ * @author Michael Kroll
+ */
+public class Aggregates {
+
+	/** Hide Utility Constructor. */
+	private Aggregates() {
+	}
+
+	/**
+	 * @return number of objects in each group
+	 */
+	public static <BASE> Aggregate<BASE, Long> count() {
+		return new Aggregate<BASE, Long>("count") {
+			@Override
+			Accumulator newAccumulator() {
+				return new Accumulator.Count();
+			}
+		};
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return number of distinct values of field in each group, values are compared by {@link Object#equals(Object)}
+	 *         and {@code null} is not counted
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> countDistinct(final SingularField<BASE, ?> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		return new Aggregate<BASE, Long>("countDistinct(" + fieldDefinition.getName() + ")") {
+			@Override
+			Accumulator newAccumulator() {
+				return new DistinctAccumulator(handle);
+			}
+		};
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code byte} field
+	 * @return sum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> sum(final ByteField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.SUM);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code short} field
+	 * @return sum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> sum(final ShortField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.SUM);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code int} field
+	 * @return sum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> sum(final IntField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.SUM);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code long} field
+	 * @return sum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> sum(final LongField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.SUM);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code float} field
+	 * @return sum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> sum(final FloatField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return doubles(fieldDefinition, Operation.SUM);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code double} field
+	 * @return sum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> sum(final DoubleField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return doubles(fieldDefinition, Operation.SUM);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code byte} field
+	 * @return minimum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> min(final ByteField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.MIN);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code short} field
+	 * @return minimum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> min(final ShortField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.MIN);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code int} field
+	 * @return minimum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> min(final IntField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.MIN);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code long} field
+	 * @return minimum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> min(final LongField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.MIN);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code float} field
+	 * @return minimum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> min(final FloatField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return doubles(fieldDefinition, Operation.MIN);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code double} field
+	 * @return minimum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> min(final DoubleField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return doubles(fieldDefinition, Operation.MIN);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code byte} field
+	 * @return maximum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> max(final ByteField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.MAX);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code short} field
+	 * @return maximum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> max(final ShortField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.MAX);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code int} field
+	 * @return maximum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> max(final IntField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.MAX);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code long} field
+	 * @return maximum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Long> max(final LongField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return longs(fieldDefinition, Operation.MAX);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code float} field
+	 * @return maximum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> max(final FloatField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return doubles(fieldDefinition, Operation.MAX);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code double} field
+	 * @return maximum of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> max(final DoubleField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return doubles(fieldDefinition, Operation.MAX);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code byte} field
+	 * @return average of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> avg(final ByteField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return average(fieldDefinition);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code short} field
+	 * @return average of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> avg(final ShortField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return average(fieldDefinition);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code int} field
+	 * @return average of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> avg(final IntField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return average(fieldDefinition);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code long} field
+	 * @return average of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> avg(final LongField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return average(fieldDefinition);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code float} field
+	 * @return average of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> avg(final FloatField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return average(fieldDefinition);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition of a {@code double} field
+	 * @return average of field in each group
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Aggregate<BASE, Double> avg(final DoubleField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return average(fieldDefinition);
+	}
+
+	private static <BASE> Aggregate<BASE, Long> longs(final AbstractField<BASE, ?> fieldDefinition,
+	        final Operation operation) throws NoSuchFieldException, SecurityException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		return new Aggregate<BASE, Long>(name(operation, fieldDefinition)) {
+			@Override
+			Accumulator newAccumulator() {
+				return new Accumulator.LongValues(handle, operation);
+			}
+		};
+	}
+
+	private static <BASE> Aggregate<BASE, Double> doubles(final AbstractField<BASE, ?> fieldDefinition,
+	        final Operation operation) throws NoSuchFieldException, SecurityException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		return new Aggregate<BASE, Double>(name(operation, fieldDefinition)) {
+			@Override
+			Accumulator newAccumulator() {
+				return new Accumulator.DoubleValues(handle, operation);
+			}
+		};
+	}
+
+	private static <BASE> Aggregate<BASE, Double> average(final AbstractField<BASE, ?> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		return new Aggregate<BASE, Double>("avg(" + fieldDefinition.getName() + ")") {
+			@Override
+			Accumulator newAccumulator() {
+				return new Accumulator.Average(handle);
+			}
+		};
+	}
+
+	private static String name(final Operation operation, final AbstractField<?, ?> fieldDefinition) {
+		return operation.name().toLowerCase(Locale.ENGLISH) + "(" + fieldDefinition.getName() + ")";
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import metamodel.access.field.BulkFieldAccessor;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.access.field.Ranges;
+import metamodel.field.SingularField;
+
+/**
+ * Groups objects by the values of key fields and computes {@link Aggregate aggregates} of each group:
+ *
+ * <pre>
+ * private static final Aggregate&lt;POJO, Long&gt; COUNT = count();
+ * private static final Aggregate&lt;POJO, Long&gt; TOTAL = sum(POJO_.myint);
+ * private static final Aggregation&lt;POJO&gt; BY_VALUE = Aggregation.groupBy(POJO_.myInteger).with(COUNT, TOTAL);
+ * 
+ * for (Group group : BY_VALUE.apply(pojos)) {
+ * 	System.out.println(group.getKey().get(0) + &quot;: &quot; + group.get(COUNT) + &quot;, &quot; + group.get(TOTAL));
+ * }
+ * </pre>
+ *
+ * Keys are compared by {@link Object#equals(Object)}, {@code null} is a key value like any other. Groups are numbered
+ * by a hash table with open addressing, and aggregates keep their state in primitive arrays indexed by group, so
+ * fields of primitive type are neither boxed for the key nor for the aggregate. Inputs with fast indexed access, ie.
+ * arrays and {@link RandomAccess} lists, that are larger than the parallel threshold are split into parts, that are
+ * aggregated by a fork-join pool and merged at the end. Other collections are copied into a list first if they are
+ * larger than the threshold. Groups are returned in the order their keys first occur in the input. Aggregations are
+ * immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of aggregated objects
+ */
+public final class Aggregation<BASE> {
+
+	private final List<SingularField<? super BASE, ?>> keys;
+	private final FieldHandle[] handles;
+	private final List<Aggregate<? super BASE, ?>> aggregates;
+	private final int parallelThreshold;
+
+	/**
+	 * Create an aggregation without aggregates with the {@link BulkFieldAccessor#DEFAULT_PARALLEL_THRESHOLD default
+	 * parallel threshold}.
+	 *
+	 * @param keys fields to group by, no keys put all objects into one group
+	 * @return aggregation
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	@SafeVarargs
+	public static <BASE> Aggregation<BASE> groupBy(final SingularField<? super BASE, ?>... keys)
+	        throws NoSuchFieldException, SecurityException {
+		final FieldHandle[] handles = new FieldHandle[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			handles[i] = FieldHelper.getHandle(keys[i]);
+		}
+		return new Aggregation<>(Collections.unmodifiableList(new ArrayList<>(Arrays.asList(keys))), handles,
+		        Collections.<Aggregate<? super BASE, ?>> emptyList(), BulkFieldAccessor.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	private Aggregation(final List<SingularField<? super BASE, ?>> keys, final FieldHandle[] handles,
+	        final List<Aggregate<? super BASE, ?>> aggregates, final int parallelThreshold) {
+		this.keys = keys;
+		this.handles = handles;
+		this.aggregates = aggregates;
+		this.parallelThreshold = Ranges.checkThreshold(parallelThreshold);
+	}
+
+	/**
+	 * @return fields to group by
+	 */
+	public List<SingularField<? super BASE, ?>> getKeys() {
+		return keys;
+	}
+
+	/**
+	 * @return aggregates computed for each group
+	 */
+	public List<Aggregate<? super BASE, ?>> getAggregates() {
+		return aggregates;
+	}
+
+	/**
+	 * @return number of objects aggregated by one task, larger inputs are aggregated in parallel
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Create a copy with additional aggregates.
+	 *
+	 * @param additionalAggregates aggregates to compute for each group
+	 * @return new aggregation
+	 */
+	@SafeVarargs
+	public final Aggregation<BASE> with(final Aggregate<? super BASE, ?>... additionalAggregates) {
+		final List<Aggregate<? super BASE, ?>> list = new ArrayList<>(aggregates);
+		list.addAll(Arrays.asList(additionalAggregates));
+		return new Aggregation<>(keys, handles, Collections.unmodifiableList(list), parallelThreshold);
+	}
+
+	/**
+	 * Create a copy with another parallel threshold.
+	 *
+	 * @param threshold number of objects aggregated by one task, inputs up to this size are aggregated by the calling
+	 *            thread
+	 * @return new aggregation
+	 */
+	public Aggregation<BASE> withParallelThreshold(final int threshold) {
+		return new Aggregation<>(keys, handles, aggregates, threshold);
+	}
+
+	/**
+	 * Group and aggregate objects.
+	 *
+	 * @param objects objects to aggregate
+	 * @return one group for each distinct key, none for no objects
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a field
+	 */
+	public List<Group> apply(final Iterable<? extends BASE> objects) throws IllegalArgumentException {
+		final List<? extends BASE> list = Ranges.indexed(objects, parallelThreshold);
+		if (list == null) {
+			final Partial result = new Partial(handles, aggregates);
+			for (final BASE object : objects) {
+				result.add(object);
+			}
+			return result.groups();
+		}
+		final int size = list.size();
+		final Partial[] partials = new Partial[(int) ((size + (long) parallelThreshold - 1) / parallelThreshold)];
+		Ranges.forEach(partials.length, 1, new Ranges.Body() {
+			@Override
+			public void apply(final int fromPart, final int toPart) {
+				for (int part = fromPart; part < toPart; part++) {
+					final Partial partial = new Partial(handles, aggregates);
+					final int end = (int) Math.min(size, (part + 1L) * parallelThreshold);
+					for (int i = part * parallelThreshold; i < end; i++) {
+						partial.add(list.get(i));
+					}
+					partials[part] = partial;
+				}
+			}
+		});
+		if (partials.length == 0) {
+			return new ArrayList<>();
+		}
+		for (int part = 1; part < partials.length; part++) {
+			partials[0].merge(partials[part]);
+		}
+		return partials[0].groups();
+	}
+
+	/**
+	 * Group and aggregate objects.
+	 *
+	 * @param objects objects to aggregate
+	 * @return one group for each distinct key, none for no objects
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a field
+	 */
+	public List<Group> apply(final BASE[] objects) throws IllegalArgumentException {
+		return apply(Arrays.asList(objects));
+	}
+
+	/** Groups and accumulators of one part of the input. */
+	private static final class Partial {
+		private final GroupTable table;
+		private final List<? extends Aggregate<?, ?>> aggregates;
+		private final Accumulator[] accumulators;
+
+		Partial(final FieldHandle[] handles, final List<? extends Aggregate<?, ?>> aggregates) {
+			table = new GroupTable(handles);
+			this.aggregates = aggregates;
+			accumulators = new Accumulator[aggregates.size()];
+			for (int i = 0; i < accumulators.length; i++) {
+				accumulators[i] = aggregates.get(i).newAccumulator();
+			}
+		}
+
+		void add(final Object object) {
+			final int group = table.groupOf(object);
+			for (final Accumulator accumulator : accumulators) {
+				accumulator.add(group, object);
+			}
+		}
+
+		void merge(final Partial other) {
+			final int[] groups = new int[other.table.size()];
+			for (int group = 0; group < groups.length; group++) {
+				groups[group] = table.groupOf(other.table, group);
+			}
+			for (int i = 0; i < accumulators.length; i++) {
+				accumulators[i].merge(other.accumulators[i], groups);
+			}
+		}
+
+		List<Group> groups() {
+			final List<Group> groups = new ArrayList<>(table.size());
+			for (int group = 0; group < table.size(); group++) {
+				final Object[] results = new Object[accumulators.length];
+				for (int i = 0; i < results.length; i++) {
+					results[i] = accumulators[i].get(group);
+				}
+				groups.add(new Group(table.getKey(group), aggregates, results));
+			}
+			return groups;
+		}
+	}
+}
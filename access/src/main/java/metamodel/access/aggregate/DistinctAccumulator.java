@@ -0,0 +1,156 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+import java.util.Arrays;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.Primitives;
+
+/**
+ * Number of distinct values of a field in each group. The pairs of group and value of all groups are kept in one hash
+ * set with open addressing and linear probing. Primitive values are stored as bits without boxing, other values are
+ * compared by {@link Object#equals(Object)}. {@code null} values are not counted.
+ *
+ * @author Michael Kroll
+ */
+final class DistinctAccumulator extends Accumulator {
+
+	private final FieldHandle handle;
+	private final Class<?> type;
+	private final boolean primitive;
+
+	/** entry of each slot plus one, 0 for free slots. */
+	private int[] slots = new int[INITIAL_CAPACITY];
+	private int[] entryGroups = new int[INITIAL_CAPACITY];
+	private int[] entryHashes = new int[INITIAL_CAPACITY];
+	private long[] entryBits;
+	private Object[] entryValues;
+	private int entries;
+	private long[] counts = new long[0];
+
+	DistinctAccumulator(final FieldHandle handle) {
+		this.handle = handle;
+		type = handle.getField().getType();
+		primitive = type.isPrimitive();
+		if (primitive) {
+			entryBits = new long[INITIAL_CAPACITY];
+		} else {
+			entryValues = new Object[INITIAL_CAPACITY];
+		}
+	}
+
+	@Override
+	void add(final int group, final Object object) {
+		ensure(group);
+		if (primitive) {
+			final long bits = Primitives.bits(handle, type, object);
+			insert(group, Primitives.hash(bits), bits, null);
+		} else {
+			final Object value = handle.get(object);
+			if (value != null) {
+				insert(group, value.hashCode(), 0, value);
+			}
+		}
+	}
+
+	@Override
+	void merge(final Accumulator other, final int[] groups) {
+		for (final int group : groups) {
+			ensure(group);
+		}
+		final DistinctAccumulator distinct = (DistinctAccumulator) other;
+		for (int entry = 0; entry < distinct.entries; entry++) {
+			final int group = groups[distinct.entryGroups[entry]];
+			if (primitive) {
+				insert(group, distinct.entryHashes[entry], distinct.entryBits[entry], null);
+			} else {
+				insert(group, distinct.entryHashes[entry], 0, distinct.entryValues[entry]);
+			}
+		}
+	}
+
+	@Override
+	Object get(final int group) {
+		return counts[group];
+	}
+
+	private void ensure(final int group) {
+		if (group >= counts.length) {
+			counts = Arrays.copyOf(counts, capacity(counts.length, group));
+		}
+	}
+
+	private static int slot(final int group, final int hash, final int mask) {
+		return Primitives.hash((long) group << 32 | hash & 0xFFFFFFFFL) & mask;
+	}
+
+	/**
+	 * @param hash hash of the value, without group
+	 */
+	private void insert(final int group, final int hash, final long bits, final Object value) {
+		final int mask = slots.length - 1;
+		int slot = slot(group, hash, mask);
+		for (int entry; (entry = slots[slot] - 1) >= 0; slot = slot + 1 & mask) {
+			if (entryHashes[entry] == hash && entryGroups[entry] == group
+			        && (primitive ? entryBits[entry] == bits : entryValues[entry].equals(value))) {
+				return;
+			}
+		}
+		if (entries == entryGroups.length) {
+			final int capacity = entries * 2;
+			entryGroups = Arrays.copyOf(entryGroups, capacity);
+			entryHashes = Arrays.copyOf(entryHashes, capacity);
+			if (primitive) {
+				entryBits = Arrays.copyOf(entryBits, capacity);
+			} else {
+				entryValues = Arrays.copyOf(entryValues, capacity);
+			}
+		}
+		entryGroups[entries] = group;
+		entryHashes[entries] = hash;
+		if (primitive) {
+			entryBits[entries] = bits;
+		} else {
+			entryValues[entries] = value;
+		}
+		slots[slot] = ++entries;
+		counts[group]++;
+		if (entries * 2 > slots.length) {
+			rehash(slots.length * 2);
+		}
+	}
+
+	private void rehash(final int capacity) {
+		slots = new int[capacity];
+		final int mask = capacity - 1;
+		for (int entry = 0; entry < entries; entry++) {
+			int slot = slot(entryGroups[entry], entryHashes[entry], mask);
+			while (slots[slot] != 0) {
+				slot = slot + 1 & mask;
+			}
+			slots[slot] = entry + 1;
+		}
+	}
+}
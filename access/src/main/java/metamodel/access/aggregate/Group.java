@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of an {@link Aggregation} for one distinct key.
+ *
+ * @author Michael Kroll
+ */
+public final class Group {
+
+	private final List<Object> key;
+	private final List<? extends Aggregate<?, ?>> aggregates;
+	private final Object[] results;
+
+	Group(final List<Object> key, final List<? extends Aggregate<?, ?>> aggregates, final Object[] results) {
+		this.key = key;
+		this.aggregates = aggregates;
+		this.results = results;
+	}
+
+	/**
+	 * @return values of the key fields, in the order of the key fields of the aggregation
+	 */
+	public List<Object> getKey() {
+		return key;
+	}
+
+	/**
+	 * Get the result of an aggregate.
+	 *
+	 * @param aggregate aggregate of the aggregation
+	 * @return result of aggregate for this group
+	 * @throws IllegalArgumentException if aggregate is no aggregate of the aggregation
+	 */
+	@SuppressWarnings("unchecked")
+	public <RESULT> RESULT get(final Aggregate<?, RESULT> aggregate) throws IllegalArgumentException {
+		for (int i = 0; i < results.length; i++) {
+			if (aggregates.get(i) == aggregate) {
+				return (RESULT) results[i];
+			}
+		}
+		throw new IllegalArgumentException(aggregate + " is no aggregate of " + aggregates);
+	}
+
+	@Override
+	public String toString() {
+		return key + "=" + Arrays.toString(results);
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.Primitives;
+
+/**
+ * Assigns numbers to the distinct keys of one part of the input, in the order the keys are found. Keys are stored in
+ * columns, one per key field: primitive fields as bits in a {@code long[]}, other fields in an {@code Object[]}. The
+ * numbers are found by a hash table with open addressing and linear probing, so keys are neither boxed nor copied into
+ * arrays per object. Not thread-safe.
+ *
+ * @author Michael Kroll
+ */
+final class GroupTable {
+
+	private final FieldHandle[] handles;
+	private final Class<?>[] types;
+	private final long[][] bitColumns;
+	private final Object[][] valueColumns;
+	private int[] hashes = new int[Accumulator.INITIAL_CAPACITY];
+	/** group of each slot plus one, 0 for free slots. */
+	private int[] slots = new int[Accumulator.INITIAL_CAPACITY * 2];
+	private int size;
+
+	/** key of the current object. */
+	private final long[] bits;
+	private final Object[] values;
+
+	GroupTable(final FieldHandle[] handles) {
+		this.handles = handles;
+		types = new Class<?>[handles.length];
+		bitColumns = new long[handles.length][];
+		valueColumns = new Object[handles.length][];
+		for (int i = 0; i < handles.length; i++) {
+			types[i] = handles[i].getField().getType();
+			if (types[i].isPrimitive()) {
+				bitColumns[i] = new long[Accumulator.INITIAL_CAPACITY];
+			} else {
+				valueColumns[i] = new Object[Accumulator.INITIAL_CAPACITY];
+			}
+		}
+		bits = new long[handles.length];
+		values = new Object[handles.length];
+	}
+
+	/**
+	 * @return number of groups
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Get the group of an object, creating a new group for a new key.
+	 *
+	 * @param object object to read the key fields of
+	 * @return number of the group
+	 */
+	int groupOf(final Object object) {
+		int hash = 1;
+		for (int i = 0; i < handles.length; i++) {
+			if (bitColumns[i] != null) {
+				bits[i] = Primitives.bits(handles[i], types[i], object);
+				hash = hash * 31 + Primitives.hash(bits[i]);
+			} else {
+				values[i] = handles[i].get(object);
+				hash = hash * 31 + (values[i] == null ? 0 : values[i].hashCode());
+			}
+		}
+		return find(hash);
+	}
+
+	/**
+	 * Get the group of a key of another table with the same key fields, creating a new group for a new key.
+	 *
+	 * @param other other table
+	 * @param group group of other table
+	 * @return number of the group in this table
+	 */
+	int groupOf(final GroupTable other, final int group) {
+		for (int i = 0; i < handles.length; i++) {
+			if (bitColumns[i] != null) {
+				bits[i] = other.bitColumns[i][group];
+			} else {
+				values[i] = other.valueColumns[i][group];
+			}
+		}
+		return find(other.hashes[group]);
+	}
+
+	/**
+	 * @param group number of the group
+	 * @return values of the key fields of group, boxed
+	 */
+	List<Object> getKey(final int group) {
+		final List<Object> key = new ArrayList<>(handles.length);
+		for (int i = 0; i < handles.length; i++) {
+			if (bitColumns[i] != null) {
+				key.add(Primitives.box(types[i], bitColumns[i][group]));
+			} else {
+				key.add(valueColumns[i][group]);
+			}
+		}
+		return Collections.unmodifiableList(key);
+	}
+
+	private int find(final int hash) {
+		final int mask = slots.length - 1;
+		int slot = Primitives.hash(hash) & mask;
+		for (int group; (group = slots[slot] - 1) >= 0; slot = slot + 1 & mask) {
+			if (hashes[group] == hash && equalsCurrent(group)) {
+				return group;
+			}
+		}
+		if (size == hashes.length) {
+			grow();
+		}
+		final int group = size++;
+		hashes[group] = hash;
+		for (int i = 0; i < handles.length; i++) {
+			if (bitColumns[i] != null) {
+				bitColumns[i][group] = bits[i];
+			} else {
+				valueColumns[i][group] = values[i];
+			}
+		}
+		slots[slot] = size;
+		if (size * 2 > slots.length) {
+			rehash();
+		}
+		return group;
+	}
+
+	private boolean equalsCurrent(final int group) {
+		for (int i = 0; i < handles.length; i++) {
+			if (bitColumns[i] != null) {
+				if (bitColumns[i][group] != bits[i]) {
+					return false;
+				}
+			} else {
+				final Object value = valueColumns[i][group];
+				if (value == null ? values[i] != null : !value.equals(values[i])) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private void grow() {
+		final int capacity = size * 2;
+		hashes = Arrays.copyOf(hashes, capacity);
+		for (int i = 0; i < handles.length; i++) {
+			if (bitColumns[i] != null) {
+				bitColumns[i] = Arrays.copyOf(bitColumns[i], capacity);
+			} else {
+				valueColumns[i] = Arrays.copyOf(valueColumns[i], capacity);
+			}
+		}
+	}
+
+	private void rehash() {
+		slots = new int[slots.length * 2];
+		final int mask = slots.length - 1;
+		for (int group = 0; group < size; group++) {
+			int slot = Primitives.hash(hashes[group]) & mask;
+			while (slots[slot] != 0) {
+				slot = slot + 1 & mask;
+			}
+			slots[slot] = group + 1;
+		}
+	}
+}
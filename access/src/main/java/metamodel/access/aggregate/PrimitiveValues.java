@@ -0,0 +1,65 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+import metamodel.access.field.FieldHandle;
+
+/**
+ * Reads fields of primitive type without boxing, converted to {@code long} or {@code double} for arithmetic. For
+ * equality, values are read as bits by {@link metamodel.access.field.Primitives}.
+ *
+ * @author Michael Kroll
+ */
+final class PrimitiveValues {
+
+	/** Hide Utility Constructor. */
+	private PrimitiveValues() {
+	}
+
+	/**
+	 * @return value of an integral field
+	 */
+	static long readLong(final FieldHandle handle, final Class<?> type, final Object object) {
+		if (type == int.class) {
+			return handle.getInt(object);
+		} else if (type == long.class) {
+			return handle.getLong(object);
+		} else if (type == short.class) {
+			return handle.getShort(object);
+		} else {
+			return handle.getByte(object);
+		}
+	}
+
+	/**
+	 * @return value of a floating point field
+	 */
+	static double readDouble(final FieldHandle handle, final Class<?> type, final Object object) {
+		if (type == double.class) {
+			return handle.getDouble(object);
+		} else {
+			return handle.getFloat(object);
+		}
+	}
+}
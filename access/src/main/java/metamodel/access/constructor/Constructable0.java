@@ -23,8 +23,10 @@
  */
 package metamodel.access.constructor;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 
+import metamodel.access.InvokerHelper;
 import metamodel.constructor.Constructor0;
 
 /**
@@ -36,13 +38,45 @@ import metamodel.constructor.Constructor0;
 public class Constructable0<BASE> {
 
 	private final Constructor0<BASE> constructorDefinition;
+	/** resolved lazily, invokers are cached per definition anyway. */
+	private MethodHandle invoker;
 
 	public Constructable0(final Constructor0<BASE> constructorDefinition) {
 		this.constructorDefinition = constructorDefinition;
 	}
 
+	/**
+	 * Create a compiled constructor. It is immutable and may be kept in a {@code static final} field, invocations do
+	 * not allocate wrapper objects.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 * @see ConstructorFunctions#compile(Constructor0)
+	 */
+	public static <BASE> ConstructorFunction0<BASE> of(
+	        final Constructor0<BASE> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		return ConstructorFunctions.compile(constructorDefinition);
+	}
+
+	@SuppressWarnings("unchecked")
 	public BASE invoke() throws NoSuchMethodException, SecurityException, InstantiationException,
 	        IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		return ConstructorHelper.invoke(constructorDefinition);
+		final MethodHandle handle = invoker();
+		try {
+			return (BASE) handle.invokeExact();
+		} catch (final Throwable e) {
+			throw InvokerHelper.reflective(e);
+		}
+	}
+
+	private MethodHandle invoker() throws NoSuchMethodException, SecurityException, InstantiationException {
+		if (invoker == null) {
+			invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		}
+		return invoker;
 	}
 }
@@ -23,8 +23,10 @@
  */
 package metamodel.access.constructor;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 
+import metamodel.access.InvokerHelper;
 import metamodel.constructor.Constructor1;
 
 /**
@@ -37,13 +39,45 @@ import metamodel.constructor.Constructor1;
 public class Constructable1<BASE, P1> {
 
 	private final Constructor1<BASE, P1> constructorDefinition;
+	/** resolved lazily, invokers are cached per definition anyway. */
+	private MethodHandle invoker;
 
 	public Constructable1(final Constructor1<BASE, P1> constructorDefinition) {
 		this.constructorDefinition = constructorDefinition;
 	}
 
+	/**
+	 * Create a compiled constructor. It is immutable and may be kept in a {@code static final} field, invocations do
+	 * not allocate wrapper objects.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 * @see ConstructorFunctions#compile(Constructor1)
+	 */
+	public static <BASE, P1> ConstructorFunction1<BASE, P1> of(
+	        final Constructor1<BASE, P1> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		return ConstructorFunctions.compile(constructorDefinition);
+	}
+
+	@SuppressWarnings("unchecked")
 	public BASE invoke(final P1 param1) throws NoSuchMethodException, SecurityException, InstantiationException,
 	        IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		return ConstructorHelper.invoke(constructorDefinition, param1);
+		final MethodHandle handle = invoker();
+		try {
+			return (BASE) handle.invokeExact(param1);
+		} catch (final Throwable e) {
+			throw InvokerHelper.reflective(e);
+		}
+	}
+
+	private MethodHandle invoker() throws NoSuchMethodException, SecurityException, InstantiationException {
+		if (invoker == null) {
+			invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		}
+		return invoker;
 	}
 }
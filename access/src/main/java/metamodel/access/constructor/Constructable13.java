@@ -23,8 +23,10 @@
  */
 package metamodel.access.constructor;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 
+import metamodel.access.InvokerHelper;
 import metamodel.constructor.Constructor13;
 
 /**
@@ -49,17 +51,49 @@ import metamodel.constructor.Constructor13;
 public class Constructable13<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> {
 
 	private final Constructor13<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> constructorDefinition;
+	/** resolved lazily, invokers are cached per definition anyway. */
+	private MethodHandle invoker;
 
 	public Constructable13(
 	        final Constructor13<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> constructorDefinition) {
 		this.constructorDefinition = constructorDefinition;
 	}
 
+	/**
+	 * Create a compiled constructor. It is immutable and may be kept in a {@code static final} field, invocations do
+	 * not allocate wrapper objects.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 * @see ConstructorFunctions#compile(Constructor13)
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> ConstructorFunction13<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> of(
+	        final Constructor13<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		return ConstructorFunctions.compile(constructorDefinition);
+	}
+
+	@SuppressWarnings("unchecked")
 	public BASE invoke(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
 	        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10, final P11 param11,
 	        final P12 param12, final P13 param13) throws NoSuchMethodException, SecurityException,
 	        InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		return ConstructorHelper.invoke(constructorDefinition, param1, param2, param3, param4, param5, param6, param7,
-		        param8, param9, param10, param11, param12, param13);
+		final MethodHandle handle = invoker();
+		try {
+			return (BASE) handle.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8, param9,
+			        param10, param11, param12, param13);
+		} catch (final Throwable e) {
+			throw InvokerHelper.reflective(e);
+		}
+	}
+
+	private MethodHandle invoker() throws NoSuchMethodException, SecurityException, InstantiationException {
+		if (invoker == null) {
+			invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		}
+		return invoker;
 	}
 }
@@ -0,0 +1,44 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.constructor;
+
+/**
+ * Compiled constructor without parameters, that creates new instances of the declaring class.
+ * <p>
+ * Instances are immutable and may be stored in constants. Exceptions of the invoked constructor are rethrown unchanged
+ * if unchecked, checked ones are wrapped in an {@link java.lang.reflect.UndeclaredThrowableException}.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the constructor
+ * @see ConstructorFunctions
+ */
+public interface ConstructorFunction0<BASE> {
+
+	/**
+	 * Create a new instance.
+	 *
+	 * @return new instance
+	 */
+	BASE newInstance();
+}
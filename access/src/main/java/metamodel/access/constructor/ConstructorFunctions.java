@@ -0,0 +1,580 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.constructor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+
+import metamodel.access.InvokerHelper;
+import metamodel.constructor.Constructor0;
+import metamodel.constructor.Constructor1;
+import metamodel.constructor.Constructor10;
+import metamodel.constructor.Constructor11;
+import metamodel.constructor.Constructor12;
+import metamodel.constructor.Constructor13;
+import metamodel.constructor.Constructor14;
+import metamodel.constructor.Constructor15;
+import metamodel.constructor.Constructor16;
+import metamodel.constructor.Constructor2;
+import metamodel.constructor.Constructor3;
+import metamodel.constructor.Constructor4;
+import metamodel.constructor.Constructor5;
+import metamodel.constructor.Constructor6;
+import metamodel.constructor.Constructor7;
+import metamodel.constructor.Constructor8;
+import metamodel.constructor.Constructor9;
+
+/**
+ * Compiles constructor-definitions into factory objects, that create new instances without reflection.
+ * <p>
+ * The compiled factories call a cached method handle of exactly their arity, so no argument arrays are allocated:
+ *
+ * <pre>
+ * private static final ConstructorFunction2&lt;TargetObject, Integer, String&gt; FACTORY = ConstructorFunctions
+ *         .compile(TargetObject_.constructor);
+ * 
+ * TargetObject target = FACTORY.newInstance(42, &quot;Hello World&quot;);
+ * </pre>
+ *
+ * Default constructors may also be used to create whole arrays of instances, see {@link #newInstances(Constructor0,
+ * int)}.
+ *
+ * @author Michael Kroll
+ */
+public class ConstructorFunctions {
+
+	/** Hide Utility Constructor. */
+	private ConstructorFunctions() {
+	}
+
+	/**
+	 * Compile a constructor-definition without parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE> ConstructorFunction0<BASE> compile(
+	        final Constructor0<BASE> constructorDefinition) throws NoSuchMethodException, SecurityException,
+	        InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction0<BASE>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance() {
+				try {
+					return (BASE) invoker.invokeExact();
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with one parameter.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1> ConstructorFunction1<BASE, P1> compile(
+	        final Constructor1<BASE, P1> constructorDefinition) throws NoSuchMethodException, SecurityException,
+	        InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction1<BASE, P1>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1) {
+				try {
+					return (BASE) invoker.invokeExact(param1);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with two parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2> ConstructorFunction2<BASE, P1, P2> compile(
+	        final Constructor2<BASE, P1, P2> constructorDefinition) throws NoSuchMethodException, SecurityException,
+	        InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction2<BASE, P1, P2>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with three parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3> ConstructorFunction3<BASE, P1, P2, P3> compile(
+	        final Constructor3<BASE, P1, P2, P3> constructorDefinition) throws NoSuchMethodException, SecurityException,
+	        InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction3<BASE, P1, P2, P3>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 4 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4> ConstructorFunction4<BASE, P1, P2, P3, P4> compile(
+	        final Constructor4<BASE, P1, P2, P3, P4> constructorDefinition) throws NoSuchMethodException,
+	        SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction4<BASE, P1, P2, P3, P4>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 5 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5> ConstructorFunction5<BASE, P1, P2, P3, P4, P5> compile(
+	        final Constructor5<BASE, P1, P2, P3, P4, P5> constructorDefinition) throws NoSuchMethodException,
+	        SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction5<BASE, P1, P2, P3, P4, P5>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 6 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6> ConstructorFunction6<BASE, P1, P2, P3, P4, P5, P6> compile(
+	        final Constructor6<BASE, P1, P2, P3, P4, P5, P6> constructorDefinition) throws NoSuchMethodException,
+	        SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction6<BASE, P1, P2, P3, P4, P5, P6>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 7 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7> ConstructorFunction7<BASE, P1, P2, P3, P4, P5, P6, P7> compile(
+	        final Constructor7<BASE, P1, P2, P3, P4, P5, P6, P7> constructorDefinition) throws NoSuchMethodException,
+	        SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction7<BASE, P1, P2, P3, P4, P5, P6, P7>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 8 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8> ConstructorFunction8<BASE, P1, P2, P3, P4, P5, P6, P7, P8> compile(
+	        final Constructor8<BASE, P1, P2, P3, P4, P5, P6, P7, P8> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction8<BASE, P1, P2, P3, P4, P5, P6, P7, P8>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 9 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9> ConstructorFunction9<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9> compile(
+	        final Constructor9<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction9<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8, final P9 param9) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8,
+					        param9);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 10 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10> ConstructorFunction10<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10> compile(
+	        final Constructor10<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction10<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8,
+					        param9, param10);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 11 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11> ConstructorFunction11<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11> compile(
+	        final Constructor11<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction11<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10,
+			        final P11 param11) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8,
+					        param9, param10, param11);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 12 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12> ConstructorFunction12<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12> compile(
+	        final Constructor12<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction12<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10,
+			        final P11 param11, final P12 param12) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8,
+					        param9, param10, param11, param12);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 13 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> ConstructorFunction13<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> compile(
+	        final Constructor13<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction13<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10,
+			        final P11 param11, final P12 param12, final P13 param13) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8,
+					        param9, param10, param11, param12, param13);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 14 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> ConstructorFunction14<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> compile(
+	        final Constructor14<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction14<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10,
+			        final P11 param11, final P12 param12, final P13 param13, final P14 param14) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8,
+					        param9, param10, param11, param12, param13, param14);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 15 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15> ConstructorFunction15<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15> compile(
+	        final Constructor15<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction15<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10,
+			        final P11 param11, final P12 param12, final P13 param13, final P14 param14, final P15 param15) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8,
+					        param9, param10, param11, param12, param13, param14, param15);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a constructor-definition with 16 parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @return compiled constructor
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	public static <BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16> ConstructorFunction16<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16> compile(
+	        final Constructor16<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		return new ConstructorFunction16<BASE, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public BASE newInstance(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
+			        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10,
+			        final P11 param11, final P12 param12, final P13 param13, final P14 param14, final P15 param15,
+			        final P16 param16) {
+				try {
+					return (BASE) invoker.invokeExact(param1, param2, param3, param4, param5, param6, param7, param8,
+					        param9, param10, param11, param12, param13, param14, param15, param16);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Create an array of new instances, using the constructor without parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @param count number of instances to create
+	 * @return array of declaring class, filled with new instances
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	@SuppressWarnings("unchecked")
+	public static <BASE> BASE[] newInstances(final Constructor0<BASE> constructorDefinition, final int count)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final BASE[] instances = (BASE[]) Array.newInstance(constructorDefinition.getDeclaringClass(), count);
+		return fill(constructorDefinition, instances);
+	}
+
+	/**
+	 * Fill every element of an array with a new instance, using the constructor without parameters.
+	 *
+	 * @param constructorDefinition metamodel constructor definition
+	 * @param target array to fill, existing elements are overwritten
+	 * @return target array
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 */
+	@SuppressWarnings("unchecked")
+	public static <BASE> BASE[] fill(final Constructor0<BASE> constructorDefinition, final BASE[] target)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final MethodHandle invoker = ConstructorHelper.getInvoker(constructorDefinition);
+		try {
+			for (int i = 0; i < target.length; i++) {
+				target[i] = (BASE) invoker.invokeExact();
+			}
+		} catch (final Throwable e) {
+			throw InvokerHelper.unchecked(e);
+		}
+		return target;
+	}
+}
@@ -23,9 +23,15 @@
  */
 package metamodel.access.constructor;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
 
+import metamodel.access.InvokerHelper;
+import metamodel.access.MemberCache;
 import metamodel.constructor.AbstractConstructor;
 
 /**
@@ -35,46 +41,109 @@ import metamodel.constructor.AbstractConstructor;
  */
 public class ConstructorHelper {
 
+	/** resolved constructors by constructor definition. */
+	private static final MemberCache<AbstractConstructor<?>, Constructor<?>> CONSTRUCTORS =
+	        new MemberCache<AbstractConstructor<?>, Constructor<?>>() {
+		        @Override
+		        protected Object key(final AbstractConstructor<?> constructorDefinition) {
+			        return "<init>";
+		        }
+
+		        @Override
+		        protected Class<?>[] parameterClasses(final AbstractConstructor<?> constructorDefinition) {
+			        return constructorDefinition.getParameterClasses();
+		        }
+
+		        @Override
+		        protected Constructor<?> resolve(final AbstractConstructor<?> constructorDefinition)
+		                throws SecurityException {
+			        try {
+				        final Constructor<?> constructor = constructorDefinition.getDeclaringClass()
+				                .getDeclaredConstructor(constructorDefinition.getParameterClasses());
+				        if (!constructor.isAccessible()) {
+					        constructor.setAccessible(true);
+				        }
+				        return constructor;
+			        } catch (final NoSuchMethodException e) {
+				        return null;
+			        }
+		        }
+	        };
+
+	/** generic invokers by constructor definition. */
+	private static final MemberCache<AbstractConstructor<?>, MethodHandle> INVOKERS =
+	        new MemberCache<AbstractConstructor<?>, MethodHandle>() {
+		        @Override
+		        protected Object key(final AbstractConstructor<?> constructorDefinition) {
+			        return "<init>";
+		        }
+
+		        @Override
+		        protected Class<?>[] parameterClasses(final AbstractConstructor<?> constructorDefinition) {
+			        return constructorDefinition.getParameterClasses();
+		        }
+
+		        @Override
+		        protected MethodHandle resolve(final AbstractConstructor<?> constructorDefinition)
+		                throws SecurityException {
+			        final Constructor<?> constructor = CONSTRUCTORS.get(constructorDefinition.getDeclaringClass(),
+			                constructorDefinition);
+			        if (constructor == null) {
+				        return null;
+			        }
+			        try {
+				        return InvokerHelper.toGenericInvoker(MethodHandles.lookup().unreflectConstructor(
+				                constructor));
+			        } catch (final IllegalAccessException e) {
+				        // constructor was made accessible before
+				        throw new IllegalStateException(e);
+			        }
+		        }
+	        };
+
 	/** Hide Utility Constructor. */
 	private ConstructorHelper() {
 	}
 
 	/**
-	 * Invokes a defined constructor on a class.
+	 * Get the cache of resolved constructors, eg. to monitor its hit and miss counts.
 	 *
-	 * @param constructorDefinition metamodel constructor definition
-	 * @return return value of method invocation, always {@code null} for void methods
-	 * @throws NoSuchMethodException
-	 * @throws SecurityException
-	 * @throws InstantiationException
-	 * @throws IllegalAccessException
-	 * @throws IllegalArgumentException
-	 * @throws InvocationTargetException
+	 * @return constructor cache
 	 */
-	protected static <BASE> BASE invoke(final AbstractConstructor<BASE> constructorDefinition,
-	        final Object... params) throws NoSuchMethodException, SecurityException, InstantiationException,
-	        IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		final Constructor<BASE> constructor = getAccessibleConstructor(constructorDefinition);
-		return constructor.newInstance(params);
+	public static MemberCache<AbstractConstructor<?>, Constructor<?>> getConstructorCache() {
+		return CONSTRUCTORS;
 	}
 
 	/**
-	 * Get constructor of class as defined by metamodel constructor definition.
+	 * Get a generic invoker for a constructor definition.
+	 * <p>
+	 * The invoker takes the constructor parameters as arguments and returns the new instance. All parameters and the
+	 * return value are of type Object, exceptions of the constructor are wrapped in an
+	 * {@link InvocationTargetException}.
 	 *
 	 * @param constructorDefinition metamodel constructor definition
-	 * @return Constructor
+	 * @return invoker, to be called by {@link MethodHandle#invokeExact(Object...)}
 	 * @throws NoSuchMethodException
-	 * @throws NoSuchFieldException
 	 * @throws SecurityException
+	 * @throws InstantiationException if the declaring class is abstract
+	 * @see InvokerHelper#toGenericInvoker(MethodHandle)
 	 */
-	private static <BASE> Constructor<BASE> getAccessibleConstructor(
-	        final AbstractConstructor<BASE> constructorDefinition) throws NoSuchMethodException, SecurityException {
-		final Constructor<BASE> constructor = constructorDefinition.getDeclaringClass().getDeclaredConstructor(
-		                constructorDefinition.getParameterClasses());
-		if (!constructor.isAccessible()) {
-			constructor.setAccessible(true);
+	public static MethodHandle getInvoker(final AbstractConstructor<?> constructorDefinition)
+	        throws NoSuchMethodException, SecurityException, InstantiationException {
+		final Class<?> declaringClass = constructorDefinition.getDeclaringClass();
+		if (Modifier.isAbstract(declaringClass.getModifiers())) {
+			throw new InstantiationException(declaringClass.getName());
 		}
-		return constructor;
+		final MethodHandle invoker = INVOKERS.get(declaringClass, constructorDefinition);
+		if (invoker == null) {
+			throw noSuchConstructor(constructorDefinition);
+		}
+		return invoker;
+	}
+
+	private static NoSuchMethodException noSuchConstructor(final AbstractConstructor<?> constructorDefinition) {
+		return new NoSuchMethodException(constructorDefinition.getDeclaringClass().getName() + ".<init>"
+		        + Arrays.toString(constructorDefinition.getParameterClasses()));
 	}
 
 }
@@ -0,0 +1,176 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.diff;
+
+import java.util.Arrays;
+import java.util.List;
+
+import metamodel.access.Metamodels;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.access.object.ObjectMethods;
+import metamodel.field.AbstractField;
+import metamodel.field.ArrayField;
+import metamodel.field.CollectionField;
+import metamodel.field.MapField;
+
+/**
+ * Compares two instances of the same type field by field and lists the differences as a {@link Patch}:
+ *
+ * <pre>
+ * private static final Differ&lt;POJO&gt; DIFFER = Differ.of(POJO.class, POJO_.class);
+ * 
+ * Patch&lt;POJO&gt; patch = DIFFER.diff(before, after);
+ * audit(patch.getChanges());
+ * patch.apply(replica);
+ * </pre>
+ *
+ * Fields are resolved when the differ is created. Primitive fields are compared without boxing, collections and maps
+ * by {@code equals} and arrays by their elements. Patches hold copies of changed arrays, collections and maps, see
+ * {@link FieldChange}. Differs are immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of compared objects
+ */
+public final class Differ<BASE> {
+
+	private final AbstractField<? super BASE, ?>[] fieldDefinitions;
+	private final FieldHandle[] handles;
+	/** whether a field holds arrays, collections or maps, whose values are copied into changes. */
+	private final boolean[] copied;
+	/** compares a single field each. */
+	private final ObjectMethods<BASE>[] comparators;
+
+	/**
+	 * Create a differ for all fields of a metamodel class, including the fields of its superclasses.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return differ
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type
+	 */
+	public static <BASE> Differ<BASE> of(final Class<BASE> type, final Class<?> metamodelClass)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		Metamodels.checkDescribes(type, metamodelClass);
+		final List<AbstractField<?, ?>> fields = Metamodels.getFields(metamodelClass);
+		return new Differ<>(fields.toArray(Differ.<BASE> newArray(fields.size())));
+	}
+
+	/**
+	 * Create a differ for a subset of fields.
+	 *
+	 * @param fieldDefinitions metamodel field definitions of the compared fields
+	 * @return differ
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	@SafeVarargs
+	public static <BASE> Differ<BASE> of(final AbstractField<? super BASE, ?>... fieldDefinitions)
+	        throws NoSuchFieldException, SecurityException {
+		final AbstractField<? super BASE, ?>[] copy = newArray(fieldDefinitions.length);
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = fieldDefinitions[i];
+		}
+		return new Differ<>(copy);
+	}
+
+	/**
+	 * Create a differ for a subset of fields.
+	 *
+	 * @param fieldDefinitions metamodel field definitions of the compared fields
+	 * @return differ
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> Differ<BASE> of(final List<? extends AbstractField<? super BASE, ?>> fieldDefinitions)
+	        throws NoSuchFieldException, SecurityException {
+		return new Differ<>(fieldDefinitions.toArray(Differ.<BASE> newArray(fieldDefinitions.size())));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> AbstractField<? super BASE, ?>[] newArray(final int length) {
+		return (AbstractField<? super BASE, ?>[]) new AbstractField<?, ?>[length];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> ObjectMethods<BASE>[] newComparators(final int length) {
+		return (ObjectMethods<BASE>[]) new ObjectMethods<?>[length];
+	}
+
+	private Differ(final AbstractField<? super BASE, ?>[] fieldDefinitions) throws NoSuchFieldException,
+	        SecurityException {
+		this.fieldDefinitions = fieldDefinitions;
+		handles = new FieldHandle[fieldDefinitions.length];
+		copied = new boolean[fieldDefinitions.length];
+		comparators = newComparators(fieldDefinitions.length);
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			handles[i] = FieldHelper.getHandle(fieldDefinitions[i]);
+			copied[i] = fieldDefinitions[i] instanceof ArrayField || fieldDefinitions[i] instanceof CollectionField
+			        || fieldDefinitions[i] instanceof MapField;
+			comparators[i] = ObjectMethods.<BASE> of(fieldDefinitions[i]);
+		}
+	}
+
+	/**
+	 * @return definitions of the compared fields
+	 */
+	public List<AbstractField<? super BASE, ?>> getFieldDefinitions() {
+		return Arrays.asList(fieldDefinitions.clone());
+	}
+
+	/**
+	 * Compare two objects.
+	 *
+	 * @param oldObject object before the change
+	 * @param newObject object after the change
+	 * @return changed fields, empty if both are the same instance
+	 * @throws IllegalArgumentException if an object is {@code null} or no instance of a declaring class
+	 */
+	public Patch<BASE> diff(final BASE oldObject, final BASE newObject) throws IllegalArgumentException {
+		if (oldObject == newObject) {
+			return Patch.empty();
+		}
+		if (oldObject == null || newObject == null) {
+			throw new IllegalArgumentException("cannot diff null");
+		}
+		FieldChange<BASE>[] changes = null;
+		int count = 0;
+		for (int i = 0; i < handles.length; i++) {
+			if (!comparators[i].equivalent(oldObject, newObject)) {
+				if (changes == null) {
+					changes = Patch.newChanges(handles.length - i);
+				}
+				final FieldHandle handle = handles[i];
+				changes[count++] = new FieldChange<BASE>(fieldDefinitions[i], handle, handle.get(oldObject),
+				        handle.get(newObject), copied[i]);
+			}
+		}
+		if (count == 0) {
+			return Patch.empty();
+		}
+		return new Patch<>(Arrays.copyOf(changes, count));
+	}
+}
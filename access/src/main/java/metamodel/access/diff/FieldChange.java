@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.diff;
+
+import java.util.Arrays;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.field.AbstractField;
+
+/**
+ * Change of a single field, part of a {@link Patch}.
+ * <p>
+ * Values of array, collection and map fields are copied when the change is created, so later modifications of the
+ * compared objects do not alter the change. They are copied again whenever they are handed out or written into a
+ * target, so the change never shares them, see {@link Snapshots} for the depth of the copies.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of patched objects
+ */
+public final class FieldChange<BASE> {
+
+	private final AbstractField<? super BASE, ?> fieldDefinition;
+	private final FieldHandle handle;
+	private final Object oldValue;
+	private final Object newValue;
+	/** whether values are arrays, collections or maps, that are copied. */
+	private final boolean copied;
+
+	FieldChange(final AbstractField<? super BASE, ?> fieldDefinition, final FieldHandle handle, final Object oldValue,
+	        final Object newValue, final boolean copied) {
+		this.fieldDefinition = fieldDefinition;
+		this.handle = handle;
+		this.copied = copied;
+		this.oldValue = copy(oldValue);
+		this.newValue = copy(newValue);
+	}
+
+	private Object copy(final Object value) {
+		return copied ? Snapshots.copy(value) : value;
+	}
+
+	/**
+	 * @return metamodel definition of the changed field
+	 */
+	public AbstractField<? super BASE, ?> getFieldDefinition() {
+		return fieldDefinition;
+	}
+
+	/**
+	 * @return value before the change, primitives are boxed, arrays, collections and maps are copies
+	 */
+	public Object getOldValue() {
+		return copy(oldValue);
+	}
+
+	/**
+	 * @return value after the change, primitives are boxed, arrays, collections and maps are copies
+	 */
+	public Object getNewValue() {
+		return copy(newValue);
+	}
+
+	void apply(final BASE target) {
+		handle.set(target, copy(newValue));
+	}
+
+	void revert(final BASE target) {
+		handle.set(target, copy(oldValue));
+	}
+
+	@Override
+	public String toString() {
+		return fieldDefinition.getName() + ": " + toString(oldValue) + " -> " + toString(newValue);
+	}
+
+	private static String toString(final Object value) {
+		if (value != null && value.getClass().isArray()) {
+			final String elements = Arrays.deepToString(new Object[] { value });
+			// strip the wrapping array
+			return elements.substring(1, elements.length() - 1);
+		}
+		return String.valueOf(value);
+	}
+}
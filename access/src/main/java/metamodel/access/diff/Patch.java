@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.diff;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable list of changed fields, created by {@link Differ#diff(Object, Object)}.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of patched objects
+ */
+public final class Patch<BASE> {
+
+	private static final Patch<?> EMPTY = new Patch<>(Patch.<Object> newChanges(0));
+
+	private final FieldChange<BASE>[] changes;
+
+	Patch(final FieldChange<BASE>[] changes) {
+		this.changes = changes;
+	}
+
+	/**
+	 * @return patch without changes
+	 */
+	@SuppressWarnings("unchecked")
+	public static <BASE> Patch<BASE> empty() {
+		return (Patch<BASE>) EMPTY;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <BASE> FieldChange<BASE>[] newChanges(final int size) {
+		return (FieldChange<BASE>[]) new FieldChange<?>[size];
+	}
+
+	/**
+	 * @return {@code true} if no field has changed
+	 */
+	public boolean isEmpty() {
+		return changes.length == 0;
+	}
+
+	/**
+	 * @return number of changed fields
+	 */
+	public int size() {
+		return changes.length;
+	}
+
+	/**
+	 * @return changed fields, in the order of the differ's field definitions
+	 */
+	public List<FieldChange<BASE>> getChanges() {
+		return Collections.unmodifiableList(Arrays.asList(changes));
+	}
+
+	/**
+	 * Write the new values of all changed fields into target.
+	 *
+	 * @param target object to patch
+	 * @return target
+	 * @throws IllegalArgumentException if target is {@code null} or no instance of a declaring class
+	 */
+	public BASE apply(final BASE target) throws IllegalArgumentException {
+		if (target == null && changes.length > 0) {
+			throw new IllegalArgumentException("cannot patch null");
+		}
+		for (final FieldChange<BASE> change : changes) {
+			change.apply(target);
+		}
+		return target;
+	}
+
+	/**
+	 * Write the old values of all changed fields into target, ie. undo the patch.
+	 *
+	 * @param target object to patch
+	 * @return target
+	 * @throws IllegalArgumentException if target is {@code null} or no instance of a declaring class
+	 */
+	public BASE revert(final BASE target) throws IllegalArgumentException {
+		if (target == null && changes.length > 0) {
+			throw new IllegalArgumentException("cannot patch null");
+		}
+		for (int i = changes.length - 1; i >= 0; i--) {
+			changes[i].revert(target);
+		}
+		return target;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(changes);
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.diff;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Copies the values of array, collection and map fields, so that a {@link FieldChange} does not share them with the
+ * compared objects or the patched targets.
+ * <p>
+ * Arrays are copied including nested arrays. Collections and maps are copied into a new instance of their class, if
+ * that class has a public constructor taking no arguments, or a sorted set or map to keep the comparator. Otherwise
+ * they are copied into an {@link ArrayList}, {@link LinkedHashSet}, {@link TreeSet}, {@link LinkedHashMap} or
+ * {@link TreeMap}. Elements, keys and values are not copied.
+ *
+ * @author Michael Kroll
+ */
+final class Snapshots {
+
+	/** marker for classes without a usable copy constructor. */
+	private static final Object NONE = new Object();
+
+	/** constructor to copy instances of a collection or map class, {@link #NONE} if there is none. */
+	private static final ClassValue<Object> COPY_CONSTRUCTORS = new ClassValue<Object>() {
+		@Override
+		protected Object computeValue(final Class<?> type) {
+			if (!Modifier.isPublic(type.getModifiers())) {
+				return NONE;
+			}
+			final Class<?> parameterType;
+			if (SortedSet.class.isAssignableFrom(type)) {
+				parameterType = SortedSet.class;
+			} else if (SortedMap.class.isAssignableFrom(type)) {
+				parameterType = SortedMap.class;
+			} else {
+				parameterType = null;
+			}
+			try {
+				return parameterType == null ? type.getConstructor() : type.getConstructor(parameterType);
+			} catch (final NoSuchMethodException e) {
+				return NONE;
+			}
+		}
+	};
+
+	/** Hide Utility Constructor. */
+	private Snapshots() {
+	}
+
+	/**
+	 * @param value value of an array, collection or map field, may be {@code null}
+	 * @return copy of value, value itself if it is no array, collection or map
+	 */
+	static Object copy(final Object value) {
+		if (value == null) {
+			return null;
+		} else if (value.getClass().isArray()) {
+			return copyArray(value);
+		} else if (value instanceof Collection || value instanceof Map) {
+			return copyContainer(value);
+		}
+		return value;
+	}
+
+	private static Object copyArray(final Object array) {
+		final Class<?> componentType = array.getClass().getComponentType();
+		final int length = Array.getLength(array);
+		final Object copy = Array.newInstance(componentType, length);
+		System.arraycopy(array, 0, copy, 0, length);
+		if (componentType.isArray() || componentType == Object.class) {
+			final Object[] elements = (Object[]) copy;
+			for (int i = 0; i < length; i++) {
+				if (elements[i] != null && elements[i].getClass().isArray()) {
+					elements[i] = copyArray(elements[i]);
+				}
+			}
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object copyContainer(final Object container) {
+		final Object constructor = COPY_CONSTRUCTORS.get(container.getClass());
+		if (constructor != NONE) {
+			final Constructor<?> copyConstructor = (Constructor<?>) constructor;
+			try {
+				if (copyConstructor.getParameterTypes().length == 1) {
+					return copyConstructor.newInstance(container);
+				}
+				final Object copy = copyConstructor.newInstance();
+				if (copy instanceof Map) {
+					((Map<Object, Object>) copy).putAll((Map<?, ?>) container);
+				} else {
+					((Collection<Object>) copy).addAll((Collection<?>) container);
+				}
+				return copy;
+			} catch (final InstantiationException | IllegalAccessException | InvocationTargetException e) {
+				// fall back to a standard container
+			}
+		}
+		if (container instanceof SortedMap) {
+			return new TreeMap<>((SortedMap<Object, ?>) container);
+		} else if (container instanceof Map) {
+			return new LinkedHashMap<>((Map<?, ?>) container);
+		} else if (container instanceof SortedSet) {
+			return new TreeSet<>((SortedSet<Object>) container);
+		} else if (container instanceof Set) {
+			return new LinkedHashSet<>((Set<?>) container);
+		}
+		return new ArrayList<>((Collection<?>) container);
+	}
+}
@@ -0,0 +1,451 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import metamodel.field.AbstractField;
+
+/**
+ * Reads or writes one field of many objects. The field is resolved once, primitive fields are accessed without
+ * boxing:
+ *
+ * <pre>
+ * BulkFieldAccessor&lt;POJO, Integer&gt; myint = FieldAccessor.bulk(POJO_.myint);
+ * int[] values = myint.extractInts(pojos);
+ * myint.fill(pojos, 0);
+ * </pre>
+ *
+ * Inputs larger than the parallel threshold are split and processed by a fork-join pool. Instances are immutable and
+ * may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the field
+ * @param <TYPE> type of the field
+ * @see FieldAccessor#bulk(AbstractField)
+ */
+public final class BulkFieldAccessor<BASE, TYPE> {
+
+	/** default number of objects processed by one task, larger inputs are processed in parallel. */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+	private final AbstractField<? super BASE, TYPE> fieldDefinition;
+	private final FieldHandle handle;
+	private final int parallelThreshold;
+
+	BulkFieldAccessor(final AbstractField<? super BASE, TYPE> fieldDefinition, final FieldHandle handle,
+	        final int parallelThreshold) {
+		this.fieldDefinition = fieldDefinition;
+		this.handle = handle;
+		this.parallelThreshold = Ranges.checkThreshold(parallelThreshold);
+	}
+
+	/**
+	 * @return metamodel field definition
+	 */
+	public AbstractField<? super BASE, TYPE> getFieldDefinition() {
+		return fieldDefinition;
+	}
+
+	/**
+	 * @return number of objects processed by one task
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Create a copy with another parallel threshold.
+	 *
+	 * @param threshold number of objects processed by one task, inputs up to this size are processed by the calling
+	 *            thread
+	 * @return new accessor
+	 */
+	public BulkFieldAccessor<BASE, TYPE> withParallelThreshold(final int threshold) {
+		return new BulkFieldAccessor<>(fieldDefinition, handle, threshold);
+	}
+
+	/**
+	 * Read the field of all targets.
+	 *
+	 * @param targets objects to read from
+	 * @return values, in the order of targets, primitives are boxed
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class
+	 */
+	public Object[] extract(final Iterable<? extends BASE> targets) throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		final Object[] column = new Object[list.size()];
+		Ranges.forEach(column.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					column[i] = handle.get(list.get(i));
+				}
+			}
+		});
+		return column;
+	}
+
+	/**
+	 * Read the field of all targets.
+	 *
+	 * @param targets objects to read from
+	 * @return values, in the order of targets, primitives are boxed
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class
+	 */
+	public Object[] extract(final BASE[] targets) throws IllegalArgumentException {
+		return extract(Arrays.asList(targets));
+	}
+
+	/**
+	 * Read an {@code int} field of all targets, without boxing. Widening conversions are applied as by
+	 * {@link FieldHandle#getInt(Object)}.
+	 *
+	 * @param targets objects to read from
+	 * @return values, in the order of targets
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or the field type does not
+	 *             match
+	 */
+	public int[] extractInts(final Iterable<? extends BASE> targets) throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		final int[] column = new int[list.size()];
+		Ranges.forEach(column.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					column[i] = handle.getInt(list.get(i));
+				}
+			}
+		});
+		return column;
+	}
+
+	/**
+	 * Read an {@code int} field of all targets, without boxing.
+	 *
+	 * @param targets objects to read from
+	 * @return values, in the order of targets
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or the field type does not
+	 *             match
+	 */
+	public int[] extractInts(final BASE[] targets) throws IllegalArgumentException {
+		return extractInts(Arrays.asList(targets));
+	}
+
+	/**
+	 * Read a {@code long} field of all targets, without boxing. Widening conversions are applied as by
+	 * {@link FieldHandle#getLong(Object)}.
+	 *
+	 * @param targets objects to read from
+	 * @return values, in the order of targets
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or the field type does not
+	 *             match
+	 */
+	public long[] extractLongs(final Iterable<? extends BASE> targets) throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		final long[] column = new long[list.size()];
+		Ranges.forEach(column.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					column[i] = handle.getLong(list.get(i));
+				}
+			}
+		});
+		return column;
+	}
+
+	/**
+	 * Read a {@code long} field of all targets, without boxing.
+	 *
+	 * @param targets objects to read from
+	 * @return values, in the order of targets
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or the field type does not
+	 *             match
+	 */
+	public long[] extractLongs(final BASE[] targets) throws IllegalArgumentException {
+		return extractLongs(Arrays.asList(targets));
+	}
+
+	/**
+	 * Read a {@code double} field of all targets, without boxing. Widening conversions are applied as by
+	 * {@link FieldHandle#getDouble(Object)}.
+	 *
+	 * @param targets objects to read from
+	 * @return values, in the order of targets
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or the field type does not
+	 *             match
+	 */
+	public double[] extractDoubles(final Iterable<? extends BASE> targets) throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		final double[] column = new double[list.size()];
+		Ranges.forEach(column.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					column[i] = handle.getDouble(list.get(i));
+				}
+			}
+		});
+		return column;
+	}
+
+	/**
+	 * Read a {@code double} field of all targets, without boxing.
+	 *
+	 * @param targets objects to read from
+	 * @return values, in the order of targets
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or the field type does not
+	 *             match
+	 */
+	public double[] extractDoubles(final BASE[] targets) throws IllegalArgumentException {
+		return extractDoubles(Arrays.asList(targets));
+	}
+
+	/**
+	 * Write a column of values into the field of all targets, primitives are unboxed.
+	 *
+	 * @param targets objects to write to
+	 * @param column values, in the order of targets
+	 * @throws IllegalArgumentException if the column size does not match, a target is no instance of the declaring
+	 *             class or the field type does not match
+	 */
+	public void assign(final Iterable<? extends BASE> targets, final Object[] column) throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		checkColumnSize(list.size(), column.length);
+		Ranges.forEach(column.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					handle.set(list.get(i), column[i]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Write a column of values into the field of all targets, primitives are unboxed.
+	 *
+	 * @param targets objects to write to
+	 * @param column values, in the order of targets
+	 * @throws IllegalArgumentException if the column size does not match, a target is no instance of the declaring
+	 *             class or the field type does not match
+	 */
+	public void assign(final BASE[] targets, final Object[] column) throws IllegalArgumentException {
+		assign(Arrays.asList(targets), column);
+	}
+
+	/**
+	 * Write a column of {@code int} values into the field of all targets, without boxing.
+	 *
+	 * @param targets objects to write to
+	 * @param column values, in the order of targets
+	 * @throws IllegalArgumentException if the column size does not match, a target is no instance of the declaring
+	 *             class or the field type does not match
+	 */
+	public void assignInts(final Iterable<? extends BASE> targets, final int[] column) throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		checkColumnSize(list.size(), column.length);
+		Ranges.forEach(column.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					handle.setInt(list.get(i), column[i]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Write a column of {@code int} values into the field of all targets, without boxing.
+	 *
+	 * @param targets objects to write to
+	 * @param column values, in the order of targets
+	 * @throws IllegalArgumentException if the column size does not match, a target is no instance of the declaring
+	 *             class or the field type does not match
+	 */
+	public void assignInts(final BASE[] targets, final int[] column) throws IllegalArgumentException {
+		assignInts(Arrays.asList(targets), column);
+	}
+
+	/**
+	 * Write a column of {@code long} values into the field of all targets, without boxing.
+	 *
+	 * @param targets objects to write to
+	 * @param column values, in the order of targets
+	 * @throws IllegalArgumentException if the column size does not match, a target is no instance of the declaring
+	 *             class or the field type does not match
+	 */
+	public void assignLongs(final Iterable<? extends BASE> targets, final long[] column)
+	        throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		checkColumnSize(list.size(), column.length);
+		Ranges.forEach(column.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					handle.setLong(list.get(i), column[i]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Write a column of {@code long} values into the field of all targets, without boxing.
+	 *
+	 * @param targets objects to write to
+	 * @param column values, in the order of targets
+	 * @throws IllegalArgumentException if the column size does not match, a target is no instance of the declaring
+	 *             class or the field type does not match
+	 */
+	public void assignLongs(final BASE[] targets, final long[] column) throws IllegalArgumentException {
+		assignLongs(Arrays.asList(targets), column);
+	}
+
+	/**
+	 * Write a column of {@code double} values into the field of all targets, without boxing.
+	 *
+	 * @param targets objects to write to
+	 * @param column values, in the order of targets
+	 * @throws IllegalArgumentException if the column size does not match, a target is no instance of the declaring
+	 *             class or the field type does not match
+	 */
+	public void assignDoubles(final Iterable<? extends BASE> targets, final double[] column)
+	        throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		checkColumnSize(list.size(), column.length);
+		Ranges.forEach(column.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					handle.setDouble(list.get(i), column[i]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Write a column of {@code double} values into the field of all targets, without boxing.
+	 *
+	 * @param targets objects to write to
+	 * @param column values, in the order of targets
+	 * @throws IllegalArgumentException if the column size does not match, a target is no instance of the declaring
+	 *             class or the field type does not match
+	 */
+	public void assignDoubles(final BASE[] targets, final double[] column) throws IllegalArgumentException {
+		assignDoubles(Arrays.asList(targets), column);
+	}
+
+	/**
+	 * Write the same value into the field of all targets.
+	 *
+	 * @param targets objects to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or value has the wrong type
+	 */
+	public void fill(final Iterable<? extends BASE> targets, final TYPE value) throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		Ranges.forEach(list.size(), parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					handle.set(list.get(i), value);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Write the same value into the field of all targets.
+	 *
+	 * @param targets objects to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or value has the wrong type
+	 */
+	public void fill(final BASE[] targets, final TYPE value) throws IllegalArgumentException {
+		fill(Arrays.asList(targets), value);
+	}
+
+	/**
+	 * Write a value per target into the field of all targets.
+	 *
+	 * @param targets objects to write to
+	 * @param values supplies the value for each index of targets, may be called concurrently
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or a value has the wrong type
+	 */
+	public void fill(final Iterable<? extends BASE> targets, final IndexedValues<? extends TYPE> values)
+	        throws IllegalArgumentException {
+		final List<? extends BASE> list = toList(targets);
+		Ranges.forEach(list.size(), parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				for (int i = from; i < to; i++) {
+					handle.set(list.get(i), values.get(i));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Write a value per target into the field of all targets.
+	 *
+	 * @param targets objects to write to
+	 * @param values supplies the value for each index of targets, may be called concurrently
+	 * @throws IllegalArgumentException if a target is no instance of the declaring class or a value has the wrong type
+	 */
+	public void fill(final BASE[] targets, final IndexedValues<? extends TYPE> values) throws IllegalArgumentException {
+		fill(Arrays.asList(targets), values);
+	}
+
+	private static void checkColumnSize(final int targetCount, final int columnSize) {
+		if (targetCount != columnSize) {
+			throw new IllegalArgumentException("column has " + columnSize + " values for " + targetCount + " targets");
+		}
+	}
+
+	/**
+	 * Get a list with fast indexed access, copying targets if necessary.
+	 *
+	 * @param targets objects
+	 * @return list of targets
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> List<? extends T> toList(final Iterable<? extends T> targets) {
+		if (targets instanceof List && targets instanceof RandomAccess) {
+			return (List<? extends T>) targets;
+		}
+		if (targets instanceof Collection) {
+			return new ArrayList<>((Collection<? extends T>) targets);
+		}
+		final List<T> list = new ArrayList<>();
+		for (final T target : targets) {
+			list.add(target);
+		}
+		return list;
+	}
+}
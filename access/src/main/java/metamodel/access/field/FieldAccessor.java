@@ -37,6 +37,34 @@ public class FieldAccessor<BASE, TYPE> {
 		this.fieldDefinition = fieldDefinition;
 	}
 
+	/**
+	 * Create a field accessor, that is not bound to an object instance. Use it instead of
+	 * {@code Accessor.on(object).field(fieldDefinition)} when accessing the same field of many objects.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return unbound accessor, that may be kept in a {@code static final} field
+	 * @throws NoSuchFieldException
+	 * @throws SecurityException
+	 */
+	public static <BASE, TYPE> UnboundFieldAccessor<BASE, TYPE> of(
+	        final AbstractField<? super BASE, TYPE> fieldDefinition) throws NoSuchFieldException, SecurityException {
+		return new UnboundFieldAccessor<>(fieldDefinition, FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Create a field accessor for reading or writing the field of many objects at once.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return bulk accessor with the default parallel threshold
+	 * @throws NoSuchFieldException
+	 * @throws SecurityException
+	 */
+	public static <BASE, TYPE> BulkFieldAccessor<BASE, TYPE> bulk(
+	        final AbstractField<? super BASE, TYPE> fieldDefinition) throws NoSuchFieldException, SecurityException {
+		return new BulkFieldAccessor<>(fieldDefinition, FieldHelper.getHandle(fieldDefinition),
+		        BulkFieldAccessor.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
 	public void set(final TYPE value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
 	        IllegalAccessException {
 		FieldHelper.set(object, fieldDefinition, value);
@@ -45,4 +73,84 @@ public class FieldAccessor<BASE, TYPE> {
 	public TYPE get() throws NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
 		return FieldHelper.get(object, fieldDefinition);
 	}
+
+	public boolean getBoolean() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		return FieldHelper.getHandle(fieldDefinition).getBoolean(object);
+	}
+
+	public void setBoolean(final boolean value) throws NoSuchFieldException, SecurityException,
+	        IllegalArgumentException, IllegalAccessException {
+		FieldHelper.getHandle(fieldDefinition).setBoolean(object, value);
+	}
+
+	public byte getByte() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		return FieldHelper.getHandle(fieldDefinition).getByte(object);
+	}
+
+	public void setByte(final byte value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		FieldHelper.getHandle(fieldDefinition).setByte(object, value);
+	}
+
+	public char getChar() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		return FieldHelper.getHandle(fieldDefinition).getChar(object);
+	}
+
+	public void setChar(final char value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		FieldHelper.getHandle(fieldDefinition).setChar(object, value);
+	}
+
+	public short getShort() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		return FieldHelper.getHandle(fieldDefinition).getShort(object);
+	}
+
+	public void setShort(final short value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		FieldHelper.getHandle(fieldDefinition).setShort(object, value);
+	}
+
+	public int getInt() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		return FieldHelper.getHandle(fieldDefinition).getInt(object);
+	}
+
+	public void setInt(final int value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		FieldHelper.getHandle(fieldDefinition).setInt(object, value);
+	}
+
+	public long getLong() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		return FieldHelper.getHandle(fieldDefinition).getLong(object);
+	}
+
+	public void setLong(final long value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		FieldHelper.getHandle(fieldDefinition).setLong(object, value);
+	}
+
+	public float getFloat() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		return FieldHelper.getHandle(fieldDefinition).getFloat(object);
+	}
+
+	public void setFloat(final float value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		FieldHelper.getHandle(fieldDefinition).setFloat(object, value);
+	}
+
+	public double getDouble() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		return FieldHelper.getHandle(fieldDefinition).getDouble(object);
+	}
+
+	public void setDouble(final double value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
+	        IllegalAccessException {
+		FieldHelper.getHandle(fieldDefinition).setDouble(object, value);
+	}
 }
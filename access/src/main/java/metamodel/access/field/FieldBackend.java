@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import java.lang.reflect.Field;
+import java.util.Locale;
+
+/**
+ * Available implementations for reading and writing fields.
+ * <p>
+ * The backend used by {@link FieldHelper} is selected once per JVM by the system property
+ * {@value #BACKEND_PROPERTY}, eg. {@code -Dmetamodel.access.field.backend=REFLECTION}. Without the property,
+ * {@link #METHOD_HANDLE} is used if the JVM supports it.
+ *
+ * @author Michael Kroll
+ */
+public enum FieldBackend {
+
+	/** uses {@link Field#get(Object)} and {@link Field#set(Object, Object)}. */
+	REFLECTION {
+		@Override
+		public boolean isAvailable() {
+			return true;
+		}
+
+		@Override
+		public FieldHandle createHandle(final Field field) {
+			return new ReflectionFieldHandle(field);
+		}
+	},
+
+	/**
+	 * uses getter and setter method handles, which skip the access checks and can be inlined by the JIT.
+	 */
+	METHOD_HANDLE {
+		@Override
+		public boolean isAvailable() {
+			try {
+				Class.forName("java.lang.invoke.MethodHandles");
+				return true;
+			} catch (final ClassNotFoundException | LinkageError e) {
+				return false;
+			}
+		}
+
+		@Override
+		public FieldHandle createHandle(final Field field) {
+			return new MethodHandleFieldHandle(field);
+		}
+	};
+
+	/** name of system property to select the backend. */
+	public static final String BACKEND_PROPERTY = "metamodel.access.field.backend";
+
+	/**
+	 * @return {@code true} if this backend can be used in the running JVM
+	 */
+	public abstract boolean isAvailable();
+
+	/**
+	 * Create a handle for a field.
+	 *
+	 * @param field accessible field
+	 * @return handle that reads and writes the field
+	 */
+	public abstract FieldHandle createHandle(Field field);
+
+	/**
+	 * Get the backend selected for this JVM.
+	 *
+	 * @return backend from system property {@value #BACKEND_PROPERTY}, or the fastest available backend
+	 * @throws IllegalArgumentException if the system property names an unknown or unavailable backend
+	 */
+	public static FieldBackend getDefault() throws IllegalArgumentException {
+		final String selected = System.getProperty(BACKEND_PROPERTY);
+		if (selected != null) {
+			final FieldBackend backend = valueOf(selected.trim().toUpperCase(Locale.ROOT));
+			if (!backend.isAvailable()) {
+				throw new IllegalArgumentException("field backend " + backend + " is not available in this JVM");
+			}
+			return backend;
+		}
+		return METHOD_HANDLE.isAvailable() ? METHOD_HANDLE : REFLECTION;
+	}
+}
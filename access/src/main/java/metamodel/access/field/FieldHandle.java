@@ -0,0 +1,345 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import java.lang.reflect.Field;
+
+/**
+ * A resolved and accessible field, that reads and writes values on arbitrary instances of its declaring class.
+ * <p>
+ * Instances are created by a {@link FieldBackend} and cached per field definition by {@link FieldHelper}, so they are
+ * immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ */
+public abstract class FieldHandle {
+
+	private final Field field;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param field accessible field
+	 */
+	protected FieldHandle(final Field field) {
+		this.field = field;
+	}
+
+	/**
+	 * @return the underlying field
+	 */
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * Read the value of the field.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field, primitives are boxed
+	 * @throws IllegalArgumentException if object is no instance of the declaring class
+	 */
+	public abstract Object get(Object object) throws IllegalArgumentException;
+
+	/**
+	 * Write the value of the field.
+	 *
+	 * @param object instance to write to
+	 * @param value new value, primitives are unboxed
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or value has the wrong type
+	 */
+	public abstract void set(Object object, Object value) throws IllegalArgumentException;
+
+	/**
+	 * Read the value of a {@code boolean} field without boxing. Widening conversions are applied as by
+	 * {@link Field#getBoolean(Object)}.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public boolean getBoolean(final Object object) throws IllegalArgumentException {
+		try {
+			return field.getBoolean(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write the value of a {@code boolean} field without boxing. Widening conversions are applied as by
+	 * {@link Field#setBoolean(Object, boolean)}.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public void setBoolean(final Object object, final boolean value) throws IllegalArgumentException {
+		try {
+			field.setBoolean(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Read the value of a {@code byte} field without boxing. Widening conversions are applied as by
+	 * {@link Field#getByte(Object)}.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public byte getByte(final Object object) throws IllegalArgumentException {
+		try {
+			return field.getByte(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write the value of a {@code byte} field without boxing. Widening conversions are applied as by
+	 * {@link Field#setByte(Object, byte)}.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public void setByte(final Object object, final byte value) throws IllegalArgumentException {
+		try {
+			field.setByte(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Read the value of a {@code char} field without boxing. Widening conversions are applied as by
+	 * {@link Field#getChar(Object)}.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public char getChar(final Object object) throws IllegalArgumentException {
+		try {
+			return field.getChar(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write the value of a {@code char} field without boxing. Widening conversions are applied as by
+	 * {@link Field#setChar(Object, char)}.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public void setChar(final Object object, final char value) throws IllegalArgumentException {
+		try {
+			field.setChar(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Read the value of a {@code short} field without boxing. Widening conversions are applied as by
+	 * {@link Field#getShort(Object)}.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public short getShort(final Object object) throws IllegalArgumentException {
+		try {
+			return field.getShort(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write the value of a {@code short} field without boxing. Widening conversions are applied as by
+	 * {@link Field#setShort(Object, short)}.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public void setShort(final Object object, final short value) throws IllegalArgumentException {
+		try {
+			field.setShort(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Read the value of an {@code int} field without boxing. Widening conversions are applied as by
+	 * {@link Field#getInt(Object)}.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public int getInt(final Object object) throws IllegalArgumentException {
+		try {
+			return field.getInt(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write the value of an {@code int} field without boxing. Widening conversions are applied as by
+	 * {@link Field#setInt(Object, int)}.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public void setInt(final Object object, final int value) throws IllegalArgumentException {
+		try {
+			field.setInt(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Read the value of a {@code long} field without boxing. Widening conversions are applied as by
+	 * {@link Field#getLong(Object)}.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public long getLong(final Object object) throws IllegalArgumentException {
+		try {
+			return field.getLong(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write the value of a {@code long} field without boxing. Widening conversions are applied as by
+	 * {@link Field#setLong(Object, long)}.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public void setLong(final Object object, final long value) throws IllegalArgumentException {
+		try {
+			field.setLong(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Read the value of a {@code float} field without boxing. Widening conversions are applied as by
+	 * {@link Field#getFloat(Object)}.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public float getFloat(final Object object) throws IllegalArgumentException {
+		try {
+			return field.getFloat(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write the value of a {@code float} field without boxing. Widening conversions are applied as by
+	 * {@link Field#setFloat(Object, float)}.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public void setFloat(final Object object, final float value) throws IllegalArgumentException {
+		try {
+			field.setFloat(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Read the value of a {@code double} field without boxing. Widening conversions are applied as by
+	 * {@link Field#getDouble(Object)}.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public double getDouble(final Object object) throws IllegalArgumentException {
+		try {
+			return field.getDouble(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Write the value of a {@code double} field without boxing. Widening conversions are applied as by
+	 * {@link Field#setDouble(Object, double)}.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 */
+	public void setDouble(final Object object, final double value) throws IllegalArgumentException {
+		try {
+			field.setDouble(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -25,15 +25,43 @@ package metamodel.access.field;
 
 import java.lang.reflect.Field;
 
+import metamodel.access.MemberCache;
 import metamodel.field.AbstractField;
 
 /**
  * Gets/Sets defined fields on objects. Used by FieldAccessor.
  *
  * @author Michael Kroll
+ * @see FieldBackend
  */
 public class FieldHelper {
 
+	/** backend for all field handles of this JVM. */
+	private static final FieldBackend BACKEND = FieldBackend.getDefault();
+
+	/** resolved fields by field definition. */
+	private static final MemberCache<AbstractField<?, ?>, FieldHandle> FIELDS =
+	        new MemberCache<AbstractField<?, ?>, FieldHandle>() {
+		        @Override
+		        protected Object key(final AbstractField<?, ?> fieldDefinition) {
+			        return fieldDefinition.getName();
+		        }
+
+		        @Override
+		        protected FieldHandle resolve(final AbstractField<?, ?> fieldDefinition) throws SecurityException {
+			        try {
+				        final Field field = fieldDefinition.getDeclaringClass().getDeclaredField(
+				                fieldDefinition.getName());
+				        if (!field.isAccessible()) {
+					        field.setAccessible(true);
+				        }
+				        return BACKEND.createHandle(field);
+			        } catch (final NoSuchFieldException e) {
+				        return null;
+			        }
+		        }
+	        };
+
 	/** Hide Utility Constructor. */
 	private FieldHelper() {
 	}
@@ -42,32 +70,45 @@ public class FieldHelper {
 	        final AbstractField<? super BASE, TYPE> fieldDefinition,
 	        final TYPE value) throws NoSuchFieldException, SecurityException, IllegalArgumentException,
 	        IllegalAccessException {
-		final Field field = getAccessibleField(fieldDefinition);
-		field.set(object, value);
+		getHandle(fieldDefinition).set(object, value);
 	}
 
 	@SuppressWarnings("unchecked")
 	protected static <BASE, TYPE> TYPE get(final BASE object, final AbstractField<? super BASE, TYPE> fieldDefinition)
 	        throws NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
-		final Field field = getAccessibleField(fieldDefinition);
-		return (TYPE) field.get(object);
+		return (TYPE) getHandle(fieldDefinition).get(object);
+	}
+
+	/**
+	 * Get the cache of resolved fields, eg. to monitor its hit and miss counts.
+	 *
+	 * @return field cache
+	 */
+	public static MemberCache<AbstractField<?, ?>, FieldHandle> getFieldCache() {
+		return FIELDS;
+	}
+
+	/**
+	 * @return backend that is used to access fields
+	 */
+	public static FieldBackend getBackend() {
+		return BACKEND;
 	}
 
 	/**
-	 * Get Field of Class as defined by metamodel field definition.
+	 * Get handle of field as defined by metamodel field definition.
 	 *
 	 * @param fieldDefinition metamodel field definition
-	 * @return Field
+	 * @return FieldHandle
 	 * @throws NoSuchFieldException
 	 * @throws SecurityException
 	 */
-	private static Field getAccessibleField(final AbstractField<?, ?> fieldDefinition)
+	public static FieldHandle getHandle(final AbstractField<?, ?> fieldDefinition)
 	        throws NoSuchFieldException, SecurityException {
-		final String fieldName = fieldDefinition.getName();
-		final Field field = fieldDefinition.getDeclaringClass().getDeclaredField(fieldName);
-		if (!field.isAccessible()) {
-			field.setAccessible(true);
+		final FieldHandle handle = FIELDS.get(fieldDefinition.getDeclaringClass(), fieldDefinition);
+		if (handle == null) {
+			throw new NoSuchFieldException(fieldDefinition.getName());
 		}
-		return field;
+		return handle;
 	}
 }
@@ -0,0 +1,333 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * FieldHandle that uses getter and setter method handles created from the accessible field.
+ * <p>
+ * Final fields can not be written through method handles on every JVM, for those the setter falls back to reflection.
+ *
+ * @author Michael Kroll
+ * @see FieldBackend#METHOD_HANDLE
+ */
+class MethodHandleFieldHandle extends FieldHandle {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final MethodHandle getter;
+	/** {@code null} if field has to be written by reflection. */
+	private final MethodHandle setter;
+	/** type of the field, if it is primitive, {@code null} otherwise. */
+	private final Class<?> primitiveType;
+	/** exactly typed getter for primitive fields, {@code null} otherwise. */
+	private final MethodHandle primitiveGetter;
+	/** exactly typed setter for primitive fields, {@code null} if not primitive or written by reflection. */
+	private final MethodHandle primitiveSetter;
+
+	MethodHandleFieldHandle(final Field field) {
+		super(field);
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		final MethodHandle unreflectedGetter;
+		try {
+			unreflectedGetter = lookup.unreflectGetter(field);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+		getter = unreflectedGetter.asType(GETTER_TYPE);
+		MethodHandle unreflectedSetter;
+		try {
+			unreflectedSetter = lookup.unreflectSetter(field);
+		} catch (final IllegalAccessException e) {
+			// final field
+			unreflectedSetter = null;
+		}
+		setter = unreflectedSetter == null ? null : unreflectedSetter.asType(SETTER_TYPE);
+
+		if (field.getType().isPrimitive()) {
+			primitiveType = field.getType();
+			primitiveGetter = unreflectedGetter.asType(MethodType.methodType(primitiveType, Object.class));
+			primitiveSetter = unreflectedSetter == null ? null : unreflectedSetter.asType(
+			        MethodType.methodType(void.class, Object.class, primitiveType));
+		} else {
+			primitiveType = null;
+			primitiveGetter = null;
+			primitiveSetter = null;
+		}
+	}
+
+	@Override
+	public Object get(final Object object) throws IllegalArgumentException {
+		try {
+			return getter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void set(final Object object, final Object value) throws IllegalArgumentException {
+		if (setter == null) {
+			try {
+				getField().set(object, value);
+			} catch (final IllegalAccessException e) {
+				// field was made accessible before
+				throw new IllegalStateException(e);
+			}
+			return;
+		}
+		try {
+			setter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public boolean getBoolean(final Object object) throws IllegalArgumentException {
+		if (primitiveType != boolean.class) {
+			return super.getBoolean(object);
+		}
+		try {
+			return (boolean) primitiveGetter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void setBoolean(final Object object, final boolean value) throws IllegalArgumentException {
+		if (primitiveType != boolean.class || primitiveSetter == null) {
+			super.setBoolean(object, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public byte getByte(final Object object) throws IllegalArgumentException {
+		if (primitiveType != byte.class) {
+			return super.getByte(object);
+		}
+		try {
+			return (byte) primitiveGetter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void setByte(final Object object, final byte value) throws IllegalArgumentException {
+		if (primitiveType != byte.class || primitiveSetter == null) {
+			super.setByte(object, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public char getChar(final Object object) throws IllegalArgumentException {
+		if (primitiveType != char.class) {
+			return super.getChar(object);
+		}
+		try {
+			return (char) primitiveGetter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void setChar(final Object object, final char value) throws IllegalArgumentException {
+		if (primitiveType != char.class || primitiveSetter == null) {
+			super.setChar(object, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public short getShort(final Object object) throws IllegalArgumentException {
+		if (primitiveType != short.class) {
+			return super.getShort(object);
+		}
+		try {
+			return (short) primitiveGetter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void setShort(final Object object, final short value) throws IllegalArgumentException {
+		if (primitiveType != short.class || primitiveSetter == null) {
+			super.setShort(object, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public int getInt(final Object object) throws IllegalArgumentException {
+		if (primitiveType != int.class) {
+			return super.getInt(object);
+		}
+		try {
+			return (int) primitiveGetter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void setInt(final Object object, final int value) throws IllegalArgumentException {
+		if (primitiveType != int.class || primitiveSetter == null) {
+			super.setInt(object, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public long getLong(final Object object) throws IllegalArgumentException {
+		if (primitiveType != long.class) {
+			return super.getLong(object);
+		}
+		try {
+			return (long) primitiveGetter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void setLong(final Object object, final long value) throws IllegalArgumentException {
+		if (primitiveType != long.class || primitiveSetter == null) {
+			super.setLong(object, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public float getFloat(final Object object) throws IllegalArgumentException {
+		if (primitiveType != float.class) {
+			return super.getFloat(object);
+		}
+		try {
+			return (float) primitiveGetter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void setFloat(final Object object, final float value) throws IllegalArgumentException {
+		if (primitiveType != float.class || primitiveSetter == null) {
+			super.setFloat(object, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public double getDouble(final Object object) throws IllegalArgumentException {
+		if (primitiveType != double.class) {
+			return super.getDouble(object);
+		}
+		try {
+			return (double) primitiveGetter.invokeExact(object);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	@Override
+	public void setDouble(final Object object, final double value) throws IllegalArgumentException {
+		if (primitiveType != double.class || primitiveSetter == null) {
+			super.setDouble(object, value);
+			return;
+		}
+		try {
+			primitiveSetter.invokeExact(object, value);
+		} catch (final Throwable e) {
+			throw translate(object, e);
+		}
+	}
+
+	/**
+	 * Translate exceptions of method handle invocations into the ones {@link Field} would throw.
+	 *
+	 * @param object accessed instance
+	 * @param e exception thrown by method handle
+	 * @return exception to throw
+	 */
+	private RuntimeException translate(final Object object, final Throwable e) {
+		if (object != null && (e instanceof ClassCastException || e instanceof NullPointerException)) {
+			return new IllegalArgumentException("cannot access field " + getField() + " on "
+			        + object.getClass().getName() + ": " + e.getMessage(), e);
+		}
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new IllegalStateException(e);
+	}
+}
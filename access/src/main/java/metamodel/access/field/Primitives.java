@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+/**
+ * Reads fields of primitive type as {@code long} bits without boxing, where two values are equal if their bits are
+ * equal. Integral values are widened, {@code boolean} becomes 0 or 1, floating point values are their raw bits, so
+ * they compare like {@link Double#equals(Object)} and all {@code NaN} values are equal. Used by the hash tables and
+ * sort keys of this library, eg. in joins, aggregations and indexes.
+ *
+ * @author Michael Kroll
+ */
+public final class Primitives {
+
+	/** Hide Utility Constructor. */
+	private Primitives() {
+	}
+
+	/**
+	 * @param handle handle of a primitive field
+	 * @param type type of the field
+	 * @param object object to read the field of
+	 * @return bits of the field value
+	 */
+	public static long bits(final FieldHandle handle, final Class<?> type, final Object object) {
+		if (type == int.class) {
+			return handle.getInt(object);
+		} else if (type == long.class) {
+			return handle.getLong(object);
+		} else if (type == double.class) {
+			return Double.doubleToLongBits(handle.getDouble(object));
+		} else if (type == boolean.class) {
+			return handle.getBoolean(object) ? 1 : 0;
+		} else if (type == float.class) {
+			return Float.floatToIntBits(handle.getFloat(object));
+		} else if (type == short.class) {
+			return handle.getShort(object);
+		} else if (type == char.class) {
+			return handle.getChar(object);
+		} else {
+			return handle.getByte(object);
+		}
+	}
+
+	/**
+	 * @param value boxed primitive value
+	 * @return bits of the value, equal to the bits of a field of the primitive type with this value
+	 * @throws IllegalArgumentException if value is no boxed primitive value
+	 */
+	public static long bits(final Object value) throws IllegalArgumentException {
+		if (value instanceof Integer) {
+			return (Integer) value;
+		} else if (value instanceof Long) {
+			return (Long) value;
+		} else if (value instanceof Double) {
+			return Double.doubleToLongBits((Double) value);
+		} else if (value instanceof Boolean) {
+			return (Boolean) value ? 1 : 0;
+		} else if (value instanceof Float) {
+			return Float.floatToIntBits((Float) value);
+		} else if (value instanceof Short) {
+			return (Short) value;
+		} else if (value instanceof Character) {
+			return (Character) value;
+		} else if (value instanceof Byte) {
+			return (Byte) value;
+		}
+		throw new IllegalArgumentException(value + " is no primitive value");
+	}
+
+	/**
+	 * @param type primitive type
+	 * @param bits bits of a value
+	 * @return boxed value of bits
+	 */
+	public static Object box(final Class<?> type, final long bits) {
+		if (type == int.class) {
+			return (int) bits;
+		} else if (type == long.class) {
+			return bits;
+		} else if (type == double.class) {
+			return Double.longBitsToDouble(bits);
+		} else if (type == boolean.class) {
+			return bits != 0;
+		} else if (type == float.class) {
+			return Float.intBitsToFloat((int) bits);
+		} else if (type == short.class) {
+			return (short) bits;
+		} else if (type == char.class) {
+			return (char) bits;
+		} else {
+			return (byte) bits;
+		}
+	}
+
+	/**
+	 * Mix bits into a hash, whose lower bits are well distributed, for hash tables with open addressing.
+	 *
+	 * @param bits bits or hash code of a key
+	 * @return hash
+	 */
+	public static int hash(final long bits) {
+		final long hash = bits * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ hash >>> 32);
+	}
+
+	/**
+	 * @param type primitive type
+	 * @return number of bytes of a value, 1 for {@code boolean}
+	 */
+	public static int width(final Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == int.class || type == float.class) {
+			return 4;
+		} else if (type == short.class || type == char.class) {
+			return 2;
+		} else {
+			return 1;
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs an operation over an index range, splitting large ranges into parts that are processed by a fork-join pool.
+ * Used by bulk operations of this library, eg. {@link BulkFieldAccessor}.
+ *
+ * @author Michael Kroll
+ */
+public final class Ranges {
+
+	/**
+	 * Operation on a part of the range. Parts do not overlap, so each index is processed by exactly one thread.
+	 */
+	public abstract static class Body {
+		/**
+		 * @param from first index, inclusive
+		 * @param to last index, exclusive
+		 */
+		public abstract void apply(int from, int to);
+	}
+
+	/** pool for bulk operations, created on first use. */
+	private static final class PoolHolder {
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+
+	/** Hide Utility Constructor. */
+	private Ranges() {
+	}
+
+	/**
+	 * @param threshold maximum number of indexes processed by one task
+	 * @return threshold
+	 * @throws IllegalArgumentException if threshold is not positive
+	 */
+	public static int checkThreshold(final int threshold) throws IllegalArgumentException {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("parallel threshold must be positive: " + threshold);
+		}
+		return threshold;
+	}
+
+	/**
+	 * Get a list with fast indexed access, copying collections larger than threshold, so they can be split.
+	 *
+	 * @param objects objects
+	 * @param threshold maximum number of indexes processed by one task
+	 * @return list of objects, {@code null} if objects should be iterated by the calling thread
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> List<? extends T> indexed(final Iterable<? extends T> objects, final int threshold) {
+		if (objects instanceof List && objects instanceof RandomAccess) {
+			return (List<? extends T>) objects;
+		}
+		if (objects instanceof Collection && ((Collection<?>) objects).size() > threshold) {
+			return new ArrayList<>((Collection<? extends T>) objects);
+		}
+		return null;
+	}
+
+	/**
+	 * Apply body to all indexes from 0 to size. Ranges larger than threshold are split and run in parallel.
+	 *
+	 * @param size size of the range
+	 * @param threshold maximum number of indexes processed by one task
+	 * @param body operation
+	 */
+	public static void forEach(final int size, final int threshold, final Body body) {
+		if (size <= threshold) {
+			body.apply(0, size);
+		} else {
+			PoolHolder.POOL.invoke(new RangeAction(body, 0, size, threshold));
+		}
+	}
+
+	private static final class RangeAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Body body;
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		RangeAction(final Body body, final int from, final int to, final int threshold) {
+			this.body = body;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				body.apply(from, to);
+			} else {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new RangeAction(body, from, middle, threshold), new RangeAction(body, middle, to, threshold));
+			}
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import java.lang.reflect.Field;
+
+/**
+ * FieldHandle that uses plain reflection.
+ *
+ * @author Michael Kroll
+ * @see FieldBackend#REFLECTION
+ */
+class ReflectionFieldHandle extends FieldHandle {
+
+	ReflectionFieldHandle(final Field field) {
+		super(field);
+	}
+
+	@Override
+	public Object get(final Object object) throws IllegalArgumentException {
+		try {
+			return getField().get(object);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void set(final Object object, final Object value) throws IllegalArgumentException {
+		try {
+			getField().set(object, value);
+		} catch (final IllegalAccessException e) {
+			// field was made accessible before
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import metamodel.field.AbstractField;
+
+/**
+ * Field accessor that is not bound to an object instance. It resolves the field once and can then be applied to any
+ * instance of the declaring class:
+ *
+ * <pre>
+ * private static final UnboundFieldAccessor&lt;TargetObject, Integer&gt; FIELD = FieldAccessor.of(TargetObject_.field);
+ * 
+ * for (TargetObject target : targets) {
+ * 	sum += FIELD.getInt(target);
+ * }
+ * </pre>
+ *
+ * Instances are immutable and may be shared between threads, reading and writing does not allocate wrapper objects.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the field
+ * @param <TYPE> type of the field
+ * @see FieldAccessor#of(AbstractField)
+ */
+public final class UnboundFieldAccessor<BASE, TYPE> {
+
+	private final AbstractField<? super BASE, TYPE> fieldDefinition;
+	private final FieldHandle handle;
+
+	UnboundFieldAccessor(final AbstractField<? super BASE, TYPE> fieldDefinition, final FieldHandle handle) {
+		this.fieldDefinition = fieldDefinition;
+		this.handle = handle;
+	}
+
+	/**
+	 * @return metamodel field definition
+	 */
+	public AbstractField<? super BASE, TYPE> getFieldDefinition() {
+		return fieldDefinition;
+	}
+
+	/**
+	 * Read the value of the field.
+	 *
+	 * @param object instance to read from
+	 * @return value of the field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class
+	 */
+	@SuppressWarnings("unchecked")
+	public TYPE get(final BASE object) throws IllegalArgumentException {
+		return (TYPE) handle.get(object);
+	}
+
+	/**
+	 * Write the value of the field.
+	 *
+	 * @param object instance to write to
+	 * @param value new value
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or value has the wrong type
+	 */
+	public void set(final BASE object, final TYPE value) throws IllegalArgumentException {
+		handle.set(object, value);
+	}
+
+	/**
+	 * @param object instance to read from
+	 * @return value of the {@code boolean} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#getBoolean(Object)
+	 */
+	public boolean getBoolean(final BASE object) throws IllegalArgumentException {
+		return handle.getBoolean(object);
+	}
+
+	/**
+	 * @param object instance to write to
+	 * @param value new value of the {@code boolean} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#setBoolean(Object, boolean)
+	 */
+	public void setBoolean(final BASE object, final boolean value) throws IllegalArgumentException {
+		handle.setBoolean(object, value);
+	}
+
+	/**
+	 * @param object instance to read from
+	 * @return value of the {@code byte} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#getByte(Object)
+	 */
+	public byte getByte(final BASE object) throws IllegalArgumentException {
+		return handle.getByte(object);
+	}
+
+	/**
+	 * @param object instance to write to
+	 * @param value new value of the {@code byte} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#setByte(Object, byte)
+	 */
+	public void setByte(final BASE object, final byte value) throws IllegalArgumentException {
+		handle.setByte(object, value);
+	}
+
+	/**
+	 * @param object instance to read from
+	 * @return value of the {@code char} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#getChar(Object)
+	 */
+	public char getChar(final BASE object) throws IllegalArgumentException {
+		return handle.getChar(object);
+	}
+
+	/**
+	 * @param object instance to write to
+	 * @param value new value of the {@code char} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#setChar(Object, char)
+	 */
+	public void setChar(final BASE object, final char value) throws IllegalArgumentException {
+		handle.setChar(object, value);
+	}
+
+	/**
+	 * @param object instance to read from
+	 * @return value of the {@code short} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#getShort(Object)
+	 */
+	public short getShort(final BASE object) throws IllegalArgumentException {
+		return handle.getShort(object);
+	}
+
+	/**
+	 * @param object instance to write to
+	 * @param value new value of the {@code short} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#setShort(Object, short)
+	 */
+	public void setShort(final BASE object, final short value) throws IllegalArgumentException {
+		handle.setShort(object, value);
+	}
+
+	/**
+	 * @param object instance to read from
+	 * @return value of the {@code int} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#getInt(Object)
+	 */
+	public int getInt(final BASE object) throws IllegalArgumentException {
+		return handle.getInt(object);
+	}
+
+	/**
+	 * @param object instance to write to
+	 * @param value new value of the {@code int} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#setInt(Object, int)
+	 */
+	public void setInt(final BASE object, final int value) throws IllegalArgumentException {
+		handle.setInt(object, value);
+	}
+
+	/**
+	 * @param object instance to read from
+	 * @return value of the {@code long} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#getLong(Object)
+	 */
+	public long getLong(final BASE object) throws IllegalArgumentException {
+		return handle.getLong(object);
+	}
+
+	/**
+	 * @param object instance to write to
+	 * @param value new value of the {@code long} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#setLong(Object, long)
+	 */
+	public void setLong(final BASE object, final long value) throws IllegalArgumentException {
+		handle.setLong(object, value);
+	}
+
+	/**
+	 * @param object instance to read from
+	 * @return value of the {@code float} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#getFloat(Object)
+	 */
+	public float getFloat(final BASE object) throws IllegalArgumentException {
+		return handle.getFloat(object);
+	}
+
+	/**
+	 * @param object instance to write to
+	 * @param value new value of the {@code float} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#setFloat(Object, float)
+	 */
+	public void setFloat(final BASE object, final float value) throws IllegalArgumentException {
+		handle.setFloat(object, value);
+	}
+
+	/**
+	 * @param object instance to read from
+	 * @return value of the {@code double} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#getDouble(Object)
+	 */
+	public double getDouble(final BASE object) throws IllegalArgumentException {
+		return handle.getDouble(object);
+	}
+
+	/**
+	 * @param object instance to write to
+	 * @param value new value of the {@code double} field
+	 * @throws IllegalArgumentException if object is no instance of the declaring class or the field type does not match
+	 * @see FieldHandle#setDouble(Object, double)
+	 */
+	public void setDouble(final BASE object, final double value) throws IllegalArgumentException {
+		handle.setDouble(object, value);
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.field.SingularField;
+
+/**
+ * Read-only index of a field with few distinct values, eg. an enum or {@code boolean} field. The index is built from a
+ * snapshot of rows and maps each distinct value to a {@link RowBitmap} of the positions of the rows with that value:
+ *
+ * <pre>
+ * BitmapIndex&lt;Order, Status&gt; status = BitmapIndex.of(Order_.status, orders);
+ * BitmapIndex&lt;Order, Boolean&gt; paid = BitmapIndex.of(Order_.paid, orders);
+ * 
+ * List&lt;Order&gt; open = status.in(Status.NEW, Status.SHIPPED).andNot(paid.get(true)).select(orders);
+ * </pre>
+ *
+ * Filters on several fields become operations on compressed bitmaps instead of scans over the objects. Values are
+ * compared by {@link Object#equals(Object)}, {@code null} is a value like any other. {@code boolean} fields are read
+ * without boxing, enum fields are grouped by ordinal. The index does not follow later changes of the rows, it has to
+ * be rebuilt. Indexes are immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of indexed objects
+ * @param <TYPE> type of the field
+ */
+public final class BitmapIndex<BASE, TYPE> {
+
+	private final SingularField<? super BASE, TYPE> fieldDefinition;
+	private final int size;
+	private final Map<TYPE, RowBitmap> bitmaps;
+
+	/**
+	 * Build an index.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @param rows objects to index, their position in iteration order is their row
+	 * @return index
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if a row is no instance of the declaring class
+	 */
+	@SuppressWarnings("unchecked")
+	public static <BASE, TYPE> BitmapIndex<BASE, TYPE> of(final SingularField<? super BASE, TYPE> fieldDefinition,
+	        final Iterable<? extends BASE> rows) throws NoSuchFieldException, SecurityException,
+	        IllegalArgumentException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		final Class<?> type = handle.getField().getType();
+		final Map<TYPE, RowBitmap.Builder> builders = new LinkedHashMap<>();
+		int row = 0;
+		if (type == boolean.class) {
+			final RowBitmap.Builder trueRows = new RowBitmap.Builder();
+			final RowBitmap.Builder falseRows = new RowBitmap.Builder();
+			for (final BASE object : rows) {
+				(handle.getBoolean(object) ? trueRows : falseRows).add(row++);
+			}
+			builders.put((TYPE) Boolean.FALSE, falseRows);
+			builders.put((TYPE) Boolean.TRUE, trueRows);
+		} else if (type.isEnum()) {
+			final Object[] constants = type.getEnumConstants();
+			final RowBitmap.Builder[] byOrdinal = new RowBitmap.Builder[constants.length];
+			final RowBitmap.Builder nullRows = new RowBitmap.Builder();
+			for (final BASE object : rows) {
+				final Enum<?> value = (Enum<?>) handle.get(object);
+				if (value == null) {
+					nullRows.add(row++);
+				} else {
+					RowBitmap.Builder builder = byOrdinal[value.ordinal()];
+					if (builder == null) {
+						builder = new RowBitmap.Builder();
+						byOrdinal[value.ordinal()] = builder;
+					}
+					builder.add(row++);
+				}
+			}
+			for (int i = 0; i < constants.length; i++) {
+				if (byOrdinal[i] != null) {
+					builders.put((TYPE) constants[i], byOrdinal[i]);
+				}
+			}
+			builders.put(null, nullRows);
+		} else {
+			for (final BASE object : rows) {
+				final TYPE value = (TYPE) handle.get(object);
+				RowBitmap.Builder builder = builders.get(value);
+				if (builder == null) {
+					builder = new RowBitmap.Builder();
+					builders.put(value, builder);
+				}
+				builder.add(row++);
+			}
+		}
+		final Map<TYPE, RowBitmap> bitmaps = new LinkedHashMap<>();
+		for (final Map.Entry<TYPE, RowBitmap.Builder> entry : builders.entrySet()) {
+			final RowBitmap bitmap = entry.getValue().build();
+			if (!bitmap.isEmpty()) {
+				bitmaps.put(entry.getKey(), bitmap);
+			}
+		}
+		return new BitmapIndex<>(fieldDefinition, row, bitmaps);
+	}
+
+	private BitmapIndex(final SingularField<? super BASE, TYPE> fieldDefinition, final int size,
+	        final Map<TYPE, RowBitmap> bitmaps) {
+		this.fieldDefinition = fieldDefinition;
+		this.size = size;
+		this.bitmaps = bitmaps;
+	}
+
+	/**
+	 * @return definition of the indexed field
+	 */
+	public SingularField<? super BASE, TYPE> getFieldDefinition() {
+		return fieldDefinition;
+	}
+
+	/**
+	 * @return number of indexed rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return distinct values of the field
+	 */
+	public Set<TYPE> getValues() {
+		return Collections.unmodifiableSet(bitmaps.keySet());
+	}
+
+	/**
+	 * @param value field value, may be {@code null}
+	 * @return rows with the value
+	 */
+	public RowBitmap get(final TYPE value) {
+		final RowBitmap bitmap = bitmaps.get(value);
+		return bitmap == null ? RowBitmap.empty() : bitmap;
+	}
+
+	/**
+	 * @param values field values, may contain {@code null}
+	 * @return rows with any of the values
+	 */
+	@SafeVarargs
+	public final RowBitmap in(final TYPE... values) {
+		RowBitmap result = RowBitmap.empty();
+		for (final TYPE value : values) {
+			result = result.or(get(value));
+		}
+		return result;
+	}
+
+	/**
+	 * @return all indexed rows, eg. to negate a bitmap by {@code all().andNot(bitmap)}
+	 */
+	public RowBitmap all() {
+		return RowBitmap.range(0, size);
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.field.AbstractField;
+
+/**
+ * Hash index on a reference field, keys are compared by {@link Object#equals(Object)}.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of indexed objects
+ */
+final class HashIndex<BASE> extends Index<BASE> {
+
+	private final Map<Object, Object> buckets = new HashMap<>();
+
+	HashIndex(final AbstractField<?, ?> fieldDefinition, final FieldHandle handle) {
+		super(fieldDefinition, handle);
+	}
+
+	@Override
+	void add(final BASE object) {
+		final Object key = handle.get(object);
+		keep(object, key);
+		buckets.put(key, add(buckets.get(key), object));
+	}
+
+	@Override
+	void remove(final BASE object) {
+		final Object key = release(object);
+		final Object bucket = remove(buckets.get(key), object);
+		if (bucket == null) {
+			buckets.remove(key);
+		} else {
+			buckets.put(key, bucket);
+		}
+	}
+
+	@Override
+	void clear() {
+		super.clear();
+		buckets.clear();
+	}
+
+	/**
+	 * @param key key, may be {@code null}
+	 * @return objects with the key
+	 */
+	List<BASE> find(final Object key) {
+		return toList(buckets.get(key));
+	}
+}
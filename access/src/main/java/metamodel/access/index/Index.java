@@ -0,0 +1,214 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.field.AbstractField;
+
+/**
+ * Index of an {@link IndexedCollection} on one field. Objects with the same key are kept in a bucket, that is the
+ * object itself while there is only one, and a list of objects otherwise. The key each object was added under is
+ * kept, so that an object is removed from its bucket even if the field was written since.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of indexed objects
+ */
+abstract class Index<BASE> {
+
+	/**
+	 * bucket of more than one object, a subclass to tell it apart from indexed lists. Large buckets map their objects
+	 * to their positions, so that an object is removed without scanning the bucket.
+	 */
+	private static final class Many extends ArrayList<Object> {
+		private static final long serialVersionUID = 1L;
+		/** size from which positions are mapped, smaller buckets are scanned faster than hashed. */
+		private static final int MAP_THRESHOLD = 8;
+
+		/** position of each object by identity, null while the bucket is small. */
+		private transient Map<Object, Integer> positions;
+
+		Many(final Object first, final Object second) {
+			super(4);
+			add(first);
+			add(second);
+		}
+
+		void append(final Object object) {
+			if (positions == null && size() == MAP_THRESHOLD) {
+				positions = new IdentityHashMap<>();
+				for (int i = 0; i < size(); i++) {
+					positions.put(get(i), i);
+				}
+			}
+			if (positions != null) {
+				positions.put(object, size());
+			}
+			add(object);
+		}
+
+		/**
+		 * Remove an object by identity and move the last object to its position.
+		 *
+		 * @param object object to remove
+		 */
+		void removeObject(final Object object) {
+			int position = -1;
+			if (positions != null) {
+				final Integer mapped = positions.remove(object);
+				if (mapped != null) {
+					position = mapped;
+				}
+			} else {
+				for (int i = 0; i < size(); i++) {
+					if (get(i) == object) {
+						position = i;
+						break;
+					}
+				}
+			}
+			if (position < 0) {
+				return;
+			}
+			final Object last = remove(size() - 1);
+			if (position < size()) {
+				set(position, last);
+				if (positions != null) {
+					positions.put(last, position);
+				}
+			}
+		}
+	}
+
+	final AbstractField<?, ?> fieldDefinition;
+	final FieldHandle handle;
+	/** key each object was added under, by identity. */
+	private final Map<Object, Object> keys = new IdentityHashMap<>();
+
+	Index(final AbstractField<?, ?> fieldDefinition, final FieldHandle handle) {
+		this.fieldDefinition = fieldDefinition;
+		this.handle = handle;
+	}
+
+	/**
+	 * Add an object under the current value of the field.
+	 *
+	 * @param object object to add
+	 */
+	abstract void add(BASE object);
+
+	/**
+	 * Remove an object from the bucket of the key it was added under.
+	 *
+	 * @param object object to remove
+	 */
+	abstract void remove(BASE object);
+
+	/**
+	 * Remove all objects.
+	 */
+	void clear() {
+		keys.clear();
+	}
+
+	/**
+	 * @param object added object
+	 * @param key key the object is added under
+	 */
+	final void keep(final Object object, final Object key) {
+		keys.put(object, key);
+	}
+
+	/**
+	 * @param object object that was added
+	 * @return key the object was added under, no longer kept
+	 */
+	final Object release(final Object object) {
+		return keys.remove(object);
+	}
+
+	/**
+	 * @param bucket bucket, {@code null} if empty
+	 * @param object object to add
+	 * @return bucket with the object
+	 */
+	static Object add(final Object bucket, final Object object) {
+		if (bucket == null) {
+			return object;
+		}
+		if (bucket instanceof Many) {
+			((Many) bucket).append(object);
+			return bucket;
+		}
+		return new Many(bucket, object);
+	}
+
+	/**
+	 * @param bucket bucket, {@code null} if empty
+	 * @param object object to remove, compared by identity
+	 * @return bucket without the object, {@code null} if empty
+	 */
+	static Object remove(final Object bucket, final Object object) {
+		if (bucket == object) {
+			return null;
+		}
+		if (bucket instanceof Many) {
+			final Many many = (Many) bucket;
+			many.removeObject(object);
+			return many.size() == 1 ? many.get(0) : many;
+		}
+		return bucket;
+	}
+
+	/**
+	 * @param bucket bucket, {@code null} if empty
+	 * @param result list to add the objects of the bucket to
+	 */
+	@SuppressWarnings("unchecked")
+	static <BASE> void addTo(final Object bucket, final List<BASE> result) {
+		if (bucket instanceof Many) {
+			result.addAll((List<BASE>) bucket);
+		} else if (bucket != null) {
+			result.add((BASE) bucket);
+		}
+	}
+
+	/**
+	 * @param bucket bucket, {@code null} if empty
+	 * @return unmodifiable list of the objects of the bucket
+	 */
+	static <BASE> List<BASE> toList(final Object bucket) {
+		if (bucket == null) {
+			return Collections.emptyList();
+		}
+		final List<BASE> result = new ArrayList<>();
+		addTo(bucket, result);
+		return Collections.unmodifiableList(result);
+	}
+}
@@ -0,0 +1,436 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.field.AbstractField;
+import metamodel.field.DoubleField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.SingularField;
+
+/**
+ * Collection of objects with secondary indexes on some of their fields:
+ *
+ * <pre>
+ * IndexedCollection&lt;POJO&gt; pojos = new IndexedCollection&lt;POJO&gt;().index(POJO_.myint)
+ *         .sortedIndex(POJO_.myInteger);
+ * pojos.addAll(legacyPojos);
+ * 
+ * List&lt;POJO&gt; fortyTwo = pojos.find(POJO_.myint, 42);
+ * List&lt;POJO&gt; small = pojos.range(POJO_.myInteger, null, 10);
+ * pojos.setInt(fortyTwo.get(0), POJO_.myint, 43);
+ * </pre>
+ *
+ * A hash index finds objects by field value in constant time. Indexes of primitive fields read the field without
+ * boxing and key a primitive hash map, floating point values are compared like {@link Double#equals(Object)}. A
+ * sorted index finds objects by field value and by ranges of values in logarithmic time. It uses the natural
+ * ordering of the field type and boxes primitive values.
+ * <p>
+ * Objects are contained at most once, compared by identity. Indexes are updated when objects are added or removed and
+ * when an indexed field is written by the {@code set} methods of this collection. An object whose indexed field is
+ * written in any other way is still found by its old value, until it is removed, or removed and added again.
+ * <p>
+ * Indexed collections are not thread-safe.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of contained objects
+ */
+public final class IndexedCollection<BASE> extends AbstractCollection<BASE> {
+
+	private final Set<BASE> objects = Collections.newSetFromMap(new IdentityHashMap<BASE, Boolean>());
+	private final List<Index<BASE>> indexes = new ArrayList<>();
+
+	/**
+	 * Create an empty collection without indexes.
+	 */
+	public IndexedCollection() {
+	}
+
+	/**
+	 * Create a collection without indexes.
+	 *
+	 * @param objects initial objects
+	 * @throws IllegalArgumentException if objects contain {@code null}
+	 */
+	public IndexedCollection(final Collection<? extends BASE> objects) throws IllegalArgumentException {
+		addAll(objects);
+	}
+
+	/**
+	 * Add a hash index on a field, that contains all current and future objects.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return this collection
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if the field already has a hash index
+	 */
+	public IndexedCollection<BASE> index(final SingularField<? super BASE, ?> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		if (findIndex(fieldDefinition, false) != null) {
+			throw new IllegalArgumentException("field " + fieldDefinition.getName() + " already has a hash index");
+		}
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		return addIndex(handle.getField().getType().isPrimitive() ? new PrimitiveHashIndex<BASE>(fieldDefinition,
+		        handle) : new HashIndex<BASE>(fieldDefinition, handle));
+	}
+
+	/**
+	 * Add a sorted index on a field, that contains all current and future objects.
+	 *
+	 * @param fieldDefinition metamodel field definition of a primitive or {@link Comparable} field
+	 * @return this collection
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if the field already has a sorted index or has no natural ordering
+	 */
+	public IndexedCollection<BASE> sortedIndex(final SingularField<? super BASE, ?> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		if (findIndex(fieldDefinition, true) != null) {
+			throw new IllegalArgumentException("field " + fieldDefinition.getName() + " already has a sorted index");
+		}
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		final Class<?> type = handle.getField().getType();
+		if (!type.isPrimitive() && !Comparable.class.isAssignableFrom(type)) {
+			throw new IllegalArgumentException("field " + fieldDefinition.getName() + " has no natural ordering");
+		}
+		return addIndex(new SortedIndex<BASE>(fieldDefinition, handle));
+	}
+
+	private IndexedCollection<BASE> addIndex(final Index<BASE> index) {
+		for (final BASE object : objects) {
+			index.add(object);
+		}
+		indexes.add(index);
+		return this;
+	}
+
+	private Index<BASE> findIndex(final AbstractField<?, ?> fieldDefinition, final boolean sorted) {
+		for (final Index<BASE> index : indexes) {
+			if (index.fieldDefinition == fieldDefinition && index instanceof SortedIndex == sorted) {
+				return index;
+			}
+		}
+		return null;
+	}
+
+	private Index<BASE> findIndex(final AbstractField<?, ?> fieldDefinition) throws IllegalArgumentException {
+		Index<BASE> index = findIndex(fieldDefinition, false);
+		if (index == null) {
+			index = findIndex(fieldDefinition, true);
+		}
+		if (index == null) {
+			throw new IllegalArgumentException("field " + fieldDefinition.getName() + " is not indexed");
+		}
+		return index;
+	}
+
+	/**
+	 * Find all objects with a field value, by the hash index of the field, or its sorted index if there is none.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @param value field value, may be {@code null}
+	 * @return unmodifiable list of matching objects, in no particular order
+	 * @throws IllegalArgumentException if the field is not indexed
+	 */
+	public <TYPE> List<BASE> find(final SingularField<? super BASE, TYPE> fieldDefinition, final TYPE value)
+	        throws IllegalArgumentException {
+		final Index<BASE> index = findIndex(fieldDefinition);
+		if (index instanceof PrimitiveHashIndex) {
+			if (value == null) {
+				return Collections.emptyList();
+			}
+			final PrimitiveHashIndex<BASE> primitiveIndex = (PrimitiveHashIndex<BASE>) index;
+			return primitiveIndex.find(primitiveIndex.keyOfValue(value));
+		} else if (index instanceof HashIndex) {
+			return ((HashIndex<BASE>) index).find(value);
+		} else {
+			return ((SortedIndex<BASE>) index).find(value);
+		}
+	}
+
+	/**
+	 * Find all objects with an {@code int} field value.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @param value field value
+	 * @return unmodifiable list of matching objects, in no particular order
+	 * @throws IllegalArgumentException if the field is not indexed
+	 */
+	public List<BASE> find(final IntField<? super BASE> fieldDefinition, final int value)
+	        throws IllegalArgumentException {
+		return findKey(fieldDefinition, value);
+	}
+
+	/**
+	 * Find all objects with a {@code long} field value.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @param value field value
+	 * @return unmodifiable list of matching objects, in no particular order
+	 * @throws IllegalArgumentException if the field is not indexed
+	 */
+	public List<BASE> find(final LongField<? super BASE> fieldDefinition, final long value)
+	        throws IllegalArgumentException {
+		return findKey(fieldDefinition, value);
+	}
+
+	/**
+	 * Find all objects with a {@code double} field value, compared like {@link Double#equals(Object)}.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @param value field value
+	 * @return unmodifiable list of matching objects, in no particular order
+	 * @throws IllegalArgumentException if the field is not indexed
+	 */
+	public List<BASE> find(final DoubleField<? super BASE> fieldDefinition, final double value)
+	        throws IllegalArgumentException {
+		final Index<BASE> index = findIndex(fieldDefinition);
+		if (index instanceof PrimitiveHashIndex) {
+			return ((PrimitiveHashIndex<BASE>) index).find(Double.doubleToLongBits(value));
+		}
+		return ((SortedIndex<BASE>) index).find(value);
+	}
+
+	private List<BASE> findKey(final AbstractField<?, ?> fieldDefinition, final long value)
+	        throws IllegalArgumentException {
+		final Index<BASE> index = findIndex(fieldDefinition);
+		if (index instanceof PrimitiveHashIndex) {
+			return ((PrimitiveHashIndex<BASE>) index).find(value);
+		}
+		final Class<?> type = index.handle.getField().getType();
+		return ((SortedIndex<BASE>) index).find(type == int.class ? Integer.valueOf((int) value) : Long
+		        .valueOf(value));
+	}
+
+	/**
+	 * Find all objects with a field value in a range, by the sorted index of the field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @param from lowest value, inclusive, {@code null} if unbounded
+	 * @param to highest value, inclusive, {@code null} if unbounded
+	 * @return unmodifiable list of matching objects, ordered by field value, without objects whose value is
+	 *         {@code null}
+	 * @throws IllegalArgumentException if the field has no sorted index
+	 */
+	public <TYPE> List<BASE> range(final SingularField<? super BASE, TYPE> fieldDefinition, final TYPE from,
+	        final TYPE to) throws IllegalArgumentException {
+		final Index<BASE> index = findIndex(fieldDefinition, true);
+		if (index == null) {
+			throw new IllegalArgumentException("field " + fieldDefinition.getName() + " has no sorted index");
+		}
+		return ((SortedIndex<BASE>) index).range(from, to);
+	}
+
+	/**
+	 * Write a field of a contained object and update the indexes of the field.
+	 *
+	 * @param object contained object
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value, primitives are unboxed
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if object is not contained or value has the wrong type
+	 */
+	public <TYPE> void set(final BASE object, final AbstractField<? super BASE, TYPE> fieldDefinition,
+	        final TYPE value) throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		beforeWrite(object, fieldDefinition);
+		try {
+			handle.set(object, value);
+		} finally {
+			afterWrite(object, fieldDefinition);
+		}
+	}
+
+	/**
+	 * Write an {@code int} field of a contained object without boxing and update the indexes of the field.
+	 *
+	 * @param object contained object
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if object is not contained
+	 */
+	public void setInt(final BASE object, final IntField<? super BASE> fieldDefinition, final int value)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		beforeWrite(object, fieldDefinition);
+		try {
+			handle.setInt(object, value);
+		} finally {
+			afterWrite(object, fieldDefinition);
+		}
+	}
+
+	/**
+	 * Write a {@code long} field of a contained object without boxing and update the indexes of the field.
+	 *
+	 * @param object contained object
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if object is not contained
+	 */
+	public void setLong(final BASE object, final LongField<? super BASE> fieldDefinition, final long value)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		beforeWrite(object, fieldDefinition);
+		try {
+			handle.setLong(object, value);
+		} finally {
+			afterWrite(object, fieldDefinition);
+		}
+	}
+
+	/**
+	 * Write a {@code double} field of a contained object without boxing and update the indexes of the field.
+	 *
+	 * @param object contained object
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if object is not contained
+	 */
+	public void setDouble(final BASE object, final DoubleField<? super BASE> fieldDefinition, final double value)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+		beforeWrite(object, fieldDefinition);
+		try {
+			handle.setDouble(object, value);
+		} finally {
+			afterWrite(object, fieldDefinition);
+		}
+	}
+
+	private void beforeWrite(final BASE object, final AbstractField<?, ?> fieldDefinition)
+	        throws IllegalArgumentException {
+		if (!objects.contains(object)) {
+			throw new IllegalArgumentException("object is not contained: " + object);
+		}
+		for (final Index<BASE> index : indexes) {
+			if (index.fieldDefinition == fieldDefinition) {
+				index.remove(object);
+			}
+		}
+	}
+
+	private void afterWrite(final BASE object, final AbstractField<?, ?> fieldDefinition) {
+		for (final Index<BASE> index : indexes) {
+			if (index.fieldDefinition == fieldDefinition) {
+				index.add(object);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException if object is {@code null}
+	 */
+	@Override
+	public boolean add(final BASE object) throws IllegalArgumentException {
+		if (object == null) {
+			throw new IllegalArgumentException("null cannot be indexed");
+		}
+		if (!objects.add(object)) {
+			return false;
+		}
+		for (final Index<BASE> index : indexes) {
+			index.add(object);
+		}
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(final Object object) {
+		if (!objects.remove(object)) {
+			return false;
+		}
+		for (final Index<BASE> index : indexes) {
+			index.remove((BASE) object);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean contains(final Object object) {
+		return objects.contains(object);
+	}
+
+	@Override
+	public void clear() {
+		objects.clear();
+		for (final Index<BASE> index : indexes) {
+			index.clear();
+		}
+	}
+
+	@Override
+	public int size() {
+		return objects.size();
+	}
+
+	@Override
+	public Iterator<BASE> iterator() {
+		final Iterator<BASE> iterator = objects.iterator();
+		return new Iterator<BASE>() {
+			private BASE current;
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public BASE next() {
+				current = iterator.next();
+				return current;
+			}
+
+			@Override
+			public void remove() {
+				iterator.remove();
+				for (final Index<BASE> index : indexes) {
+					index.remove(current);
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import java.util.Arrays;
+
+import metamodel.access.field.Primitives;
+
+/**
+ * Hash map with {@code long} keys, that stores keys and values in two arrays with open addressing and linear probing,
+ * so keys are never boxed. Removed entries are closed by shifting the following entries back, so no tombstones are
+ * left. Values must not be {@code null}. Used by the indexes of primitive fields.
+ *
+ * @author Michael Kroll
+ * @param <V> type of values
+ */
+final class LongKeyMap<V> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private long[] keys = new long[INITIAL_CAPACITY];
+	/** value of each slot, {@code null} for free slots. */
+	private Object[] values = new Object[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * @return number of entries
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param key key
+	 * @return value of key, {@code null} if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	V get(final long key) {
+		final int mask = values.length - 1;
+		for (int slot = Primitives.hash(key) & mask; values[slot] != null; slot = slot + 1 & mask) {
+			if (keys[slot] == key) {
+				return (V) values[slot];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param key key
+	 * @param value new value, not {@code null}
+	 */
+	void put(final long key, final V value) {
+		final int mask = values.length - 1;
+		int slot = Primitives.hash(key) & mask;
+		for (; values[slot] != null; slot = slot + 1 & mask) {
+			if (keys[slot] == key) {
+				values[slot] = value;
+				return;
+			}
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > values.length >> 1) {
+			resize(values.length << 1);
+		}
+	}
+
+	/**
+	 * @param key key
+	 */
+	void remove(final long key) {
+		final int mask = values.length - 1;
+		int slot = Primitives.hash(key) & mask;
+		for (; values[slot] != null; slot = slot + 1 & mask) {
+			if (keys[slot] == key) {
+				break;
+			}
+		}
+		if (values[slot] == null) {
+			return;
+		}
+		size--;
+		// shift back following entries of the probe sequence, that would not be found behind the free slot
+		int free = slot;
+		for (int next = free + 1 & mask; values[next] != null; next = next + 1 & mask) {
+			final int home = Primitives.hash(keys[next]) & mask;
+			if ((next - home & mask) >= (next - free & mask)) {
+				keys[free] = keys[next];
+				values[free] = values[next];
+				free = next;
+			}
+		}
+		values[free] = null;
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	private void resize(final int capacity) {
+		final long[] oldKeys = keys;
+		final Object[] oldValues = values;
+		keys = new long[capacity];
+		values = new Object[capacity];
+		final int mask = capacity - 1;
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = Primitives.hash(oldKeys[i]) & mask;
+				while (values[slot] != null) {
+					slot = slot + 1 & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import java.util.List;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.Primitives;
+import metamodel.field.AbstractField;
+
+/**
+ * Hash index on a primitive field. Values are read without boxing, their {@link Primitives#bits(FieldHandle, Class,
+ * Object) bits} are the {@code long} keys of a {@link LongKeyMap}, so floating point values compare like
+ * {@link Double#equals(Object)}.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of indexed objects
+ */
+final class PrimitiveHashIndex<BASE> extends Index<BASE> {
+
+	private final Class<?> type;
+	private final LongKeyMap<Object> buckets = new LongKeyMap<>();
+
+	PrimitiveHashIndex(final AbstractField<?, ?> fieldDefinition, final FieldHandle handle) {
+		super(fieldDefinition, handle);
+		type = handle.getField().getType();
+	}
+
+	/**
+	 * @param value boxed value of the field type
+	 * @return key of value
+	 * @throws IllegalArgumentException if value is no boxed primitive value
+	 */
+	long keyOfValue(final Object value) throws IllegalArgumentException {
+		return Primitives.bits(value);
+	}
+
+	@Override
+	void add(final BASE object) {
+		final long key = Primitives.bits(handle, type, object);
+		keep(object, key);
+		buckets.put(key, add(buckets.get(key), object));
+	}
+
+	@Override
+	void remove(final BASE object) {
+		final long key = (Long) release(object);
+		final Object bucket = remove(buckets.get(key), object);
+		if (bucket == null) {
+			buckets.remove(key);
+		} else {
+			buckets.put(key, bucket);
+		}
+	}
+
+	@Override
+	void clear() {
+		super.clear();
+		buckets.clear();
+	}
+
+	/**
+	 * @param key key, as computed by this class
+	 * @return objects with the key
+	 */
+	List<BASE> find(final long key) {
+		return toList(buckets.get(key));
+	}
+}
@@ -0,0 +1,565 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable compressed set of row positions, as used by {@link BitmapIndex}.
+ * <p>
+ * Rows are partitioned into chunks of 65536 by their upper 16 bits, like in roaring bitmaps. Sparse chunks store the
+ * lower 16 bits of their rows as a sorted {@code char[]}, chunks with more than 4096 rows as a bitmap of 1024
+ * {@code long} words. Empty chunks are not stored. Set operations work chunk by chunk and pick the cheapest
+ * algorithm for each pair of containers, so combining bitmaps of millions of rows takes microseconds.
+ *
+ * <pre>
+ * RowBitmap open = statusIndex.in(Status.NEW, Status.PAID).andNot(flagIndex.get(true));
+ * for (int row = open.nextRow(0); row &gt;= 0; row = open.nextRow(row + 1)) {
+ * 	process(orders.get(row));
+ * }
+ * </pre>
+ *
+ * @author Michael Kroll
+ */
+public final class RowBitmap {
+
+	/** maximum number of rows of a chunk stored as array. */
+	private static final int ARRAY_MAX = 4096;
+	/** number of {@code long} words of a chunk stored as bitmap. */
+	private static final int WORDS = 1024;
+
+	private static final RowBitmap EMPTY = new RowBitmap(new char[0], new Container[0], 0);
+
+	/** upper 16 bits of the rows of each chunk, ascending. */
+	private final char[] keys;
+	private final Container[] containers;
+	private final int size;
+	private final int cardinality;
+
+	private RowBitmap(final char[] keys, final Container[] containers, final int size) {
+		this.keys = keys;
+		this.containers = containers;
+		this.size = size;
+		int sum = 0;
+		for (int i = 0; i < size; i++) {
+			sum += containers[i].cardinality;
+		}
+		cardinality = sum;
+	}
+
+	/**
+	 * @return bitmap without rows
+	 */
+	public static RowBitmap empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * @param rows row positions, in any order, may contain duplicates
+	 * @return bitmap of the rows
+	 * @throws IllegalArgumentException if a row is negative
+	 */
+	public static RowBitmap of(final int... rows) throws IllegalArgumentException {
+		final int[] sorted = rows.clone();
+		Arrays.sort(sorted);
+		final Builder builder = new Builder();
+		for (int i = 0; i < sorted.length; i++) {
+			if (i == 0 || sorted[i] != sorted[i - 1]) {
+				builder.add(sorted[i]);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @param from first row, inclusive
+	 * @param to last row, exclusive
+	 * @return bitmap of all rows from {@code from} to {@code to}
+	 * @throws IllegalArgumentException if from is negative
+	 */
+	public static RowBitmap range(final int from, final int to) throws IllegalArgumentException {
+		if (from < 0) {
+			throw new IllegalArgumentException("negative row: " + from);
+		}
+		if (from >= to) {
+			return EMPTY;
+		}
+		final int firstKey = from >>> 16;
+		final int lastKey = to - 1 >>> 16;
+		final char[] keys = new char[lastKey - firstKey + 1];
+		final Container[] containers = new Container[keys.length];
+		for (int key = firstKey; key <= lastKey; key++) {
+			final int low = key == firstKey ? from & 0xFFFF : 0;
+			final int high = key == lastKey ? (to - 1 & 0xFFFF) + 1 : 0x10000;
+			final long[] bits = new long[WORDS];
+			for (int i = low; i < high; i++) {
+				bits[i >>> 6] |= 1L << i;
+			}
+			keys[key - firstKey] = (char) key;
+			containers[key - firstKey] = Container.fromBits(bits);
+		}
+		return new RowBitmap(keys, containers, keys.length);
+	}
+
+	/**
+	 * @return number of rows
+	 */
+	public int cardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * @return {@code true} if there are no rows
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param row row position
+	 * @return {@code true} if the row is contained
+	 */
+	public boolean contains(final int row) {
+		if (row < 0) {
+			return false;
+		}
+		final int index = Arrays.binarySearch(keys, 0, size, (char) (row >>> 16));
+		return index >= 0 && containers[index].contains((char) row);
+	}
+
+	/**
+	 * Find the next row, for iterating without boxing. A negative from starts at row 0, so an iteration must stop at
+	 * row {@link Integer#MAX_VALUE} instead of asking for the row after it.
+	 *
+	 * @param from row position to start at, inclusive
+	 * @return first contained row at or after from, {@code -1} if there is none
+	 */
+	public int nextRow(final int from) {
+		final int start = Math.max(from, 0);
+		int index = Arrays.binarySearch(keys, 0, size, (char) (start >>> 16));
+		if (index >= 0) {
+			final int low = containers[index].next(start & 0xFFFF);
+			if (low >= 0) {
+				return keys[index] << 16 | low;
+			}
+			index++;
+		} else {
+			index = -index - 1;
+		}
+		return index < size ? keys[index] << 16 | containers[index].next(0) : -1;
+	}
+
+	/**
+	 * @param row contained row
+	 * @return next contained row after row, {@code -1} if there is none
+	 */
+	private int after(final int row) {
+		return row == Integer.MAX_VALUE ? -1 : nextRow(row + 1);
+	}
+
+	/**
+	 * @return all rows, ascending
+	 */
+	public int[] toArray() {
+		final int[] rows = new int[cardinality];
+		int count = 0;
+		for (int row = nextRow(0); row >= 0; row = after(row)) {
+			rows[count++] = row;
+		}
+		return rows;
+	}
+
+	/**
+	 * Pick the contained rows from a list.
+	 *
+	 * @param rows list, whose positions are the rows of this bitmap
+	 * @return elements at the contained positions, in ascending order
+	 * @throws IndexOutOfBoundsException if a contained row is not a position of rows
+	 */
+	public <T> List<T> select(final List<? extends T> rows) throws IndexOutOfBoundsException {
+		final List<T> result = new ArrayList<>(cardinality);
+		for (int row = nextRow(0); row >= 0; row = after(row)) {
+			result.add(rows.get(row));
+		}
+		return result;
+	}
+
+	/**
+	 * @param other another bitmap
+	 * @return bitmap of the rows contained in both bitmaps
+	 */
+	public RowBitmap and(final RowBitmap other) {
+		final char[] resultKeys = new char[Math.min(size, other.size)];
+		final Container[] resultContainers = new Container[resultKeys.length];
+		int count = 0;
+		for (int i = 0, j = 0; i < size && j < other.size;) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (keys[i] > other.keys[j]) {
+				j++;
+			} else {
+				final Container container = Container.and(containers[i], other.containers[j]);
+				if (container != null) {
+					resultKeys[count] = keys[i];
+					resultContainers[count++] = container;
+				}
+				i++;
+				j++;
+			}
+		}
+		return count == 0 ? EMPTY : new RowBitmap(resultKeys, resultContainers, count);
+	}
+
+	/**
+	 * @param other another bitmap
+	 * @return bitmap of the rows contained in any of the bitmaps
+	 */
+	public RowBitmap or(final RowBitmap other) {
+		final char[] resultKeys = new char[size + other.size];
+		final Container[] resultContainers = new Container[resultKeys.length];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		while (i < size || j < other.size) {
+			if (j == other.size || i < size && keys[i] < other.keys[j]) {
+				resultKeys[count] = keys[i];
+				resultContainers[count++] = containers[i++];
+			} else if (i == size || keys[i] > other.keys[j]) {
+				resultKeys[count] = other.keys[j];
+				resultContainers[count++] = other.containers[j++];
+			} else {
+				resultKeys[count] = keys[i];
+				resultContainers[count++] = Container.or(containers[i++], other.containers[j++]);
+			}
+		}
+		return count == 0 ? EMPTY : new RowBitmap(resultKeys, resultContainers, count);
+	}
+
+	/**
+	 * @param other another bitmap
+	 * @return bitmap of the rows contained in this bitmap, but not in other
+	 */
+	public RowBitmap andNot(final RowBitmap other) {
+		final char[] resultKeys = new char[size];
+		final Container[] resultContainers = new Container[size];
+		int count = 0;
+		for (int i = 0, j = 0; i < size; i++) {
+			while (j < other.size && other.keys[j] < keys[i]) {
+				j++;
+			}
+			final Container container = j < other.size && other.keys[j] == keys[i] ? Container.andNot(
+			        containers[i], other.containers[j]) : containers[i];
+			if (container != null) {
+				resultKeys[count] = keys[i];
+				resultContainers[count++] = container;
+			}
+		}
+		return count == 0 ? EMPTY : new RowBitmap(resultKeys, resultContainers, count);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!(obj instanceof RowBitmap)) {
+			return false;
+		}
+		final RowBitmap other = (RowBitmap) obj;
+		return cardinality == other.cardinality && Arrays.equals(toArray(), other.toArray());
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(toArray());
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	/**
+	 * Rows of one chunk, either as sorted array or as bitmap.
+	 */
+	private static final class Container {
+		/** sorted lower 16 bits of the rows, {@code null} for bitmap containers. */
+		final char[] array;
+		/** bitmap of the lower 16 bits of the rows, {@code null} for array containers. */
+		final long[] bits;
+		final int cardinality;
+
+		private Container(final char[] array, final long[] bits, final int cardinality) {
+			this.array = array;
+			this.bits = bits;
+			this.cardinality = cardinality;
+		}
+
+		/**
+		 * @return container of the values, {@code null} if empty
+		 */
+		static Container fromArray(final char[] values, final int count) {
+			if (count == 0) {
+				return null;
+			}
+			if (count <= ARRAY_MAX) {
+				return new Container(Arrays.copyOf(values, count), null, count);
+			}
+			final long[] bits = new long[WORDS];
+			for (int i = 0; i < count; i++) {
+				bits[values[i] >>> 6] |= 1L << values[i];
+			}
+			return new Container(null, bits, count);
+		}
+
+		/**
+		 * @return container of the bits, {@code null} if empty
+		 */
+		static Container fromBits(final long[] bits) {
+			int count = 0;
+			for (final long word : bits) {
+				count += Long.bitCount(word);
+			}
+			if (count == 0) {
+				return null;
+			}
+			if (count > ARRAY_MAX) {
+				return new Container(null, bits, count);
+			}
+			final char[] values = new char[count];
+			int index = 0;
+			for (int i = 0; i < WORDS; i++) {
+				for (long word = bits[i]; word != 0; word &= word - 1) {
+					values[index++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+				}
+			}
+			return new Container(values, null, count);
+		}
+
+		boolean contains(final char value) {
+			if (array != null) {
+				return Arrays.binarySearch(array, value) >= 0;
+			}
+			return (bits[value >>> 6] & 1L << value) != 0;
+		}
+
+		/**
+		 * @param from lower 16 bits to start at, inclusive
+		 * @return first contained value at or after from, {@code -1} if there is none
+		 */
+		int next(final int from) {
+			if (array != null) {
+				int index = Arrays.binarySearch(array, (char) from);
+				if (index < 0) {
+					index = -index - 1;
+				}
+				return index < array.length ? array[index] : -1;
+			}
+			int i = from >>> 6;
+			long word = bits[i] & -1L << from;
+			while (word == 0) {
+				if (++i == WORDS) {
+					return -1;
+				}
+				word = bits[i];
+			}
+			return i << 6 | Long.numberOfTrailingZeros(word);
+		}
+
+		static Container and(final Container a, final Container b) {
+			if (a.array != null && b.array != null) {
+				final char[] values = new char[Math.min(a.cardinality, b.cardinality)];
+				int count = 0;
+				for (int i = 0, j = 0; i < a.array.length && j < b.array.length;) {
+					if (a.array[i] < b.array[j]) {
+						i++;
+					} else if (a.array[i] > b.array[j]) {
+						j++;
+					} else {
+						values[count++] = a.array[i];
+						i++;
+						j++;
+					}
+				}
+				return fromArray(values, count);
+			} else if (a.array != null) {
+				return filter(a.array, b.bits, true);
+			} else if (b.array != null) {
+				return filter(b.array, a.bits, true);
+			}
+			final long[] bits = new long[WORDS];
+			for (int i = 0; i < WORDS; i++) {
+				bits[i] = a.bits[i] & b.bits[i];
+			}
+			return fromBits(bits);
+		}
+
+		static Container or(final Container a, final Container b) {
+			if (a.array != null && b.array != null) {
+				final char[] values = new char[a.cardinality + b.cardinality];
+				int count = 0;
+				int i = 0;
+				int j = 0;
+				while (i < a.array.length || j < b.array.length) {
+					if (j == b.array.length || i < a.array.length && a.array[i] < b.array[j]) {
+						values[count++] = a.array[i++];
+					} else if (i == a.array.length || a.array[i] > b.array[j]) {
+						values[count++] = b.array[j++];
+					} else {
+						values[count++] = a.array[i++];
+						j++;
+					}
+				}
+				return fromArray(values, count);
+			}
+			final long[] bits = a.bits != null ? a.bits.clone() : b.bits.clone();
+			final Container other = a.bits != null ? b : a;
+			if (other.array != null) {
+				for (final char value : other.array) {
+					bits[value >>> 6] |= 1L << value;
+				}
+			} else {
+				for (int i = 0; i < WORDS; i++) {
+					bits[i] |= other.bits[i];
+				}
+			}
+			return fromBits(bits);
+		}
+
+		static Container andNot(final Container a, final Container b) {
+			if (a.array != null) {
+				if (b.array != null) {
+					final char[] values = new char[a.cardinality];
+					int count = 0;
+					for (int i = 0, j = 0; i < a.array.length; i++) {
+						while (j < b.array.length && b.array[j] < a.array[i]) {
+							j++;
+						}
+						if (j == b.array.length || b.array[j] != a.array[i]) {
+							values[count++] = a.array[i];
+						}
+					}
+					return fromArray(values, count);
+				}
+				return filter(a.array, b.bits, false);
+			}
+			final long[] bits = a.bits.clone();
+			if (b.array != null) {
+				for (final char value : b.array) {
+					bits[value >>> 6] &= ~(1L << value);
+				}
+			} else {
+				for (int i = 0; i < WORDS; i++) {
+					bits[i] &= ~b.bits[i];
+				}
+			}
+			return fromBits(bits);
+		}
+
+		/**
+		 * @param keep {@code true} to keep the values that are contained in bits, {@code false} to keep the others
+		 */
+		private static Container filter(final char[] array, final long[] bits, final boolean keep) {
+			final char[] values = new char[array.length];
+			int count = 0;
+			for (final char value : array) {
+				if ((bits[value >>> 6] & 1L << value) != 0 == keep) {
+					values[count++] = value;
+				}
+			}
+			return fromArray(values, count);
+		}
+	}
+
+	/**
+	 * Builds a bitmap from rows in ascending order. A builder must not be used after {@link #build()}.
+	 */
+	public static final class Builder {
+		private char[] keys = new char[4];
+		private Container[] containers = new Container[4];
+		private int size;
+		/** upper 16 bits of the current chunk, {@code -1} before the first row. */
+		private int key = -1;
+		private final char[] values = new char[ARRAY_MAX];
+		/** bitmap of the current chunk, if it has more than {@link RowBitmap#ARRAY_MAX} rows. */
+		private long[] bits;
+		private int count;
+		private int last = -1;
+
+		/**
+		 * @param row row position, greater than all rows added before
+		 * @return this builder
+		 * @throws IllegalArgumentException if row is negative or not greater than the previous one
+		 */
+		public Builder add(final int row) throws IllegalArgumentException {
+			if (row < 0) {
+				throw new IllegalArgumentException("negative row: " + row);
+			}
+			if (row <= last) {
+				throw new IllegalArgumentException("rows must be added in ascending order: " + row + " after " + last);
+			}
+			last = row;
+			if (row >>> 16 != key) {
+				flush();
+				key = row >>> 16;
+			}
+			final char value = (char) row;
+			if (bits != null) {
+				bits[value >>> 6] |= 1L << value;
+			} else if (count < ARRAY_MAX) {
+				values[count] = value;
+			} else {
+				bits = new long[WORDS];
+				for (int i = 0; i < count; i++) {
+					bits[values[i] >>> 6] |= 1L << values[i];
+				}
+				bits[value >>> 6] |= 1L << value;
+			}
+			count++;
+			return this;
+		}
+
+		private void flush() {
+			if (count == 0) {
+				return;
+			}
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size << 1);
+				containers = Arrays.copyOf(containers, size << 1);
+			}
+			keys[size] = (char) key;
+			containers[size++] = bits != null ? new Container(null, bits, count) : Container.fromArray(values,
+			        count);
+			bits = null;
+			count = 0;
+		}
+
+		/**
+		 * @return bitmap of the added rows
+		 */
+		public RowBitmap build() {
+			flush();
+			return size == 0 ? EMPTY : new RowBitmap(keys, containers, size);
+		}
+	}
+}
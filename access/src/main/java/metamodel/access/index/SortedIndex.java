@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.field.AbstractField;
+
+/**
+ * Sorted index on a field, whose values have a natural ordering. Primitive values are boxed. Objects with a field
+ * value of {@code null} are kept apart, they are found by key but never in a range.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of indexed objects
+ */
+final class SortedIndex<BASE> extends Index<BASE> {
+
+	private final NavigableMap<Object, Object> buckets = new TreeMap<>();
+	private Object nulls;
+
+	SortedIndex(final AbstractField<?, ?> fieldDefinition, final FieldHandle handle) {
+		super(fieldDefinition, handle);
+	}
+
+	@Override
+	void add(final BASE object) {
+		final Object key = handle.get(object);
+		keep(object, key);
+		if (key == null) {
+			nulls = add(nulls, object);
+		} else {
+			buckets.put(key, add(buckets.get(key), object));
+		}
+	}
+
+	@Override
+	void remove(final BASE object) {
+		final Object key = release(object);
+		if (key == null) {
+			nulls = remove(nulls, object);
+			return;
+		}
+		final Object bucket = remove(buckets.get(key), object);
+		if (bucket == null) {
+			buckets.remove(key);
+		} else {
+			buckets.put(key, bucket);
+		}
+	}
+
+	@Override
+	void clear() {
+		super.clear();
+		buckets.clear();
+		nulls = null;
+	}
+
+	/**
+	 * @param key key, may be {@code null}
+	 * @return objects with the key
+	 */
+	List<BASE> find(final Object key) {
+		return toList(key == null ? nulls : buckets.get(key));
+	}
+
+	/**
+	 * @param from lowest key, inclusive, {@code null} if unbounded
+	 * @param to highest key, inclusive, {@code null} if unbounded
+	 * @return objects with keys in the range, ordered by key
+	 */
+	@SuppressWarnings("unchecked")
+	List<BASE> range(final Object from, final Object to) {
+		if (from != null && to != null && ((Comparable<Object>) from).compareTo(to) > 0) {
+			return Collections.emptyList();
+		}
+		NavigableMap<Object, Object> range = buckets;
+		if (from != null) {
+			range = range.tailMap(from, true);
+		}
+		if (to != null) {
+			range = range.headMap(to, true);
+		}
+		final List<BASE> result = new ArrayList<>();
+		for (final Object bucket : range.values()) {
+			addTo(bucket, result);
+		}
+		return Collections.unmodifiableList(result);
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.join;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import metamodel.access.Projection;
+import metamodel.access.field.BulkFieldAccessor;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.access.field.Ranges;
+import metamodel.field.SingularField;
+
+/**
+ * Inner equi-join of two collections on a key field of each side, eg. a foreign key and an id:
+ *
+ * <pre>
+ * private static final Join&lt;Order, Customer&gt; ORDER_CUSTOMER = Join.on(Order_.customerId, Customer_.id);
+ * 
+ * for (Pair&lt;Order, Customer&gt; pair : ORDER_CUSTOMER.pairs(orders, customers)) {
+ * 	ship(pair.getLeft(), pair.getRight());
+ * }
+ * </pre>
+ *
+ * The smaller collection is put into a hash table, then the objects of the larger one look up their matches. If
+ * both key fields have the same primitive type, keys are compared without boxing, otherwise by
+ * {@link Object#equals(Object)}. {@code null} keys match nothing. Results are ordered by the objects of the larger
+ * collection, matches of one object in the order of the smaller collection. Larger collections with more objects than
+ * the parallel threshold are probed in parts by a fork-join pool. Joins are immutable and may be shared between
+ * threads.
+ *
+ * @author Michael Kroll
+ * @param <LEFT> type of left objects
+ * @param <RIGHT> type of right objects
+ */
+public final class Join<LEFT, RIGHT> {
+
+	/** Creates the result of a match. */
+	private abstract static class Output<LEFT, RIGHT, RESULT> {
+		abstract RESULT combine(LEFT left, RIGHT right);
+	}
+
+	private final SingularField<? super LEFT, ?> leftKey;
+	private final SingularField<? super RIGHT, ?> rightKey;
+	private final JoinKey leftReader;
+	private final JoinKey rightReader;
+	private final int parallelThreshold;
+
+	/**
+	 * Create a join with the {@link BulkFieldAccessor#DEFAULT_PARALLEL_THRESHOLD default parallel threshold}.
+	 *
+	 * @param leftKey metamodel field definition of the key of left objects
+	 * @param rightKey metamodel field definition of the key of right objects
+	 * @return join
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <LEFT, RIGHT, TYPE> Join<LEFT, RIGHT> on(final SingularField<? super LEFT, TYPE> leftKey,
+	        final SingularField<? super RIGHT, TYPE> rightKey) throws NoSuchFieldException, SecurityException {
+		final FieldHandle leftHandle = FieldHelper.getHandle(leftKey);
+		final FieldHandle rightHandle = FieldHelper.getHandle(rightKey);
+		final Class<?> type = leftHandle.getField().getType();
+		final boolean primitive = type.isPrimitive() && type == rightHandle.getField().getType();
+		return new Join<>(leftKey, rightKey, new JoinKey(leftHandle, primitive), new JoinKey(rightHandle, primitive),
+		        BulkFieldAccessor.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	private Join(final SingularField<? super LEFT, ?> leftKey, final SingularField<? super RIGHT, ?> rightKey,
+	        final JoinKey leftReader, final JoinKey rightReader, final int parallelThreshold) {
+		this.leftKey = leftKey;
+		this.rightKey = rightKey;
+		this.leftReader = leftReader;
+		this.rightReader = rightReader;
+		this.parallelThreshold = Ranges.checkThreshold(parallelThreshold);
+	}
+
+	/**
+	 * @return key field of left objects
+	 */
+	public SingularField<? super LEFT, ?> getLeftKey() {
+		return leftKey;
+	}
+
+	/**
+	 * @return key field of right objects
+	 */
+	public SingularField<? super RIGHT, ?> getRightKey() {
+		return rightKey;
+	}
+
+	/**
+	 * @return number of objects probed by one task, larger collections are probed in parallel
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Create a copy with another parallel threshold.
+	 *
+	 * @param threshold number of objects probed by one task, collections up to this size are probed by the calling
+	 *            thread
+	 * @return new join
+	 */
+	public Join<LEFT, RIGHT> withParallelThreshold(final int threshold) {
+		return new Join<>(leftKey, rightKey, leftReader, rightReader, threshold);
+	}
+
+	/**
+	 * Join two collections into pairs.
+	 *
+	 * @param left left objects
+	 * @param right right objects
+	 * @return one pair for each left and right object with equal keys
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares its key field
+	 */
+	public List<Pair<LEFT, RIGHT>> pairs(final Collection<? extends LEFT> left, final Collection<? extends RIGHT> right)
+	        throws IllegalArgumentException {
+		return join(left, right, new Output<LEFT, RIGHT, Pair<LEFT, RIGHT>>() {
+			@Override
+			Pair<LEFT, RIGHT> combine(final LEFT leftObject, final RIGHT rightObject) {
+				return new Pair<>(leftObject, rightObject);
+			}
+		});
+	}
+
+	/**
+	 * Join two collections into rows of selected fields.
+	 *
+	 * @param left left objects
+	 * @param right right objects
+	 * @param leftColumns fields of left objects, that start each row
+	 * @param rightColumns fields of right objects, that follow the left ones
+	 * @return one row for each left and right object with equal keys, primitive values are boxed
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares its key field or a
+	 *             projected field
+	 */
+	public List<Object[]> rows(final Collection<? extends LEFT> left, final Collection<? extends RIGHT> right,
+	        final Projection<? super LEFT> leftColumns, final Projection<? super RIGHT> rightColumns)
+	        throws IllegalArgumentException {
+		final int leftCount = leftColumns.getFieldCount();
+		final int rightCount = rightColumns.getFieldCount();
+		return join(left, right, new Output<LEFT, RIGHT, Object[]>() {
+			@Override
+			Object[] combine(final LEFT leftObject, final RIGHT rightObject) {
+				final Object[] row = leftColumns.read(leftObject, new Object[leftCount + rightCount]);
+				System.arraycopy(rightColumns.read(rightObject), 0, row, leftCount, rightCount);
+				return row;
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private <RESULT> List<RESULT> join(final Collection<? extends LEFT> left, final Collection<? extends RIGHT> right,
+	        final Output<LEFT, RIGHT, RESULT> output) {
+		final Object[] leftObjects = left.toArray();
+		final Object[] rightObjects = right.toArray();
+		final boolean buildLeft = leftObjects.length <= rightObjects.length;
+		final JoinTable table = buildLeft ? new JoinTable(leftReader, leftObjects) : new JoinTable(rightReader,
+		        rightObjects);
+		final Object[] probe = buildLeft ? rightObjects : leftObjects;
+		final JoinKey probeKey = buildLeft ? rightReader : leftReader;
+
+		final Object[] parts = new Object[(int) ((probe.length + (long) parallelThreshold - 1) / parallelThreshold)];
+		Ranges.forEach(parts.length, 1, new Ranges.Body() {
+			@Override
+			public void apply(final int fromPart, final int toPart) {
+				for (int part = fromPart; part < toPart; part++) {
+					final List<RESULT> results = new ArrayList<>();
+					final int end = (int) Math.min(probe.length, (part + 1L) * parallelThreshold);
+					for (int i = part * parallelThreshold; i < end; i++) {
+						final Object object = probe[i];
+						int entry = probeKey.isPrimitive() ? table.first(probeKey.bits(object)) : table.first(probeKey
+						        .value(object));
+						for (; entry >= 0; entry = table.next(entry)) {
+							final Object match = table.get(entry);
+							results.add(buildLeft ? output.combine((LEFT) match, (RIGHT) object) : output.combine(
+							        (LEFT) object, (RIGHT) match));
+						}
+					}
+					parts[part] = results;
+				}
+			}
+		});
+		if (parts.length == 1) {
+			return (List<RESULT>) parts[0];
+		}
+		int size = 0;
+		for (final Object part : parts) {
+			size += ((List<?>) part).size();
+		}
+		final List<RESULT> results = new ArrayList<>(size);
+		for (final Object part : parts) {
+			results.addAll((List<RESULT>) part);
+		}
+		return results;
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.join;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.Primitives;
+
+/**
+ * Reads the key field of one side of a {@link Join}. If both key fields have the same primitive type, keys are read as
+ * bits without boxing, otherwise as boxed values, that are compared by {@link Object#equals(Object)}.
+ *
+ * @author Michael Kroll
+ */
+final class JoinKey {
+
+	private final FieldHandle handle;
+	/** type of the key, if keys are compared as bits, {@code null} otherwise. */
+	private final Class<?> primitiveType;
+
+	JoinKey(final FieldHandle handle, final boolean primitive) {
+		this.handle = handle;
+		primitiveType = primitive ? handle.getField().getType() : null;
+	}
+
+	/**
+	 * @return {@code true} if keys are read by {@link #bits(Object)}, {@code false} if by {@link #value(Object)}
+	 */
+	boolean isPrimitive() {
+		return primitiveType != null;
+	}
+
+	/**
+	 * @return key of object as bits, {@code NaN} values have the same bits
+	 */
+	long bits(final Object object) {
+		return Primitives.bits(handle, primitiveType, object);
+	}
+
+	/**
+	 * @return key of object, boxed
+	 */
+	Object value(final Object object) {
+		return handle.get(object);
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.join;
+
+import metamodel.access.field.Primitives;
+
+/**
+ * Hash table of the smaller side of a {@link Join}. Objects are stored in an array, objects with the same key are
+ * chained by the index of the next one. Keys are found by open addressing with linear probing, primitive keys are
+ * stored as bits without boxing. Objects with {@code null} key are not stored, as they match nothing. Tables are not
+ * changed after they are built and may be probed by several threads.
+ *
+ * @author Michael Kroll
+ */
+final class JoinTable {
+
+	private final boolean primitive;
+	private final Object[] objects;
+	/** next object with the same key, {@code -1} for the last one. */
+	private final int[] next;
+	/** first object of each slot plus one, 0 for free slots. */
+	private final int[] heads;
+	private final long[] bitKeys;
+	private final Object[] valueKeys;
+
+	/**
+	 * Build a table.
+	 *
+	 * @param key key of objects
+	 * @param objects objects of the smaller side
+	 */
+	JoinTable(final JoinKey key, final Object[] objects) {
+		this.objects = objects;
+		primitive = key.isPrimitive();
+		next = new int[objects.length];
+		int capacity = 16;
+		while (capacity < objects.length * 2L && capacity < 1 << 30) {
+			capacity *= 2;
+		}
+		heads = new int[capacity];
+		bitKeys = primitive ? new long[capacity] : null;
+		valueKeys = primitive ? null : new Object[capacity];
+		final int mask = capacity - 1;
+		// inserted backwards, so each chain is in the order of objects
+		for (int i = objects.length - 1; i >= 0; i--) {
+			int slot;
+			if (primitive) {
+				final long bits = key.bits(objects[i]);
+				slot = Primitives.hash(bits) & mask;
+				while (heads[slot] != 0 && bitKeys[slot] != bits) {
+					slot = slot + 1 & mask;
+				}
+				bitKeys[slot] = bits;
+			} else {
+				final Object value = key.value(objects[i]);
+				if (value == null) {
+					continue;
+				}
+				slot = Primitives.hash(value.hashCode()) & mask;
+				while (heads[slot] != 0 && !valueKeys[slot].equals(value)) {
+					slot = slot + 1 & mask;
+				}
+				valueKeys[slot] = value;
+			}
+			next[i] = heads[slot] - 1;
+			heads[slot] = i + 1;
+		}
+	}
+
+	/**
+	 * @param bits key, if keys are primitive
+	 * @return first object with key, {@code -1} if there is none
+	 */
+	int first(final long bits) {
+		final int mask = heads.length - 1;
+		for (int slot = Primitives.hash(bits) & mask; heads[slot] != 0; slot = slot + 1 & mask) {
+			if (bitKeys[slot] == bits) {
+				return heads[slot] - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param value key, if keys are not primitive
+	 * @return first object with key, {@code -1} if there is none or value is {@code null}
+	 */
+	int first(final Object value) {
+		if (value == null) {
+			return -1;
+		}
+		final int mask = heads.length - 1;
+		for (int slot = Primitives.hash(value.hashCode()) & mask; heads[slot] != 0; slot = slot + 1 & mask) {
+			if (valueKeys[slot].equals(value)) {
+				return heads[slot] - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param entry index of an object
+	 * @return next object with the same key, {@code -1} if there is none
+	 */
+	int next(final int entry) {
+		return next[entry];
+	}
+
+	/**
+	 * @param entry index of an object
+	 * @return object
+	 */
+	Object get(final int entry) {
+		return objects[entry];
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.join;
+
+/**
+ * Two objects with equal keys, found by a {@link Join}.
+ *
+ * @author Michael Kroll
+ * @param <LEFT> type of left objects
+ * @param <RIGHT> type of right objects
+ */
+public final class Pair<LEFT, RIGHT> {
+
+	private final LEFT left;
+	private final RIGHT right;
+
+	/**
+	 * @param left left object
+	 * @param right right object
+	 */
+	public Pair(final LEFT left, final RIGHT right) {
+		this.left = left;
+		this.right = right;
+	}
+
+	/**
+	 * @return left object
+	 */
+	public LEFT getLeft() {
+		return left;
+	}
+
+	/**
+	 * @return right object
+	 */
+	public RIGHT getRight() {
+		return right;
+	}
+
+	@Override
+	public int hashCode() {
+		return (left == null ? 0 : left.hashCode()) * 31 + (right == null ? 0 : right.hashCode());
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Pair)) {
+			return false;
+		}
+		final Pair<?, ?> other = (Pair<?, ?>) obj;
+		return (left == null ? other.left == null : left.equals(other.left))
+		        && (right == null ? other.right == null : right.equals(other.right));
+	}
+
+	@Override
+	public String toString() {
+		return "(" + left + ", " + right + ")";
+	}
+}
@@ -23,8 +23,10 @@
  */
 package metamodel.access.method;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 
+import metamodel.access.InvokerHelper;
 import metamodel.method.Method0;
 
 /**
@@ -35,14 +37,44 @@ public class Callable0<BASE, RT> {
 
 	private final BASE object;
 	private final Method0<? super BASE, RT> methodDefinition;
+	/** resolved lazily, invokers are cached per definition anyway. */
+	private MethodHandle invoker;
 
 	public Callable0(final BASE object, final Method0<? super BASE, RT> methodDefinition) {
 		this.object = object;
 		this.methodDefinition = methodDefinition;
 	}
 
+	/**
+	 * Create an unbound callable, that can be invoked on any instance. It is immutable and may be kept in a
+	 * {@code static final} field, invocations do not allocate wrapper objects.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @see MethodFunctions#compile(Method0)
+	 */
+	public static <BASE, RT> MethodFunction0<BASE, RT> of(final Method0<BASE, RT> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		return MethodFunctions.compile(methodDefinition);
+	}
+
+	@SuppressWarnings("unchecked")
 	public RT invoke() throws NoSuchMethodException, SecurityException, IllegalAccessException,
 	        IllegalArgumentException, InvocationTargetException {
-		return CallableHelper.invoke(object, methodDefinition);
+		final MethodHandle handle = invoker();
+		try {
+			return (RT) handle.invokeExact(object);
+		} catch (final Throwable e) {
+			throw InvokerHelper.reflective(e);
+		}
+	}
+
+	private MethodHandle invoker() throws NoSuchMethodException, SecurityException {
+		if (invoker == null) {
+			invoker = CallableHelper.getInvoker(methodDefinition);
+		}
+		return invoker;
 	}
 }
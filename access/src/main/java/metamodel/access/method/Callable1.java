@@ -23,8 +23,10 @@
  */
 package metamodel.access.method;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 
+import metamodel.access.InvokerHelper;
 import metamodel.method.Method1;
 
 /**
@@ -35,14 +37,44 @@ public class Callable1<BASE, RT, P1> {
 
 	private final BASE object;
 	private final Method1<? super BASE, RT, P1> methodDefinition;
+	/** resolved lazily, invokers are cached per definition anyway. */
+	private MethodHandle invoker;
 
 	public Callable1(final BASE object, final Method1<? super BASE, RT, P1> methodDefinition) {
 		this.object = object;
 		this.methodDefinition = methodDefinition;
 	}
 
+	/**
+	 * Create an unbound callable, that can be invoked on any instance. It is immutable and may be kept in a
+	 * {@code static final} field, invocations do not allocate wrapper objects.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @see MethodFunctions#compile(Method1)
+	 */
+	public static <BASE, RT, P1> MethodFunction1<BASE, RT, P1> of(final Method1<BASE, RT, P1> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		return MethodFunctions.compile(methodDefinition);
+	}
+
+	@SuppressWarnings("unchecked")
 	public RT invoke(final P1 param1) throws NoSuchMethodException, SecurityException,
 	        IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		return CallableHelper.invoke(object, methodDefinition, param1);
+		final MethodHandle handle = invoker();
+		try {
+			return (RT) handle.invokeExact(object, param1);
+		} catch (final Throwable e) {
+			throw InvokerHelper.reflective(e);
+		}
+	}
+
+	private MethodHandle invoker() throws NoSuchMethodException, SecurityException {
+		if (invoker == null) {
+			invoker = CallableHelper.getInvoker(methodDefinition);
+		}
+		return invoker;
 	}
 }
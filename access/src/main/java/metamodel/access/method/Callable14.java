@@ -23,8 +23,10 @@
  */
 package metamodel.access.method;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 
+import metamodel.access.InvokerHelper;
 import metamodel.method.Method14;
 
 /**
@@ -52,6 +54,8 @@ public class Callable14<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11,
 
 	private final BASE object;
 	private final Method14<? super BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> methodDefinition;
+	/** resolved lazily, invokers are cached per definition anyway. */
+	private MethodHandle invoker;
 
 	public Callable14(
 	        final BASE object,
@@ -60,6 +64,21 @@ public class Callable14<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11,
 		this.methodDefinition = methodDefinition;
 	}
 
+	/**
+	 * Create an unbound callable, that can be invoked on any instance. It is immutable and may be kept in a
+	 * {@code static final} field, invocations do not allocate wrapper objects.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @see MethodFunctions#compile(Method14)
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> MethodFunction14<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> of(final Method14<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		return MethodFunctions.compile(methodDefinition);
+	}
+
 	/**
 	 * Invoke Method with given parameters.
 	 *
@@ -84,12 +103,25 @@ public class Callable14<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11,
 	 * @throws IllegalArgumentException
 	 * @throws InvocationTargetException
 	 */
+	@SuppressWarnings("unchecked")
 	public RT invoke(final P1 param1, final P2 param2, final P3 param3, final P4 param4, final P5 param5,
 	        final P6 param6, final P7 param7, final P8 param8, final P9 param9, final P10 param10, final P11 param11,
 	        final P12 param12, final P13 param13, final P14 param14)
 	        throws NoSuchMethodException, SecurityException, IllegalAccessException, IllegalArgumentException,
 	        InvocationTargetException {
-		return CallableHelper.invoke(object, methodDefinition, param1, param2, param3, param4, param5, param6,
-		        param7, param8, param9, param10, param11, param12, param13, param14);
+		final MethodHandle handle = invoker();
+		try {
+			return (RT) handle.invokeExact(object, param1, param2, param3, param4, param5, param6, param7, param8,
+			        param9, param10, param11, param12, param13, param14);
+		} catch (final Throwable e) {
+			throw InvokerHelper.reflective(e);
+		}
+	}
+
+	private MethodHandle invoker() throws NoSuchMethodException, SecurityException {
+		if (invoker == null) {
+			invoker = CallableHelper.getInvoker(methodDefinition);
+		}
+		return invoker;
 	}
 }
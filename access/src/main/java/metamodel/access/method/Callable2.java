@@ -23,8 +23,10 @@
  */
 package metamodel.access.method;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 
+import metamodel.access.InvokerHelper;
 import metamodel.method.Method2;
 
 /**
@@ -35,14 +37,44 @@ public class Callable2<BASE, RT, P1, P2> {
 
 	private final BASE object;
 	private final Method2<? super BASE, RT, P1, P2> methodDefinition;
+	/** resolved lazily, invokers are cached per definition anyway. */
+	private MethodHandle invoker;
 
 	public Callable2(final BASE object, final Method2<? super BASE, RT, P1, P2> methodDefinition) {
 		this.object = object;
 		this.methodDefinition = methodDefinition;
 	}
 
+	/**
+	 * Create an unbound callable, that can be invoked on any instance. It is immutable and may be kept in a
+	 * {@code static final} field, invocations do not allocate wrapper objects.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * @see MethodFunctions#compile(Method2)
+	 */
+	public static <BASE, RT, P1, P2> MethodFunction2<BASE, RT, P1, P2> of(final Method2<BASE, RT, P1, P2> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		return MethodFunctions.compile(methodDefinition);
+	}
+
+	@SuppressWarnings("unchecked")
 	public RT invoke(final P1 param1, final P2 param2) throws NoSuchMethodException, SecurityException,
 	        IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-		return CallableHelper.invoke(object, methodDefinition, param1, param2);
+		final MethodHandle handle = invoker();
+		try {
+			return (RT) handle.invokeExact(object, param1, param2);
+		} catch (final Throwable e) {
+			throw InvokerHelper.reflective(e);
+		}
+	}
+
+	private MethodHandle invoker() throws NoSuchMethodException, SecurityException {
+		if (invoker == null) {
+			invoker = CallableHelper.getInvoker(methodDefinition);
+		}
+		return invoker;
 	}
 }
@@ -23,9 +23,15 @@
  */
 package metamodel.access.method;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
 
+import metamodel.access.InvokerHelper;
+import metamodel.access.MemberCache;
 import metamodel.method.AbstractMethod;
 
 /**
@@ -35,47 +41,100 @@ import metamodel.method.AbstractMethod;
  */
 public class CallableHelper {
 
+	/** resolved methods by method definition. */
+	private static final MemberCache<AbstractMethod<?, ?>, Method> METHODS =
+	        new MemberCache<AbstractMethod<?, ?>, Method>() {
+		        @Override
+		        protected Object key(final AbstractMethod<?, ?> methodDefinition) {
+			        return methodDefinition.getName();
+		        }
+
+		        @Override
+		        protected Class<?>[] parameterClasses(final AbstractMethod<?, ?> methodDefinition) {
+			        return methodDefinition.getParameterClasses();
+		        }
+
+		        @Override
+		        protected Method resolve(final AbstractMethod<?, ?> methodDefinition) throws SecurityException {
+			        try {
+				        final Method method = methodDefinition.getDeclaringClass().getDeclaredMethod(
+				                methodDefinition.getName(), methodDefinition.getParameterClasses());
+				        if (!method.isAccessible()) {
+					        method.setAccessible(true);
+				        }
+				        return method;
+			        } catch (final NoSuchMethodException e) {
+				        return null;
+			        }
+		        }
+	        };
+
+	/** generic invokers by method definition. */
+	private static final MemberCache<AbstractMethod<?, ?>, MethodHandle> INVOKERS =
+	        new MemberCache<AbstractMethod<?, ?>, MethodHandle>() {
+		        @Override
+		        protected Object key(final AbstractMethod<?, ?> methodDefinition) {
+			        return methodDefinition.getName();
+		        }
+
+		        @Override
+		        protected Class<?>[] parameterClasses(final AbstractMethod<?, ?> methodDefinition) {
+			        return methodDefinition.getParameterClasses();
+		        }
+
+		        @Override
+		        protected MethodHandle resolve(final AbstractMethod<?, ?> methodDefinition) throws SecurityException {
+			        final Method method = METHODS.get(methodDefinition.getDeclaringClass(), methodDefinition);
+			        if (method == null) {
+				        return null;
+			        }
+			        try {
+				        return InvokerHelper.toGenericInvoker(MethodHandles.lookup().unreflect(method),
+				                !Modifier.isStatic(method.getModifiers()));
+			        } catch (final IllegalAccessException e) {
+				        // method was made accessible before
+				        throw new IllegalStateException(e);
+			        }
+		        }
+	        };
+
 	/** Hide Utility Constructor. */
 	private CallableHelper() {
 	}
 
 	/**
-	 * Invokes a defined method on an object instance.
+	 * Get the cache of resolved methods, eg. to monitor its hit and miss counts.
 	 *
-	 * @param object Instance with method to call
-	 * @param methodDefinition metamodel method definition
-	 * @return return value of method invocation, always {@code null} for void methods
-	 * @throws NoSuchMethodException
-	 * @throws SecurityException
-	 * @throws IllegalAccessException
-	 * @throws IllegalArgumentException
-	 * @throws InvocationTargetException
+	 * @return method cache
 	 */
-	@SuppressWarnings("unchecked")
-	protected static <BASE, RT> RT invoke(final BASE object, final AbstractMethod<? super BASE, RT> methodDefinition,
-	        final Object... params) throws NoSuchMethodException, SecurityException, IllegalAccessException,
-	        IllegalArgumentException, InvocationTargetException {
-		final Method method = getAccessibleMethod(methodDefinition);
-		return (RT) method.invoke(object, params);
+	public static MemberCache<AbstractMethod<?, ?>, Method> getMethodCache() {
+		return METHODS;
 	}
 
 	/**
-	 * Get Method of Class as defined by metamodel method definition.
+	 * Get a generic invoker for a method definition.
+	 * <p>
+	 * The invoker takes the object as first argument, followed by the method parameters. All parameters and the return
+	 * value are of type Object, exceptions of the method are wrapped in an {@link InvocationTargetException}.
 	 *
-	 * @param fieldDefinition metamodel method definition
-	 * @return Method
-	 * @throws NoSuchFieldException
+	 * @param methodDefinition metamodel method definition
+	 * @return invoker, to be called by {@link MethodHandle#invokeExact(Object...)}
+	 * @throws NoSuchMethodException
 	 * @throws SecurityException
+	 * @see InvokerHelper#toGenericInvoker(MethodHandle, boolean)
 	 */
-	private static <BASE, RT> Method getAccessibleMethod(final AbstractMethod<BASE, RT> methodDefinition)
-	        throws NoSuchMethodException, SecurityException {
-		final String methodName = methodDefinition.getName();
-		final Method method = methodDefinition.getDeclaringClass().getDeclaredMethod(methodName,
-		        methodDefinition.getParameterClasses());
-		if (!method.isAccessible()) {
-			method.setAccessible(true);
+	public static MethodHandle getInvoker(final AbstractMethod<?, ?> methodDefinition) throws NoSuchMethodException,
+	        SecurityException {
+		final MethodHandle invoker = INVOKERS.get(methodDefinition.getDeclaringClass(), methodDefinition);
+		if (invoker == null) {
+			throw noSuchMethod(methodDefinition);
 		}
-		return method;
+		return invoker;
+	}
+
+	private static NoSuchMethodException noSuchMethod(final AbstractMethod<?, ?> methodDefinition) {
+		return new NoSuchMethodException(methodDefinition.getDeclaringClass().getName() + "."
+		        + methodDefinition.getName() + Arrays.toString(methodDefinition.getParameterClasses()));
 	}
 
 }
@@ -0,0 +1,518 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.method;
+
+import java.lang.invoke.MethodHandle;
+
+import metamodel.access.InvokerHelper;
+import metamodel.method.Method0;
+import metamodel.method.Method1;
+import metamodel.method.Method10;
+import metamodel.method.Method11;
+import metamodel.method.Method12;
+import metamodel.method.Method13;
+import metamodel.method.Method14;
+import metamodel.method.Method15;
+import metamodel.method.Method16;
+import metamodel.method.Method2;
+import metamodel.method.Method3;
+import metamodel.method.Method4;
+import metamodel.method.Method5;
+import metamodel.method.Method6;
+import metamodel.method.Method7;
+import metamodel.method.Method8;
+import metamodel.method.Method9;
+
+/**
+ * Compiles method-definitions into function objects, that invoke the method without reflection.
+ * <p>
+ * The compiled functions call a cached method handle of exactly their arity, so no argument arrays are allocated:
+ *
+ * <pre>
+ * private static final MethodFunction1&lt;TargetObject, Void, Integer&gt; SET_FIELD = MethodFunctions
+ *         .compile(TargetObject_.setField);
+ * 
+ * for (TargetObject target : targets) {
+ * 	SET_FIELD.invoke(target, 42);
+ * }
+ * </pre>
+ *
+ * @author Michael Kroll
+ */
+public class MethodFunctions {
+
+	/** Hide Utility Constructor. */
+	private MethodFunctions() {
+	}
+
+	/**
+	 * Compile a method-definition without parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT> MethodFunction0<BASE, RT> compile(
+	        final Method0<BASE, RT> methodDefinition) throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction0<BASE, RT>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object) {
+				try {
+					return (RT) invoker.invokeExact(object);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with one parameter.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1> MethodFunction1<BASE, RT, P1> compile(
+	        final Method1<BASE, RT, P1> methodDefinition) throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction1<BASE, RT, P1>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1) {
+				try {
+					return (RT) invoker.invokeExact(object, param1);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with two parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2> MethodFunction2<BASE, RT, P1, P2> compile(
+	        final Method2<BASE, RT, P1, P2> methodDefinition) throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction2<BASE, RT, P1, P2>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with three parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3> MethodFunction3<BASE, RT, P1, P2, P3> compile(
+	        final Method3<BASE, RT, P1, P2, P3> methodDefinition) throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction3<BASE, RT, P1, P2, P3>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 4 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4> MethodFunction4<BASE, RT, P1, P2, P3, P4> compile(
+	        final Method4<BASE, RT, P1, P2, P3, P4> methodDefinition) throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction4<BASE, RT, P1, P2, P3, P4>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 5 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5> MethodFunction5<BASE, RT, P1, P2, P3, P4, P5> compile(
+	        final Method5<BASE, RT, P1, P2, P3, P4, P5> methodDefinition) throws NoSuchMethodException,
+	        SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction5<BASE, RT, P1, P2, P3, P4, P5>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 6 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6> MethodFunction6<BASE, RT, P1, P2, P3, P4, P5, P6> compile(
+	        final Method6<BASE, RT, P1, P2, P3, P4, P5, P6> methodDefinition) throws NoSuchMethodException,
+	        SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction6<BASE, RT, P1, P2, P3, P4, P5, P6>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 7 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7> MethodFunction7<BASE, RT, P1, P2, P3, P4, P5, P6, P7> compile(
+	        final Method7<BASE, RT, P1, P2, P3, P4, P5, P6, P7> methodDefinition) throws NoSuchMethodException,
+	        SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction7<BASE, RT, P1, P2, P3, P4, P5, P6, P7>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 8 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8> MethodFunction8<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8> compile(
+	        final Method8<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8> methodDefinition) throws NoSuchMethodException,
+	        SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction8<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 9 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9> MethodFunction9<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9> compile(
+	        final Method9<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9> methodDefinition) throws NoSuchMethodException,
+	        SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction9<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8, final P9 param9) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8, param9);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 10 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10> MethodFunction10<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10> compile(
+	        final Method10<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction10<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8, final P9 param9,
+			        final P10 param10) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8, param9, param10);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 11 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11> MethodFunction11<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11> compile(
+	        final Method11<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction11<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8, final P9 param9,
+			        final P10 param10, final P11 param11) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8, param9, param10, param11);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 12 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12> MethodFunction12<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12> compile(
+	        final Method12<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction12<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8, final P9 param9,
+			        final P10 param10, final P11 param11, final P12 param12) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8, param9, param10, param11, param12);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 13 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> MethodFunction13<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> compile(
+	        final Method13<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction13<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8, final P9 param9,
+			        final P10 param10, final P11 param11, final P12 param12, final P13 param13) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8, param9, param10, param11, param12, param13);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 14 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> MethodFunction14<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> compile(
+	        final Method14<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction14<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8, final P9 param9,
+			        final P10 param10, final P11 param11, final P12 param12, final P13 param13, final P14 param14) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8, param9, param10, param11, param12, param13, param14);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 15 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15> MethodFunction15<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15> compile(
+	        final Method15<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction15<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8, final P9 param9,
+			        final P10 param10, final P11 param11, final P12 param12, final P13 param13, final P14 param14,
+			        final P15 param15) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8, param9, param10, param11, param12, param13, param14, param15);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Compile a method-definition with 16 parameters.
+	 *
+	 * @param methodDefinition metamodel method definition
+	 * @return compiled method
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public static <BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16> MethodFunction16<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16> compile(
+	        final Method16<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16> methodDefinition)
+	        throws NoSuchMethodException, SecurityException {
+		final MethodHandle invoker = CallableHelper.getInvoker(methodDefinition);
+		return new MethodFunction16<BASE, RT, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16>() {
+			@Override
+			@SuppressWarnings("unchecked")
+			public RT invoke(final BASE object, final P1 param1, final P2 param2, final P3 param3, final P4 param4,
+			        final P5 param5, final P6 param6, final P7 param7, final P8 param8, final P9 param9,
+			        final P10 param10, final P11 param11, final P12 param12, final P13 param13, final P14 param14,
+			        final P15 param15, final P16 param16) {
+				try {
+					return (RT) invoker.invokeExact(object, param1, param2, param3, param4, param5, param6, param7,
+					        param8, param9, param10, param11, param12, param13, param14, param15, param16);
+				} catch (final Throwable e) {
+					throw InvokerHelper.unchecked(e);
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.object;
+
+/**
+ * Strategy for deciding whether two objects are equivalent, for types that do not implement a usable
+ * {@link Object#equals(Object)} and {@link Object#hashCode()}.
+ * <p>
+ * Implementations must follow the contracts of these methods: equivalence is reflexive, symmetric and transitive, and
+ * equivalent objects have the same hash.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of compared objects
+ */
+public interface Equivalence<BASE> {
+
+	/**
+	 * @param a first object, may be {@code null}
+	 * @param b second object, may be {@code null}
+	 * @return {@code true} if both objects are equivalent
+	 */
+	boolean equivalent(BASE a, BASE b);
+
+	/**
+	 * @param object object, may be {@code null}
+	 * @return hash of the object, {@code 0} for {@code null}
+	 */
+	int hash(BASE object);
+}
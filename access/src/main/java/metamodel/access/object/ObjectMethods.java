@@ -0,0 +1,388 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.object;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import metamodel.access.Metamodels;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.field.AbstractField;
+
+/**
+ * Implements equals, hashCode, compareTo and toString by the values of a chosen set of fields:
+ *
+ * <pre>
+ * private static final ObjectMethods&lt;POJO&gt; POJO_METHODS = ObjectMethods.of(POJO_.myint, POJO_.myInteger);
+ * 
+ * boolean changed = !POJO_METHODS.equivalent(cached, current);
+ * int hash = POJO_METHODS.hash(current);
+ * Collections.sort(pojos, POJO_METHODS);
+ * log.debug(POJO_METHODS.toString(pojo));
+ * </pre>
+ *
+ * Fields are resolved once, primitive fields are read and compared without boxing. Reference fields are compared by
+ * their own {@code equals}, {@code hashCode} and {@code compareTo} methods, arrays by their elements. Instances are
+ * immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of compared objects
+ */
+public final class ObjectMethods<BASE> implements Equivalence<BASE>, Comparator<BASE> {
+
+	private static final int REFERENCE = 0;
+	private static final int BOOLEAN = 1;
+	private static final int BYTE = 2;
+	private static final int CHAR = 3;
+	private static final int SHORT = 4;
+	private static final int INT = 5;
+	private static final int LONG = 6;
+	private static final int FLOAT = 7;
+	private static final int DOUBLE = 8;
+
+	private final AbstractField<? super BASE, ?>[] fieldDefinitions;
+	private final FieldHandle[] handles;
+	/** kind of each field, ie. {@link #REFERENCE} or one of the primitive kinds. */
+	private final int[] kinds;
+
+	/**
+	 * Create object methods for all fields of a metamodel class, including the fields of its superclasses.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return object methods
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type
+	 */
+	public static <BASE> ObjectMethods<BASE> of(final Class<BASE> type, final Class<?> metamodelClass)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		Metamodels.checkDescribes(type, metamodelClass);
+		final List<AbstractField<?, ?>> fields = Metamodels.getFields(metamodelClass);
+		return new ObjectMethods<>(fields.toArray(ObjectMethods.<BASE> newArray(fields.size())));
+	}
+
+	/**
+	 * Create object methods for a set of fields.
+	 *
+	 * @param fieldDefinitions metamodel field definitions, in order of significance for comparison
+	 * @return object methods
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	@SafeVarargs
+	public static <BASE> ObjectMethods<BASE> of(final AbstractField<? super BASE, ?>... fieldDefinitions)
+	        throws NoSuchFieldException, SecurityException {
+		final AbstractField<? super BASE, ?>[] copy = newArray(fieldDefinitions.length);
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = fieldDefinitions[i];
+		}
+		return new ObjectMethods<>(copy);
+	}
+
+	/**
+	 * Create object methods for a set of fields.
+	 *
+	 * @param fieldDefinitions metamodel field definitions, in order of significance for comparison
+	 * @return object methods
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> ObjectMethods<BASE> of(final List<? extends AbstractField<? super BASE, ?>> fieldDefinitions)
+	        throws NoSuchFieldException, SecurityException {
+		return new ObjectMethods<>(fieldDefinitions.toArray(ObjectMethods.<BASE> newArray(fieldDefinitions.size())));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> AbstractField<? super BASE, ?>[] newArray(final int length) {
+		return (AbstractField<? super BASE, ?>[]) new AbstractField<?, ?>[length];
+	}
+
+	private ObjectMethods(final AbstractField<? super BASE, ?>[] fieldDefinitions) throws NoSuchFieldException,
+	        SecurityException {
+		this.fieldDefinitions = fieldDefinitions;
+		handles = new FieldHandle[fieldDefinitions.length];
+		kinds = new int[fieldDefinitions.length];
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			handles[i] = FieldHelper.getHandle(fieldDefinitions[i]);
+			kinds[i] = kindOf(handles[i].getField().getType());
+		}
+	}
+
+	private static int kindOf(final Class<?> type) {
+		if (!type.isPrimitive()) {
+			return REFERENCE;
+		} else if (type == boolean.class) {
+			return BOOLEAN;
+		} else if (type == byte.class) {
+			return BYTE;
+		} else if (type == char.class) {
+			return CHAR;
+		} else if (type == short.class) {
+			return SHORT;
+		} else if (type == int.class) {
+			return INT;
+		} else if (type == long.class) {
+			return LONG;
+		} else if (type == float.class) {
+			return FLOAT;
+		} else {
+			return DOUBLE;
+		}
+	}
+
+	/**
+	 * @return definitions of the used fields
+	 */
+	public List<AbstractField<? super BASE, ?>> getFieldDefinitions() {
+		return Arrays.asList(fieldDefinitions.clone());
+	}
+
+	/**
+	 * Compare the fields of two objects, like a generated {@code equals} would do.
+	 *
+	 * @param a first object, may be {@code null}
+	 * @param b second object, may be {@code null}
+	 * @return {@code true} if both are {@code null} or all fields are equal
+	 * @throws IllegalArgumentException if an object is no instance of a declaring class
+	 */
+	@Override
+	public boolean equivalent(final BASE a, final BASE b) throws IllegalArgumentException {
+		if (a == b) {
+			return true;
+		}
+		if (a == null || b == null) {
+			return false;
+		}
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			final boolean equal;
+			switch (kinds[i]) {
+			case BOOLEAN:
+				equal = handle.getBoolean(a) == handle.getBoolean(b);
+				break;
+			case BYTE:
+				equal = handle.getByte(a) == handle.getByte(b);
+				break;
+			case CHAR:
+				equal = handle.getChar(a) == handle.getChar(b);
+				break;
+			case SHORT:
+				equal = handle.getShort(a) == handle.getShort(b);
+				break;
+			case INT:
+				equal = handle.getInt(a) == handle.getInt(b);
+				break;
+			case LONG:
+				equal = handle.getLong(a) == handle.getLong(b);
+				break;
+			case FLOAT:
+				equal = Float.compare(handle.getFloat(a), handle.getFloat(b)) == 0;
+				break;
+			case DOUBLE:
+				equal = Double.compare(handle.getDouble(a), handle.getDouble(b)) == 0;
+				break;
+			default:
+				equal = Values.equal(handle.get(a), handle.get(b));
+			}
+			if (!equal) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Hash the fields of an object, like a generated {@code hashCode} would do.
+	 *
+	 * @param object object, may be {@code null}
+	 * @return combined hash of all fields, {@code 0} for {@code null}
+	 * @throws IllegalArgumentException if object is no instance of a declaring class
+	 */
+	@Override
+	public int hash(final BASE object) throws IllegalArgumentException {
+		if (object == null) {
+			return 0;
+		}
+		int result = 1;
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			final int hash;
+			switch (kinds[i]) {
+			case BOOLEAN:
+				hash = handle.getBoolean(object) ? 1231 : 1237;
+				break;
+			case BYTE:
+				hash = handle.getByte(object);
+				break;
+			case CHAR:
+				hash = handle.getChar(object);
+				break;
+			case SHORT:
+				hash = handle.getShort(object);
+				break;
+			case INT:
+				hash = handle.getInt(object);
+				break;
+			case LONG:
+				hash = Values.hash(handle.getLong(object));
+				break;
+			case FLOAT:
+				hash = Float.floatToIntBits(handle.getFloat(object));
+				break;
+			case DOUBLE:
+				hash = Values.hash(Double.doubleToLongBits(handle.getDouble(object)));
+				break;
+			default:
+				hash = Values.hash(handle.get(object));
+			}
+			result = 31 * result + hash;
+		}
+		return result;
+	}
+
+	/**
+	 * Compare the fields of two objects in the order of their definitions. {@code null} objects and field values are
+	 * ordered first.
+	 *
+	 * @param a first object, may be {@code null}
+	 * @param b second object, may be {@code null}
+	 * @return comparison result of the first field that differs, {@code 0} if all are equal
+	 * @throws ClassCastException if a reference field is not {@link Comparable}
+	 * @throws IllegalArgumentException if an object is no instance of a declaring class
+	 */
+	@Override
+	public int compare(final BASE a, final BASE b) throws ClassCastException, IllegalArgumentException {
+		if (a == b) {
+			return 0;
+		}
+		if (a == null) {
+			return -1;
+		}
+		if (b == null) {
+			return 1;
+		}
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			final int result;
+			switch (kinds[i]) {
+			case BOOLEAN:
+				result = Boolean.compare(handle.getBoolean(a), handle.getBoolean(b));
+				break;
+			case BYTE:
+				result = handle.getByte(a) - handle.getByte(b);
+				break;
+			case CHAR:
+				result = handle.getChar(a) - handle.getChar(b);
+				break;
+			case SHORT:
+				result = handle.getShort(a) - handle.getShort(b);
+				break;
+			case INT:
+				result = Integer.compare(handle.getInt(a), handle.getInt(b));
+				break;
+			case LONG:
+				result = Long.compare(handle.getLong(a), handle.getLong(b));
+				break;
+			case FLOAT:
+				result = Float.compare(handle.getFloat(a), handle.getFloat(b));
+				break;
+			case DOUBLE:
+				result = Double.compare(handle.getDouble(a), handle.getDouble(b));
+				break;
+			default:
+				result = Values.compare(handle.get(a), handle.get(b));
+			}
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Describe an object by its fields, eg. {@code POJO[myint=42, myInteger=null]}.
+	 *
+	 * @param object object, may be {@code null}
+	 * @return description
+	 * @throws IllegalArgumentException if object is no instance of a declaring class
+	 */
+	public String toString(final BASE object) throws IllegalArgumentException {
+		return appendTo(new StringBuilder(), object).toString();
+	}
+
+	/**
+	 * Append the description of an object to a builder, primitive fields are appended without boxing.
+	 *
+	 * @param builder builder to append to
+	 * @param object object, may be {@code null}
+	 * @return builder
+	 * @throws IllegalArgumentException if object is no instance of a declaring class
+	 * @see #toString(Object)
+	 */
+	public StringBuilder appendTo(final StringBuilder builder, final BASE object) throws IllegalArgumentException {
+		if (object == null) {
+			return builder.append("null");
+		}
+		builder.append(object.getClass().getSimpleName()).append('[');
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(fieldDefinitions[i].getName()).append('=');
+			switch (kinds[i]) {
+			case BOOLEAN:
+				builder.append(handle.getBoolean(object));
+				break;
+			case BYTE:
+				builder.append(handle.getByte(object));
+				break;
+			case CHAR:
+				builder.append(handle.getChar(object));
+				break;
+			case SHORT:
+				builder.append(handle.getShort(object));
+				break;
+			case INT:
+				builder.append(handle.getInt(object));
+				break;
+			case LONG:
+				builder.append(handle.getLong(object));
+				break;
+			case FLOAT:
+				builder.append(handle.getFloat(object));
+				break;
+			case DOUBLE:
+				builder.append(handle.getDouble(object));
+				break;
+			default:
+				Values.appendTo(builder, handle.get(object));
+			}
+		}
+		return builder.append(']');
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.object;
+
+import java.util.Arrays;
+
+/**
+ * Null-safe helpers for field values, arrays are handled by their elements. Used by ObjectMethods.
+ *
+ * @author Michael Kroll
+ */
+final class Values {
+
+	/** Hide Utility Constructor. */
+	private Values() {
+	}
+
+	static boolean equal(final Object a, final Object b) {
+		if (a == b) {
+			return true;
+		}
+		if (a == null || b == null) {
+			return false;
+		}
+		if (a.getClass().isArray() && a.getClass() == b.getClass()) {
+			// wrap to get element-wise comparison for every array type
+			return Arrays.deepEquals(new Object[] { a }, new Object[] { b });
+		}
+		return a.equals(b);
+	}
+
+	static int hash(final Object value) {
+		if (value == null) {
+			return 0;
+		}
+		if (value.getClass().isArray()) {
+			return Arrays.deepHashCode(new Object[] { value });
+		}
+		return value.hashCode();
+	}
+
+	static int hash(final long value) {
+		return (int) (value ^ (value >>> 32));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static int compare(final Object a, final Object b) {
+		if (a == b) {
+			return 0;
+		}
+		if (a == null) {
+			return -1;
+		}
+		if (b == null) {
+			return 1;
+		}
+		return ((Comparable) a).compareTo(b);
+	}
+
+	static void appendTo(final StringBuilder builder, final Object value) {
+		if (value != null && value.getClass().isArray()) {
+			final String elements = Arrays.deepToString(new Object[] { value });
+			// strip the wrapping array
+			builder.append(elements, 1, elements.length() - 1);
+		} else {
+			builder.append(value);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+import metamodel.access.field.FieldHandle;
+
+/**
+ * Conditions on a field of type {@code boolean}. The field is read without boxing.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the field
+ * @see Predicates#where(metamodel.field.BooleanField)
+ */
+public final class BooleanCondition<BASE> {
+
+	private final FieldHandle handle;
+
+	BooleanCondition(final FieldHandle handle) {
+		this.handle = handle;
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field == value}
+	 */
+	public Predicate<BASE> eq(final boolean value) {
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return handle.getBoolean(object) == value;
+			}
+
+			@Override
+			public Predicate<BASE> negate() {
+				return eq(!value);
+			}
+		};
+	}
+
+	/**
+	 * @return predicate accepting objects with {@code field == true}
+	 */
+	public Predicate<BASE> isTrue() {
+		return eq(true);
+	}
+
+	/**
+	 * @return predicate accepting objects with {@code field == false}
+	 */
+	public Predicate<BASE> isFalse() {
+		return eq(false);
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+import metamodel.access.field.FieldHandle;
+
+/**
+ * Conditions on a field of type {@code double} or {@code float}. The field is read without boxing and compared as
+ * {@code double}, with the semantics of the Java comparison operators: {@code NaN} is neither less than, greater than
+ * nor equal to any value, and {@code -0.0} equals {@code 0.0}.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the field
+ * @see Predicates#where(metamodel.field.DoubleField)
+ */
+public final class DoubleCondition<BASE> {
+
+	private final FieldHandle handle;
+	private final boolean isFloat;
+
+	DoubleCondition(final FieldHandle handle) {
+		this.handle = handle;
+		isFloat = handle.getField().getType() == float.class;
+	}
+
+	private double read(final BASE object) {
+		return isFloat ? handle.getFloat(object) : handle.getDouble(object);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field == value}
+	 */
+	public Predicate<BASE> eq(final double value) {
+		return between(value, value);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field != value}
+	 */
+	public Predicate<BASE> ne(final double value) {
+		return between(value, value).negate();
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field > value}
+	 */
+	public Predicate<BASE> gt(final double value) {
+		return value == Double.POSITIVE_INFINITY ? Predicate.<BASE> constant(false) : between(Math.nextUp(value),
+		        Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field >= value}
+	 */
+	public Predicate<BASE> ge(final double value) {
+		return between(value, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field < value}
+	 */
+	public Predicate<BASE> lt(final double value) {
+		return value == Double.NEGATIVE_INFINITY ? Predicate.<BASE> constant(false) : between(
+		        Double.NEGATIVE_INFINITY, Math.nextAfter(value, Double.NEGATIVE_INFINITY));
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field <= value}
+	 */
+	public Predicate<BASE> le(final double value) {
+		return between(Double.NEGATIVE_INFINITY, value);
+	}
+
+	/**
+	 * @param min minimum value, inclusive
+	 * @param max maximum value, inclusive
+	 * @return predicate accepting objects with {@code min <= field && field <= max}
+	 */
+	public Predicate<BASE> between(final double min, final double max) {
+		return min <= max ? new Range(min, max, false) : Predicate.<BASE> constant(false);
+	}
+
+	/**
+	 * @return predicate accepting objects with a field value of {@code NaN}
+	 */
+	public Predicate<BASE> isNaN() {
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return Double.isNaN(read(object));
+			}
+		};
+	}
+
+	private final class Range extends Predicate<BASE> {
+		private final double min;
+		private final double max;
+		private final boolean outside;
+
+		Range(final double min, final double max, final boolean outside) {
+			this.min = min;
+			this.max = max;
+			this.outside = outside;
+		}
+
+		@Override
+		public boolean test(final BASE object) {
+			final double value = read(object);
+			return (value >= min && value <= max) != outside;
+		}
+
+		@Override
+		public Predicate<BASE> negate() {
+			return new Range(min, max, !outside);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+import java.util.Arrays;
+
+import metamodel.access.field.FieldHandle;
+
+/**
+ * Conditions on a field of type {@code int}, {@code short}, {@code char} or {@code byte}. The field is read without
+ * boxing and compared as {@code int}.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the field
+ * @see Predicates#where(metamodel.field.IntField)
+ */
+public final class IntCondition<BASE> {
+
+	private final FieldHandle handle;
+	private final Class<?> type;
+
+	IntCondition(final FieldHandle handle) {
+		this.handle = handle;
+		type = handle.getField().getType();
+	}
+
+	private int read(final BASE object) {
+		if (type == int.class) {
+			return handle.getInt(object);
+		} else if (type == short.class) {
+			return handle.getShort(object);
+		} else if (type == char.class) {
+			return handle.getChar(object);
+		} else {
+			return handle.getByte(object);
+		}
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field == value}
+	 */
+	public Predicate<BASE> eq(final int value) {
+		return between(value, value);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field != value}
+	 */
+	public Predicate<BASE> ne(final int value) {
+		return between(value, value).negate();
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field > value}
+	 */
+	public Predicate<BASE> gt(final int value) {
+		return value == Integer.MAX_VALUE ? Predicate.<BASE> constant(false) : between(value + 1, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field >= value}
+	 */
+	public Predicate<BASE> ge(final int value) {
+		return between(value, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field < value}
+	 */
+	public Predicate<BASE> lt(final int value) {
+		return value == Integer.MIN_VALUE ? Predicate.<BASE> constant(false) : between(Integer.MIN_VALUE, value - 1);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field <= value}
+	 */
+	public Predicate<BASE> le(final int value) {
+		return between(Integer.MIN_VALUE, value);
+	}
+
+	/**
+	 * @param min minimum value, inclusive
+	 * @param max maximum value, inclusive
+	 * @return predicate accepting objects with {@code min <= field && field <= max}
+	 */
+	public Predicate<BASE> between(final int min, final int max) {
+		return min > max ? Predicate.<BASE> constant(false) : new Range(min, max, false);
+	}
+
+	/**
+	 * @param values accepted values
+	 * @return predicate accepting objects with a field value equal to any of values
+	 */
+	public Predicate<BASE> in(final int... values) {
+		final int[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return Arrays.binarySearch(sorted, read(object)) >= 0;
+			}
+		};
+	}
+
+	private final class Range extends Predicate<BASE> {
+		private final int min;
+		private final int max;
+		private final boolean outside;
+
+		Range(final int min, final int max, final boolean outside) {
+			this.min = min;
+			this.max = max;
+			this.outside = outside;
+		}
+
+		@Override
+		public boolean test(final BASE object) {
+			final int value = read(object);
+			return (value >= min && value <= max) != outside;
+		}
+
+		@Override
+		public Predicate<BASE> negate() {
+			return new Range(min, max, !outside);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+import java.util.Arrays;
+
+import metamodel.access.field.FieldHandle;
+
+/**
+ * Conditions on a field of type {@code long}. The field is read without boxing.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the field
+ * @see Predicates#where(metamodel.field.LongField)
+ */
+public final class LongCondition<BASE> {
+
+	private final FieldHandle handle;
+
+	LongCondition(final FieldHandle handle) {
+		this.handle = handle;
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field == value}
+	 */
+	public Predicate<BASE> eq(final long value) {
+		return between(value, value);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field != value}
+	 */
+	public Predicate<BASE> ne(final long value) {
+		return between(value, value).negate();
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field > value}
+	 */
+	public Predicate<BASE> gt(final long value) {
+		return value == Long.MAX_VALUE ? Predicate.<BASE> constant(false) : between(value + 1, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field >= value}
+	 */
+	public Predicate<BASE> ge(final long value) {
+		return between(value, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field < value}
+	 */
+	public Predicate<BASE> lt(final long value) {
+		return value == Long.MIN_VALUE ? Predicate.<BASE> constant(false) : between(Long.MIN_VALUE, value - 1);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with {@code field <= value}
+	 */
+	public Predicate<BASE> le(final long value) {
+		return between(Long.MIN_VALUE, value);
+	}
+
+	/**
+	 * @param min minimum value, inclusive
+	 * @param max maximum value, inclusive
+	 * @return predicate accepting objects with {@code min <= field && field <= max}
+	 */
+	public Predicate<BASE> between(final long min, final long max) {
+		return min > max ? Predicate.<BASE> constant(false) : new Range(min, max, false);
+	}
+
+	/**
+	 * @param values accepted values
+	 * @return predicate accepting objects with a field value equal to any of values
+	 */
+	public Predicate<BASE> in(final long... values) {
+		final long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return Arrays.binarySearch(sorted, handle.getLong(object)) >= 0;
+			}
+		};
+	}
+
+	private final class Range extends Predicate<BASE> {
+		private final long min;
+		private final long max;
+		private final boolean outside;
+
+		Range(final long min, final long max, final boolean outside) {
+			this.min = min;
+			this.max = max;
+			this.outside = outside;
+		}
+
+		@Override
+		public boolean test(final BASE object) {
+			final long value = handle.getLong(object);
+			return (value >= min && value <= max) != outside;
+		}
+
+		@Override
+		public Predicate<BASE> negate() {
+			return new Range(min, max, !outside);
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import metamodel.access.field.FieldHandle;
+
+/**
+ * Conditions on a field of a reference type. Primitive wrappers are compared by {@link Object#equals(Object)} and
+ * their natural ordering, like all other values.
+ * <p>
+ * Ordering conditions use the natural ordering of the field type, that has to implement {@link Comparable}. They never
+ * accept {@code null}.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the field
+ * @param <TYPE> type of the field
+ * @see Predicates#where(metamodel.field.SingularField)
+ */
+public final class ObjectCondition<BASE, TYPE> {
+
+	private final FieldHandle handle;
+
+	ObjectCondition(final FieldHandle handle) {
+		this.handle = handle;
+	}
+
+	/**
+	 * @return predicate accepting objects with {@code field == null}
+	 */
+	public Predicate<BASE> isNull() {
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return handle.get(object) == null;
+			}
+		};
+	}
+
+	/**
+	 * @return predicate accepting objects with {@code field != null}
+	 */
+	public Predicate<BASE> isNotNull() {
+		return isNull().negate();
+	}
+
+	/**
+	 * @param value value to compare with, may be {@code null}
+	 * @return predicate accepting objects with a field value equal to value
+	 */
+	public Predicate<BASE> eq(final TYPE value) {
+		if (value == null) {
+			return isNull();
+		}
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return value.equals(handle.get(object));
+			}
+		};
+	}
+
+	/**
+	 * @param value value to compare with, may be {@code null}
+	 * @return predicate accepting objects with a field value not equal to value
+	 */
+	public Predicate<BASE> ne(final TYPE value) {
+		return eq(value).negate();
+	}
+
+	/**
+	 * @param values accepted values, may contain {@code null}
+	 * @return predicate accepting objects with a field value equal to any of values
+	 */
+	@SafeVarargs
+	public final Predicate<BASE> in(final TYPE... values) {
+		final Set<TYPE> set = new HashSet<>(Arrays.asList(values));
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return set.contains(handle.get(object));
+			}
+		};
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with a field value greater than value
+	 * @throws IllegalArgumentException if value is {@code null} or not comparable
+	 */
+	public Predicate<BASE> gt(final TYPE value) throws IllegalArgumentException {
+		return new Range(comparable(value), false, null, false);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with a field value greater than or equal to value
+	 * @throws IllegalArgumentException if value is {@code null} or not comparable
+	 */
+	public Predicate<BASE> ge(final TYPE value) throws IllegalArgumentException {
+		return new Range(comparable(value), true, null, false);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with a field value less than value
+	 * @throws IllegalArgumentException if value is {@code null} or not comparable
+	 */
+	public Predicate<BASE> lt(final TYPE value) throws IllegalArgumentException {
+		return new Range(null, false, comparable(value), false);
+	}
+
+	/**
+	 * @param value value to compare with
+	 * @return predicate accepting objects with a field value less than or equal to value
+	 * @throws IllegalArgumentException if value is {@code null} or not comparable
+	 */
+	public Predicate<BASE> le(final TYPE value) throws IllegalArgumentException {
+		return new Range(null, false, comparable(value), true);
+	}
+
+	/**
+	 * @param min minimum value, inclusive
+	 * @param max maximum value, inclusive
+	 * @return predicate accepting objects with a field value between min and max
+	 * @throws IllegalArgumentException if min or max is {@code null} or not comparable
+	 */
+	public Predicate<BASE> between(final TYPE min, final TYPE max) throws IllegalArgumentException {
+		return new Range(comparable(min), true, comparable(max), true);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Comparable<Object> comparable(final Object value) throws IllegalArgumentException {
+		if (!(value instanceof Comparable)) {
+			throw new IllegalArgumentException("cannot compare by natural ordering: " + value);
+		}
+		return (Comparable<Object>) value;
+	}
+
+	private final class Range extends Predicate<BASE> {
+		/** lower bound, {@code null} if unbounded. */
+		private final Comparable<Object> min;
+		private final boolean minInclusive;
+		/** upper bound, {@code null} if unbounded. */
+		private final Comparable<Object> max;
+		private final boolean maxInclusive;
+
+		Range(final Comparable<Object> min, final boolean minInclusive, final Comparable<Object> max,
+		        final boolean maxInclusive) {
+			this.min = min;
+			this.minInclusive = minInclusive;
+			this.max = max;
+			this.maxInclusive = maxInclusive;
+		}
+
+		@Override
+		public boolean test(final BASE object) {
+			final Object value = handle.get(object);
+			if (value == null) {
+				return false;
+			}
+			if (min != null) {
+				final int comparison = min.compareTo(value);
+				if (comparison > 0 || comparison == 0 && !minInclusive) {
+					return false;
+				}
+			}
+			if (max != null) {
+				final int comparison = max.compareTo(value);
+				if (comparison < 0 || comparison == 0 && !maxInclusive) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
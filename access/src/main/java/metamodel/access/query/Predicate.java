@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+/**
+ * Condition on objects of a class, usually built from metamodel field definitions by {@link Predicates}:
+ *
+ * <pre>
+ * Predicate&lt;POJO&gt; predicate = where(POJO_.myint).gt(30).and(where(POJO_.myInteger).isNull());
+ * </pre>
+ *
+ * Predicates are immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of tested objects
+ * @see Query
+ */
+public abstract class Predicate<BASE> {
+
+	/**
+	 * @param value {@code true} for a predicate that accepts all objects, {@code false} for one that rejects all
+	 * @return constant predicate
+	 */
+	@SuppressWarnings("unchecked")
+	static <BASE> Predicate<BASE> constant(final boolean value) {
+		return (Predicate<BASE>) (value ? Constant.TRUE : Constant.FALSE);
+	}
+
+	/**
+	 * Test an object.
+	 *
+	 * @param object object to test
+	 * @return {@code true} if the object fulfills the condition
+	 * @throws IllegalArgumentException if object is no instance of the class that declares a tested field
+	 */
+	public abstract boolean test(BASE object) throws IllegalArgumentException;
+
+	/**
+	 * @param other another predicate
+	 * @return predicate that accepts objects accepted by both predicates, other is only tested if this one accepts
+	 */
+	public Predicate<BASE> and(final Predicate<? super BASE> other) {
+		final Predicate<BASE> first = this;
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return first.test(object) && other.test(object);
+			}
+		};
+	}
+
+	/**
+	 * @param other another predicate
+	 * @return predicate that accepts objects accepted by any of the predicates, other is only tested if this one
+	 *         rejects
+	 */
+	public Predicate<BASE> or(final Predicate<? super BASE> other) {
+		final Predicate<BASE> first = this;
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return first.test(object) || other.test(object);
+			}
+		};
+	}
+
+	/**
+	 * @return predicate that accepts exactly the objects rejected by this one
+	 */
+	public Predicate<BASE> negate() {
+		final Predicate<BASE> negated = this;
+		return new Predicate<BASE>() {
+			@Override
+			public boolean test(final BASE object) {
+				return !negated.test(object);
+			}
+
+			@Override
+			public Predicate<BASE> negate() {
+				return negated;
+			}
+		};
+	}
+
+	private static final class Constant extends Predicate<Object> {
+		static final Constant TRUE = new Constant(true);
+		static final Constant FALSE = new Constant(false);
+
+		private final boolean value;
+
+		private Constant(final boolean value) {
+			this.value = value;
+		}
+
+		@Override
+		public boolean test(final Object object) {
+			return value;
+		}
+
+		@Override
+		public Predicate<Object> negate() {
+			return value ? FALSE : TRUE;
+		}
+	}
+}
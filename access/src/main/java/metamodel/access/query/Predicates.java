@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+import metamodel.access.field.FieldHelper;
+import metamodel.field.BooleanField;
+import metamodel.field.ByteField;
+import metamodel.field.CharField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.ShortField;
+import metamodel.field.SingularField;
+
+/**
+ * Builds {@link Predicate predicates} from metamodel field definitions:
+ *
+ * <pre>
+ * import static metamodel.access.query.Predicates.where;
+ * 
+ * private static final Query&lt;POJO&gt; QUERY = Query.of(where(POJO_.myint).gt(30).and(
+ *         where(POJO_.myInteger).isNull()));
+ * 
+ * List&lt;POJO&gt; result = QUERY.select(pojos);
+ * </pre>
+ *
+ * Fields are resolved when the predicate is built. Primitive fields are read without boxing and compared as primitives,
+ * so testing an object neither allocates nor uses reflection. Conditions on {@code byte}, {@code char} and
+ * {@code short} fields compare as {@code int}, conditions on {@code float} fields as {@code double}.
+ *
+ * @author Michael Kroll
+ */
+public final class Predicates {
+
+	/** Hide Utility Constructor. */
+	private Predicates() {
+	}
+
+	/**
+	 * Start a condition on a {@code boolean} field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> BooleanCondition<BASE> where(final BooleanField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new BooleanCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Start a condition on a {@code byte} field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> IntCondition<BASE> where(final ByteField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new IntCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Start a condition on a {@code char} field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> IntCondition<BASE> where(final CharField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new IntCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Start a condition on a {@code short} field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> IntCondition<BASE> where(final ShortField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new IntCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Start a condition on an {@code int} field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> IntCondition<BASE> where(final IntField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new IntCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Start a condition on a {@code long} field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> LongCondition<BASE> where(final LongField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new LongCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Start a condition on a {@code float} field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> DoubleCondition<BASE> where(final FloatField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new DoubleCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Start a condition on a {@code double} field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE> DoubleCondition<BASE> where(final DoubleField<BASE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new DoubleCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * Start a condition on a field of a reference type.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return condition builder
+	 * @throws NoSuchFieldException if the defined field does not exist
+	 * @throws SecurityException
+	 */
+	public static <BASE, TYPE> ObjectCondition<BASE, TYPE> where(final SingularField<BASE, TYPE> fieldDefinition)
+	        throws NoSuchFieldException, SecurityException {
+		return new ObjectCondition<>(FieldHelper.getHandle(fieldDefinition));
+	}
+
+	/**
+	 * @return predicate that accepts all objects
+	 */
+	public static <BASE> Predicate<BASE> all() {
+		return Predicate.constant(true);
+	}
+
+	/**
+	 * @return predicate that rejects all objects
+	 */
+	public static <BASE> Predicate<BASE> none() {
+		return Predicate.constant(false);
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import metamodel.access.field.BulkFieldAccessor;
+import metamodel.access.field.Ranges;
+
+/**
+ * Evaluates a {@link Predicate} over many objects:
+ *
+ * <pre>
+ * private static final Query&lt;POJO&gt; QUERY = Query.of(where(POJO_.myint).gt(30));
+ * 
+ * List&lt;POJO&gt; result = QUERY.select(pojos);
+ * int count = QUERY.count(pojos);
+ * </pre>
+ *
+ * Inputs with fast indexed access, ie. arrays and {@link RandomAccess} lists, that are larger than the parallel
+ * threshold are split and tested by a fork-join pool. Other collections are copied into a list first if they are
+ * larger than the threshold, all other inputs are tested by the calling thread. The order of the input is kept in any
+ * case. Queries are immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of tested objects
+ */
+public final class Query<BASE> {
+
+	private final Predicate<? super BASE> predicate;
+	private final int parallelThreshold;
+
+	/**
+	 * Create a query with the {@link BulkFieldAccessor#DEFAULT_PARALLEL_THRESHOLD default parallel threshold}.
+	 *
+	 * @param predicate condition of the query
+	 * @return query
+	 */
+	public static <BASE> Query<BASE> of(final Predicate<? super BASE> predicate) {
+		return new Query<>(predicate, BulkFieldAccessor.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	private Query(final Predicate<? super BASE> predicate, final int parallelThreshold) {
+		this.predicate = predicate;
+		this.parallelThreshold = Ranges.checkThreshold(parallelThreshold);
+	}
+
+	/**
+	 * @return condition of the query
+	 */
+	public Predicate<? super BASE> getPredicate() {
+		return predicate;
+	}
+
+	/**
+	 * @return number of objects tested by one task, larger inputs are tested in parallel
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Create a copy with another parallel threshold.
+	 *
+	 * @param threshold number of objects tested by one task, inputs up to this size are tested by the calling thread
+	 * @return new query
+	 */
+	public Query<BASE> withParallelThreshold(final int threshold) {
+		return new Query<>(predicate, threshold);
+	}
+
+	/**
+	 * Select all objects accepted by the predicate.
+	 *
+	 * @param objects objects to test
+	 * @return accepted objects, in the order of objects
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a tested field
+	 */
+	public List<BASE> select(final Iterable<? extends BASE> objects) throws IllegalArgumentException {
+		final List<? extends BASE> list = Ranges.indexed(objects, parallelThreshold);
+		if (list == null) {
+			final List<BASE> result = new ArrayList<>();
+			for (final BASE object : objects) {
+				if (predicate.test(object)) {
+					result.add(object);
+				}
+			}
+			return result;
+		}
+		final boolean[] accepted = new boolean[list.size()];
+		final AtomicInteger count = new AtomicInteger();
+		Ranges.forEach(accepted.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				int partCount = 0;
+				for (int i = from; i < to; i++) {
+					if (predicate.test(list.get(i))) {
+						accepted[i] = true;
+						partCount++;
+					}
+				}
+				count.addAndGet(partCount);
+			}
+		});
+		final List<BASE> result = new ArrayList<>(count.get());
+		for (int i = 0; i < accepted.length; i++) {
+			if (accepted[i]) {
+				result.add(list.get(i));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Select all objects accepted by the predicate.
+	 *
+	 * @param objects objects to test
+	 * @return accepted objects, in the order of objects
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a tested field
+	 */
+	public List<BASE> select(final BASE[] objects) throws IllegalArgumentException {
+		return select(Arrays.asList(objects));
+	}
+
+	/**
+	 * Count the objects accepted by the predicate.
+	 *
+	 * @param objects objects to test
+	 * @return number of accepted objects
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a tested field
+	 */
+	public int count(final Iterable<? extends BASE> objects) throws IllegalArgumentException {
+		final List<? extends BASE> list = Ranges.indexed(objects, parallelThreshold);
+		if (list == null) {
+			int count = 0;
+			for (final BASE object : objects) {
+				if (predicate.test(object)) {
+					count++;
+				}
+			}
+			return count;
+		}
+		final AtomicInteger count = new AtomicInteger();
+		Ranges.forEach(list.size(), parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				int partCount = 0;
+				for (int i = from; i < to; i++) {
+					if (predicate.test(list.get(i))) {
+						partCount++;
+					}
+				}
+				count.addAndGet(partCount);
+			}
+		});
+		return count.get();
+	}
+
+	/**
+	 * Count the objects accepted by the predicate.
+	 *
+	 * @param objects objects to test
+	 * @return number of accepted objects
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a tested field
+	 */
+	public int count(final BASE[] objects) throws IllegalArgumentException {
+		return count(Arrays.asList(objects));
+	}
+}
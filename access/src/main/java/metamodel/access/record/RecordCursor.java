@@ -0,0 +1,428 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.record;
+
+import java.nio.ByteBuffer;
+
+import metamodel.field.BooleanField;
+import metamodel.field.ByteField;
+import metamodel.field.CharField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.ShortField;
+
+/**
+ * Flyweight view of one record of a {@link RecordStore}, that can be moved to any other record of the store. Values
+ * are read and written directly in the memory of the store, by the offset of a field within the record:
+ *
+ * <pre>
+ * final int price = ticks.getLayout().getOffset(Tick_.price);
+ * RecordCursor&lt;Tick&gt; cursor = ticks.cursor();
+ * double sum = 0;
+ * for (int i = 0; i &lt; ticks.getCapacity(); i++) {
+ * 	sum += cursor.moveTo(i).getDouble(price);
+ * }
+ * </pre>
+ *
+ * Offsets are resolved once, outside of loops. The overloads taking a field definition look up its offset on every
+ * call, which is convenient, but slower. Moving the cursor does not allocate. Cursors are not thread-safe.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of stored objects
+ */
+public final class RecordCursor<BASE> {
+
+	private final RecordStore<BASE> store;
+	private final RecordLayout<BASE> layout;
+	private final ByteBuffer buffer;
+	private int index;
+	/** offset of the current record in buffer. */
+	private int base;
+
+	RecordCursor(final RecordStore<BASE> store, final ByteBuffer buffer) {
+		this.store = store;
+		this.buffer = buffer;
+		layout = store.getLayout();
+	}
+
+	/**
+	 * @return store of the records
+	 */
+	public RecordStore<BASE> getStore() {
+		return store;
+	}
+
+	/**
+	 * @return index of the current record
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Position the cursor at a record.
+	 *
+	 * @param index record index
+	 * @return this cursor
+	 * @throws IndexOutOfBoundsException if index is out of range
+	 */
+	public RecordCursor<BASE> moveTo(final int index) throws IndexOutOfBoundsException {
+		base = store.offsetOf(index);
+		this.index = index;
+		return this;
+	}
+
+	/**
+	 * Copy the primitive fields of an object into the current record.
+	 *
+	 * @param object instance to copy
+	 * @throws IllegalArgumentException if object is no instance of the stored class
+	 */
+	public void write(final BASE object) throws IllegalArgumentException {
+		layout.write(object, buffer, base);
+	}
+
+	/**
+	 * Assign the values of the current record to the primitive fields of an object.
+	 *
+	 * @param target instance to assign the fields of
+	 * @return target
+	 * @throws IllegalArgumentException if target is no instance of the stored class
+	 */
+	public BASE read(final BASE target) throws IllegalArgumentException {
+		layout.read(buffer, base, target);
+		return target;
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public boolean getBoolean(final BooleanField<? super BASE> fieldDefinition) throws IllegalArgumentException {
+		return getBoolean(layout.getOffset(fieldDefinition));
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public void setBoolean(final BooleanField<? super BASE> fieldDefinition, final boolean value)
+	        throws IllegalArgumentException {
+		setBoolean(layout.getOffset(fieldDefinition), value);
+	}
+
+	/**
+	 * @param offset offset of a boolean field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @return value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public boolean getBoolean(final int offset) throws IndexOutOfBoundsException {
+		return buffer.get(index(offset, 1)) != 0;
+	}
+
+	/**
+	 * @param offset offset of a boolean field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @param value new value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public void setBoolean(final int offset, final boolean value) throws IndexOutOfBoundsException {
+		buffer.put(index(offset, 1), value ? (byte) 1 : (byte) 0);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public byte getByte(final ByteField<? super BASE> fieldDefinition) throws IllegalArgumentException {
+		return getByte(layout.getOffset(fieldDefinition));
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public void setByte(final ByteField<? super BASE> fieldDefinition, final byte value)
+	        throws IllegalArgumentException {
+		setByte(layout.getOffset(fieldDefinition), value);
+	}
+
+	/**
+	 * @param offset offset of a byte field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @return value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public byte getByte(final int offset) throws IndexOutOfBoundsException {
+		return buffer.get(index(offset, 1));
+	}
+
+	/**
+	 * @param offset offset of a byte field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @param value new value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public void setByte(final int offset, final byte value) throws IndexOutOfBoundsException {
+		buffer.put(index(offset, 1), value);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public char getChar(final CharField<? super BASE> fieldDefinition) throws IllegalArgumentException {
+		return getChar(layout.getOffset(fieldDefinition));
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public void setChar(final CharField<? super BASE> fieldDefinition, final char value)
+	        throws IllegalArgumentException {
+		setChar(layout.getOffset(fieldDefinition), value);
+	}
+
+	/**
+	 * @param offset offset of a char field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @return value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public char getChar(final int offset) throws IndexOutOfBoundsException {
+		return buffer.getChar(index(offset, 2));
+	}
+
+	/**
+	 * @param offset offset of a char field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @param value new value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public void setChar(final int offset, final char value) throws IndexOutOfBoundsException {
+		buffer.putChar(index(offset, 2), value);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public short getShort(final ShortField<? super BASE> fieldDefinition) throws IllegalArgumentException {
+		return getShort(layout.getOffset(fieldDefinition));
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public void setShort(final ShortField<? super BASE> fieldDefinition, final short value)
+	        throws IllegalArgumentException {
+		setShort(layout.getOffset(fieldDefinition), value);
+	}
+
+	/**
+	 * @param offset offset of a short field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @return value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public short getShort(final int offset) throws IndexOutOfBoundsException {
+		return buffer.getShort(index(offset, 2));
+	}
+
+	/**
+	 * @param offset offset of a short field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @param value new value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public void setShort(final int offset, final short value) throws IndexOutOfBoundsException {
+		buffer.putShort(index(offset, 2), value);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public int getInt(final IntField<? super BASE> fieldDefinition) throws IllegalArgumentException {
+		return getInt(layout.getOffset(fieldDefinition));
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public void setInt(final IntField<? super BASE> fieldDefinition, final int value) throws IllegalArgumentException {
+		setInt(layout.getOffset(fieldDefinition), value);
+	}
+
+	/**
+	 * @param offset offset of a int field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @return value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public int getInt(final int offset) throws IndexOutOfBoundsException {
+		return buffer.getInt(index(offset, 4));
+	}
+
+	/**
+	 * @param offset offset of a int field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @param value new value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public void setInt(final int offset, final int value) throws IndexOutOfBoundsException {
+		buffer.putInt(index(offset, 4), value);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public long getLong(final LongField<? super BASE> fieldDefinition) throws IllegalArgumentException {
+		return getLong(layout.getOffset(fieldDefinition));
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public void setLong(final LongField<? super BASE> fieldDefinition, final long value)
+	        throws IllegalArgumentException {
+		setLong(layout.getOffset(fieldDefinition), value);
+	}
+
+	/**
+	 * @param offset offset of a long field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @return value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public long getLong(final int offset) throws IndexOutOfBoundsException {
+		return buffer.getLong(index(offset, 8));
+	}
+
+	/**
+	 * @param offset offset of a long field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @param value new value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public void setLong(final int offset, final long value) throws IndexOutOfBoundsException {
+		buffer.putLong(index(offset, 8), value);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public float getFloat(final FloatField<? super BASE> fieldDefinition) throws IllegalArgumentException {
+		return getFloat(layout.getOffset(fieldDefinition));
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public void setFloat(final FloatField<? super BASE> fieldDefinition, final float value)
+	        throws IllegalArgumentException {
+		setFloat(layout.getOffset(fieldDefinition), value);
+	}
+
+	/**
+	 * @param offset offset of a float field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @return value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public float getFloat(final int offset) throws IndexOutOfBoundsException {
+		return buffer.getFloat(index(offset, 4));
+	}
+
+	/**
+	 * @param offset offset of a float field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @param value new value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public void setFloat(final int offset, final float value) throws IndexOutOfBoundsException {
+		buffer.putFloat(index(offset, 4), value);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public double getDouble(final DoubleField<? super BASE> fieldDefinition) throws IllegalArgumentException {
+		return getDouble(layout.getOffset(fieldDefinition));
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @param value new value of the field in the current record
+	 * @throws IllegalArgumentException if the field is not part of the layout
+	 */
+	public void setDouble(final DoubleField<? super BASE> fieldDefinition, final double value)
+	        throws IllegalArgumentException {
+		setDouble(layout.getOffset(fieldDefinition), value);
+	}
+
+	/**
+	 * @param offset offset of a double field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @return value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public double getDouble(final int offset) throws IndexOutOfBoundsException {
+		return buffer.getDouble(index(offset, 8));
+	}
+
+	/**
+	 * @param offset offset of a double field, see {@link RecordLayout#getOffset(metamodel.field.AbstractField)}
+	 * @param value new value of the field in the current record
+	 * @throws IndexOutOfBoundsException if the value would not be within the record
+	 */
+	public void setDouble(final int offset, final double value) throws IndexOutOfBoundsException {
+		buffer.putDouble(index(offset, 8), value);
+	}
+
+	/**
+	 * @param offset offset of a field within the record
+	 * @param size size of the field in bytes
+	 * @return index of the field in the buffer
+	 * @throws IndexOutOfBoundsException if the field would not be within the record
+	 */
+	private int index(final int offset, final int size) throws IndexOutOfBoundsException {
+		if (offset < 0 || offset > layout.getRecordSize() - size) {
+			throw new IndexOutOfBoundsException("offset " + offset + " of a " + size + " byte value is outside of a "
+			        + layout.getRecordSize() + " byte record");
+		}
+		return base + offset;
+	}
+}
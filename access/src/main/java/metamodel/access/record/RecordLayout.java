@@ -0,0 +1,219 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.record;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import metamodel.access.Metamodels;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.access.field.Primitives;
+import metamodel.field.AbstractField;
+
+/**
+ * Fixed binary layout of the primitive fields of a class, for storing instances as records in a {@link RecordStore}.
+ * <p>
+ * Fields are ordered by descending size, so every value is aligned to its size within the record. The record size is
+ * rounded up to the largest field, which keeps the values aligned in consecutive records. Booleans take one byte.
+ * Reference fields are not part of the layout.
+ * <p>
+ * Layouts are immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the fields
+ */
+public final class RecordLayout<BASE> {
+
+	private final Class<BASE> type;
+	private final AbstractField<? super BASE, ?>[] fieldDefinitions;
+	private final FieldHandle[] handles;
+	/** primitive type of each field. */
+	private final Class<?>[] types;
+	/** offset of each field within a record. */
+	private final int[] offsets;
+	private final Map<AbstractField<?, ?>, Integer> offsetsByField = new IdentityHashMap<>();
+	private final int recordSize;
+
+	/**
+	 * Create a layout of all primitive fields of a metamodel class, including the fields of its superclasses.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return layout
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <BASE> RecordLayout<BASE> of(final Class<BASE> type, final Class<?> metamodelClass)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		Metamodels.checkDescribes(type, metamodelClass);
+		final List<AbstractField<? super BASE, ?>> fieldDefinitions = new ArrayList<>();
+		final List<FieldHandle> handles = new ArrayList<>();
+		for (final AbstractField<?, ?> fieldDefinition : Metamodels.getFields(metamodelClass)) {
+			final FieldHandle handle = FieldHelper.getHandle(fieldDefinition);
+			if (handle.getField().getType().isPrimitive()) {
+				fieldDefinitions.add((AbstractField<? super BASE, ?>) fieldDefinition);
+				handles.add(handle);
+			}
+		}
+		final AbstractField<? super BASE, ?>[] definitions = newArray(fieldDefinitions.size());
+		return new RecordLayout<>(type, fieldDefinitions.toArray(definitions),
+		        handles.toArray(new FieldHandle[handles.size()]));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> AbstractField<? super BASE, ?>[] newArray(final int length) {
+		return (AbstractField<? super BASE, ?>[]) new AbstractField<?, ?>[length];
+	}
+
+	private RecordLayout(final Class<BASE> type, final AbstractField<? super BASE, ?>[] fieldDefinitions,
+	        final FieldHandle[] handles) {
+		this.type = type;
+		this.fieldDefinitions = fieldDefinitions;
+		this.handles = handles;
+		types = new Class<?>[fieldDefinitions.length];
+		offsets = new int[fieldDefinitions.length];
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			types[i] = handles[i].getField().getType();
+		}
+		int offset = 0;
+		int alignment = 1;
+		for (int size = 8; size > 0; size >>= 1) {
+			for (int i = 0; i < fieldDefinitions.length; i++) {
+				if (Primitives.width(types[i]) == size) {
+					offsets[i] = offset;
+					offsetsByField.put(fieldDefinitions[i], offset);
+					offset += size;
+					alignment = Math.max(alignment, size);
+				}
+			}
+		}
+		recordSize = Math.max(1, (offset + alignment - 1) / alignment * alignment);
+	}
+
+	/**
+	 * @return type of class that declares the fields
+	 */
+	public Class<BASE> getType() {
+		return type;
+	}
+
+	/**
+	 * @return size of a record in bytes, at least 1
+	 */
+	public int getRecordSize() {
+		return recordSize;
+	}
+
+	/**
+	 * @return definitions of the primitive fields, in the order of the metamodel
+	 */
+	public List<AbstractField<? super BASE, ?>> getFieldDefinitions() {
+		return Arrays.asList(fieldDefinitions.clone());
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return offset of the field within a record
+	 * @throws IllegalArgumentException if the field is not part of this layout
+	 */
+	public int getOffset(final AbstractField<? super BASE, ?> fieldDefinition) throws IllegalArgumentException {
+		final Integer offset = offsetsByField.get(fieldDefinition);
+		if (offset == null) {
+			throw new IllegalArgumentException("field " + fieldDefinition.getName() + " is not part of the layout of "
+			        + type.getName());
+		}
+		return offset;
+	}
+
+	/**
+	 * Copy the fields of an object into a record.
+	 *
+	 * @param object instance to read from
+	 * @param buffer buffer that holds the record
+	 * @param base offset of the record in buffer
+	 */
+	void write(final BASE object, final ByteBuffer buffer, final int base) {
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			final Class<?> fieldType = types[i];
+			final int index = base + offsets[i];
+			if (fieldType == int.class) {
+				buffer.putInt(index, handle.getInt(object));
+			} else if (fieldType == long.class) {
+				buffer.putLong(index, handle.getLong(object));
+			} else if (fieldType == double.class) {
+				buffer.putDouble(index, handle.getDouble(object));
+			} else if (fieldType == boolean.class) {
+				buffer.put(index, handle.getBoolean(object) ? (byte) 1 : (byte) 0);
+			} else if (fieldType == float.class) {
+				buffer.putFloat(index, handle.getFloat(object));
+			} else if (fieldType == short.class) {
+				buffer.putShort(index, handle.getShort(object));
+			} else if (fieldType == byte.class) {
+				buffer.put(index, handle.getByte(object));
+			} else {
+				buffer.putChar(index, handle.getChar(object));
+			}
+		}
+	}
+
+	/**
+	 * Assign the values of a record to the fields of an object.
+	 *
+	 * @param buffer buffer that holds the record
+	 * @param base offset of the record in buffer
+	 * @param target instance to assign the fields of
+	 */
+	void read(final ByteBuffer buffer, final int base, final BASE target) {
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			final Class<?> fieldType = types[i];
+			final int index = base + offsets[i];
+			if (fieldType == int.class) {
+				handle.setInt(target, buffer.getInt(index));
+			} else if (fieldType == long.class) {
+				handle.setLong(target, buffer.getLong(index));
+			} else if (fieldType == double.class) {
+				handle.setDouble(target, buffer.getDouble(index));
+			} else if (fieldType == boolean.class) {
+				handle.setBoolean(target, buffer.get(index) != 0);
+			} else if (fieldType == float.class) {
+				handle.setFloat(target, buffer.getFloat(index));
+			} else if (fieldType == short.class) {
+				handle.setShort(target, buffer.getShort(index));
+			} else if (fieldType == byte.class) {
+				handle.setByte(target, buffer.get(index));
+			} else {
+				handle.setChar(target, buffer.getChar(index));
+			}
+		}
+	}
+}
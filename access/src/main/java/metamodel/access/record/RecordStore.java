@@ -0,0 +1,186 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.record;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import metamodel.access.constructor.ConstructorFunction0;
+import metamodel.access.constructor.ConstructorFunctions;
+import metamodel.constructor.impl.Constructor0Impl;
+
+/**
+ * Fixed number of records of one {@link RecordLayout}, stored in a single buffer outside of the heap:
+ *
+ * <pre>
+ * private static final RecordLayout&lt;Tick&gt; LAYOUT = RecordLayout.of(Tick.class, Tick_.class);
+ * 
+ * RecordStore&lt;Tick&gt; ticks = RecordStore.allocate(LAYOUT, 10000000);
+ * RecordCursor&lt;Tick&gt; cursor = ticks.cursor();
+ * for (int i = 0; i &lt; ticks.getCapacity(); i++) {
+ * 	cursor.moveTo(i).setLong(Tick_.time, times[i]);
+ * }
+ * </pre>
+ *
+ * Records are no objects, so they neither have a header nor are they visited by the garbage collector. Their fields
+ * are read and written through a {@link RecordCursor}, or copied from and to objects. All records are zero when
+ * allocated. A store holds at most 2 GB, larger data sets have to be split into several stores.
+ * <p>
+ * Stores may be shared between threads, as long as a record is not written by one thread while it is accessed by
+ * another one. Cursors must not be shared.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of stored objects
+ */
+public final class RecordStore<BASE> {
+
+	private final RecordLayout<BASE> layout;
+	private final ByteBuffer buffer;
+	private final int recordSize;
+	private final int capacity;
+	private volatile ConstructorFunction0<BASE> constructor;
+
+	/**
+	 * Allocate a store in a direct buffer of native byte order.
+	 *
+	 * @param layout layout of the records
+	 * @param capacity number of records
+	 * @return store with all records set to zero
+	 * @throws IllegalArgumentException if capacity is negative or the store would exceed 2 GB
+	 */
+	public static <BASE> RecordStore<BASE> allocate(final RecordLayout<BASE> layout, final int capacity)
+	        throws IllegalArgumentException {
+		if (capacity < 0 || (long) capacity * layout.getRecordSize() > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("cannot allocate " + capacity + " records of " + layout
+			        .getRecordSize() + " bytes");
+		}
+		return new RecordStore<>(layout, ByteBuffer.allocateDirect(capacity * layout.getRecordSize()).order(
+		        ByteOrder.nativeOrder()));
+	}
+
+	/**
+	 * Create a store on existing memory, eg. a memory mapped file. The store starts at the position of the buffer and
+	 * holds as many records as fit into its remaining bytes. The byte order of the buffer is kept.
+	 *
+	 * @param layout layout of the records
+	 * @param buffer memory of the records, its position and limit are not changed
+	 * @return store
+	 */
+	public static <BASE> RecordStore<BASE> wrap(final RecordLayout<BASE> layout, final ByteBuffer buffer) {
+		return new RecordStore<>(layout, buffer.slice().order(buffer.order()));
+	}
+
+	private RecordStore(final RecordLayout<BASE> layout, final ByteBuffer buffer) {
+		this.layout = layout;
+		this.buffer = buffer;
+		recordSize = layout.getRecordSize();
+		capacity = buffer.capacity() / recordSize;
+	}
+
+	/**
+	 * @return layout of the records
+	 */
+	public RecordLayout<BASE> getLayout() {
+		return layout;
+	}
+
+	/**
+	 * @return number of records
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Create a cursor, that is positioned at the first record.
+	 *
+	 * @return new cursor
+	 */
+	public RecordCursor<BASE> cursor() {
+		return new RecordCursor<>(this, buffer);
+	}
+
+	/**
+	 * @param index record index
+	 * @return offset of the record in the buffer
+	 * @throws IndexOutOfBoundsException if index is out of range
+	 */
+	int offsetOf(final int index) throws IndexOutOfBoundsException {
+		if (index < 0 || index >= capacity) {
+			throw new IndexOutOfBoundsException("record " + index + " of " + capacity);
+		}
+		return index * recordSize;
+	}
+
+	/**
+	 * Copy the primitive fields of an object into a record.
+	 *
+	 * @param index record index
+	 * @param object instance to copy
+	 * @throws IndexOutOfBoundsException if index is out of range
+	 * @throws IllegalArgumentException if object is no instance of the stored class
+	 */
+	public void write(final int index, final BASE object) throws IndexOutOfBoundsException, IllegalArgumentException {
+		layout.write(object, buffer, offsetOf(index));
+	}
+
+	/**
+	 * Assign the values of a record to the primitive fields of an existing object.
+	 *
+	 * @param index record index
+	 * @param target instance to assign the fields of
+	 * @return target
+	 * @throws IndexOutOfBoundsException if index is out of range
+	 * @throws IllegalArgumentException if target is no instance of the stored class
+	 */
+	public BASE read(final int index, final BASE target) throws IndexOutOfBoundsException, IllegalArgumentException {
+		layout.read(buffer, offsetOf(index), target);
+		return target;
+	}
+
+	/**
+	 * Create a new object from a record, by the default constructor of the stored class. Reference fields keep the
+	 * values assigned by the constructor.
+	 *
+	 * @param index record index
+	 * @return new object with the values of the record
+	 * @throws IndexOutOfBoundsException if index is out of range
+	 * @throws IllegalArgumentException if the stored class has no accessible default constructor
+	 */
+	public BASE get(final int index) throws IndexOutOfBoundsException, IllegalArgumentException {
+		final int offset = offsetOf(index);
+		ConstructorFunction0<BASE> function = constructor;
+		if (function == null) {
+			try {
+				function = ConstructorFunctions.compile(new Constructor0Impl<>(layout.getType()));
+			} catch (final NoSuchMethodException | InstantiationException e) {
+				throw new IllegalArgumentException(layout.getType().getName() + " cannot be instantiated", e);
+			}
+			constructor = function;
+		}
+		final BASE object = function.newInstance();
+		layout.read(buffer, offset, object);
+		return object;
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.sort;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.Primitives;
+
+/**
+ * Writes the value of a field as bytes, that compare unsigned and lexicographically in the same order as the values.
+ * The bytes of several keys are concatenated into the sort key of an object. Descending keys write the complement of
+ * each byte. Variable sized values are written prefix-free, so a following key never influences their order.
+ *
+ * @author Michael Kroll
+ */
+abstract class KeyEncoder {
+
+	/** Growing buffer for the sort key of one object. Not thread-safe. */
+	static final class Writer {
+		private byte[] bytes = new byte[16];
+		private int length;
+
+		void reset() {
+			length = 0;
+		}
+
+		void put(final int value) {
+			if (length == bytes.length) {
+				bytes = Arrays.copyOf(bytes, length * 2);
+			}
+			bytes[length++] = (byte) value;
+		}
+
+		/** Write the lowest count bytes of bits, most significant first. */
+		void putBits(final long bits, final int count, final int mask) {
+			for (int shift = (count - 1) * 8; shift >= 0; shift -= 8) {
+				put((int) (bits >>> shift) ^ mask);
+			}
+		}
+
+		/** @return written bytes as unsigned number, only valid for up to 8 bytes */
+		long toLong() {
+			long key = 0;
+			for (int i = 0; i < length; i++) {
+				key = key << 8 | bytes[i] & 0xFF;
+			}
+			return key;
+		}
+
+		byte[] toArray() {
+			return Arrays.copyOf(bytes, length);
+		}
+	}
+
+	private final int size;
+
+	KeyEncoder(final int size) {
+		this.size = size;
+	}
+
+	/**
+	 * @return number of bytes written for each object, {@code -1} if it depends on the value
+	 */
+	final int size() {
+		return size;
+	}
+
+	/**
+	 * Write the key of an object.
+	 *
+	 * @param object object to read the field of
+	 * @param writer buffer of the sort key
+	 */
+	abstract void write(Object object, Writer writer);
+
+	/**
+	 * Create the encoder for a field.
+	 *
+	 * @param handle handle of the field
+	 * @param descending {@code true} to reverse the order
+	 * @return encoder
+	 * @throws IllegalArgumentException if the type of the field cannot be encoded
+	 */
+	static KeyEncoder of(final FieldHandle handle, final boolean descending) throws IllegalArgumentException {
+		final Class<?> type = handle.getField().getType();
+		final int mask = descending ? 0xFF : 0;
+		if (type.isPrimitive()) {
+			final int width = width(type);
+			return new KeyEncoder(width) {
+				@Override
+				void write(final Object object, final Writer writer) {
+					writer.putBits(ordered(Primitives.bits(handle, type, object), type), width, mask);
+				}
+			};
+		} else if (type == Boolean.class) {
+			return new KeyEncoder(1) {
+				@Override
+				void write(final Object object, final Writer writer) {
+					final Boolean value = (Boolean) handle.get(object);
+					writer.put((value == null ? 0 : value ? 2 : 1) ^ mask);
+				}
+			};
+		} else if (width(type) > 0) {
+			final int width = width(type);
+			return new KeyEncoder(width + 1) {
+				@Override
+				void write(final Object object, final Writer writer) {
+					final Object value = handle.get(object);
+					if (value == null) {
+						writer.putBits(0, width + 1, mask);
+					} else {
+						writer.put(1 ^ mask);
+						writer.putBits(ordered(Primitives.bits(value), type), width, mask);
+					}
+				}
+			};
+		} else if (type.isEnum()) {
+			final int constants = type.getEnumConstants().length + 1;
+			final int width = constants <= 0x100 ? 1 : constants <= 0x10000 ? 2 : 4;
+			return new KeyEncoder(width) {
+				@Override
+				void write(final Object object, final Writer writer) {
+					final Enum<?> value = (Enum<?>) handle.get(object);
+					writer.putBits(value == null ? 0 : value.ordinal() + 1, width, mask);
+				}
+			};
+		} else if (type == Date.class) {
+			return new KeyEncoder(9) {
+				@Override
+				void write(final Object object, final Writer writer) {
+					final Date value = (Date) handle.get(object);
+					if (value == null) {
+						writer.putBits(0, 9, mask);
+					} else {
+						writer.put(1 ^ mask);
+						writer.putBits(value.getTime() ^ Long.MIN_VALUE, 8, mask);
+					}
+				}
+			};
+		} else if (type == String.class) {
+			return new KeyEncoder(-1) {
+				@Override
+				void write(final Object object, final Writer writer) {
+					final String value = (String) handle.get(object);
+					if (value == null) {
+						writer.put(mask);
+						return;
+					}
+					writer.put(1 ^ mask);
+					// zero bytes are escaped as 0x00 0xFF, so the terminator 0x00 0x00 sorts before any character
+					for (int i = 0; i < value.length(); i++) {
+						final char c = value.charAt(i);
+						putEscaped(writer, c >>> 8, mask);
+						putEscaped(writer, c & 0xFF, mask);
+					}
+					writer.put(mask);
+					writer.put(mask);
+				}
+			};
+		}
+		throw new IllegalArgumentException("cannot sort by " + handle.getField() + " of " + type.getName());
+	}
+
+	private static void putEscaped(final Writer writer, final int value, final int mask) {
+		writer.put(value ^ mask);
+		if (value == 0) {
+			writer.put(0xFF ^ mask);
+		}
+	}
+
+	/**
+	 * @return number of bytes of a primitive or wrapper type, 0 for other types
+	 */
+	private static int width(final Class<?> type) {
+		if (type == boolean.class || type == byte.class || type == Byte.class) {
+			return 1;
+		} else if (type == short.class || type == char.class || type == Short.class || type == Character.class) {
+			return 2;
+		} else if (type == int.class || type == float.class || type == Integer.class || type == Float.class) {
+			return 4;
+		} else if (type == long.class || type == double.class || type == Long.class || type == Double.class) {
+			return 8;
+		}
+		return 0;
+	}
+
+	/**
+	 * Turn the bits of a primitive value into bits, that compare unsigned in the same order as the values. Flips the
+	 * sign bit of integral values, and all bits of negative floating point values and the sign bit of positive ones, so
+	 * {@code NaN} is largest.
+	 *
+	 * @param bits {@link Primitives#bits(Object) bits} of the value
+	 * @param type primitive or wrapper type of the value
+	 * @return ordered bits, only the lowest {@link #width(Class)} bytes are valid
+	 */
+	private static long ordered(final long bits, final Class<?> type) {
+		if (type == double.class || type == Double.class) {
+			return bits ^ (bits >> 63 | Long.MIN_VALUE);
+		} else if (type == float.class || type == Float.class) {
+			return bits ^ (bits >> 31 | Integer.MIN_VALUE);
+		} else if (type == boolean.class || type == char.class || type == Character.class) {
+			return bits;
+		}
+		return bits ^ 1L << width(type) * 8 - 1;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.sort;
+
+import metamodel.field.SingularField;
+
+/**
+ * Field and direction of one key of a {@link Sorter}.
+ * <p>
+ * Ascending keys order {@code null} before all other values, descending keys after them. Numbers are ordered like
+ * {@link Double#compare(double, double)} and its counterparts, strings like {@link String#compareTo(String)}, enums by
+ * ordinal.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of class that declares the field
+ */
+public final class SortKey<BASE> {
+
+	private final SingularField<BASE, ?> fieldDefinition;
+	private final boolean descending;
+
+	private SortKey(final SingularField<BASE, ?> fieldDefinition, final boolean descending) {
+		this.fieldDefinition = fieldDefinition;
+		this.descending = descending;
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return key sorting by field in ascending order
+	 */
+	public static <BASE> SortKey<BASE> asc(final SingularField<BASE, ?> fieldDefinition) {
+		return new SortKey<BASE>(fieldDefinition, false);
+	}
+
+	/**
+	 * @param fieldDefinition metamodel field definition
+	 * @return key sorting by field in descending order
+	 */
+	public static <BASE> SortKey<BASE> desc(final SingularField<BASE, ?> fieldDefinition) {
+		return new SortKey<BASE>(fieldDefinition, true);
+	}
+
+	/**
+	 * @return metamodel field definition
+	 */
+	public SingularField<BASE, ?> getFieldDefinition() {
+		return fieldDefinition;
+	}
+
+	/**
+	 * @return {@code true} if values are sorted from largest to smallest
+	 */
+	public boolean isDescending() {
+		return descending;
+	}
+
+	@Override
+	public String toString() {
+		return fieldDefinition.getName() + (descending ? " desc" : " asc");
+	}
+}
@@ -0,0 +1,389 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+
+import metamodel.access.field.BulkFieldAccessor;
+import metamodel.access.field.FieldHelper;
+import metamodel.access.field.Ranges;
+
+/**
+ * Sorts objects by one or more fields:
+ *
+ * <pre>
+ * private static final Sorter&lt;POJO&gt; SORTER = Sorter.by(desc(POJO_.myint), asc(POJO_.myInteger));
+ * 
+ * SORTER.sort(pojos);
+ * </pre>
+ *
+ * The fields of each object are read once and encoded into a binary sort key, which is compared instead of the
+ * objects. Keys of up to 8 bytes, eg. two {@code int} fields, are packed into a {@code long} and sorted by a radix
+ * sort, longer keys are sorted by a merge sort on their bytes. Inputs larger than the parallel threshold are encoded
+ * and sorted by a fork-join pool. The sort is stable, objects with equal keys keep their order.
+ * <p>
+ * Supported field types are primitives and their wrappers, {@link String}, enums and {@link java.util.Date}. Sorters
+ * are immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of sorted objects
+ */
+public final class Sorter<BASE> {
+
+	private final List<SortKey<? super BASE>> keys;
+	private final KeyEncoder[] encoders;
+	private final int keySize;
+	private final int parallelThreshold;
+
+	/**
+	 * Create a sorter with the {@link BulkFieldAccessor#DEFAULT_PARALLEL_THRESHOLD default parallel threshold}.
+	 *
+	 * @param keys keys to sort by, the first key has highest priority
+	 * @return sorter
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if no key is given or a field has a type that cannot be sorted by
+	 */
+	@SafeVarargs
+	public static <BASE> Sorter<BASE> by(final SortKey<? super BASE>... keys) throws NoSuchFieldException,
+	        SecurityException, IllegalArgumentException {
+		if (keys.length == 0) {
+			throw new IllegalArgumentException("no sort keys");
+		}
+		final KeyEncoder[] encoders = new KeyEncoder[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			encoders[i] = KeyEncoder.of(FieldHelper.getHandle(keys[i].getFieldDefinition()), keys[i].isDescending());
+		}
+		final List<SortKey<? super BASE>> keyList = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(keys)));
+		return new Sorter<>(keyList, encoders, BulkFieldAccessor.DEFAULT_PARALLEL_THRESHOLD);
+	}
+
+	private Sorter(final List<SortKey<? super BASE>> keys, final KeyEncoder[] encoders, final int parallelThreshold) {
+		this.keys = keys;
+		this.encoders = encoders;
+		this.parallelThreshold = Ranges.checkThreshold(parallelThreshold);
+		int size = 0;
+		for (final KeyEncoder encoder : encoders) {
+			if (encoder.size() < 0) {
+				size = -1;
+				break;
+			}
+			size += encoder.size();
+		}
+		keySize = size;
+	}
+
+	/**
+	 * @return keys to sort by
+	 */
+	public List<SortKey<? super BASE>> getKeys() {
+		return keys;
+	}
+
+	/**
+	 * @return number of objects processed by one task, larger inputs are sorted in parallel
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Create a copy with another parallel threshold.
+	 *
+	 * @param threshold number of objects processed by one task, inputs up to this size are sorted by the calling
+	 *            thread
+	 * @return new sorter
+	 */
+	public Sorter<BASE> withParallelThreshold(final int threshold) {
+		return new Sorter<>(keys, encoders, threshold);
+	}
+
+	/**
+	 * Sort an array in place.
+	 *
+	 * @param objects objects to sort
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a key field
+	 */
+	public void sort(final BASE[] objects) throws IllegalArgumentException {
+		final BASE[] copy = objects.clone();
+		final int[] order = order(copy);
+		for (int i = 0; i < order.length; i++) {
+			objects[i] = copy[order[i]];
+		}
+	}
+
+	/**
+	 * Sort a list in place.
+	 *
+	 * @param objects objects to sort, the list has to support {@link ListIterator#set(Object)}
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a key field
+	 */
+	@SuppressWarnings("unchecked")
+	public void sort(final List<BASE> objects) throws IllegalArgumentException {
+		final Object[] copy = objects.toArray();
+		final int[] order = order(copy);
+		final ListIterator<BASE> iterator = objects.listIterator();
+		for (final int index : order) {
+			iterator.next();
+			iterator.set((BASE) copy[index]);
+		}
+	}
+
+	/**
+	 * Get the sorted order of objects without moving them, eg. to sort several arrays alike.
+	 *
+	 * @param objects objects to sort
+	 * @return positions of objects in sorted order, ie. the first element is the position of the smallest object
+	 * @throws IllegalArgumentException if an object is no instance of the class that declares a key field
+	 */
+	public int[] order(final List<? extends BASE> objects) throws IllegalArgumentException {
+		return order(objects.toArray());
+	}
+
+	private int[] order(final Object[] objects) {
+		if (keySize >= 0 && keySize <= 8) {
+			return radixSort(encodeLongs(objects), keySize);
+		}
+		return mergeSort(encodeBytes(objects));
+	}
+
+	private long[] encodeLongs(final Object[] objects) {
+		final long[] result = new long[objects.length];
+		Ranges.forEach(objects.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				final KeyEncoder.Writer writer = new KeyEncoder.Writer();
+				for (int i = from; i < to; i++) {
+					result[i] = encode(objects[i], writer).toLong();
+				}
+			}
+		});
+		return result;
+	}
+
+	private byte[][] encodeBytes(final Object[] objects) {
+		final byte[][] result = new byte[objects.length][];
+		Ranges.forEach(objects.length, parallelThreshold, new Ranges.Body() {
+			@Override
+			public void apply(final int from, final int to) {
+				final KeyEncoder.Writer writer = new KeyEncoder.Writer();
+				for (int i = from; i < to; i++) {
+					result[i] = encode(objects[i], writer).toArray();
+				}
+			}
+		});
+		return result;
+	}
+
+	private KeyEncoder.Writer encode(final Object object, final KeyEncoder.Writer writer) {
+		writer.reset();
+		for (final KeyEncoder encoder : encoders) {
+			encoder.write(object, writer);
+		}
+		return writer;
+	}
+
+	private static int[] identity(final int size) {
+		final int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		return order;
+	}
+
+	/** Number of parts of parallelThreshold objects, that are processed by one task each. */
+	private int parts(final int size) {
+		return (int) ((size + (long) parallelThreshold - 1) / parallelThreshold);
+	}
+
+	/**
+	 * Stable least significant digit radix sort, one byte per pass. Passes in which all keys have the same byte are
+	 * skipped. Each pass counts the bytes of every part in parallel, the parts then move their objects in parallel to
+	 * disjoint slots of the target.
+	 */
+	private int[] radixSort(final long[] keys, final int bytes) {
+		final int size = keys.length;
+		final int parts = parts(size);
+		final int[][] counts = new int[parts][256];
+		long[] sourceKeys = keys;
+		int[] sourceOrder = identity(size);
+		long[] targetKeys = new long[size];
+		int[] targetOrder = new int[size];
+		for (int pass = 0; pass < bytes; pass++) {
+			final int shift = pass * 8;
+			final long[] fromKeys = sourceKeys;
+			final int[] fromOrder = sourceOrder;
+			final long[] toKeys = targetKeys;
+			final int[] toOrder = targetOrder;
+			Ranges.forEach(parts, 1, new Ranges.Body() {
+				@Override
+				public void apply(final int fromPart, final int toPart) {
+					for (int part = fromPart; part < toPart; part++) {
+						final int[] count = counts[part];
+						Arrays.fill(count, 0);
+						final int end = (int) Math.min(size, (part + 1L) * parallelThreshold);
+						for (int i = part * parallelThreshold; i < end; i++) {
+							count[(int) (fromKeys[i] >>> shift) & 0xFF]++;
+						}
+					}
+				}
+			});
+			if (!prefixSums(counts, size)) {
+				continue;
+			}
+			Ranges.forEach(parts, 1, new Ranges.Body() {
+				@Override
+				public void apply(final int fromPart, final int toPart) {
+					for (int part = fromPart; part < toPart; part++) {
+						final int[] offset = counts[part];
+						final int end = (int) Math.min(size, (part + 1L) * parallelThreshold);
+						for (int i = part * parallelThreshold; i < end; i++) {
+							final int target = offset[(int) (fromKeys[i] >>> shift) & 0xFF]++;
+							toKeys[target] = fromKeys[i];
+							toOrder[target] = fromOrder[i];
+						}
+					}
+				}
+			});
+			sourceKeys = toKeys;
+			sourceOrder = toOrder;
+			targetKeys = fromKeys;
+			targetOrder = fromOrder;
+		}
+		return sourceOrder;
+	}
+
+	/**
+	 * Replace the counts of each part by the first target slot of its objects, ordered by byte and then by part.
+	 *
+	 * @return {@code false} if all objects have the same byte and the pass can be skipped
+	 */
+	private static boolean prefixSums(final int[][] counts, final int size) {
+		int offset = 0;
+		for (int digit = 0; digit < 256; digit++) {
+			final int start = offset;
+			for (final int[] count : counts) {
+				final int value = count[digit];
+				count[digit] = offset;
+				offset += value;
+			}
+			if (offset - start == size) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stable merge sort. Parts are sorted in parallel, then pairs of sorted runs are merged in parallel until one run
+	 * is left.
+	 */
+	private int[] mergeSort(final byte[][] keys) {
+		final int size = keys.length;
+		int[] source = identity(size);
+		int[] target = new int[size];
+		final int[] order = source;
+		final int[] buffer = target;
+		Ranges.forEach(parts(size), 1, new Ranges.Body() {
+			@Override
+			public void apply(final int fromPart, final int toPart) {
+				for (int part = fromPart; part < toPart; part++) {
+					sort(keys, order, buffer, part * parallelThreshold,
+					        (int) Math.min(size, (part + 1L) * parallelThreshold));
+				}
+			}
+		});
+		for (long width = parallelThreshold; width < size; width *= 2) {
+			final int run = (int) width;
+			final int[] from = source;
+			final int[] to = target;
+			Ranges.forEach((int) ((size + 2 * width - 1) / (2 * width)), 1, new Ranges.Body() {
+				@Override
+				public void apply(final int fromPair, final int toPair) {
+					for (int pair = fromPair; pair < toPair; pair++) {
+						final int start = pair * 2 * run;
+						final int middle = Math.min(size, start + run);
+						merge(keys, from, to, start, middle, (int) Math.min(size, start + 2L * run));
+					}
+				}
+			});
+			source = to;
+			target = from;
+		}
+		return source;
+	}
+
+	/** Sort order[from, to), using buffer[from, to) as temporary storage. */
+	private static void sort(final byte[][] keys, final int[] order, final int[] buffer, final int from, final int to) {
+		if (to - from <= 16) {
+			for (int i = from + 1; i < to; i++) {
+				final int index = order[i];
+				int j = i;
+				while (j > from && compare(keys[order[j - 1]], keys[index]) > 0) {
+					order[j] = order[j - 1];
+					j--;
+				}
+				order[j] = index;
+			}
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		sort(keys, order, buffer, from, middle);
+		sort(keys, order, buffer, middle, to);
+		if (compare(keys[order[middle - 1]], keys[order[middle]]) > 0) {
+			System.arraycopy(order, from, buffer, from, to - from);
+			merge(keys, buffer, order, from, middle, to);
+		}
+	}
+
+	/** Merge the sorted runs source[from, middle) and source[middle, to) into target[from, to). */
+	private static void merge(final byte[][] keys, final int[] source, final int[] target, final int from,
+	        final int middle, final int to) {
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to || left < middle && compare(keys[source[left]], keys[source[right]]) <= 0) {
+				target[i] = source[left++];
+			} else {
+				target[i] = source[right++];
+			}
+		}
+	}
+
+	/** Compare unsigned and lexicographically. */
+	private static int compare(final byte[] first, final byte[] second) {
+		final int length = Math.min(first.length, second.length);
+		for (int i = 0; i < length; i++) {
+			final int difference = (first[i] & 0xFF) - (second[i] & 0xFF);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return first.length - second.length;
+	}
+}
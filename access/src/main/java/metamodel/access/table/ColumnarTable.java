@@ -0,0 +1,490 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.table;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import metamodel.access.Metamodels;
+import metamodel.access.constructor.ConstructorFunction0;
+import metamodel.access.constructor.ConstructorFunctions;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.access.field.Primitives;
+import metamodel.constructor.impl.Constructor0Impl;
+import metamodel.field.AbstractField;
+
+/**
+ * Immutable snapshot of many objects of one class, stored column by column: each field of the metamodel class is
+ * copied into its own column, with one row per object.
+ *
+ * <pre>
+ * ColumnarTable&lt;Order&gt; orders = ColumnarTable.of(Order.class, Order_.class, snapshot);
+ * 
+ * DoubleBuffer prices = orders.doubles(orders.getColumn(Order_.price));
+ * double total = 0;
+ * for (int row = 0; row &lt; orders.size(); row++) {
+ * 	total += prices.get(row);
+ * }
+ * </pre>
+ *
+ * Primitive fields are stored unboxed in an array of their type, or in direct memory outside of the heap if the table
+ * is created by {@link #offHeap(Class, Class, Collection)}. Scanning a column reads consecutive memory instead of
+ * following a reference to each object. Booleans are stored as bytes {@code 0} and {@code 1}. Reference fields are
+ * stored in an {@code Object[]}, their values are not copied.
+ * <p>
+ * Rows can be turned back into objects by {@link #getRow(int)} and {@link #readRow(int, Object)}. Tables may be shared
+ * between threads, the column views returned by this class may not.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of stored objects
+ */
+public final class ColumnarTable<BASE> {
+
+	private final Class<BASE> type;
+	private final AbstractField<? super BASE, ?>[] fieldDefinitions;
+	private final FieldHandle[] handles;
+	/** type of each field, if it is primitive, {@code null} otherwise. */
+	private final Class<?>[] primitiveTypes;
+	/** column of each primitive field, {@code null} for reference fields. */
+	private final Buffer[] primitives;
+	/** column of each reference field, {@code null} for primitive fields. */
+	private final Object[][] references;
+	private final int size;
+	private final boolean offHeap;
+	private volatile ConstructorFunction0<BASE> constructor;
+
+	/**
+	 * Create a table of all fields of a metamodel class, including the fields of its superclasses. Primitive columns
+	 * are stored on the heap.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @param objects objects to store, one row per object in iteration order
+	 * @return table
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type or objects contains {@code null}
+	 */
+	public static <BASE> ColumnarTable<BASE> of(final Class<BASE> type, final Class<?> metamodelClass,
+	        final Collection<? extends BASE> objects) throws NoSuchFieldException, SecurityException,
+	        IllegalArgumentException {
+		return create(type, metamodelClass, objects, false);
+	}
+
+	/**
+	 * Create a table of all fields of a metamodel class, including the fields of its superclasses. Primitive columns
+	 * are stored in direct buffers of native byte order, outside of the heap.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @param objects objects to store, one row per object in iteration order
+	 * @return table
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type, objects contains {@code null} or a
+	 *             column would exceed 2 GB
+	 */
+	public static <BASE> ColumnarTable<BASE> offHeap(final Class<BASE> type, final Class<?> metamodelClass,
+	        final Collection<? extends BASE> objects) throws NoSuchFieldException, SecurityException,
+	        IllegalArgumentException {
+		return create(type, metamodelClass, objects, true);
+	}
+
+	private static <BASE> ColumnarTable<BASE> create(final Class<BASE> type, final Class<?> metamodelClass,
+	        final Collection<? extends BASE> objects, final boolean offHeap) throws NoSuchFieldException,
+	        SecurityException, IllegalArgumentException {
+		Metamodels.checkDescribes(type, metamodelClass);
+		final List<AbstractField<?, ?>> fields = Metamodels.getFields(metamodelClass);
+		final AbstractField<? super BASE, ?>[] fieldDefinitions = newArray(fields.size());
+		final ColumnarTable<BASE> table = new ColumnarTable<>(type, fields.toArray(fieldDefinitions), objects.size(),
+		        offHeap);
+		table.fill(objects);
+		return table;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> AbstractField<? super BASE, ?>[] newArray(final int length) {
+		return (AbstractField<? super BASE, ?>[]) new AbstractField<?, ?>[length];
+	}
+
+	private ColumnarTable(final Class<BASE> type, final AbstractField<? super BASE, ?>[] fieldDefinitions,
+	        final int size, final boolean offHeap) throws NoSuchFieldException, SecurityException {
+		this.type = type;
+		this.fieldDefinitions = fieldDefinitions;
+		this.size = size;
+		this.offHeap = offHeap;
+		handles = new FieldHandle[fieldDefinitions.length];
+		primitiveTypes = new Class<?>[fieldDefinitions.length];
+		primitives = new Buffer[fieldDefinitions.length];
+		references = new Object[fieldDefinitions.length][];
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			handles[i] = FieldHelper.getHandle(fieldDefinitions[i]);
+			final Class<?> fieldType = handles[i].getField().getType();
+			if (fieldType.isPrimitive()) {
+				primitiveTypes[i] = fieldType;
+				primitives[i] = offHeap ? directColumn(fieldType, size) : heapColumn(fieldType, size);
+			} else {
+				references[i] = new Object[size];
+			}
+		}
+	}
+
+	private static Buffer heapColumn(final Class<?> type, final int size) {
+		if (type == int.class) {
+			return IntBuffer.wrap(new int[size]);
+		} else if (type == long.class) {
+			return LongBuffer.wrap(new long[size]);
+		} else if (type == double.class) {
+			return DoubleBuffer.wrap(new double[size]);
+		} else if (type == boolean.class || type == byte.class) {
+			return ByteBuffer.wrap(new byte[size]);
+		} else if (type == float.class) {
+			return FloatBuffer.wrap(new float[size]);
+		} else if (type == short.class) {
+			return ShortBuffer.wrap(new short[size]);
+		} else {
+			return CharBuffer.wrap(new char[size]);
+		}
+	}
+
+	private static Buffer directColumn(final Class<?> type, final int size) throws IllegalArgumentException {
+		final int width = Primitives.width(type);
+		if ((long) size * width > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("column of " + size + " " + type + " values exceeds 2 GB");
+		}
+		final ByteBuffer bytes = ByteBuffer.allocateDirect(size * width).order(ByteOrder.nativeOrder());
+		if (type == int.class) {
+			return bytes.asIntBuffer();
+		} else if (type == long.class) {
+			return bytes.asLongBuffer();
+		} else if (type == double.class) {
+			return bytes.asDoubleBuffer();
+		} else if (type == boolean.class || type == byte.class) {
+			return bytes;
+		} else if (type == float.class) {
+			return bytes.asFloatBuffer();
+		} else if (type == short.class) {
+			return bytes.asShortBuffer();
+		} else {
+			return bytes.asCharBuffer();
+		}
+	}
+
+	private void fill(final Collection<? extends BASE> objects) throws IllegalArgumentException {
+		int row = 0;
+		for (final BASE object : objects) {
+			if (object == null) {
+				throw new IllegalArgumentException("objects contain null at index " + row);
+			}
+			for (int i = 0; i < handles.length; i++) {
+				final FieldHandle handle = handles[i];
+				final Class<?> fieldType = primitiveTypes[i];
+				if (fieldType == null) {
+					references[i][row] = handle.get(object);
+				} else if (fieldType == int.class) {
+					((IntBuffer) primitives[i]).put(row, handle.getInt(object));
+				} else if (fieldType == long.class) {
+					((LongBuffer) primitives[i]).put(row, handle.getLong(object));
+				} else if (fieldType == double.class) {
+					((DoubleBuffer) primitives[i]).put(row, handle.getDouble(object));
+				} else if (fieldType == boolean.class) {
+					((ByteBuffer) primitives[i]).put(row, handle.getBoolean(object) ? (byte) 1 : (byte) 0);
+				} else if (fieldType == float.class) {
+					((FloatBuffer) primitives[i]).put(row, handle.getFloat(object));
+				} else if (fieldType == short.class) {
+					((ShortBuffer) primitives[i]).put(row, handle.getShort(object));
+				} else if (fieldType == byte.class) {
+					((ByteBuffer) primitives[i]).put(row, handle.getByte(object));
+				} else {
+					((CharBuffer) primitives[i]).put(row, handle.getChar(object));
+				}
+			}
+			row++;
+		}
+		if (row != size) {
+			throw new IllegalArgumentException("objects changed size while filling the table");
+		}
+	}
+
+	/**
+	 * @return type of stored objects
+	 */
+	public Class<BASE> getType() {
+		return type;
+	}
+
+	/**
+	 * @return number of rows, ie. stored objects
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return {@code true} if primitive columns are stored outside of the heap
+	 */
+	public boolean isOffHeap() {
+		return offHeap;
+	}
+
+	/**
+	 * @return number of columns, ie. fields
+	 */
+	public int getColumnCount() {
+		return fieldDefinitions.length;
+	}
+
+	/**
+	 * @return field definitions, in the order of the columns
+	 */
+	public List<AbstractField<? super BASE, ?>> getFieldDefinitions() {
+		return Arrays.asList(fieldDefinitions.clone());
+	}
+
+	/**
+	 * Find the column of a field.
+	 *
+	 * @param fieldDefinition metamodel field definition
+	 * @return column index
+	 * @throws IllegalArgumentException if the field is not stored in this table
+	 */
+	public int getColumn(final AbstractField<? super BASE, ?> fieldDefinition) throws IllegalArgumentException {
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			if (fieldDefinitions[i].equals(fieldDefinition)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("field " + fieldDefinition.getName() + " is not stored in this table");
+	}
+
+	/**
+	 * @param column column index
+	 * @return type of the field stored in the column
+	 */
+	public Class<?> getColumnType(final int column) {
+		return handles[column].getField().getType();
+	}
+
+	private Buffer primitives(final int column, final Class<?> expectedType) throws IllegalArgumentException {
+		if (primitiveTypes[column] != expectedType) {
+			throw new IllegalArgumentException("column " + column + " holds " + getColumnType(column).getName()
+			        + " values, not " + expectedType);
+		}
+		return primitives[column];
+	}
+
+	/**
+	 * @param column column index of a {@code boolean} field
+	 * @return read-only view of the column, {@code 1} for {@code true} and {@code 0} for {@code false}
+	 * @throws IllegalArgumentException if the column holds another type
+	 */
+	public ByteBuffer booleans(final int column) throws IllegalArgumentException {
+		return ((ByteBuffer) primitives(column, boolean.class)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param column column index of a {@code byte} field
+	 * @return read-only view of the column
+	 * @throws IllegalArgumentException if the column holds another type
+	 */
+	public ByteBuffer bytes(final int column) throws IllegalArgumentException {
+		return ((ByteBuffer) primitives(column, byte.class)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param column column index of a {@code char} field
+	 * @return read-only view of the column
+	 * @throws IllegalArgumentException if the column holds another type
+	 */
+	public CharBuffer chars(final int column) throws IllegalArgumentException {
+		return ((CharBuffer) primitives(column, char.class)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param column column index of a {@code short} field
+	 * @return read-only view of the column
+	 * @throws IllegalArgumentException if the column holds another type
+	 */
+	public ShortBuffer shorts(final int column) throws IllegalArgumentException {
+		return ((ShortBuffer) primitives(column, short.class)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param column column index of an {@code int} field
+	 * @return read-only view of the column
+	 * @throws IllegalArgumentException if the column holds another type
+	 */
+	public IntBuffer ints(final int column) throws IllegalArgumentException {
+		return ((IntBuffer) primitives(column, int.class)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param column column index of a {@code long} field
+	 * @return read-only view of the column
+	 * @throws IllegalArgumentException if the column holds another type
+	 */
+	public LongBuffer longs(final int column) throws IllegalArgumentException {
+		return ((LongBuffer) primitives(column, long.class)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param column column index of a {@code float} field
+	 * @return read-only view of the column
+	 * @throws IllegalArgumentException if the column holds another type
+	 */
+	public FloatBuffer floats(final int column) throws IllegalArgumentException {
+		return ((FloatBuffer) primitives(column, float.class)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param column column index of a {@code double} field
+	 * @return read-only view of the column
+	 * @throws IllegalArgumentException if the column holds another type
+	 */
+	public DoubleBuffer doubles(final int column) throws IllegalArgumentException {
+		return ((DoubleBuffer) primitives(column, double.class)).asReadOnlyBuffer();
+	}
+
+	/**
+	 * @param column column index of a reference field
+	 * @return unmodifiable view of the column
+	 * @throws IllegalArgumentException if the column holds primitive values
+	 */
+	public List<Object> references(final int column) throws IllegalArgumentException {
+		if (references[column] == null) {
+			throw new IllegalArgumentException("column " + column + " holds " + getColumnType(column).getName()
+			        + " values, not references");
+		}
+		return Collections.unmodifiableList(Arrays.asList(references[column]));
+	}
+
+	/**
+	 * Read a single value.
+	 *
+	 * @param row row index
+	 * @param column column index
+	 * @return value, primitives are boxed
+	 * @throws IndexOutOfBoundsException if row or column is out of range
+	 */
+	public Object get(final int row, final int column) throws IndexOutOfBoundsException {
+		checkRow(row);
+		final Class<?> fieldType = primitiveTypes[column];
+		if (fieldType == null) {
+			return references[column][row];
+		} else if (fieldType == int.class) {
+			return ((IntBuffer) primitives[column]).get(row);
+		} else if (fieldType == long.class) {
+			return ((LongBuffer) primitives[column]).get(row);
+		} else if (fieldType == double.class) {
+			return ((DoubleBuffer) primitives[column]).get(row);
+		} else if (fieldType == boolean.class) {
+			return ((ByteBuffer) primitives[column]).get(row) != 0;
+		} else if (fieldType == float.class) {
+			return ((FloatBuffer) primitives[column]).get(row);
+		} else if (fieldType == short.class) {
+			return ((ShortBuffer) primitives[column]).get(row);
+		} else if (fieldType == byte.class) {
+			return ((ByteBuffer) primitives[column]).get(row);
+		} else {
+			return ((CharBuffer) primitives[column]).get(row);
+		}
+	}
+
+	/**
+	 * Create a new object from a row, by the default constructor of the stored class.
+	 *
+	 * @param row row index
+	 * @return new object with the field values of the row
+	 * @throws IndexOutOfBoundsException if row is out of range
+	 * @throws IllegalArgumentException if the stored class has no accessible default constructor
+	 */
+	public BASE getRow(final int row) throws IndexOutOfBoundsException, IllegalArgumentException {
+		checkRow(row);
+		ConstructorFunction0<BASE> function = constructor;
+		if (function == null) {
+			try {
+				function = ConstructorFunctions.compile(new Constructor0Impl<>(type));
+			} catch (final NoSuchMethodException | InstantiationException e) {
+				throw new IllegalArgumentException(type.getName() + " cannot be instantiated", e);
+			}
+			constructor = function;
+		}
+		return readRow(row, function.newInstance());
+	}
+
+	/**
+	 * Assign the field values of a row to an existing object.
+	 *
+	 * @param row row index
+	 * @param target object to assign the fields of
+	 * @return target
+	 * @throws IndexOutOfBoundsException if row is out of range
+	 * @throws IllegalArgumentException if target is no instance of the stored class
+	 */
+	public BASE readRow(final int row, final BASE target) throws IndexOutOfBoundsException, IllegalArgumentException {
+		checkRow(row);
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			final Class<?> fieldType = primitiveTypes[i];
+			if (fieldType == null) {
+				handle.set(target, references[i][row]);
+			} else if (fieldType == int.class) {
+				handle.setInt(target, ((IntBuffer) primitives[i]).get(row));
+			} else if (fieldType == long.class) {
+				handle.setLong(target, ((LongBuffer) primitives[i]).get(row));
+			} else if (fieldType == double.class) {
+				handle.setDouble(target, ((DoubleBuffer) primitives[i]).get(row));
+			} else if (fieldType == boolean.class) {
+				handle.setBoolean(target, ((ByteBuffer) primitives[i]).get(row) != 0);
+			} else if (fieldType == float.class) {
+				handle.setFloat(target, ((FloatBuffer) primitives[i]).get(row));
+			} else if (fieldType == short.class) {
+				handle.setShort(target, ((ShortBuffer) primitives[i]).get(row));
+			} else if (fieldType == byte.class) {
+				handle.setByte(target, ((ByteBuffer) primitives[i]).get(row));
+			} else {
+				handle.setChar(target, ((CharBuffer) primitives[i]).get(row));
+			}
+		}
+		return target;
+	}
+
+	private void checkRow(final int row) throws IndexOutOfBoundsException {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("row " + row + " of " + size);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.access.testobject.SubClassWithSameFieldName;
+import metamodel.access.testobject.SubClassWithSameFieldName_;
+import metamodel.field.SingularField;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests Copier.
+ *
+ * @author Michael Kroll
+ */
+public class CopierTest {
+
+	public static class Target {
+		private final String finalText;
+
+		public Target(final String finalText) {
+			this.finalText = finalText;
+		}
+	}
+
+	public static class Target_ {
+		public static final SingularField<Target, String> finalText = new SingularFieldImpl<>("finalText",
+		        Target.class);
+	}
+
+	private static SubClassWithSameFieldName source() {
+		final SubClassWithSameFieldName source = new SubClassWithSameFieldName();
+		source.setMyint(1);
+		source.sub_setMyint(2);
+		source.setMyInteger(3);
+		source.setRawList(Collections.singletonList("raw"));
+		source.setWildcardList(Arrays.asList("wildcard"));
+		source.setSubString("sub");
+		return source;
+	}
+
+	@Test
+	public void testCopyAllFields() throws Exception {
+		final Copier<SubClassWithSameFieldName> copier = Copier.of(SubClassWithSameFieldName.class,
+		        SubClassWithSameFieldName_.class);
+		final SubClassWithSameFieldName source = source();
+		final SubClassWithSameFieldName target = new SubClassWithSameFieldName();
+
+		assertSame(target, copier.copy(source, target));
+		assertEquals(1, target.getMyint());
+		assertEquals(2, target.sub_getMyint());
+		assertEquals(Integer.valueOf(3), target.getMyInteger());
+		assertSame(source.getRawList(), target.getRawList());
+		assertSame(source.getWildcardList(), target.getWildcardList());
+		assertEquals("sub", target.getSubString());
+
+		copier.copy(new SubClassWithSameFieldName(), target);
+		assertEquals(0, target.getMyint());
+		assertNull(target.getMyInteger());
+		assertNull(target.getSubString());
+	}
+
+	@Test
+	public void testMergeNonNull() throws Exception {
+		final Copier<SubClassWithSameFieldName> copier = Copier.of(SubClassWithSameFieldName.class,
+		        SubClassWithSameFieldName_.class);
+		final SubClassWithSameFieldName target = source();
+		final SubClassWithSameFieldName source = new SubClassWithSameFieldName();
+		source.setSubString("merged");
+
+		copier.merge(source, target);
+		// primitives are always copied
+		assertEquals(0, target.getMyint());
+		assertEquals(0, target.sub_getMyint());
+		assertEquals(Integer.valueOf(3), target.getMyInteger());
+		assertEquals("merged", target.getSubString());
+	}
+
+	@Test
+	public void testCopySubset() throws Exception {
+		final Copier<POJO> copier = Copier.of(POJO_.myint, POJO_.myInteger);
+		assertEquals(Arrays.asList(POJO_.myint, POJO_.myInteger), copier.getFieldDefinitions());
+
+		final SubClassWithSameFieldName target = new SubClassWithSameFieldName();
+		copier.copy(source(), target);
+		assertEquals(1, target.getMyint());
+		assertEquals(0, target.sub_getMyint());
+		assertEquals(Integer.valueOf(3), target.getMyInteger());
+		assertNull(target.getRawList());
+	}
+
+	@Test
+	public void testCopyFinalField() throws Exception {
+		final Target target = new Target("before");
+		Copier.of(Target_.finalText).copy(new Target("after"), target);
+		assertEquals("after", target.finalText);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullTarget() throws Exception {
+		Copier.of(POJO_.myint).copy(new POJO(), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongMetamodel() throws Exception {
+		Copier.of(POJO.class, SubClassWithSameFieldName_.class);
+	}
+
+	@Test(expected = NoSuchFieldException.class)
+	public void testMissingField() throws Exception {
+		Copier.of(new SingularFieldImpl<POJO, String>("missing", POJO.class));
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import metamodel.access.constructor.ConstructorHelper;
+import metamodel.access.field.FieldHelper;
+import metamodel.access.method.CallableHelper;
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.constructor.impl.Constructor0Impl;
+import metamodel.field.SingularField;
+import metamodel.field.impl.SingularFieldImpl;
+import metamodel.method.impl.Method1Impl;
+
+import org.junit.Test;
+
+/**
+ * Tests MemberCache.
+ *
+ * @author Michael Kroll
+ */
+public class MemberCacheTest {
+
+	private static class CountingCache extends MemberCache<String, String> {
+		private final AtomicInteger resolveCount = new AtomicInteger();
+
+		@Override
+		protected String resolve(final String definition) {
+			resolveCount.incrementAndGet();
+			return definition.startsWith("missing") ? null : definition.toUpperCase();
+		}
+	}
+
+	@Test
+	public void testResolvesOnlyOnce() throws Exception {
+		final CountingCache cache = new CountingCache();
+
+		assertEquals("FIELD", cache.get(POJO.class, "field"));
+		assertEquals("FIELD", cache.get(POJO.class, "field"));
+		assertEquals("FIELD", cache.get(POJO.class, "field"));
+
+		assertEquals(1, cache.resolveCount.get());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(2, cache.getHitCount());
+	}
+
+	@Test
+	public void testMissingMemberIsCached() throws Exception {
+		final CountingCache cache = new CountingCache();
+
+		assertNull(cache.get(POJO.class, "missingField"));
+		assertNull(cache.get(POJO.class, "missingField"));
+
+		assertEquals(1, cache.resolveCount.get());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		final CountingCache cache = new CountingCache();
+
+		cache.get(POJO.class, "field");
+		cache.invalidate(POJO.class);
+		cache.get(POJO.class, "field");
+
+		assertEquals(2, cache.resolveCount.get());
+	}
+
+	@Test
+	public void testFieldHelperUsesCache() throws Exception {
+		final POJO pojo = new POJO();
+		Accessor.on(pojo).field(POJO_.myInteger).set(42);
+		final long misses = FieldHelper.getFieldCache().getMissCount();
+		final long hits = FieldHelper.getFieldCache().getHitCount();
+
+		assertEquals(Integer.valueOf(42), Accessor.on(pojo).field(POJO_.myInteger).get());
+
+		assertEquals(misses, FieldHelper.getFieldCache().getMissCount());
+		assertEquals(hits + 1, FieldHelper.getFieldCache().getHitCount());
+		assertNotNull(FieldHelper.getFieldCache().get(POJO.class, POJO_.myInteger));
+		assertSame(FieldHelper.getFieldCache().get(POJO.class, POJO_.myInteger),
+		        FieldHelper.getFieldCache().get(POJO.class, POJO_.myInteger));
+	}
+
+	@Test
+	public void testEqualSignaturesShareEntry() throws Exception {
+		FieldHelper.getHandle(POJO_.myInteger);
+		ConstructorHelper.getInvoker(new Constructor0Impl<>(POJO.class));
+		final long fieldMisses = FieldHelper.getFieldCache().getMissCount();
+		final long constructorMisses = ConstructorHelper.getConstructorCache().getMissCount();
+
+		for (int i = 0; i < 10; i++) {
+			assertSame(FieldHelper.getHandle(POJO_.myInteger), FieldHelper.getHandle(new SingularFieldImpl<>(
+			        "myInteger", POJO.class)));
+			ConstructorHelper.getInvoker(new Constructor0Impl<>(POJO.class));
+		}
+
+		assertEquals(fieldMisses, FieldHelper.getFieldCache().getMissCount());
+		assertEquals(constructorMisses, ConstructorHelper.getConstructorCache().getMissCount());
+	}
+
+	@Test
+	public void testParameterTypesTellApartMethods() throws Exception {
+		final Method method = CallableHelper.getMethodCache().get(POJO.class, POJO_.setMyint);
+		assertNotNull(method);
+		assertNull(CallableHelper.getMethodCache().get(POJO.class,
+		        new Method1Impl<POJO, Void, Long>("setMyint", POJO.class, long.class)));
+		assertSame(method, CallableHelper.getMethodCache().get(POJO.class,
+		        new Method1Impl<POJO, Void, Integer>("setMyint", POJO.class, int.class)));
+	}
+
+	@Test(expected = NoSuchFieldException.class)
+	public void testMissingField() throws Exception {
+		final SingularField<POJO, String> missing = new SingularFieldImpl<>("missing", POJO.class);
+		try {
+			Accessor.on(new POJO()).field(missing).get();
+		} catch (final NoSuchFieldException e) {
+			// second access is answered from the cache, but still fails
+		}
+		Accessor.on(new POJO()).field(missing).get();
+	}
+}
@@ -58,6 +58,21 @@ public class ObjectAccessorTest {
 		assertEquals(Integer.valueOf(7), pojo.getMyInteger());
 	}
 
+	@Test
+	public void testPOJOPrimitiveSetterGetter() throws Exception {
+		final POJO pojo = new POJO();
+		pojo.setMyint(42);
+
+		assertEquals(42, Accessor.on(pojo).field(POJO_.myint).getInt());
+		assertEquals(42L, Accessor.on(pojo).field(POJO_.myint).getLong());
+
+		Accessor.on(pojo).field(POJO_.myint).setInt(13);
+		Accessor.on(pojo).field(POJO_.multidecl1).setLong(Long.MAX_VALUE);
+
+		assertEquals(13, pojo.getMyint());
+		assertEquals(Long.MAX_VALUE, Accessor.on(pojo).field(POJO_.multidecl1).getLong());
+	}
+
 	@Test
 	public void testPOJOWildcardGetterSetter() throws Exception {
 		final POJO pojo = new POJO();
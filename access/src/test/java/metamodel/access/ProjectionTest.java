@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.field.BooleanField;
+import metamodel.field.ByteField;
+import metamodel.field.CharField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.ShortField;
+import metamodel.field.impl.BooleanFieldImpl;
+import metamodel.field.impl.ByteFieldImpl;
+import metamodel.field.impl.CharFieldImpl;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.FloatFieldImpl;
+import metamodel.field.impl.ShortFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests Projection and ProjectionRow.
+ *
+ * @author Michael Kroll
+ */
+public class ProjectionTest {
+
+	public static class Target {
+		private boolean bool = true;
+		private byte b = -1;
+		private char c = 'x';
+		private short s = 1234;
+		private float f = 1.5f;
+		private double d = -0.25d;
+	}
+
+	public static class Target_ {
+		public static final BooleanField<Target> bool = new BooleanFieldImpl<>("bool", Target.class);
+		public static final ByteField<Target> b = new ByteFieldImpl<>("b", Target.class);
+		public static final CharField<Target> c = new CharFieldImpl<>("c", Target.class);
+		public static final ShortField<Target> s = new ShortFieldImpl<>("s", Target.class);
+		public static final FloatField<Target> f = new FloatFieldImpl<>("f", Target.class);
+		public static final DoubleField<Target> d = new DoubleFieldImpl<>("d", Target.class);
+	}
+
+	private static POJO pojo(final int myint, final Integer myInteger) {
+		final POJO pojo = new POJO();
+		pojo.setMyint(myint);
+		pojo.setMyInteger(myInteger);
+		pojo.setRawList(Collections.singletonList(myint));
+		return pojo;
+	}
+
+	@Test
+	public void testReadIntoArray() throws Exception {
+		final Projection<POJO> projection = Projection.of(POJO_.myint, POJO_.myInteger, POJO_.rawList);
+		assertEquals(3, projection.getFieldCount());
+		assertSame(POJO_.myInteger, projection.getFieldDefinition(1));
+
+		assertArrayEquals(new Object[] { 42, 23, Collections.singletonList(42) }, projection.read(pojo(42, 23)));
+
+		final Object[] target = new Object[4];
+		assertSame(target, projection.read(pojo(1, null), target));
+		assertArrayEquals(new Object[] { 1, null, Collections.singletonList(1), null }, target);
+	}
+
+	@Test
+	public void testReuseRow() throws Exception {
+		final Projection<POJO> projection = Projection.of(Arrays.asList(POJO_.myInteger, POJO_.myint));
+		final ProjectionRow row = projection.newRow();
+		for (int i = 0; i < 3; i++) {
+			assertSame(row, projection.read(pojo(i, i * 10), row));
+			assertEquals(Integer.valueOf(i * 10), row.get(0));
+			assertEquals(i, row.getInt(1));
+			assertEquals(Integer.valueOf(i), row.get(1));
+		}
+	}
+
+	@Test
+	public void testPrimitiveColumns() throws Exception {
+		final Projection<Target> projection = Projection.of(Target_.bool, Target_.b, Target_.c, Target_.s, Target_.f,
+		        Target_.d);
+		final ProjectionRow row = projection.read(new Target(), projection.newRow());
+		assertEquals(6, row.size());
+		assertEquals(true, row.getBoolean(0));
+		assertEquals(-1, row.getByte(1));
+		assertEquals('x', row.getChar(2));
+		assertEquals(1234, row.getShort(3));
+		assertEquals(1.5f, row.getFloat(4), 0f);
+		assertEquals(-0.25d, row.getDouble(5), 0d);
+		assertEquals(Arrays.<Object> asList(true, (byte) -1, 'x', (short) 1234, 1.5f, -0.25d),
+		        Arrays.asList(projection.read(new Target())));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongColumnType() throws Exception {
+		final Projection<POJO> projection = Projection.of(POJO_.myint);
+		projection.read(new POJO(), projection.newRow()).getLong(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRowOfOtherProjection() throws Exception {
+		Projection.of(POJO_.myint).read(new POJO(), Projection.of(POJO_.myint).newRow());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testArrayTooSmall() throws Exception {
+		Projection.of(POJO_.myint, POJO_.myInteger).read(new POJO(), new Object[1]);
+	}
+}
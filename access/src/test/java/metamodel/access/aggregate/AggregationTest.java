@@ -0,0 +1,199 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.aggregate;
+
+import static metamodel.access.aggregate.Aggregates.avg;
+import static metamodel.access.aggregate.Aggregates.count;
+import static metamodel.access.aggregate.Aggregates.countDistinct;
+import static metamodel.access.aggregate.Aggregates.max;
+import static metamodel.access.aggregate.Aggregates.min;
+import static metamodel.access.aggregate.Aggregates.sum;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import metamodel.field.DoubleField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.LongFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests Aggregation.
+ *
+ * @author Michael Kroll
+ */
+public class AggregationTest {
+
+	public static class Target {
+		private final int category;
+		private final String region;
+		private final long amount;
+		private final double price;
+		private final int customer;
+		private final String product;
+
+		Target(final Random random) {
+			category = random.nextInt(10) - 5;
+			final String[] regions = { null, "north", "south", "east", "west" };
+			region = regions[random.nextInt(regions.length)];
+			amount = random.nextLong() >> 20;
+			price = random.nextInt(100000) / 100d;
+			customer = random.nextInt(50);
+			product = random.nextInt(10) == 0 ? null : "p" + random.nextInt(30);
+		}
+	}
+
+	public static class Target_ {
+		public static final IntField<Target> category = new IntFieldImpl<>("category", Target.class);
+		public static final SingularField<Target, String> region = new SingularFieldImpl<>("region", Target.class);
+		public static final LongField<Target> amount = new LongFieldImpl<>("amount", Target.class);
+		public static final DoubleField<Target> price = new DoubleFieldImpl<>("price", Target.class);
+		public static final IntField<Target> customer = new IntFieldImpl<>("customer", Target.class);
+		public static final SingularField<Target, String> product = new SingularFieldImpl<>("product", Target.class);
+	}
+
+	/** Expected results of one group, computed naively. */
+	private static final class Expected {
+		long count;
+		long sum;
+		long min = Long.MAX_VALUE;
+		double max = Double.NEGATIVE_INFINITY;
+		double priceSum;
+		final Set<Integer> customers = new HashSet<>();
+		final Set<String> products = new HashSet<>();
+	}
+
+	private static List<Target> targets(final int count) {
+		final Random random = new Random(count);
+		final List<Target> targets = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			targets.add(new Target(random));
+		}
+		return targets;
+	}
+
+	@Test
+	public void testGroupBy() throws Exception {
+		final Aggregate<Target, Long> count = count();
+		final Aggregate<Target, Long> sum = sum(Target_.amount);
+		final Aggregate<Target, Long> min = min(Target_.amount);
+		final Aggregate<Target, Double> max = max(Target_.price);
+		final Aggregate<Target, Double> avg = avg(Target_.price);
+		final Aggregate<Target, Long> customers = countDistinct(Target_.customer);
+		final Aggregate<Target, Long> products = countDistinct(Target_.product);
+		final Aggregation<Target> aggregation = Aggregation.groupBy(Target_.category, Target_.region).with(count, sum,
+		        min, max).with(avg, customers, products);
+
+		final List<Target> targets = targets(20000);
+		final Map<List<Object>, Expected> expected = new LinkedHashMap<>();
+		for (final Target target : targets) {
+			final List<Object> key = Arrays.<Object> asList(target.category, target.region);
+			Expected group = expected.get(key);
+			if (group == null) {
+				group = new Expected();
+				expected.put(key, group);
+			}
+			group.count++;
+			group.sum += target.amount;
+			group.min = Math.min(group.min, target.amount);
+			group.max = Math.max(group.max, target.price);
+			group.priceSum += target.price;
+			group.customers.add(target.customer);
+			if (target.product != null) {
+				group.products.add(target.product);
+			}
+		}
+
+		for (final int threshold : new int[] { 100, 1000, Integer.MAX_VALUE }) {
+			final List<Group> groups = aggregation.withParallelThreshold(threshold).apply(targets);
+			assertEquals(new ArrayList<>(expected.keySet()).toString(), keys(groups).toString());
+			for (final Group group : groups) {
+				final Expected values = expected.get(group.getKey());
+				assertEquals(Long.valueOf(values.count), group.get(count));
+				assertEquals(Long.valueOf(values.sum), group.get(sum));
+				assertEquals(Long.valueOf(values.min), group.get(min));
+				assertEquals(values.max, group.get(max), 0);
+				assertEquals(values.priceSum / values.count, group.get(avg), 1e-9);
+				assertEquals(Long.valueOf(values.customers.size()), group.get(customers));
+				assertEquals(Long.valueOf(values.products.size()), group.get(products));
+			}
+		}
+		assertEquals(expected.size(), aggregation.withParallelThreshold(100).apply(new LinkedList<>(targets))
+		        .size());
+	}
+
+	private static List<List<Object>> keys(final List<Group> groups) {
+		final List<List<Object>> keys = new ArrayList<>();
+		for (final Group group : groups) {
+			keys.add(group.getKey());
+		}
+		return keys;
+	}
+
+	@Test
+	public void testWithoutKeys() throws Exception {
+		final Aggregate<Target, Long> count = count();
+		final Aggregate<Target, Double> sum = sum(Target_.price);
+		final Aggregation<Target> aggregation = Aggregation.<Target> groupBy().with(count, sum);
+		final List<Group> groups = aggregation.withParallelThreshold(10).apply(targets(95));
+		assertEquals(1, groups.size());
+		assertEquals(Collections.emptyList(), groups.get(0).getKey());
+		assertEquals(Long.valueOf(95), groups.get(0).get(count));
+		assertEquals(0, aggregation.apply(new Target[0]).size());
+		assertEquals(0, aggregation.withParallelThreshold(10).apply(new ArrayList<Target>()).size());
+	}
+
+	@Test
+	public void testPrimitiveKey() throws Exception {
+		final Aggregate<Target, Long> count = count();
+		final List<Group> groups = Aggregation.groupBy(Target_.price).with(count).apply(targets(1000));
+		long total = 0;
+		for (final Group group : groups) {
+			assertEquals(Double.class, group.getKey().get(0).getClass());
+			total += group.get(count);
+		}
+		assertEquals(1000, total);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForeignAggregate() throws Exception {
+		final Aggregation<Target> aggregation = Aggregation.groupBy(Target_.region).with(count());
+		aggregation.apply(targets(10)).get(0).get(count());
+	}
+}
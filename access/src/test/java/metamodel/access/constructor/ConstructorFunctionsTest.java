@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.constructor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import metamodel.constructor.Constructor0;
+import metamodel.constructor.Constructor1;
+import metamodel.constructor.Constructor2;
+import metamodel.constructor.impl.Constructor0Impl;
+import metamodel.constructor.impl.Constructor1Impl;
+import metamodel.constructor.impl.Constructor2Impl;
+
+import org.junit.Test;
+
+/**
+ * Tests ConstructorFunctions.
+ *
+ * @author Michael Kroll
+ */
+public class ConstructorFunctionsTest {
+
+	public static class Target {
+		private final int value;
+		private final String text;
+
+		private Target() {
+			this(0, "default");
+		}
+
+		private Target(final int value, final String text) {
+			this.value = value;
+			this.text = text;
+		}
+
+		@SuppressWarnings("unused")
+		private Target(final String failure) throws IOException {
+			throw new IOException(failure);
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public int getValue() {
+			return value;
+		}
+	}
+
+	public static abstract class AbstractTarget {
+	}
+
+	public static class Target_ {
+		public static final Constructor0<Target> constructor = new Constructor0Impl<>(Target.class);
+		public static final Constructor2<Target, Integer, String> constructor2 = new Constructor2Impl<>(Target.class,
+		        int.class, String.class);
+		public static final Constructor1<Target, String> failing = new Constructor1Impl<>(Target.class, String.class);
+	}
+
+	@Test
+	public void testNewInstance() throws Exception {
+		final ConstructorFunction2<Target, Integer, String> factory = ConstructorFunctions.compile(Target_.constructor2);
+		final Target target = factory.newInstance(42, "Hello World");
+		assertEquals(42, target.getValue());
+		assertEquals("Hello World", target.getText());
+
+		assertEquals("default", Constructable0.of(Target_.constructor).newInstance().getText());
+	}
+
+	@Test
+	public void testNewInstances() throws Exception {
+		final Target[] targets = ConstructorFunctions.newInstances(Target_.constructor, 3);
+		assertEquals(Target.class, targets.getClass().getComponentType());
+		assertEquals(3, targets.length);
+		assertNotSame(targets[0], targets[1]);
+		assertEquals("default", targets[2].getText());
+	}
+
+	@Test
+	public void testFill() throws Exception {
+		final Object[] targets = new Object[2];
+		final Target[] typed = ConstructorFunctions.fill(Target_.constructor, new Target[] { null, null });
+		assertEquals(2, typed.length);
+		assertEquals("default", typed[1].getText());
+		assertSame(targets, ConstructorFunctions.fill(new Constructor0Impl<Object>(Object.class), targets));
+		assertEquals(Object.class, targets[0].getClass());
+	}
+
+	@Test
+	public void testCheckedExceptionIsWrapped() throws Exception {
+		try {
+			ConstructorFunctions.compile(Target_.failing).newInstance("checked");
+			throw new AssertionError("no exception");
+		} catch (final UndeclaredThrowableException e) {
+			assertEquals(IOException.class, e.getUndeclaredThrowable().getClass());
+		}
+	}
+
+	@Test(expected = InstantiationException.class)
+	public void testAbstractClass() throws Exception {
+		ConstructorFunctions.compile(new Constructor0Impl<>(AbstractTarget.class));
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void testMissingConstructor() throws Exception {
+		ConstructorFunctions.compile(new Constructor1Impl<Target, Long>(Target.class, long.class));
+	}
+}
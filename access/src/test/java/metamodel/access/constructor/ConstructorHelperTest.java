@@ -25,6 +25,9 @@ package metamodel.access.constructor;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+
+import java.lang.reflect.InvocationTargetException;
+
 import metamodel.access.Accessor;
 import metamodel.constructor.Constructor2;
 import metamodel.constructor.impl.Constructor2Impl;
@@ -42,6 +45,9 @@ public class ConstructorHelperTest {
 		private final String text;
 
 		private Target(final int value, final String text) {
+			if (value < 0) {
+				throw new IllegalStateException("negative value");
+			}
 			this.value = value;
 			this.text = text;
 		}
@@ -67,4 +73,27 @@ public class ConstructorHelperTest {
 		assertEquals(42, target.getValue());
 		assertEquals("Hello World", target.getText());
 	}
+
+	@Test
+	public void testReuseConstructable() throws Exception {
+		final Constructable2<Target, Integer, String> constructable = Accessor.c(Target_.constructor);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(i, constructable.invoke(i, "text").getValue());
+		}
+	}
+
+	@Test
+	public void testTargetExceptionIsWrapped() throws Exception {
+		try {
+			Accessor.c(Target_.constructor).invoke(-1, "negative");
+			throw new AssertionError("no exception");
+		} catch (final InvocationTargetException e) {
+			assertEquals(IllegalStateException.class, e.getTargetException().getClass());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullForPrimitive() throws Exception {
+		Accessor.c(Target_.constructor).invoke(null, "null");
+	}
 }
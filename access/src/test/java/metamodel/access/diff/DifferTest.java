@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.diff;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.access.testobject.SubClassWithSameFieldName;
+import metamodel.access.testobject.SubClassWithSameFieldName_;
+import metamodel.field.ArrayField;
+import metamodel.field.impl.ArrayFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests Differ and Patch.
+ *
+ * @author Michael Kroll
+ */
+public class DifferTest {
+
+	public static class Target {
+		private String[] texts;
+	}
+
+	public static class Target_ {
+		public static final ArrayField<Target, String[]> texts = new ArrayFieldImpl<>("texts", Target.class);
+	}
+
+	private static SubClassWithSameFieldName sub(final int myint, final int subMyint, final String subString) {
+		final SubClassWithSameFieldName sub = new SubClassWithSameFieldName();
+		sub.setMyint(myint);
+		sub.sub_setMyint(subMyint);
+		sub.setSubString(subString);
+		sub.setRawList(Collections.singletonList(myint));
+		return sub;
+	}
+
+	@Test
+	public void testDiffAndApply() throws Exception {
+		final Differ<SubClassWithSameFieldName> differ = Differ.of(SubClassWithSameFieldName.class,
+		        SubClassWithSameFieldName_.class);
+		final SubClassWithSameFieldName before = sub(1, 2, "a");
+		final SubClassWithSameFieldName after = sub(1, 3, "b");
+
+		final Patch<SubClassWithSameFieldName> patch = differ.diff(before, after);
+		assertEquals(2, patch.size());
+		assertSame(SubClassWithSameFieldName_.myint, patch.getChanges().get(0).getFieldDefinition());
+		assertEquals(2, patch.getChanges().get(0).getOldValue());
+		assertEquals(3, patch.getChanges().get(0).getNewValue());
+		assertEquals("[myint: 2 -> 3, subString: a -> b]", patch.toString());
+
+		final SubClassWithSameFieldName replica = sub(1, 2, "a");
+		assertSame(replica, patch.apply(replica));
+		assertTrue(differ.diff(after, replica).isEmpty());
+		assertEquals(1, replica.getMyint());
+
+		patch.revert(replica);
+		assertTrue(differ.diff(before, replica).isEmpty());
+	}
+
+	@Test
+	public void testSameInstance() throws Exception {
+		final POJO pojo = new POJO();
+		assertSame(Patch.empty(), Differ.of(POJO.class, POJO_.class).diff(pojo, pojo));
+		assertTrue(Differ.of(POJO_.myint).diff(new POJO(), new POJO()).isEmpty());
+	}
+
+	@Test
+	public void testCollectionsByEquals() throws Exception {
+		final Differ<POJO> differ = Differ.of(Arrays.asList(POJO_.rawList, POJO_.wildcardList));
+		final POJO a = new POJO();
+		final POJO b = new POJO();
+		a.setRawList(Arrays.asList("x", "y"));
+		b.setRawList(Arrays.asList("x", "y"));
+		assertTrue(differ.diff(a, b).isEmpty());
+
+		b.setWildcardList(Arrays.asList("z"));
+		assertEquals(POJO_.wildcardList, differ.diff(a, b).getChanges().get(0).getFieldDefinition());
+	}
+
+	@Test
+	public void testArraysByElements() throws Exception {
+		final Differ<Target> differ = Differ.of(Target_.texts);
+		final Target a = new Target();
+		final Target b = new Target();
+		a.texts = new String[] { "x" };
+		b.texts = new String[] { "x" };
+		assertTrue(differ.diff(a, b).isEmpty());
+
+		b.texts = new String[] { "x", "y" };
+		assertEquals("[texts: [x] -> [x, y]]", differ.diff(a, b).toString());
+	}
+
+	@Test
+	public void testChangesCopyValues() throws Exception {
+		final Target before = new Target();
+		final Target after = new Target();
+		after.texts = new String[] { "x" };
+		final Patch<Target> arrayPatch = Differ.of(Target_.texts).diff(before, after);
+		after.texts[0] = "changed";
+		assertArrayEquals(new String[] { "x" }, (String[]) arrayPatch.getChanges().get(0).getNewValue());
+
+		final Target replica = arrayPatch.apply(new Target());
+		assertArrayEquals(new String[] { "x" }, replica.texts);
+		assertNotSame(replica.texts, arrayPatch.apply(new Target()).texts);
+
+		final POJO a = new POJO();
+		final POJO b = new POJO();
+		final List<Object> list = new ArrayList<Object>(Arrays.asList("x"));
+		b.setRawList(list);
+		final Patch<POJO> listPatch = Differ.of(POJO_.rawList).diff(a, b);
+		list.add("y");
+		final List<?> newValue = (List<?>) listPatch.getChanges().get(0).getNewValue();
+		assertEquals(Arrays.asList("x"), newValue);
+		assertNotSame(list, newValue);
+
+		final POJO target = listPatch.apply(new POJO());
+		assertEquals(ArrayList.class, target.getRawList().getClass());
+		assertEquals(Arrays.asList("x"), target.getRawList());
+		target.getRawList().clear();
+		assertEquals(Arrays.asList("x"), listPatch.getChanges().get(0).getNewValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDiffNull() throws Exception {
+		Differ.of(POJO_.myint).diff(new POJO(), null);
+	}
+}
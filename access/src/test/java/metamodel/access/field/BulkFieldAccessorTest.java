@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+
+import org.junit.Test;
+
+/**
+ * Tests BulkFieldAccessor.
+ *
+ * @author Michael Kroll
+ */
+public class BulkFieldAccessorTest {
+
+	private static List<POJO> pojos(final int count) {
+		final List<POJO> pojos = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			final POJO pojo = new POJO();
+			pojo.setMyint(i);
+			pojo.setMyInteger(i % 2 == 0 ? null : i);
+			pojos.add(pojo);
+		}
+		return pojos;
+	}
+
+	@Test
+	public void testExtract() throws Exception {
+		final List<POJO> pojos = pojos(5);
+		final BulkFieldAccessor<POJO, Integer> myint = FieldAccessor.bulk(POJO_.myint);
+
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, myint.extractInts(pojos));
+		assertArrayEquals(new long[] { 0, 1, 2, 3, 4 }, myint.extractLongs(pojos.toArray(new POJO[5])));
+		assertArrayEquals(new double[] { 0, 1, 2, 3, 4 }, myint.extractDoubles(new LinkedList<>(pojos)), 0d);
+		assertArrayEquals(new Object[] { null, 1, null, 3, null }, FieldAccessor.bulk(POJO_.myInteger).extract(pojos));
+	}
+
+	@Test
+	public void testExtractParallel() throws Exception {
+		final List<POJO> pojos = pojos(10000);
+		final BulkFieldAccessor<POJO, Integer> myint = FieldAccessor.bulk(POJO_.myint).withParallelThreshold(7);
+		assertEquals(7, myint.getParallelThreshold());
+
+		final int[] ints = myint.extractInts(pojos);
+		final Object[] objects = myint.extract(pojos);
+		assertEquals(pojos.size(), ints.length);
+		for (int i = 0; i < ints.length; i++) {
+			assertEquals(i, ints[i]);
+			assertEquals(i, objects[i]);
+		}
+	}
+
+	@Test
+	public void testExtractIterable() throws Exception {
+		final List<POJO> pojos = pojos(3);
+		final Iterable<POJO> iterable = new Iterable<POJO>() {
+			@Override
+			public Iterator<POJO> iterator() {
+				return pojos.iterator();
+			}
+		};
+		assertArrayEquals(new int[] { 0, 1, 2 }, FieldAccessor.bulk(POJO_.myint).extractInts(iterable));
+	}
+
+	@Test
+	public void testAssign() throws Exception {
+		final List<POJO> pojos = pojos(4);
+		final POJO[] array = pojos.toArray(new POJO[4]);
+		final BulkFieldAccessor<POJO, Integer> myint = FieldAccessor.bulk(POJO_.myint);
+
+		myint.assignInts(pojos, new int[] { 10, 11, 12, 13 });
+		assertArrayEquals(new int[] { 10, 11, 12, 13 }, myint.extractInts(array));
+
+		myint.assign(array, new Object[] { 20, 21, 22, 23 });
+		assertArrayEquals(new int[] { 20, 21, 22, 23 }, myint.extractInts(pojos));
+
+		FieldAccessor.bulk(POJO_.multidecl1).assignLongs(pojos, new long[] { Long.MIN_VALUE, -1, 0, Long.MAX_VALUE });
+		assertArrayEquals(new long[] { Long.MIN_VALUE, -1, 0, Long.MAX_VALUE },
+		        FieldAccessor.bulk(POJO_.multidecl1).extractLongs(pojos));
+	}
+
+	@Test
+	public void testFillParallel() throws Exception {
+		final List<POJO> pojos = pojos(10000);
+		final BulkFieldAccessor<POJO, Integer> myint = FieldAccessor.bulk(POJO_.myint).withParallelThreshold(100);
+		final BulkFieldAccessor<POJO, Integer> myInteger = FieldAccessor.bulk(POJO_.myInteger).withParallelThreshold(
+		        100);
+
+		myint.fill(pojos, 42);
+		myInteger.fill(pojos.toArray(new POJO[pojos.size()]), new IndexedValues<Integer>() {
+			@Override
+			public Integer get(final int index) {
+				return index * 2;
+			}
+		});
+		for (int i = 0; i < pojos.size(); i++) {
+			assertEquals(42, pojos.get(i).getMyint());
+			assertEquals(Integer.valueOf(i * 2), pojos.get(i).getMyInteger());
+		}
+
+		final int[] column = new int[pojos.size()];
+		for (int i = 0; i < column.length; i++) {
+			column[i] = -i;
+		}
+		myint.assignInts(pojos, column);
+		assertArrayEquals(column, myint.extractInts(pojos));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAssignWrongColumnSize() throws Exception {
+		FieldAccessor.bulk(POJO_.myint).assignInts(pojos(3), new int[2]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAssignNarrowing() throws Exception {
+		FieldAccessor.bulk(POJO_.myint).assignDoubles(pojos(1), new double[] { 1.5 });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExtractWrongFieldType() throws Exception {
+		FieldAccessor.bulk(POJO_.multidecl1).withParallelThreshold(2).extractInts(pojos(10));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidThreshold() throws Exception {
+		FieldAccessor.bulk(POJO_.myint).withParallelThreshold(0);
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Field;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.SubClassWithSameFieldName;
+
+import org.junit.Test;
+
+/**
+ * Tests all FieldBackends.
+ *
+ * @author Michael Kroll
+ */
+public class FieldBackendTest {
+
+	public static class Target {
+		private final String finalText;
+
+		public Target(final String finalText) {
+			this.finalText = finalText;
+		}
+
+		public String getFinalText() {
+			return finalText;
+		}
+	}
+
+	private static FieldHandle handle(final FieldBackend backend, final Class<?> clazz, final String name)
+	        throws Exception {
+		final Field field = clazz.getDeclaredField(name);
+		field.setAccessible(true);
+		return backend.createHandle(field);
+	}
+
+	@Test
+	public void testDefaultBackend() throws Exception {
+		assertEquals(FieldBackend.METHOD_HANDLE, FieldBackend.getDefault());
+		assertEquals(FieldBackend.METHOD_HANDLE, FieldHelper.getBackend());
+	}
+
+	@Test
+	public void testGetSet() throws Exception {
+		for (final FieldBackend backend : FieldBackend.values()) {
+			final POJO pojo = new POJO();
+			final FieldHandle myint = handle(backend, POJO.class, "myint");
+			final FieldHandle myInteger = handle(backend, POJO.class, "myInteger");
+
+			myint.set(pojo, 42);
+			myInteger.set(pojo, 23);
+			assertEquals(42, pojo.getMyint());
+			assertEquals(Integer.valueOf(23), pojo.getMyInteger());
+			assertEquals(42, myint.get(pojo));
+			assertEquals(23, myInteger.get(pojo));
+
+			myInteger.set(pojo, null);
+			assertEquals(null, myInteger.get(pojo));
+		}
+	}
+
+	@Test
+	public void testPrimitiveGetSet() throws Exception {
+		for (final FieldBackend backend : FieldBackend.values()) {
+			final POJO pojo = new POJO();
+			final FieldHandle myint = handle(backend, POJO.class, "myint");
+
+			myint.setInt(pojo, 42);
+			assertEquals(42, pojo.getMyint());
+			assertEquals(42, myint.getInt(pojo));
+			// widening
+			assertEquals(42L, myint.getLong(pojo));
+			assertEquals(42d, myint.getDouble(pojo), 0d);
+			myint.setShort(pojo, (short) 7);
+			assertEquals(7, pojo.getMyint());
+		}
+	}
+
+	@Test
+	public void testPrimitiveWrongFieldType() throws Exception {
+		for (final FieldBackend backend : FieldBackend.values()) {
+			try {
+				handle(backend, POJO.class, "myint").getShort(new POJO());
+				throw new AssertionError(backend + " narrowed int to short");
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+			try {
+				handle(backend, POJO.class, "myint").getInt(new Target("no pojo"));
+				throw new AssertionError(backend + " accepted wrong target");
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testShadowedField() throws Exception {
+		for (final FieldBackend backend : FieldBackend.values()) {
+			final SubClassWithSameFieldName sub = new SubClassWithSameFieldName();
+			handle(backend, POJO.class, "myint").set(sub, 7);
+			handle(backend, SubClassWithSameFieldName.class, "myint").set(sub, 13);
+			assertEquals(7, sub.getMyint());
+			assertEquals(13, sub.sub_getMyint());
+		}
+	}
+
+	@Test
+	public void testFinalField() throws Exception {
+		for (final FieldBackend backend : FieldBackend.values()) {
+			final Target target = new Target("before");
+			handle(backend, Target.class, "finalText").set(target, "after");
+			assertEquals("after", target.getFinalText());
+		}
+	}
+
+	@Test
+	public void testWrongValueType() throws Exception {
+		for (final FieldBackend backend : FieldBackend.values()) {
+			try {
+				handle(backend, POJO.class, "myint").set(new POJO(), "no int");
+				throw new AssertionError(backend + " accepted wrong type");
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testWrongTargetType() throws Exception {
+		for (final FieldBackend backend : FieldBackend.values()) {
+			try {
+				handle(backend, POJO.class, "myint").get(new Target("no pojo"));
+				throw new AssertionError(backend + " accepted wrong target");
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testNullIntoPrimitive() throws Exception {
+		for (final FieldBackend backend : FieldBackend.values()) {
+			try {
+				handle(backend, POJO.class, "myint").set(new POJO(), null);
+				throw new AssertionError(backend + " accepted null for primitive");
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+}
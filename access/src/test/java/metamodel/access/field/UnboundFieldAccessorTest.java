@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.field;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.access.testobject.SubClassWithSameFieldName;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests UnboundFieldAccessor.
+ *
+ * @author Michael Kroll
+ */
+public class UnboundFieldAccessorTest {
+
+	private static final UnboundFieldAccessor<POJO, Integer> MYINT = ofMyint();
+
+	private static UnboundFieldAccessor<POJO, Integer> ofMyint() {
+		try {
+			return FieldAccessor.of(POJO_.myint);
+		} catch (final NoSuchFieldException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@Test
+	public void testGetSet() throws Exception {
+		final UnboundFieldAccessor<POJO, Integer> myInteger = FieldAccessor.of(POJO_.myInteger);
+		assertSame(POJO_.myInteger, myInteger.getFieldDefinition());
+
+		final List<POJO> pojos = Arrays.asList(new POJO(), new POJO(), new POJO());
+		for (int i = 0; i < pojos.size(); i++) {
+			MYINT.setInt(pojos.get(i), i);
+			myInteger.set(pojos.get(i), i * 10);
+		}
+		for (int i = 0; i < pojos.size(); i++) {
+			assertEquals(i, pojos.get(i).getMyint());
+			assertEquals(i, MYINT.getInt(pojos.get(i)));
+			assertEquals(Integer.valueOf(i), MYINT.get(pojos.get(i)));
+			assertEquals(Integer.valueOf(i * 10), myInteger.get(pojos.get(i)));
+		}
+
+		myInteger.set(pojos.get(0), null);
+		assertNull(myInteger.get(pojos.get(0)));
+	}
+
+	@Test
+	public void testSubClass() throws Exception {
+		final SubClassWithSameFieldName sub = new SubClassWithSameFieldName();
+		MYINT.setInt(sub, 42);
+		assertEquals(42, sub.getMyint());
+		assertEquals(0, sub.sub_getMyint());
+	}
+
+	@Test(expected = NoSuchFieldException.class)
+	public void testMissingField() throws Exception {
+		FieldAccessor.of(new SingularFieldImpl<POJO, String>("missing", POJO.class));
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import metamodel.field.BooleanField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.BooleanFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests BitmapIndex.
+ *
+ * @author Michael Kroll
+ */
+public class BitmapIndexTest {
+
+	public enum Color {
+		RED, GREEN, BLUE
+	}
+
+	public static class Target {
+		private final Color color;
+		private final boolean flag;
+		private final Integer size;
+
+		Target(final int row) {
+			color = row % 7 == 0 ? null : Color.values()[row % 3];
+			flag = row % 2 == 0;
+			size = row % 5 == 0 ? null : row % 5;
+		}
+	}
+
+	public static class Target_ {
+		public static final SingularField<Target, Color> color = new SingularFieldImpl<>("color", Target.class);
+		public static final BooleanField<Target> flag = new BooleanFieldImpl<>("flag", Target.class);
+		public static final SingularField<Target, Integer> size = new SingularFieldImpl<>("size", Target.class);
+	}
+
+	private static List<Target> targets(final int count) {
+		final List<Target> targets = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			targets.add(new Target(i));
+		}
+		return targets;
+	}
+
+	private static int[] rows(final List<Target> targets, final Color color, final boolean flag) {
+		final List<Integer> rows = new ArrayList<>();
+		for (int i = 0; i < targets.size(); i++) {
+			if (targets.get(i).color == color && targets.get(i).flag == flag) {
+				rows.add(i);
+			}
+		}
+		final int[] result = new int[rows.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = rows.get(i);
+		}
+		return result;
+	}
+
+	@Test
+	public void testEnumAndBoolean() throws Exception {
+		final List<Target> targets = targets(200000);
+		final BitmapIndex<Target, Color> color = BitmapIndex.of(Target_.color, targets);
+		final BitmapIndex<Target, Boolean> flag = BitmapIndex.of(Target_.flag, targets);
+		assertEquals(200000, color.size());
+		assertEquals(new LinkedHashSet<>(Arrays.asList(Color.RED, Color.GREEN, Color.BLUE, null)), color
+		        .getValues());
+		assertArrayEquals(rows(targets, Color.GREEN, true), color.get(Color.GREEN).and(flag.get(true)).toArray());
+		assertArrayEquals(rows(targets, null, false), color.get(null).andNot(flag.get(true)).toArray());
+		assertEquals(200000, color.in(Color.RED, Color.GREEN, Color.BLUE, null).cardinality());
+		assertEquals(100000, flag.all().andNot(flag.get(false)).cardinality());
+		assertEquals(targets.get(14), color.get(null).and(flag.get(true)).select(targets).get(1));
+	}
+
+	@Test
+	public void testOtherValues() throws Exception {
+		final List<Target> targets = targets(100);
+		final BitmapIndex<Target, Integer> size = BitmapIndex.of(Target_.size, targets);
+		assertEquals(new LinkedHashSet<>(Arrays.asList(null, 1, 2, 3, 4)), size.getValues());
+		assertEquals(20, size.get(null).cardinality());
+		assertArrayEquals(new int[] { 3, 8, 13 }, Arrays.copyOf(size.get(3).toArray(), 3));
+		assertEquals(0, size.get(7).cardinality());
+		assertEquals(40, size.in(1, 2).cardinality());
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		final BitmapIndex<Target, Color> color = BitmapIndex.of(Target_.color, new ArrayList<Target>());
+		assertEquals(0, color.size());
+		assertEquals(0, color.getValues().size());
+		assertEquals(0, color.all().cardinality());
+	}
+}
@@ -0,0 +1,271 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.field.DoubleField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests IndexedCollection.
+ *
+ * @author Michael Kroll
+ */
+public class IndexedCollectionTest {
+
+	public static class Target {
+		private double d;
+		private float f;
+		private String name;
+
+		Target(final double d, final String name) {
+			this.d = d;
+			f = (float) d;
+			this.name = name;
+		}
+	}
+
+	public static class Target_ {
+		public static final DoubleField<Target> d = new DoubleFieldImpl<>("d", Target.class);
+		public static final SingularField<Target, Float> f = new SingularFieldImpl<>("f", Target.class);
+		public static final SingularField<Target, String> name = new SingularFieldImpl<>("name", Target.class);
+	}
+
+	private static POJO pojo(final int myint, final Integer myInteger) {
+		final POJO pojo = new POJO();
+		pojo.setMyint(myint);
+		pojo.setMyInteger(myInteger);
+		return pojo;
+	}
+
+	private static List<Integer> myints(final List<POJO> pojos) {
+		final List<Integer> myints = new ArrayList<>();
+		for (final POJO pojo : pojos) {
+			myints.add(pojo.getMyint());
+		}
+		Collections.sort(myints);
+		return myints;
+	}
+
+	private static IndexedCollection<POJO> pojos(final int count) throws Exception {
+		final IndexedCollection<POJO> pojos = new IndexedCollection<>();
+		for (int i = 0; i < count; i++) {
+			pojos.add(pojo(i, i % 10 == 0 ? null : i % 10));
+		}
+		return pojos.index(POJO_.myint).index(POJO_.myInteger).sortedIndex(POJO_.myInteger);
+	}
+
+	@Test
+	public void testFind() throws Exception {
+		final IndexedCollection<POJO> pojos = pojos(1000);
+		assertEquals(1000, pojos.size());
+		assertEquals(Arrays.asList(42), myints(pojos.find(POJO_.myint, 42)));
+		assertEquals(Arrays.asList(42), myints(pojos.find(POJO_.myint, Integer.valueOf(42))));
+		assertEquals(Collections.emptyList(), pojos.find(POJO_.myint, 1000));
+		assertEquals(Collections.emptyList(), pojos.find(POJO_.myint, (Integer) null));
+		assertEquals(100, pojos.find(POJO_.myInteger, 3).size());
+		assertEquals(100, pojos.find(POJO_.myInteger, null).size());
+	}
+
+	@Test
+	public void testRange() throws Exception {
+		final IndexedCollection<POJO> pojos = pojos(100);
+		final List<POJO> range = pojos.range(POJO_.myInteger, 2, 4);
+		assertEquals(30, range.size());
+		int previous = 2;
+		for (final POJO pojo : range) {
+			assertTrue(pojo.getMyInteger() >= previous && pojo.getMyInteger() <= 4);
+			previous = pojo.getMyInteger();
+		}
+		assertEquals(20, pojos.range(POJO_.myInteger, null, 2).size());
+		assertEquals(10, pojos.range(POJO_.myInteger, 9, null).size());
+		assertEquals(90, pojos.range(POJO_.myInteger, null, null).size());
+		assertEquals(0, pojos.range(POJO_.myInteger, 5, 4).size());
+	}
+
+	@Test
+	public void testUpdates() throws Exception {
+		final IndexedCollection<POJO> pojos = pojos(100);
+		final POJO pojo = pojos.find(POJO_.myint, 42).get(0);
+		pojos.setInt(pojo, POJO_.myint, 4200);
+		assertEquals(4200, pojo.getMyint());
+		assertEquals(0, pojos.find(POJO_.myint, 42).size());
+		assertEquals(Arrays.asList(pojo), pojos.find(POJO_.myint, 4200));
+
+		pojos.set(pojo, POJO_.myInteger, null);
+		assertEquals(11, pojos.find(POJO_.myInteger, null).size());
+		assertEquals(9, pojos.find(POJO_.myInteger, 2).size());
+		assertEquals(9, pojos.range(POJO_.myInteger, 2, 2).size());
+
+		assertTrue(pojos.remove(pojo));
+		assertFalse(pojos.remove(pojo));
+		assertFalse(pojos.contains(pojo));
+		assertEquals(0, pojos.find(POJO_.myint, 4200).size());
+		assertEquals(10, pojos.find(POJO_.myInteger, null).size());
+
+		for (final Iterator<POJO> iterator = pojos.iterator(); iterator.hasNext();) {
+			if (iterator.next().getMyint() % 2 == 0) {
+				iterator.remove();
+			}
+		}
+		assertEquals(50, pojos.size());
+		assertEquals(0, pojos.find(POJO_.myint, 2).size());
+		assertEquals(10, pojos.find(POJO_.myInteger, 1).size());
+		assertEquals(0, pojos.find(POJO_.myInteger, null).size());
+
+		pojos.clear();
+		assertEquals(0, pojos.find(POJO_.myInteger, 1).size());
+		assertTrue(pojos.add(pojo));
+		assertFalse(pojos.add(pojo));
+		assertEquals(1, pojos.find(POJO_.myint, 4200).size());
+	}
+
+	@Test
+	public void testOutsideWrite() throws Exception {
+		final IndexedCollection<POJO> pojos = pojos(100);
+		final POJO pojo = pojos.find(POJO_.myint, 42).get(0);
+		final POJO other = pojos.find(POJO_.myint, 43).get(0);
+		pojo.setMyint(4200);
+		pojo.setMyInteger(3);
+		other.setMyint(4300);
+		assertEquals(Arrays.asList(pojo), pojos.find(POJO_.myint, 42));
+
+		assertTrue(pojos.remove(pojo));
+		assertEquals(0, pojos.find(POJO_.myint, 42).size());
+		assertEquals(0, pojos.find(POJO_.myint, 4200).size());
+		assertEquals(9, pojos.find(POJO_.myInteger, 2).size());
+		assertEquals(9, pojos.range(POJO_.myInteger, 2, 2).size());
+		assertEquals(10, pojos.find(POJO_.myInteger, 3).size());
+
+		for (final Iterator<POJO> iterator = pojos.iterator(); iterator.hasNext();) {
+			if (iterator.next() == other) {
+				iterator.remove();
+			}
+		}
+		assertEquals(0, pojos.find(POJO_.myint, 43).size());
+		assertEquals(9, pojos.find(POJO_.myInteger, 3).size());
+
+		assertTrue(pojos.add(pojo));
+		assertEquals(Arrays.asList(pojo), pojos.find(POJO_.myint, 4200));
+		assertEquals(Arrays.asList(pojo), pojos.range(POJO_.myInteger, 3, 3).subList(9, 10));
+	}
+
+	@Test
+	public void testManyKeys() throws Exception {
+		final IndexedCollection<POJO> pojos = new IndexedCollection<POJO>().index(POJO_.myint)
+		        .index(POJO_.multidecl1);
+		final List<POJO> all = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			final POJO pojo = pojo(i * 31, null);
+			all.add(pojo);
+			pojos.add(pojo);
+		}
+		for (int i = 0; i < all.size(); i += 3) {
+			pojos.remove(all.get(i));
+		}
+		for (int i = 0; i < all.size(); i++) {
+			assertEquals(i % 3 == 0 ? 0 : 1, pojos.find(POJO_.myint, i * 31).size());
+		}
+		assertEquals(pojos.size(), pojos.find(POJO_.multidecl1, 0L).size());
+		pojos.setLong(all.get(1), POJO_.multidecl1, -1L);
+		assertEquals(Arrays.asList(all.get(1)), pojos.find(POJO_.multidecl1, -1L));
+	}
+
+	@Test
+	public void testLargeBucket() throws Exception {
+		final IndexedCollection<POJO> pojos = new IndexedCollection<POJO>().index(POJO_.myInteger);
+		final List<POJO> remaining = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			final POJO pojo = pojo(i, 7);
+			remaining.add(pojo);
+			pojos.add(pojo);
+		}
+		for (final int i : new int[] { 0, 99, 50, 3, 97, 2 }) {
+			assertTrue(pojos.remove(remaining.get(i)));
+		}
+		for (final int i : new int[] { 99, 97, 50, 3, 2, 0 }) {
+			remaining.remove(i);
+		}
+		assertEquals(myints(remaining), myints(pojos.find(POJO_.myInteger, 7)));
+		while (remaining.size() > 1) {
+			assertTrue(pojos.remove(remaining.remove(remaining.size() / 2)));
+			assertEquals(myints(remaining), myints(pojos.find(POJO_.myInteger, 7)));
+		}
+		assertTrue(pojos.remove(remaining.remove(0)));
+		assertEquals(0, pojos.find(POJO_.myInteger, 7).size());
+	}
+
+	@Test
+	public void testDoubleAndReferenceKeys() throws Exception {
+		final Target nan = new Target(Double.NaN, "nan");
+		final Target negativeZero = new Target(-0.0d, "zero");
+		final Target zero = new Target(0.0d, "zero");
+		final IndexedCollection<Target> targets = new IndexedCollection<>(Arrays.asList(nan, negativeZero, zero));
+		targets.index(Target_.d).index(Target_.f).index(Target_.name).sortedIndex(Target_.d);
+		assertEquals(Arrays.asList(nan), targets.find(Target_.d, Double.NaN));
+		assertEquals(Arrays.asList(nan), targets.find(Target_.f, Float.NaN));
+		assertEquals(Arrays.asList(negativeZero), targets.find(Target_.f, -0.0f));
+		assertEquals(Arrays.asList(zero), targets.find(Target_.d, 0.0d));
+		assertEquals(2, targets.find(Target_.name, "zero").size());
+		assertEquals(Arrays.asList(negativeZero, zero), targets.range(Target_.d, -1d, 1d));
+		targets.setDouble(zero, Target_.d, 1.5d);
+		assertEquals(Arrays.asList(zero), targets.find(Target_.d, 1.5d));
+		assertEquals(Arrays.asList(zero), targets.range(Target_.d, 1d, 2d));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotIndexed() throws Exception {
+		new IndexedCollection<POJO>().find(POJO_.myint, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoSortedIndex() throws Exception {
+		new IndexedCollection<POJO>().index(POJO_.myInteger).range(POJO_.myInteger, 1, 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateIndex() throws Exception {
+		new IndexedCollection<POJO>().index(POJO_.myint).index(POJO_.myint);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetNotContained() throws Exception {
+		new IndexedCollection<POJO>().setInt(new POJO(), POJO_.myint, 1);
+	}
+}
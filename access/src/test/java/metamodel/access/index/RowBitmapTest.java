@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests RowBitmap.
+ *
+ * @author Michael Kroll
+ */
+public class RowBitmapTest {
+
+	/** Random rows with a density per chunk, so both array and bitmap containers are used. */
+	private static BitSet random(final Random random, final double... densities) {
+		final BitSet rows = new BitSet();
+		for (int chunk = 0; chunk < densities.length; chunk++) {
+			for (int i = 0; i < 0x10000; i++) {
+				if (random.nextDouble() < densities[chunk]) {
+					rows.set(chunk << 16 | i);
+				}
+			}
+		}
+		return rows;
+	}
+
+	private static RowBitmap bitmap(final BitSet rows) {
+		final RowBitmap.Builder builder = new RowBitmap.Builder();
+		for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+			builder.add(row);
+		}
+		return builder.build();
+	}
+
+	private static void assertRows(final BitSet expected, final RowBitmap actual) {
+		assertEquals(expected.cardinality(), actual.cardinality());
+		assertEquals(expected.isEmpty(), actual.isEmpty());
+		final int[] rows = new int[expected.cardinality()];
+		int count = 0;
+		for (int row = expected.nextSetBit(0); row >= 0; row = expected.nextSetBit(row + 1)) {
+			rows[count++] = row;
+		}
+		assertArrayEquals(rows, actual.toArray());
+	}
+
+	@Test
+	public void testOperations() {
+		final Random random = new Random(42);
+		final double[][] densities = { { 0.001, 0.5, 0, 0.9, 0.05 }, { 0.5, 0.001, 0.2, 0, 0.06, 0.01 },
+		        { 0, 0, 0.0625 }, {} };
+		for (final double[] first : densities) {
+			for (final double[] second : densities) {
+				final BitSet a = random(random, first);
+				final BitSet b = random(random, second);
+				final RowBitmap bitmapA = bitmap(a);
+				final RowBitmap bitmapB = bitmap(b);
+				assertRows(a, bitmapA);
+
+				final BitSet and = (BitSet) a.clone();
+				and.and(b);
+				assertRows(and, bitmapA.and(bitmapB));
+				final BitSet or = (BitSet) a.clone();
+				or.or(b);
+				assertRows(or, bitmapA.or(bitmapB));
+				final BitSet andNot = (BitSet) a.clone();
+				andNot.andNot(b);
+				assertRows(andNot, bitmapA.andNot(bitmapB));
+			}
+		}
+	}
+
+	@Test
+	public void testLookups() {
+		final RowBitmap bitmap = RowBitmap.of(5, 3, 70000, 3, 1 << 20);
+		assertEquals(4, bitmap.cardinality());
+		assertArrayEquals(new int[] { 3, 5, 70000, 1 << 20 }, bitmap.toArray());
+		assertTrue(bitmap.contains(70000));
+		assertFalse(bitmap.contains(4));
+		assertFalse(bitmap.contains(-1));
+		assertFalse(bitmap.contains(Integer.MAX_VALUE));
+		assertEquals(3, bitmap.nextRow(-10));
+		assertEquals(5, bitmap.nextRow(4));
+		assertEquals(70000, bitmap.nextRow(6));
+		assertEquals(1 << 20, bitmap.nextRow(70001));
+		assertEquals(-1, bitmap.nextRow((1 << 20) + 1));
+		assertEquals(Arrays.asList("d", "f"), RowBitmap.of(3, 5).select(Arrays.asList("a", "b", "c", "d", "e",
+		        "f")));
+		assertEquals(RowBitmap.of(3, 5), RowBitmap.of(5, 3));
+		assertTrue(RowBitmap.empty().isEmpty());
+		assertEquals(-1, RowBitmap.empty().nextRow(0));
+	}
+
+	@Test
+	public void testLastRow() {
+		final RowBitmap bitmap = RowBitmap.of(1, Integer.MAX_VALUE);
+		assertTrue(bitmap.contains(Integer.MAX_VALUE));
+		assertEquals(Integer.MAX_VALUE, bitmap.nextRow(2));
+		assertArrayEquals(new int[] { 1, Integer.MAX_VALUE }, bitmap.toArray());
+		final List<Integer> positions = new AbstractList<Integer>() {
+			@Override
+			public Integer get(final int index) {
+				return index;
+			}
+
+			@Override
+			public int size() {
+				return Integer.MAX_VALUE;
+			}
+		};
+		assertEquals(Arrays.asList(1, Integer.MAX_VALUE), bitmap.select(positions));
+		assertEquals(bitmap, new RowBitmap.Builder().add(1).add(Integer.MAX_VALUE).build());
+	}
+
+	@Test
+	public void testRange() {
+		final BitSet expected = new BitSet();
+		expected.set(100, 200000);
+		assertRows(expected, RowBitmap.range(100, 200000));
+		assertRows(new BitSet(), RowBitmap.range(5, 5));
+		assertEquals(1, RowBitmap.range(65535, 65536).cardinality());
+		assertRows(new BitSet(), RowBitmap.range(0, 70000).andNot(RowBitmap.range(0, 70000)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnordered() {
+		new RowBitmap.Builder().add(2).add(1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegative() {
+		RowBitmap.of(-1);
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.join;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import metamodel.access.Projection;
+import metamodel.field.IntField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests Join.
+ *
+ * @author Michael Kroll
+ */
+public class JoinTest {
+
+	public static class Order {
+		private final int customerId;
+		private final Integer boxedCustomerId;
+		private final String number;
+
+		Order(final int customerId, final Integer boxedCustomerId, final String number) {
+			this.customerId = customerId;
+			this.boxedCustomerId = boxedCustomerId;
+			this.number = number;
+		}
+
+		@Override
+		public String toString() {
+			return number;
+		}
+	}
+
+	public static class Order_ {
+		public static final IntField<Order> customerId = new IntFieldImpl<>("customerId", Order.class);
+		public static final SingularField<Order, Integer> boxedCustomerId = new SingularFieldImpl<>("boxedCustomerId",
+		        Order.class);
+		public static final SingularField<Order, String> number = new SingularFieldImpl<>("number", Order.class);
+	}
+
+	public static class Customer {
+		private final int id;
+		private final String name;
+
+		Customer(final int id, final String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	public static class Customer_ {
+		public static final IntField<Customer> id = new IntFieldImpl<>("id", Customer.class);
+		public static final SingularField<Customer, String> name = new SingularFieldImpl<>("name", Customer.class);
+	}
+
+	private static List<Order> orders(final int count, final int customers) {
+		final Random random = new Random(count);
+		final List<Order> orders = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			final int customerId = random.nextInt(customers + 10) - 5;
+			orders.add(new Order(customerId, customerId % 7 == 0 ? null : customerId, "o" + i));
+		}
+		return orders;
+	}
+
+	private static List<Customer> customers(final int count) {
+		final List<Customer> customers = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			// every tenth id twice
+			customers.add(new Customer(i, "c" + i));
+			if (i % 10 == 0) {
+				customers.add(new Customer(i, "d" + i));
+			}
+		}
+		return customers;
+	}
+
+	/** Nested loop join, ordered like the hash join. */
+	private static List<Pair<Order, Customer>> expected(final List<Order> orders, final List<Customer> customers,
+	        final boolean boxed) {
+		final List<Pair<Order, Customer>> pairs = new ArrayList<>();
+		final boolean ordersFirst = orders.size() >= customers.size();
+		for (final Object outer : ordersFirst ? orders : customers) {
+			for (final Object inner : ordersFirst ? customers : orders) {
+				final Order order = (Order) (ordersFirst ? outer : inner);
+				final Customer customer = (Customer) (ordersFirst ? inner : outer);
+				final Integer key = boxed ? order.boxedCustomerId : Integer.valueOf(order.customerId);
+				if (key != null && key == customer.id) {
+					pairs.add(new Pair<>(order, customer));
+				}
+			}
+		}
+		return pairs;
+	}
+
+	@Test
+	public void testPairs() throws Exception {
+		final Join<Order, Customer> primitive = Join.on(Order_.customerId, Customer_.id);
+		final Join<Order, Customer> boxed = Join.on(Order_.boxedCustomerId, Customer_.id);
+		for (final int[] sizes : new int[][] { { 5000, 300 }, { 200, 3000 } }) {
+			final List<Order> orders = orders(sizes[0], sizes[1]);
+			final List<Customer> customers = customers(sizes[1]);
+			for (final int threshold : new int[] { 64, Integer.MAX_VALUE }) {
+				assertEquals(expected(orders, customers, false), primitive.withParallelThreshold(threshold).pairs(
+				        orders, customers));
+				assertEquals(expected(orders, customers, true), boxed.withParallelThreshold(threshold).pairs(orders,
+				        customers));
+			}
+		}
+	}
+
+	@Test
+	public void testRows() throws Exception {
+		final List<Order> orders = new ArrayList<>();
+		orders.add(new Order(1, 1, "o1"));
+		orders.add(new Order(2, 2, "o2"));
+		orders.add(new Order(1, 1, "o3"));
+		final List<Customer> customers = new ArrayList<>();
+		customers.add(new Customer(1, "c1"));
+		customers.add(new Customer(3, "c3"));
+		final List<Object[]> rows = Join.on(Order_.customerId, Customer_.id).rows(orders, customers,
+		        Projection.<Order> of(Order_.number, Order_.customerId), Projection.<Customer> of(Customer_.name));
+		assertEquals(2, rows.size());
+		assertArrayEquals(new Object[] { "o1", 1, "c1" }, rows.get(0));
+		assertArrayEquals(new Object[] { "o3", 1, "c1" }, rows.get(1));
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		final Join<Order, Customer> join = Join.on(Order_.customerId, Customer_.id);
+		assertEquals(0, join.pairs(orders(10, 10), Collections.<Customer> emptyList()).size());
+		assertEquals(0, join.pairs(Collections.<Order> emptyList(), customers(10)).size());
+	}
+}
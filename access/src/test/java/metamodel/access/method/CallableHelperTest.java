@@ -24,7 +24,12 @@
 package metamodel.access.method;
 
 import static org.junit.Assert.assertEquals;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
 import metamodel.access.Accessor;
+import metamodel.access.InvokerHelper;
 import metamodel.method.Method0;
 import metamodel.method.Method1;
 import metamodel.method.impl.Method0Impl;
@@ -51,6 +56,9 @@ public class CallableHelperTest {
 		}
 
 		public void setValue(final int value) {
+			if (value < 0) {
+				throw new IllegalArgumentException("negative value");
+			}
 			this.value = value;
 		}
 	}
@@ -68,4 +76,47 @@ public class CallableHelperTest {
 		assertEquals(null, Accessor.on(target).method(Target_.setValue).invoke(42));
 		assertEquals(new Integer(42), Accessor.on(target).method(Target_.getValue).invoke());
 	}
+
+	@Test
+	public void testReuseCallable() throws Exception {
+		final Target target = new Target();
+		final Callable1<Target, Void, Integer> setValue = Accessor.on(target).method(Target_.setValue);
+		for (int i = 0; i < 3; i++) {
+			setValue.invoke(i);
+			assertEquals(i, target.getValue());
+		}
+	}
+
+	@Test
+	public void testTargetExceptionIsWrapped() throws Exception {
+		try {
+			Accessor.on(new Target()).method(Target_.setValue).invoke(-1);
+			throw new AssertionError("no exception");
+		} catch (final InvocationTargetException e) {
+			assertEquals(IllegalArgumentException.class, e.getTargetException().getClass());
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullReceiver() throws Throwable {
+		final MethodHandle invoker = CallableHelper.getInvoker(Target_.getValue);
+		try {
+			final Object result = invoker.invokeExact((Object) null);
+			throw new AssertionError("no exception, but " + result);
+		} catch (final InvocationTargetException e) {
+			throw new AssertionError("null receiver must not be wrapped like Method.invoke does not", e);
+		} catch (final Throwable e) {
+			throw InvokerHelper.reflective(e);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullForPrimitive() throws Exception {
+		Accessor.on(new Target()).method(Target_.setValue).invoke(null);
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void testMissingMethod() throws Exception {
+		Accessor.on(new Target()).method(new Method0Impl<Target, Void>("missing", Target.class)).invoke();
+	}
 }
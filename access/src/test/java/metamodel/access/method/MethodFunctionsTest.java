@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.access.testobject.SubClassWithSameFieldName;
+import metamodel.method.Method0;
+import metamodel.method.Method1;
+import metamodel.method.Method3;
+import metamodel.method.impl.Method0Impl;
+import metamodel.method.impl.Method1Impl;
+import metamodel.method.impl.Method3Impl;
+
+import org.junit.Test;
+
+/**
+ * Tests MethodFunctions.
+ *
+ * @author Michael Kroll
+ */
+public class MethodFunctionsTest {
+
+	public static class Target {
+		@SuppressWarnings("unused")
+		private long sum(final int a, final long b, final Integer c) {
+			return a + b + c;
+		}
+
+		@SuppressWarnings("unused")
+		private void fail(final RuntimeException e) {
+			throw e;
+		}
+
+		@SuppressWarnings("unused")
+		private void failChecked() throws IOException {
+			throw new IOException("checked");
+		}
+	}
+
+	public static class Target_ {
+		public static final Method3<Target, Long, Integer, Long, Integer> sum = new Method3Impl<>("sum", Target.class,
+		        int.class, long.class, Integer.class);
+		public static final Method1<Target, Void, RuntimeException> fail = new Method1Impl<>("fail", Target.class,
+		        RuntimeException.class);
+		public static final Method0<Target, Void> failChecked = new Method0Impl<>("failChecked", Target.class);
+	}
+
+	private static final MethodFunction1<POJO, Void, Integer> SET_MYINT = compileSetMyint();
+
+	private static MethodFunction1<POJO, Void, Integer> compileSetMyint() {
+		try {
+			return MethodFunctions.compile(POJO_.setMyint);
+		} catch (final NoSuchMethodException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@Test
+	public void testInvoke() throws Exception {
+		final POJO pojo = new POJO();
+		final MethodFunction0<POJO, Integer> getMyint = MethodFunctions.compile(POJO_.getMyint);
+
+		assertNull(SET_MYINT.invoke(pojo, 42));
+		assertEquals(Integer.valueOf(42), getMyint.invoke(pojo));
+	}
+
+	@Test
+	public void testCallableOf() throws Exception {
+		final POJO pojo = new POJO();
+		Callable1.of(POJO_.setMyint).invoke(pojo, 5);
+		assertEquals(Integer.valueOf(5), Callable0.of(POJO_.getMyint).invoke(pojo));
+	}
+
+	@Test
+	public void testInvokeOnSubclass() throws Exception {
+		final SubClassWithSameFieldName sub = new SubClassWithSameFieldName();
+
+		SET_MYINT.invoke(sub, 7);
+		assertEquals(7, sub.getMyint());
+		assertEquals(0, sub.sub_getMyint());
+	}
+
+	@Test
+	public void testPrimitiveParameters() throws Exception {
+		final MethodFunction3<Target, Long, Integer, Long, Integer> sum = MethodFunctions.compile(Target_.sum);
+		assertEquals(Long.valueOf(6), sum.invoke(new Target(), 1, 2L, 3));
+	}
+
+	@Test
+	public void testUncheckedExceptionIsRethrown() throws Exception {
+		final IllegalStateException expected = new IllegalStateException();
+		try {
+			MethodFunctions.compile(Target_.fail).invoke(new Target(), expected);
+			throw new AssertionError("no exception");
+		} catch (final IllegalStateException e) {
+			assertSame(expected, e);
+		}
+	}
+
+	@Test
+	public void testCheckedExceptionIsWrapped() throws Exception {
+		try {
+			MethodFunctions.compile(Target_.failChecked).invoke(new Target());
+			throw new AssertionError("no exception");
+		} catch (final UndeclaredThrowableException e) {
+			assertEquals(IOException.class, e.getUndeclaredThrowable().getClass());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullForPrimitive() throws Exception {
+		SET_MYINT.invoke(new POJO(), null);
+	}
+
+	@Test(expected = NoSuchMethodException.class)
+	public void testMissingMethod() throws Exception {
+		MethodFunctions.compile(new Method0Impl<POJO, Void>("missing", POJO.class));
+	}
+}
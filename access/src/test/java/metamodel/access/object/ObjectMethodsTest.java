@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.object;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.field.ArrayField;
+import metamodel.field.DoubleField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.ArrayFieldImpl;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests ObjectMethods.
+ *
+ * @author Michael Kroll
+ */
+public class ObjectMethodsTest {
+
+	public static class Target {
+		private final double d;
+		private final int[] numbers;
+		private final String text;
+
+		public Target(final double d, final int[] numbers, final String text) {
+			this.d = d;
+			this.numbers = numbers;
+			this.text = text;
+		}
+	}
+
+	public static class Target_ {
+		public static final DoubleField<Target> d = new DoubleFieldImpl<>("d", Target.class);
+		public static final ArrayField<Target, int[]> numbers = new ArrayFieldImpl<>("numbers", Target.class);
+		public static final SingularField<Target, String> text = new SingularFieldImpl<>("text", Target.class);
+	}
+
+	private static POJO pojo(final int myint, final Integer myInteger) {
+		final POJO pojo = new POJO();
+		pojo.setMyint(myint);
+		pojo.setMyInteger(myInteger);
+		return pojo;
+	}
+
+	@Test
+	public void testEquivalence() throws Exception {
+		final ObjectMethods<POJO> methods = ObjectMethods.of(POJO_.myint, POJO_.myInteger);
+
+		assertTrue(methods.equivalent(pojo(1, 2), pojo(1, 2)));
+		assertTrue(methods.equivalent(pojo(1, null), pojo(1, null)));
+		assertTrue(methods.equivalent(null, null));
+		assertFalse(methods.equivalent(pojo(1, 2), pojo(1, 3)));
+		assertFalse(methods.equivalent(pojo(1, 2), pojo(2, 2)));
+		assertFalse(methods.equivalent(pojo(1, null), pojo(1, 2)));
+		assertFalse(methods.equivalent(pojo(1, 2), null));
+
+		assertEquals(methods.hash(pojo(1, 2)), methods.hash(pojo(1, 2)));
+		assertEquals(Arrays.hashCode(new Object[] { 1, 2 }), methods.hash(pojo(1, 2)));
+		assertEquals(0, methods.hash(null));
+	}
+
+	@Test
+	public void testArraysAndFloatingPoint() throws Exception {
+		final ObjectMethods<Target> methods = ObjectMethods.of(Target_.d, Target_.numbers, Target_.text);
+		final Target a = new Target(Double.NaN, new int[] { 1, 2 }, "a");
+		final Target b = new Target(Double.NaN, new int[] { 1, 2 }, "a");
+
+		assertTrue(methods.equivalent(a, b));
+		assertEquals(methods.hash(a), methods.hash(b));
+		assertFalse(methods.equivalent(a, new Target(Double.NaN, new int[] { 1, 3 }, "a")));
+		assertFalse(methods.equivalent(new Target(0.0, null, null), new Target(-0.0, null, null)));
+		assertEquals("Target[d=NaN, numbers=[1, 2], text=a]", methods.toString(a));
+	}
+
+	@Test
+	public void testCompare() throws Exception {
+		final ObjectMethods<POJO> methods = ObjectMethods.of(Arrays.asList(POJO_.myInteger, POJO_.myint));
+		final List<POJO> pojos = new ArrayList<>(Arrays.asList(pojo(2, 1), pojo(1, null), pojo(1, 1), null));
+		Collections.sort(pojos, methods);
+
+		assertEquals(null, pojos.get(0));
+		assertEquals(null, pojos.get(1).getMyInteger());
+		assertEquals(1, pojos.get(2).getMyint());
+		assertEquals(2, pojos.get(3).getMyint());
+		assertEquals(0, methods.compare(pojo(1, 1), pojo(1, 1)));
+		assertEquals(-1, Integer.signum(methods.compare(pojo(Integer.MIN_VALUE, 1), pojo(Integer.MAX_VALUE, 1))));
+	}
+
+	@Test
+	public void testToString() throws Exception {
+		final ObjectMethods<POJO> methods = ObjectMethods.of(POJO.class, POJO_.class);
+		final POJO pojo = pojo(42, null);
+		pojo.setRawList(Collections.singletonList("raw"));
+
+		assertEquals("POJO[myint=42, myInteger=null, rawList=[raw], wildcardList=null, multidecl1=0, multidecl2=0]",
+		        methods.toString(pojo));
+		assertEquals("null", methods.toString(null));
+		assertEquals("> POJO[myint=1]", ObjectMethods.of(POJO_.myint).appendTo(new StringBuilder("> "), pojo(1, 2))
+		        .toString());
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.query;
+
+import static metamodel.access.query.Predicates.where;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import metamodel.access.testobject.POJO;
+import metamodel.access.testobject.POJO_;
+import metamodel.access.testobject.SubClassWithSameFieldName;
+import metamodel.field.BooleanField;
+import metamodel.field.CharField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.BooleanFieldImpl;
+import metamodel.field.impl.CharFieldImpl;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.FloatFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests Predicates and Query.
+ *
+ * @author Michael Kroll
+ */
+public class QueryTest {
+
+	public static class Target {
+		private boolean bool;
+		private char c;
+		private float f;
+		private double d;
+		private String name;
+
+		Target(final double d) {
+			this.d = d;
+			f = (float) d;
+		}
+
+		Target(final boolean bool, final char c, final String name) {
+			this.bool = bool;
+			this.c = c;
+			this.name = name;
+		}
+	}
+
+	public static class Target_ {
+		public static final BooleanField<Target> bool = new BooleanFieldImpl<>("bool", Target.class);
+		public static final CharField<Target> c = new CharFieldImpl<>("c", Target.class);
+		public static final FloatField<Target> f = new FloatFieldImpl<>("f", Target.class);
+		public static final DoubleField<Target> d = new DoubleFieldImpl<>("d", Target.class);
+		public static final SingularField<Target, String> name = new SingularFieldImpl<>("name", Target.class);
+	}
+
+	private static List<POJO> pojos(final int count) {
+		final List<POJO> pojos = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			final POJO pojo = new POJO();
+			pojo.setMyint(i);
+			pojo.setMyInteger(i % 3 == 0 ? null : i);
+			pojos.add(pojo);
+		}
+		return pojos;
+	}
+
+	private static List<Integer> myints(final List<? extends POJO> pojos) {
+		final List<Integer> myints = new ArrayList<>();
+		for (final POJO pojo : pojos) {
+			myints.add(pojo.getMyint());
+		}
+		return myints;
+	}
+
+	@Test
+	public void testIntConditions() throws Exception {
+		final List<POJO> pojos = pojos(10);
+		assertEquals(Arrays.asList(7, 8, 9), myints(Query.of(where(POJO_.myint).gt(6)).select(pojos)));
+		assertEquals(Arrays.asList(6, 7, 8, 9), myints(Query.of(where(POJO_.myint).ge(6)).select(pojos)));
+		assertEquals(Arrays.asList(0, 1), myints(Query.of(where(POJO_.myint).lt(2)).select(pojos)));
+		assertEquals(Arrays.asList(0, 1, 2), myints(Query.of(where(POJO_.myint).le(2)).select(pojos)));
+		assertEquals(Arrays.asList(4), myints(Query.of(where(POJO_.myint).eq(4)).select(pojos)));
+		assertEquals(9, Query.of(where(POJO_.myint).ne(4)).count(pojos));
+		assertEquals(Arrays.asList(3, 4, 5), myints(Query.of(where(POJO_.myint).between(3, 5)).select(pojos)));
+		assertEquals(Arrays.asList(0, 2, 5), myints(Query.of(where(POJO_.myint).in(5, 0, 2, 11)).select(pojos)));
+		assertEquals(0, Query.of(where(POJO_.myint).gt(Integer.MAX_VALUE)).count(pojos));
+		assertEquals(0, Query.of(where(POJO_.myint).lt(Integer.MIN_VALUE)).count(pojos));
+		assertEquals(0, Query.of(where(POJO_.myint).between(5, 3)).count(pojos));
+		assertEquals(7, Query.of(where(POJO_.myint).between(3, 5).negate()).count(pojos));
+		assertEquals(10, Query.of(where(POJO_.multidecl1).eq(0L)).count(pojos));
+		assertEquals(0, Query.of(where(POJO_.multidecl1).gt(Long.MAX_VALUE)).count(pojos));
+	}
+
+	@Test
+	public void testComposition() throws Exception {
+		final List<POJO> pojos = pojos(10);
+		final Predicate<POJO> predicate = where(POJO_.myint).gt(3).and(where(POJO_.myInteger).isNull());
+		assertEquals(Arrays.asList(6, 9), myints(Query.of(predicate).select(pojos)));
+		assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 7, 8), myints(Query.of(predicate.negate()).select(pojos)));
+		assertEquals(Arrays.asList(0, 3, 6, 8, 9), myints(Query.of(where(POJO_.myint).ge(8).or(where(
+		        POJO_.myInteger).isNull())).select(pojos)));
+		assertEquals(10, Query.of(Predicates.<POJO> all()).count(pojos));
+		assertEquals(0, Query.of(Predicates.<POJO> none()).count(pojos));
+		assertTrue(Predicates.none().negate().test(null));
+	}
+
+	@Test
+	public void testObjectConditions() throws Exception {
+		final List<POJO> pojos = pojos(10);
+		assertEquals(6, Query.of(where(POJO_.myInteger).isNotNull()).count(pojos));
+		assertEquals(Arrays.asList(5), myints(Query.of(where(POJO_.myInteger).eq(5)).select(pojos)));
+		assertEquals(9, Query.of(where(POJO_.myInteger).ne(5)).count(pojos));
+		assertEquals(4, Query.of(where(POJO_.myInteger).eq(null)).count(pojos));
+		assertEquals(Arrays.asList(0, 2, 3, 6, 9), myints(Query.of(where(POJO_.myInteger).in(2, null)).select(
+		        pojos)));
+		assertEquals(Arrays.asList(7, 8), myints(Query.of(where(POJO_.myInteger).gt(5)).select(pojos)));
+		assertEquals(Arrays.asList(5, 7, 8), myints(Query.of(where(POJO_.myInteger).ge(5)).select(pojos)));
+		assertEquals(Arrays.asList(1, 2), myints(Query.of(where(POJO_.myInteger).lt(4)).select(pojos)));
+		assertEquals(Arrays.asList(1, 2, 4), myints(Query.of(where(POJO_.myInteger).le(4)).select(pojos)));
+		assertEquals(Arrays.asList(4, 5, 7), myints(Query.of(where(POJO_.myInteger).between(4, 7)).select(pojos)));
+	}
+
+	@Test
+	public void testOtherPrimitives() throws Exception {
+		final List<Target> targets = Arrays.asList(new Target(true, 'a', "x"), new Target(false, 'b', null));
+		assertEquals(1, Query.of(where(Target_.bool).isTrue()).count(targets));
+		assertEquals(1, Query.of(where(Target_.bool).isFalse().negate()).count(targets));
+		assertEquals(2, Query.of(where(Target_.c).le('b')).count(targets));
+		assertEquals(1, Query.of(where(Target_.name).in("x", "y")).count(targets));
+		assertEquals(1, Query.of(where(Target_.name).lt("y")).count(targets));
+	}
+
+	@Test
+	public void testDoubleConditions() throws Exception {
+		final List<Target> targets = Arrays.asList(new Target(Double.NaN), new Target(-0.0d), new Target(0.0d),
+		        new Target(1.5d), new Target(Double.POSITIVE_INFINITY));
+		assertEquals(2, Query.of(where(Target_.d).eq(0.0d)).count(targets));
+		assertEquals(3, Query.of(where(Target_.d).ne(0.0d)).count(targets));
+		assertEquals(2, Query.of(where(Target_.d).gt(0.0d)).count(targets));
+		assertEquals(4, Query.of(where(Target_.d).ge(-0.0d)).count(targets));
+		assertEquals(2, Query.of(where(Target_.d).lt(1.5d)).count(targets));
+		assertEquals(3, Query.of(where(Target_.d).le(1.5d)).count(targets));
+		assertEquals(0, Query.of(where(Target_.d).gt(Double.POSITIVE_INFINITY)).count(targets));
+		assertEquals(0, Query.of(where(Target_.d).eq(Double.NaN)).count(targets));
+		assertEquals(5, Query.of(where(Target_.d).ne(Double.NaN)).count(targets));
+		assertEquals(1, Query.of(where(Target_.d).isNaN()).count(targets));
+		assertEquals(2, Query.of(where(Target_.d).gt(0.0d).negate().and(where(Target_.d).isNaN().negate()))
+		        .count(targets));
+		assertEquals(1, Query.of(where(Target_.f).between(1d, 2d)).count(targets));
+		assertEquals(1, Query.of(where(Target_.f).isNaN()).count(targets));
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		final List<POJO> pojos = pojos(100000);
+		final Query<POJO> query = Query.of(where(POJO_.myint).lt(50000).and(where(POJO_.myInteger).isNotNull()))
+		        .withParallelThreshold(1000);
+		assertEquals(1000, query.getParallelThreshold());
+		final List<Integer> expected = myints(Query.of(query.getPredicate()).withParallelThreshold(
+		        Integer.MAX_VALUE).select(new LinkedList<>(pojos)));
+		assertEquals(33333, expected.size());
+		assertEquals(expected, myints(query.select(pojos)));
+		assertEquals(expected, myints(query.select(pojos.toArray(new POJO[pojos.size()]))));
+		assertEquals(expected, myints(query.select(new LinkedHashSet<>(pojos))));
+		assertEquals(33333, query.count(pojos));
+		assertEquals(33333, query.count(pojos.toArray(new POJO[pojos.size()])));
+	}
+
+	@Test
+	public void testSubclass() throws Exception {
+		final SubClassWithSameFieldName object = new SubClassWithSameFieldName();
+		object.setMyint(5);
+		assertEquals(1, Query.of(where(POJO_.myint).eq(5)).count(Arrays.asList(object)));
+		assertFalse(where(POJO_.myint).eq(5).test(new SubClassWithSameFieldName()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotComparable() throws Exception {
+		where(Target_.name).gt(null);
+	}
+}
@@ -0,0 +1,241 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import metamodel.field.BooleanField;
+import metamodel.field.ByteField;
+import metamodel.field.CharField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.ShortField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.BooleanFieldImpl;
+import metamodel.field.impl.ByteFieldImpl;
+import metamodel.field.impl.CharFieldImpl;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.FloatFieldImpl;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.LongFieldImpl;
+import metamodel.field.impl.ShortFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests RecordLayout, RecordStore and RecordCursor.
+ *
+ * @author Michael Kroll
+ */
+public class RecordStoreTest {
+
+	public static class Target {
+		private boolean bool;
+		private byte b;
+		private char c;
+		private short s;
+		private int i;
+		private long l;
+		private float f;
+		private double d;
+		private String name;
+
+		public Target() {
+		}
+
+		Target(final int value) {
+			bool = value % 2 == 1;
+			b = (byte) value;
+			c = (char) ('a' + value);
+			s = (short) -value;
+			i = value * 1000;
+			l = Long.MAX_VALUE - value;
+			f = value / 4f;
+			d = value * 1.5d;
+			name = "name" + value;
+		}
+	}
+
+	public static class Target_ {
+		public static final BooleanField<Target> bool = new BooleanFieldImpl<>("bool", Target.class);
+		public static final ByteField<Target> b = new ByteFieldImpl<>("b", Target.class);
+		public static final CharField<Target> c = new CharFieldImpl<>("c", Target.class);
+		public static final ShortField<Target> s = new ShortFieldImpl<>("s", Target.class);
+		public static final IntField<Target> i = new IntFieldImpl<>("i", Target.class);
+		public static final LongField<Target> l = new LongFieldImpl<>("l", Target.class);
+		public static final FloatField<Target> f = new FloatFieldImpl<>("f", Target.class);
+		public static final DoubleField<Target> d = new DoubleFieldImpl<>("d", Target.class);
+		public static final SingularField<Target, String> name = new SingularFieldImpl<>("name", Target.class);
+	}
+
+	private static RecordLayout<Target> layout() throws Exception {
+		return RecordLayout.of(Target.class, Target_.class);
+	}
+
+	private static void assertRecord(final Target expected, final Target actual) {
+		assertEquals(expected.bool, actual.bool);
+		assertEquals(expected.b, actual.b);
+		assertEquals(expected.c, actual.c);
+		assertEquals(expected.s, actual.s);
+		assertEquals(expected.i, actual.i);
+		assertEquals(expected.l, actual.l);
+		assertEquals(expected.f, actual.f, 0f);
+		assertEquals(expected.d, actual.d, 0d);
+	}
+
+	@Test
+	public void testLayout() throws Exception {
+		final RecordLayout<Target> layout = layout();
+		assertEquals(Arrays.asList(Target_.bool, Target_.b, Target_.c, Target_.s, Target_.i, Target_.l, Target_.f,
+		        Target_.d), layout.getFieldDefinitions());
+		assertEquals(32, layout.getRecordSize());
+		assertEquals(0, layout.getOffset(Target_.l));
+		assertEquals(8, layout.getOffset(Target_.d));
+		assertEquals(16, layout.getOffset(Target_.i));
+		assertEquals(20, layout.getOffset(Target_.f));
+		assertEquals(24, layout.getOffset(Target_.c));
+		assertEquals(26, layout.getOffset(Target_.s));
+		assertEquals(28, layout.getOffset(Target_.bool));
+		assertEquals(29, layout.getOffset(Target_.b));
+	}
+
+	@Test
+	public void testCursor() throws Exception {
+		final RecordStore<Target> store = RecordStore.allocate(layout(), 1000);
+		assertEquals(1000, store.getCapacity());
+		final RecordCursor<Target> cursor = store.cursor();
+		assertSame(store, cursor.getStore());
+		for (int i = 0; i < store.getCapacity(); i++) {
+			final Target target = new Target(i);
+			cursor.moveTo(i);
+			cursor.setBoolean(Target_.bool, target.bool);
+			cursor.setByte(Target_.b, target.b);
+			cursor.setChar(Target_.c, target.c);
+			cursor.setShort(Target_.s, target.s);
+			cursor.setInt(Target_.i, target.i);
+			cursor.setLong(Target_.l, target.l);
+			cursor.setFloat(Target_.f, target.f);
+			cursor.setDouble(Target_.d, target.d);
+		}
+		for (int i = store.getCapacity() - 1; i >= 0; i--) {
+			final Target target = new Target(i);
+			assertEquals(i, cursor.moveTo(i).getIndex());
+			assertEquals(target.bool, cursor.getBoolean(Target_.bool));
+			assertEquals(target.b, cursor.getByte(Target_.b));
+			assertEquals(target.c, cursor.getChar(Target_.c));
+			assertEquals(target.s, cursor.getShort(Target_.s));
+			assertEquals(target.i, cursor.getInt(Target_.i));
+			assertEquals(target.l, cursor.getLong(Target_.l));
+			assertEquals(target.f, cursor.getFloat(Target_.f), 0f);
+			assertEquals(target.d, cursor.getDouble(Target_.d), 0d);
+			assertRecord(target, store.get(i));
+		}
+	}
+
+	@Test
+	public void testCursorByOffset() throws Exception {
+		final RecordLayout<Target> layout = layout();
+		final int i = layout.getOffset(Target_.i);
+		final int d = layout.getOffset(Target_.d);
+		final int bool = layout.getOffset(Target_.bool);
+		final RecordStore<Target> store = RecordStore.allocate(layout, 10);
+		final RecordCursor<Target> cursor = store.cursor();
+		for (int index = 0; index < store.getCapacity(); index++) {
+			cursor.moveTo(index).setInt(i, index);
+			cursor.setDouble(d, index / 2d);
+			cursor.setBoolean(bool, index % 2 == 0);
+		}
+		for (int index = 0; index < store.getCapacity(); index++) {
+			assertEquals(index, cursor.moveTo(index).getInt(Target_.i));
+			assertEquals(index, cursor.getInt(i));
+			assertEquals(index / 2d, cursor.getDouble(d), 0d);
+			assertEquals(index % 2 == 0, cursor.getBoolean(bool));
+		}
+		try {
+			cursor.getLong(layout.getRecordSize() - 4);
+			fail("value exceeds the record");
+		} catch (final IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testCopy() throws Exception {
+		final RecordStore<Target> store = RecordStore.allocate(layout(), 10);
+		for (int i = 0; i < store.getCapacity(); i++) {
+			store.write(i, new Target(i));
+		}
+		final RecordCursor<Target> cursor = store.cursor();
+		final Target target = new Target();
+		for (int i = 0; i < store.getCapacity(); i++) {
+			assertRecord(new Target(i), store.read(i, target));
+			assertRecord(new Target(i), cursor.moveTo(i).read(new Target()));
+			assertNull(store.get(i).name);
+		}
+		cursor.moveTo(3).write(new Target(7));
+		assertRecord(new Target(7), store.get(3));
+		assertRecord(new Target(4), store.get(4));
+	}
+
+	@Test
+	public void testWrap() throws Exception {
+		final ByteBuffer buffer = ByteBuffer.allocate(100).order(ByteOrder.BIG_ENDIAN);
+		buffer.position(4);
+		final RecordStore<Target> store = RecordStore.wrap(layout(), buffer);
+		assertEquals(3, store.getCapacity());
+		store.cursor().moveTo(0).setInt(Target_.i, 0x01020304);
+		assertEquals(4, buffer.position());
+		assertEquals(0x01020304, buffer.getInt(4 + 16));
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		assertEquals(0, RecordStore.allocate(layout(), 0).getCapacity());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReferenceField() throws Exception {
+		layout().getOffset(Target_.name);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooLarge() throws Exception {
+		RecordStore.allocate(layout(), Integer.MAX_VALUE / 16);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testIndexOutOfRange() throws Exception {
+		RecordStore.allocate(layout(), 1).cursor().moveTo(1);
+	}
+}
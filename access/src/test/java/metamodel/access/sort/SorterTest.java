@@ -0,0 +1,206 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.sort;
+
+import static metamodel.access.sort.SortKey.asc;
+import static metamodel.access.sort.SortKey.desc;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import metamodel.field.BooleanField;
+import metamodel.field.DoubleField;
+import metamodel.field.IntField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.BooleanFieldImpl;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests Sorter.
+ *
+ * @author Michael Kroll
+ */
+public class SorterTest {
+
+	public enum Color {
+		RED, GREEN, BLUE
+	}
+
+	public static class Target {
+		private final int number;
+		private final double amount;
+		private final boolean flag;
+		private final Integer boxed;
+		private final String name;
+		private final Color color;
+		private final Object other = null;
+		private final int position;
+
+		Target(final Random random, final int position) {
+			number = random.nextInt(20) - 10;
+			final double[] amounts = { -0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, -1.5, 2.5, 1e300 };
+			amount = amounts[random.nextInt(amounts.length)];
+			flag = random.nextBoolean();
+			boxed = random.nextInt(5) == 0 ? null : random.nextInt(7) - 3;
+			final String[] names = { null, "", "a", "a\0", "a\0b", "ab", "b", "\uffff", "\u0100" };
+			name = names[random.nextInt(names.length)];
+			color = random.nextInt(4) == 0 ? null : Color.values()[random.nextInt(3)];
+			this.position = position;
+		}
+	}
+
+	public static class Target_ {
+		public static final IntField<Target> number = new IntFieldImpl<>("number", Target.class);
+		public static final DoubleField<Target> amount = new DoubleFieldImpl<>("amount", Target.class);
+		public static final BooleanField<Target> flag = new BooleanFieldImpl<>("flag", Target.class);
+		public static final SingularField<Target, Integer> boxed = new SingularFieldImpl<>("boxed", Target.class);
+		public static final SingularField<Target, String> name = new SingularFieldImpl<>("name", Target.class);
+		public static final SingularField<Target, Color> color = new SingularFieldImpl<>("color", Target.class);
+		public static final SingularField<Target, Object> other = new SingularFieldImpl<>("other", Target.class);
+	}
+
+	private static <T extends Comparable<? super T>> int compareNullsFirst(final T first, final T second) {
+		if (first == null || second == null) {
+			return first == second ? 0 : first == null ? -1 : 1;
+		}
+		return first.compareTo(second);
+	}
+
+	private static List<Target> targets(final int count) {
+		final Random random = new Random(count);
+		final List<Target> targets = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			targets.add(new Target(random, i));
+		}
+		return targets;
+	}
+
+	private static int[] positions(final List<Target> targets) {
+		final int[] positions = new int[targets.size()];
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = targets.get(i).position;
+		}
+		return positions;
+	}
+
+	private static void assertSorted(final Sorter<Target> sorter, final Comparator<Target> comparator,
+	        final int count) {
+		final List<Target> expected = targets(count);
+		Collections.sort(expected, comparator);
+		for (final int threshold : new int[] { 100, Integer.MAX_VALUE }) {
+			final List<Target> actual = targets(count);
+			sorter.withParallelThreshold(threshold).sort(actual);
+			assertArrayEquals(positions(expected), positions(actual));
+		}
+	}
+
+	@Test
+	public void testLongKeys() throws Exception {
+		assertSorted(Sorter.by(asc(Target_.number)), new Comparator<Target>() {
+			@Override
+			public int compare(final Target first, final Target second) {
+				return Integer.compare(first.number, second.number);
+			}
+		}, 5000);
+		assertSorted(Sorter.by(desc(Target_.flag), asc(Target_.color), desc(Target_.boxed)), new Comparator<Target>() {
+			@Override
+			public int compare(final Target first, final Target second) {
+				int result = Boolean.compare(second.flag, first.flag);
+				if (result == 0) {
+					result = compareNullsFirst(first.color, second.color);
+				}
+				return result != 0 ? result : compareNullsFirst(second.boxed, first.boxed);
+			}
+		}, 5000);
+		assertSorted(Sorter.by(asc(Target_.amount)), new Comparator<Target>() {
+			@Override
+			public int compare(final Target first, final Target second) {
+				return Double.compare(first.amount, second.amount);
+			}
+		}, 5000);
+	}
+
+	@Test
+	public void testByteKeys() throws Exception {
+		assertSorted(Sorter.by(asc(Target_.name), desc(Target_.number)), new Comparator<Target>() {
+			@Override
+			public int compare(final Target first, final Target second) {
+				final int result = compareNullsFirst(first.name, second.name);
+				return result != 0 ? result : Integer.compare(second.number, first.number);
+			}
+		}, 5000);
+		assertSorted(Sorter.by(desc(Target_.name), asc(Target_.color)), new Comparator<Target>() {
+			@Override
+			public int compare(final Target first, final Target second) {
+				final int result = compareNullsFirst(second.name, first.name);
+				return result != 0 ? result : compareNullsFirst(first.color, second.color);
+			}
+		}, 5000);
+		assertSorted(Sorter.by(desc(Target_.amount), asc(Target_.number)), new Comparator<Target>() {
+			@Override
+			public int compare(final Target first, final Target second) {
+				final int result = Double.compare(second.amount, first.amount);
+				return result != 0 ? result : Integer.compare(first.number, second.number);
+			}
+		}, 5000);
+	}
+
+	@Test
+	public void testArrayAndOrder() throws Exception {
+		final Sorter<Target> sorter = Sorter.by(asc(Target_.number));
+		final Target[] targets = targets(50).toArray(new Target[0]);
+		final int[] order = sorter.order(Arrays.asList(targets));
+		sorter.sort(targets);
+		assertArrayEquals(order, positions(Arrays.asList(targets)));
+		for (int i = 1; i < targets.length; i++) {
+			assertEquals(true, targets[i - 1].number <= targets[i].number);
+		}
+
+		final List<Target> linked = new LinkedList<>(targets(50));
+		sorter.sort(linked);
+		assertArrayEquals(order, positions(linked));
+		sorter.sort(new ArrayList<Target>());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedType() throws Exception {
+		Sorter.by(asc(Target_.other));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoKeys() throws Exception {
+		Sorter.<Target> by();
+	}
+}
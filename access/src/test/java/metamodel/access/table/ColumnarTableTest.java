@@ -0,0 +1,222 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.access.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import metamodel.access.testobject.SubClassWithSameFieldName;
+import metamodel.access.testobject.SubClassWithSameFieldName_;
+import metamodel.field.BooleanField;
+import metamodel.field.ByteField;
+import metamodel.field.CharField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.ShortField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.BooleanFieldImpl;
+import metamodel.field.impl.ByteFieldImpl;
+import metamodel.field.impl.CharFieldImpl;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.FloatFieldImpl;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.LongFieldImpl;
+import metamodel.field.impl.ShortFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+import org.junit.Test;
+
+/**
+ * Tests ColumnarTable.
+ *
+ * @author Michael Kroll
+ */
+public class ColumnarTableTest {
+
+	public static class Target {
+		private boolean bool;
+		private byte b;
+		private char c;
+		private short s;
+		private int i;
+		private long l;
+		private float f;
+		private double d;
+		private String name;
+
+		public Target() {
+		}
+
+		Target(final int value) {
+			bool = value % 2 == 0;
+			b = (byte) value;
+			c = (char) ('a' + value);
+			s = (short) -value;
+			i = value * 1000;
+			l = Long.MAX_VALUE - value;
+			f = value / 4f;
+			d = value * 1.5d;
+			name = value == 1 ? null : "name" + value;
+		}
+	}
+
+	public static class Target_ {
+		public static final BooleanField<Target> bool = new BooleanFieldImpl<>("bool", Target.class);
+		public static final ByteField<Target> b = new ByteFieldImpl<>("b", Target.class);
+		public static final CharField<Target> c = new CharFieldImpl<>("c", Target.class);
+		public static final ShortField<Target> s = new ShortFieldImpl<>("s", Target.class);
+		public static final IntField<Target> i = new IntFieldImpl<>("i", Target.class);
+		public static final LongField<Target> l = new LongFieldImpl<>("l", Target.class);
+		public static final FloatField<Target> f = new FloatFieldImpl<>("f", Target.class);
+		public static final DoubleField<Target> d = new DoubleFieldImpl<>("d", Target.class);
+		public static final SingularField<Target, String> name = new SingularFieldImpl<>("name", Target.class);
+	}
+
+	private static List<Target> targets(final int count) {
+		final List<Target> targets = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			targets.add(new Target(i));
+		}
+		return targets;
+	}
+
+	private static void assertRow(final Target expected, final Target actual) {
+		assertEquals(expected.bool, actual.bool);
+		assertEquals(expected.b, actual.b);
+		assertEquals(expected.c, actual.c);
+		assertEquals(expected.s, actual.s);
+		assertEquals(expected.i, actual.i);
+		assertEquals(expected.l, actual.l);
+		assertEquals(expected.f, actual.f, 0f);
+		assertEquals(expected.d, actual.d, 0d);
+		assertEquals(expected.name, actual.name);
+	}
+
+	private static void assertTable(final ColumnarTable<Target> table, final List<Target> targets) {
+		assertEquals(targets.size(), table.size());
+		assertEquals(9, table.getColumnCount());
+		final IntBuffer ints = table.ints(table.getColumn(Target_.i));
+		final DoubleBuffer doubles = table.doubles(table.getColumn(Target_.d));
+		for (int row = 0; row < targets.size(); row++) {
+			final Target target = targets.get(row);
+			assertEquals(target.i, ints.get(row));
+			assertEquals(target.d, doubles.get(row), 0d);
+			assertEquals(target.bool ? 1 : 0, table.booleans(0).get(row));
+			assertEquals(target.b, table.bytes(1).get(row));
+			assertEquals(target.c, table.chars(2).get(row));
+			assertEquals(target.s, table.shorts(3).get(row));
+			assertEquals(target.l, table.longs(5).get(row));
+			assertEquals(target.f, table.floats(6).get(row), 0f);
+			assertEquals(target.name, table.references(8).get(row));
+			assertEquals(target.l, table.get(row, 5));
+			assertEquals(target.bool, table.get(row, 0));
+			final Target copy = table.getRow(row);
+			assertNotSame(target, copy);
+			assertRow(target, copy);
+			assertRow(target, table.readRow(row, new Target()));
+		}
+	}
+
+	@Test
+	public void testHeap() throws Exception {
+		final List<Target> targets = targets(100);
+		final ColumnarTable<Target> table = ColumnarTable.of(Target.class, Target_.class, targets);
+		assertFalse(table.isOffHeap());
+		assertEquals(Target.class, table.getType());
+		assertEquals(Arrays.asList(Target_.bool, Target_.b, Target_.c, Target_.s, Target_.i, Target_.l, Target_.f,
+		        Target_.d, Target_.name), table.getFieldDefinitions());
+		assertTable(table, targets);
+	}
+
+	@Test
+	public void testOffHeap() throws Exception {
+		final List<Target> targets = targets(100);
+		final ColumnarTable<Target> table = ColumnarTable.offHeap(Target.class, Target_.class, targets);
+		assertTrue(table.isOffHeap());
+		assertTrue(table.longs(5).isDirect());
+		assertEquals(ByteOrder.nativeOrder(), table.longs(5).order());
+		assertTable(table, targets);
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		final ColumnarTable<Target> table = ColumnarTable.offHeap(Target.class, Target_.class,
+		        Collections.<Target> emptyList());
+		assertEquals(0, table.size());
+		assertEquals(0, table.ints(4).limit());
+	}
+
+	@Test
+	public void testHiddenFields() throws Exception {
+		final SubClassWithSameFieldName object = new SubClassWithSameFieldName();
+		object.setMyint(1);
+		object.sub_setMyint(2);
+		object.setSubString("sub");
+		final ColumnarTable<SubClassWithSameFieldName> table = ColumnarTable.of(SubClassWithSameFieldName.class,
+		        SubClassWithSameFieldName_.class, Collections.singletonList(object));
+		final SubClassWithSameFieldName copy = table.getRow(0);
+		assertEquals(1, copy.getMyint());
+		assertEquals(2, copy.sub_getMyint());
+		assertEquals("sub", copy.getSubString());
+		assertEquals(2, table.get(0, table.getColumn(SubClassWithSameFieldName_.myint)));
+	}
+
+	@Test(expected = ReadOnlyBufferException.class)
+	public void testColumnsAreReadOnly() throws Exception {
+		ColumnarTable.of(Target.class, Target_.class, targets(1)).ints(4).put(0, 1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testReferencesAreReadOnly() throws Exception {
+		ColumnarTable.of(Target.class, Target_.class, targets(1)).references(8).set(0, "x");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongColumnType() throws Exception {
+		ColumnarTable.of(Target.class, Target_.class, targets(1)).longs(4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullObject() throws Exception {
+		ColumnarTable.of(Target.class, Target_.class, Arrays.asList(new Target(), null));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRowOutOfRange() throws Exception {
+		ColumnarTable.of(Target.class, Target_.class, targets(1)).getRow(1);
+	}
+}
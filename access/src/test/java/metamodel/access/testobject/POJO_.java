@@ -4,8 +4,12 @@ package metamodel.access.testobject;
 import java.util.List;
 import javax.annotation.Generated;
 import metamodel.field.CollectionField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
 import metamodel.field.SingularField;
 import metamodel.field.impl.CollectionFieldImpl;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.LongFieldImpl;
 import metamodel.field.impl.SingularFieldImpl;
 import metamodel.method.Method0;
 import metamodel.method.Method1;
@@ -25,7 +29,7 @@ public abstract class POJO_ {
      * @see POJO#myint
      * 
      */
-    public final static SingularField<POJO, java.lang.Integer> myint = new SingularFieldImpl<>("myint", POJO.class);
+    public final static IntField<POJO> myint = new IntFieldImpl<>("myint", POJO.class);
     /**
      * @see POJO#myInteger
      * 
@@ -45,12 +49,12 @@ public abstract class POJO_ {
      * @see POJO#multidecl1
      * 
      */
-    public final static SingularField<POJO, java.lang.Long> multidecl1 = new SingularFieldImpl<>("multidecl1", POJO.class);
+    public final static LongField<POJO> multidecl1 = new LongFieldImpl<>("multidecl1", POJO.class);
     /**
      * @see POJO#multidecl2
      * 
      */
-    public final static SingularField<POJO, java.lang.Long> multidecl2 = new SingularFieldImpl<>("multidecl2", POJO.class);
+    public final static LongField<POJO> multidecl2 = new LongFieldImpl<>("multidecl2", POJO.class);
     /**
      * @see POJO#getMyint()
      * 
@@ -2,7 +2,9 @@
 package metamodel.access.testobject;
 
 import javax.annotation.Generated;
+import metamodel.field.IntField;
 import metamodel.field.SingularField;
+import metamodel.field.impl.IntFieldImpl;
 import metamodel.field.impl.SingularFieldImpl;
 import metamodel.method.Method0;
 import metamodel.method.Method1;
@@ -24,7 +26,7 @@ public abstract class SubClassWithSameFieldName_
      * @see SubClassWithSameFieldName#myint
      * 
      */
-    public final static SingularField<SubClassWithSameFieldName, Integer> myint = new SingularFieldImpl<>("myint", SubClassWithSameFieldName.class);
+    public final static IntField<SubClassWithSameFieldName> myint = new IntFieldImpl<>("myint", SubClassWithSameFieldName.class);
     /**
      * @see SubClassWithSameFieldName#subString
      * 
@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import metamodel.access.constructor.ConstructorFunction0;
+import metamodel.access.constructor.ConstructorFunctions;
+import metamodel.constructor.impl.Constructor0Impl;
+
+/**
+ * Creates the collections and maps that decoded collection- and map-fields are filled into.
+ * <p>
+ * Concrete declared types are instantiated by their default constructor. Interfaces and abstract types are replaced by
+ * the first of the following implementations, that is assignable to the declared type:
+ * <ul>
+ * <li>collections: {@link ArrayList}, {@link LinkedHashSet}, {@link TreeSet}, {@link ArrayDeque}</li>
+ * <li>maps: {@link LinkedHashMap}, {@link TreeMap}, {@link ConcurrentHashMap}, {@link ConcurrentSkipListMap}</li>
+ * </ul>
+ *
+ * @author Michael Kroll
+ */
+public class Containers {
+
+	private static final Class<?>[] COLLECTIONS = { ArrayList.class, LinkedHashSet.class, TreeSet.class,
+	        ArrayDeque.class };
+
+	private static final Class<?>[] MAPS = { LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class,
+	        ConcurrentSkipListMap.class };
+
+	/** Hide Utility Constructor. */
+	private Containers() {
+	}
+
+	/**
+	 * Get a factory for collections of a declared field type.
+	 *
+	 * @param declaredType declared type of a collection field, eg. {@code List.class}
+	 * @return factory of empty collections
+	 * @throws IllegalArgumentException if no collection of the declared type can be created
+	 */
+	public static ConstructorFunction0<Collection<Object>> collectionFactory(final Class<?> declaredType)
+	        throws IllegalArgumentException {
+		return factory(Collection.class, declaredType, COLLECTIONS);
+	}
+
+	/**
+	 * Get a factory for maps of a declared field type.
+	 *
+	 * @param declaredType declared type of a map field, eg. {@code Map.class}
+	 * @return factory of empty maps
+	 * @throws IllegalArgumentException if no map of the declared type can be created
+	 */
+	public static ConstructorFunction0<Map<Object, Object>> mapFactory(final Class<?> declaredType)
+	        throws IllegalArgumentException {
+		return factory(Map.class, declaredType, MAPS);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <T> ConstructorFunction0<T> factory(final Class<?> containerType, final Class<?> declaredType,
+	        final Class<?>[] implementations) throws IllegalArgumentException {
+		if (!containerType.isAssignableFrom(declaredType) && !declaredType.isAssignableFrom(containerType)) {
+			throw new IllegalArgumentException(declaredType.getName() + " is no " + containerType.getName());
+		}
+		Class<?> implementation = declaredType;
+		if (declaredType.isInterface() || Modifier.isAbstract(declaredType.getModifiers())) {
+			implementation = null;
+			for (final Class<?> candidate : implementations) {
+				if (declaredType.isAssignableFrom(candidate)) {
+					implementation = candidate;
+					break;
+				}
+			}
+			if (implementation == null) {
+				throw new IllegalArgumentException("no implementation known for " + declaredType.getName());
+			}
+		}
+		try {
+			return ConstructorFunctions.compile(new Constructor0Impl(implementation));
+		} catch (final NoSuchMethodException | InstantiationException e) {
+			throw new IllegalArgumentException("cannot instantiate " + implementation.getName(), e);
+		}
+	}
+}
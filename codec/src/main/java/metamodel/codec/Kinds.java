@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec;
+
+/**
+ * Kinds of values, that codecs read and write without boxing.
+ *
+ * @author Michael Kroll
+ */
+public class Kinds {
+
+	public static final int BOOLEAN = 0;
+	public static final int BYTE = 1;
+	public static final int CHAR = 2;
+	public static final int SHORT = 3;
+	public static final int INT = 4;
+	public static final int LONG = 5;
+	public static final int FLOAT = 6;
+	public static final int DOUBLE = 7;
+	/** all types but primitives and their wrappers. */
+	public static final int REFERENCE = 8;
+
+	/** Hide Utility Constructor. */
+	private Kinds() {
+	}
+
+	/**
+	 * Get the kind of a type.
+	 *
+	 * @param type primitive or any other type
+	 * @return kind of the primitive type or its wrapper, {@link #REFERENCE} for all other types
+	 */
+	public static int of(final Class<?> type) {
+		if (type == boolean.class || type == Boolean.class) {
+			return BOOLEAN;
+		} else if (type == byte.class || type == Byte.class) {
+			return BYTE;
+		} else if (type == char.class || type == Character.class) {
+			return CHAR;
+		} else if (type == short.class || type == Short.class) {
+			return SHORT;
+		} else if (type == int.class || type == Integer.class) {
+			return INT;
+		} else if (type == long.class || type == Long.class) {
+			return LONG;
+		} else if (type == float.class || type == Float.class) {
+			return FLOAT;
+		} else if (type == double.class || type == Double.class) {
+			return DOUBLE;
+		}
+		return REFERENCE;
+	}
+}
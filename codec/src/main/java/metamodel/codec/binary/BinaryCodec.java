@@ -0,0 +1,418 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.binary;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import metamodel.access.constructor.ConstructorFunction0;
+import metamodel.access.constructor.ConstructorFunctions;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.codec.Kinds;
+import metamodel.constructor.impl.Constructor0Impl;
+import metamodel.field.AbstractField;
+import metamodel.field.CollectionField;
+import metamodel.field.MapField;
+
+/**
+ * Compact binary encoding of the fields of a class described by a metamodel:
+ *
+ * <pre>
+ * private static final BinaryCodec&lt;POJO&gt; CODEC = BinaryCodec.of(POJO.class, POJO_.class);
+ * 
+ * byte[] bytes = CODEC.encode(pojo);
+ * POJO copy = CODEC.decode(bytes);
+ * </pre>
+ *
+ * An object is encoded as a bitmap of its {@code null} reference fields, followed by the values of all other fields in
+ * the order of their definitions, see {@link BinaryCodecs#register(Class, Class)}. There are no field names or type
+ * information, except where the declared type of a value does not determine its encoding, see {@link BinaryCodecs}.
+ * Primitive fields are written big-endian without boxing, strings in modified UTF-8 and collections, maps and arrays
+ * by their size followed by their elements.
+ * <p>
+ * Object graphs must be trees, shared objects are written once per reference and cycles are not detected. Encoding
+ * uses a buffer pooled per thread. Codecs are immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of encoded objects
+ */
+public final class BinaryCodec<BASE> {
+
+	/** maximum size of the length prefix of streamed objects. */
+	private static final int MAX_PREFIX = 5;
+
+	private final Class<BASE> type;
+	private final AbstractField<? super BASE, ?>[] fieldDefinitions;
+	private final FieldHandle[] handles;
+	/** {@link Kinds kinds} of the fields. */
+	private final int[] kinds;
+	/** codecs of reference fields, null for primitive fields. */
+	private final ValueCodec[] codecs;
+	/** size of the bitmap of null reference fields. */
+	private final int bitmapSize;
+	private final ConstructorFunction0<BASE> constructor;
+
+	/**
+	 * Create a codec for all fields of a metamodel class, including the fields of its superclasses. Nested objects can
+	 * only be encoded by codecs of a {@link BinaryCodecs} registry.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return codec
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws NoSuchMethodException if type has no default constructor
+	 * @throws InstantiationException if type is abstract
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type or a field has a collection or map type
+	 *             that cannot be instantiated
+	 */
+	public static <BASE> BinaryCodec<BASE> of(final Class<BASE> type, final Class<?> metamodelClass)
+	        throws NoSuchFieldException, NoSuchMethodException, InstantiationException, SecurityException,
+	        IllegalArgumentException {
+		return new BinaryCodecs().register(type, metamodelClass).get(type);
+	}
+
+	BinaryCodec(final Class<BASE> type, final AbstractField<? super BASE, ?>[] fieldDefinitions,
+	        final BinaryCodecs registry) throws NoSuchFieldException, NoSuchMethodException, InstantiationException,
+	        SecurityException, IllegalArgumentException {
+		this.type = type;
+		this.fieldDefinitions = fieldDefinitions;
+		constructor = ConstructorFunctions.compile(new Constructor0Impl<>(type));
+		handles = new FieldHandle[fieldDefinitions.length];
+		kinds = new int[fieldDefinitions.length];
+		codecs = new ValueCodec[fieldDefinitions.length];
+		int references = 0;
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			final AbstractField<? super BASE, ?> fieldDefinition = fieldDefinitions[i];
+			handles[i] = FieldHelper.getHandle(fieldDefinition);
+			final Class<?> fieldType = handles[i].getField().getType();
+			if (fieldType.isPrimitive()) {
+				kinds[i] = Kinds.of(fieldType);
+			} else {
+				kinds[i] = Kinds.REFERENCE;
+				if (fieldDefinition instanceof CollectionField) {
+					codecs[i] = ValueCodecs.forCollection(fieldType, registry);
+				} else if (fieldDefinition instanceof MapField) {
+					codecs[i] = ValueCodecs.forMap(fieldType, registry);
+				} else {
+					codecs[i] = ValueCodecs.forType(fieldType, registry);
+				}
+				references++;
+			}
+		}
+		bitmapSize = (references + 7) >>> 3;
+	}
+
+	/**
+	 * @return type of encoded objects
+	 */
+	public Class<BASE> getType() {
+		return type;
+	}
+
+	/**
+	 * @return definitions of the encoded fields, in the order of encoding
+	 */
+	public List<AbstractField<? super BASE, ?>> getFieldDefinitions() {
+		return Arrays.asList(fieldDefinitions.clone());
+	}
+
+	/**
+	 * Encode an object.
+	 *
+	 * @param object object to encode
+	 * @return encoded object
+	 * @throws IllegalArgumentException if object is {@code null} or contains values that cannot be encoded
+	 */
+	public byte[] encode(final BASE object) throws IllegalArgumentException {
+		final BinaryOutput output = BinaryOutput.acquire();
+		try {
+			writeRoot(object, output);
+			return output.toByteArray();
+		} finally {
+			output.release();
+		}
+	}
+
+	/**
+	 * Encode an object into a buffer, beginning at its current position. The buffer is left unchanged, if the encoded
+	 * object does not fit.
+	 *
+	 * @param object object to encode
+	 * @param buffer buffer to write to
+	 * @throws BufferOverflowException if there is insufficient space in buffer
+	 * @throws IllegalArgumentException if object is {@code null} or contains values that cannot be encoded
+	 */
+	public void encode(final BASE object, final ByteBuffer buffer) throws BufferOverflowException,
+	        IllegalArgumentException {
+		final BinaryOutput output = BinaryOutput.acquire();
+		try {
+			writeRoot(object, output);
+			buffer.put(output.buffer(), 0, output.size());
+		} finally {
+			output.release();
+		}
+	}
+
+	/**
+	 * Encode an object into a stream, prefixed by its length. Multiple objects may be written to the same stream and
+	 * read one by one by {@link #decode(InputStream)}.
+	 *
+	 * @param object object to encode
+	 * @param out stream to write to, is neither flushed nor closed
+	 * @throws IOException if writing to the stream fails
+	 * @throws IllegalArgumentException if object is {@code null} or contains values that cannot be encoded
+	 */
+	public void encode(final BASE object, final OutputStream out) throws IOException, IllegalArgumentException {
+		final BinaryOutput output = BinaryOutput.acquire();
+		try {
+			output.reserve(MAX_PREFIX);
+			writeRoot(object, output);
+			final int start = output.writeVarIntBefore(MAX_PREFIX, output.size() - MAX_PREFIX);
+			out.write(output.buffer(), start, output.size() - start);
+		} finally {
+			output.release();
+		}
+	}
+
+	/**
+	 * Decode an object.
+	 *
+	 * @param bytes an object encoded by {@link #encode(Object)}
+	 * @return decoded object
+	 * @throws BufferUnderflowException if bytes is truncated
+	 * @throws IllegalArgumentException if bytes is malformed
+	 */
+	public BASE decode(final byte[] bytes) throws BufferUnderflowException, IllegalArgumentException {
+		return decodeFully(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Decode an object from a buffer, beginning at its current position. The position of the buffer is advanced to the
+	 * end of the object.
+	 *
+	 * @param buffer buffer containing an object encoded by {@link #encode(Object, ByteBuffer)}
+	 * @return decoded object
+	 * @throws BufferUnderflowException if the object is truncated
+	 * @throws IllegalArgumentException if the object is malformed
+	 */
+	public BASE decode(final ByteBuffer buffer) throws BufferUnderflowException, IllegalArgumentException {
+		// a slice is big-endian, whatever the order of buffer is
+		final ByteBuffer slice = buffer.slice();
+		final BASE object = readObject(new BinaryInput(slice));
+		buffer.position(buffer.position() + slice.position());
+		return object;
+	}
+
+	/**
+	 * Decode the next object from a stream.
+	 *
+	 * @param in stream containing objects encoded by {@link #encode(Object, OutputStream)}, is not closed
+	 * @return decoded object
+	 * @throws EOFException if the stream ends before the object
+	 * @throws IOException if reading from the stream fails
+	 * @throws IllegalArgumentException if the object is malformed
+	 * @see #decode(InputStream, int)
+	 */
+	public BASE decode(final InputStream in) throws EOFException, IOException, IllegalArgumentException {
+		return decode(in, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Decode the next object from a stream, that is not larger than maxLength. The object is read in chunks, so memory
+	 * grows with the bytes actually received, not with the length the stream announces.
+	 *
+	 * @param in stream containing objects encoded by {@link #encode(Object, OutputStream)}, is not closed
+	 * @param maxLength maximum encoded length of the object in bytes
+	 * @return decoded object
+	 * @throws EOFException if the stream ends before the object
+	 * @throws IOException if reading from the stream fails
+	 * @throws IllegalArgumentException if the object is malformed or longer than maxLength
+	 */
+	public BASE decode(final InputStream in, final int maxLength) throws EOFException, IOException,
+	        IllegalArgumentException {
+		final int length = readLength(in);
+		if (length > maxLength) {
+			throw new IllegalArgumentException("object length " + length + " exceeds " + maxLength);
+		}
+		byte[] bytes = BinaryInput.acquire(Math.min(length, BinaryOutput.MAX_POOLED_SIZE));
+		try {
+			for (int read = 0; read < length;) {
+				if (read == bytes.length) {
+					bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * read));
+				}
+				final int count = in.read(bytes, read, Math.min(length, bytes.length) - read);
+				if (count < 0) {
+					throw new EOFException();
+				}
+				read += count;
+			}
+			return decodeFully(ByteBuffer.wrap(bytes, 0, length));
+		} catch (final BufferUnderflowException e) {
+			throw new IllegalArgumentException("object exceeds its length " + length, e);
+		} finally {
+			BinaryInput.release(bytes);
+		}
+	}
+
+	private static int readLength(final InputStream in) throws EOFException, IOException, IllegalArgumentException {
+		int length = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final int b = in.read();
+			if (b < 0) {
+				throw new EOFException();
+			} else if (shift == 28 && (b & 0xF8) != 0) {
+				break;
+			}
+			length |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return length;
+			}
+		}
+		throw new IllegalArgumentException("malformed length");
+	}
+
+	private BASE decodeFully(final ByteBuffer buffer) throws BufferUnderflowException, IllegalArgumentException {
+		final BASE object = readObject(new BinaryInput(buffer));
+		if (buffer.hasRemaining()) {
+			throw new IllegalArgumentException(buffer.remaining() + " bytes after end of object");
+		}
+		return object;
+	}
+
+	private void writeRoot(final BASE object, final BinaryOutput out) throws IllegalArgumentException {
+		if (object == null) {
+			throw new IllegalArgumentException("cannot encode null");
+		}
+		writeObject(object, out);
+	}
+
+	/**
+	 * Write the fields of an object.
+	 *
+	 * @param object instance of a declaring class, not {@code null}
+	 * @param out output to write to
+	 * @throws IllegalArgumentException if object contains values that cannot be encoded
+	 */
+	void writeObject(final Object object, final BinaryOutput out) throws IllegalArgumentException {
+		final int bitmap = out.reserve(bitmapSize);
+		int reference = 0;
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			switch (kinds[i]) {
+			case Kinds.BOOLEAN:
+				out.writeBoolean(handle.getBoolean(object));
+				break;
+			case Kinds.BYTE:
+				out.writeByte(handle.getByte(object));
+				break;
+			case Kinds.CHAR:
+				out.writeChar(handle.getChar(object));
+				break;
+			case Kinds.SHORT:
+				out.writeShort(handle.getShort(object));
+				break;
+			case Kinds.INT:
+				out.writeInt(handle.getInt(object));
+				break;
+			case Kinds.LONG:
+				out.writeLong(handle.getLong(object));
+				break;
+			case Kinds.FLOAT:
+				out.writeFloat(handle.getFloat(object));
+				break;
+			case Kinds.DOUBLE:
+				out.writeDouble(handle.getDouble(object));
+				break;
+			default:
+				final Object value = handle.get(object);
+				if (value == null) {
+					out.or(bitmap + (reference >>> 3), 1 << (reference & 7));
+				} else {
+					codecs[i].write(value, out);
+				}
+				reference++;
+			}
+		}
+	}
+
+	/**
+	 * Create an object and read its fields.
+	 *
+	 * @param in input to read from
+	 * @return new object
+	 * @throws BufferUnderflowException if the object is truncated
+	 * @throws IllegalArgumentException if the object is malformed
+	 */
+	BASE readObject(final BinaryInput in) throws BufferUnderflowException, IllegalArgumentException {
+		final BASE object = constructor.newInstance();
+		final int bitmap = in.skip(bitmapSize);
+		int reference = 0;
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			switch (kinds[i]) {
+			case Kinds.BOOLEAN:
+				handle.setBoolean(object, in.readBoolean());
+				break;
+			case Kinds.BYTE:
+				handle.setByte(object, in.readByte());
+				break;
+			case Kinds.CHAR:
+				handle.setChar(object, in.readChar());
+				break;
+			case Kinds.SHORT:
+				handle.setShort(object, in.readShort());
+				break;
+			case Kinds.INT:
+				handle.setInt(object, in.readInt());
+				break;
+			case Kinds.LONG:
+				handle.setLong(object, in.readLong());
+				break;
+			case Kinds.FLOAT:
+				handle.setFloat(object, in.readFloat());
+				break;
+			case Kinds.DOUBLE:
+				handle.setDouble(object, in.readDouble());
+				break;
+			default:
+				if ((in.getByte(bitmap + (reference >>> 3)) & 1 << (reference & 7)) != 0) {
+					handle.set(object, null);
+				} else {
+					handle.set(object, codecs[i].read(in));
+				}
+				reference++;
+			}
+		}
+		return object;
+	}
+}
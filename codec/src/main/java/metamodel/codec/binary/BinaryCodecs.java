@@ -0,0 +1,308 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.binary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import metamodel.access.Metamodels;
+import metamodel.codec.Kinds;
+import metamodel.field.AbstractField;
+
+/**
+ * Registry of the types, that are encoded by {@link BinaryCodec}s:
+ *
+ * <pre>
+ * private static final BinaryCodecs CODECS = new BinaryCodecs().register(Order.class, Order_.class)
+ *         .register(Address.class, Address_.class).register(Status.class);
+ * private static final BinaryCodec&lt;Order&gt; ORDER = CODECS.get(Order.class);
+ * </pre>
+ *
+ * Values of fields, collections and maps, whose declared type does not determine their encoding, are written with a
+ * type tag. These are primitive wrappers, strings, lists, sets, maps and the registered types, nested objects and enums
+ * are identified by their number of registration. Encoder and decoder must therefore register the same types in the
+ * same order.
+ * <p>
+ * Registration is synchronized, all other methods may be called concurrently.
+ *
+ * @author Michael Kroll
+ */
+public final class BinaryCodecs {
+
+	/** orders fields by the depth of their declaring class, then by name. */
+	private static final Comparator<AbstractField<?, ?>> ENCODING_ORDER = new Comparator<AbstractField<?, ?>>() {
+		@Override
+		public int compare(final AbstractField<?, ?> field1, final AbstractField<?, ?> field2) {
+			final int byLevel = Integer.compare(depth(field1.getDeclaringClass()), depth(field2.getDeclaringClass()));
+			return byLevel != 0 ? byLevel : field1.getName().compareTo(field2.getName());
+		}
+	};
+
+	/** registered types by class. */
+	private final Map<Class<?>, Registration> byType = new ConcurrentHashMap<>();
+	/** registered types by number of registration. */
+	private volatile Registration[] byId = new Registration[0];
+	private final ValueCodec dynamic = new DynamicCodec();
+
+	/**
+	 * Register a class described by a metamodel.
+	 * <p>
+	 * All fields of the metamodel class are encoded after the fields of the superclasses, ordered by name within each
+	 * class. The layout therefore does not depend on the order of declaration, which reflection does not guarantee.
+	 * Decoded instances are created by the default constructor of the class.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return this registry
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws NoSuchMethodException if type has no default constructor
+	 * @throws InstantiationException if type is abstract
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type, type is already registered or a field
+	 *             has a collection or map type that cannot be instantiated
+	 */
+	public synchronized <BASE> BinaryCodecs register(final Class<BASE> type, final Class<?> metamodelClass)
+	        throws NoSuchFieldException, NoSuchMethodException, InstantiationException, SecurityException,
+	        IllegalArgumentException {
+		Metamodels.checkDescribes(type, metamodelClass);
+		checkUnregistered(type);
+		final List<AbstractField<?, ?>> fields = new ArrayList<>(Metamodels.getFields(metamodelClass));
+		Collections.sort(fields, ENCODING_ORDER);
+		final AbstractField<? super BASE, ?>[] fieldDefinitions = newArray(fields.size());
+		final BinaryCodec<BASE> codec = new BinaryCodec<>(type, fields.toArray(fieldDefinitions), this);
+		add(type, codec, null);
+		return this;
+	}
+
+	/**
+	 * Register an enum, so that its constants can be written where the declared type is no enum, eg. in collections.
+	 * Constants are identified by their ordinal.
+	 *
+	 * @param enumType enum class
+	 * @return this registry
+	 * @throws IllegalArgumentException if enumType is no enum or is already registered
+	 */
+	public synchronized BinaryCodecs register(final Class<? extends Enum<?>> enumType)
+	        throws IllegalArgumentException {
+		if (!enumType.isEnum()) {
+			throw new IllegalArgumentException(enumType.getName() + " is no enum");
+		}
+		checkUnregistered(enumType);
+		add(enumType, null, enumType.getEnumConstants());
+		return this;
+	}
+
+	/**
+	 * Get the codec of a registered class.
+	 *
+	 * @param type registered class
+	 * @return codec
+	 * @throws IllegalArgumentException if type is not registered by {@link #register(Class, Class)}
+	 */
+	@SuppressWarnings("unchecked")
+	public <BASE> BinaryCodec<BASE> get(final Class<BASE> type) throws IllegalArgumentException {
+		final Registration registration = byType.get(type);
+		if (registration == null || registration.codec == null) {
+			throw new IllegalArgumentException(type.getName() + " is not registered");
+		}
+		return (BinaryCodec<BASE>) registration.codec;
+	}
+
+	/**
+	 * @return the codec of values, whose declared type does not determine their encoding
+	 */
+	ValueCodec dynamic() {
+		return dynamic;
+	}
+
+	private void checkUnregistered(final Class<?> type) throws IllegalArgumentException {
+		if (byType.containsKey(type)) {
+			throw new IllegalArgumentException(type.getName() + " is already registered");
+		}
+	}
+
+	private void add(final Class<?> type, final BinaryCodec<?> codec, final Object[] constants) {
+		final Registration[] registrations = Arrays.copyOf(byId, byId.length + 1);
+		final Registration registration = new Registration(registrations.length - 1, codec, constants);
+		registrations[registration.id] = registration;
+		byType.put(type, registration);
+		byId = registrations;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> AbstractField<? super BASE, ?>[] newArray(final int length) {
+		return (AbstractField<? super BASE, ?>[]) new AbstractField<?, ?>[length];
+	}
+
+	private static int depth(final Class<?> type) {
+		int depth = 0;
+		for (Class<?> clazz = type.getSuperclass(); clazz != null; clazz = clazz.getSuperclass()) {
+			depth++;
+		}
+		return depth;
+	}
+
+	private Registration registration(final int id) throws IllegalArgumentException {
+		final Registration[] registrations = byId;
+		if (id >= registrations.length) {
+			throw new IllegalArgumentException("unknown type number " + id);
+		}
+		return registrations[id];
+	}
+
+	/** Registered class or enum. */
+	private static final class Registration {
+		private final int id;
+		/** codec of a class, null for enums. */
+		private final BinaryCodec<?> codec;
+		/** constants of an enum, null for classes. */
+		private final Object[] constants;
+
+		Registration(final int id, final BinaryCodec<?> codec, final Object[] constants) {
+			this.id = id;
+			this.codec = codec;
+			this.constants = constants;
+		}
+	}
+
+	/** Writes a type tag before each value. */
+	private final class DynamicCodec extends ValueCodec {
+		private static final int NULL = 0;
+		private static final int FALSE = 1;
+		private static final int TRUE = 2;
+		/** tags of the other primitive wrappers are their kind plus this offset. */
+		private static final int PRIMITIVE_OFFSET = 2;
+		private static final int STRING = 10;
+		private static final int LIST = 11;
+		private static final int SET = 12;
+		private static final int MAP = 13;
+		private static final int OBJECT = 14;
+		private static final int ENUM = 15;
+
+		@Override
+		void write(final Object value, final BinaryOutput out) throws IllegalArgumentException {
+			if (value == null) {
+				out.writeByte(NULL);
+				return;
+			}
+			final Class<?> type = value.getClass();
+			if (type == String.class) {
+				out.writeByte(STRING);
+				out.writeString((String) value);
+				return;
+			}
+			final int kind = Kinds.of(type);
+			if (kind == Kinds.BOOLEAN) {
+				out.writeByte(((Boolean) value).booleanValue() ? TRUE : FALSE);
+				return;
+			} else if (kind != Kinds.REFERENCE) {
+				out.writeByte(kind + PRIMITIVE_OFFSET);
+				ValueCodecs.writePrimitive(kind, value, out);
+				return;
+			}
+			final Registration registration = byType.get(value instanceof Enum ? ((Enum<?>) value)
+			        .getDeclaringClass() : type);
+			if (registration != null) {
+				if (registration.codec != null) {
+					out.writeByte(OBJECT);
+					out.writeVarInt(registration.id);
+					registration.codec.writeObject(value, out);
+				} else {
+					out.writeByte(ENUM);
+					out.writeVarInt(registration.id);
+					out.writeVarInt(((Enum<?>) value).ordinal());
+				}
+			} else if (value instanceof Map) {
+				out.writeByte(MAP);
+				ValueCodecs.writeEntries((Map<?, ?>) value, this, out);
+			} else if (value instanceof Collection) {
+				out.writeByte(value instanceof Set ? SET : LIST);
+				ValueCodecs.writeElements((Collection<?>) value, this, out);
+			} else {
+				throw new IllegalArgumentException("no codec registered for " + type.getName());
+			}
+		}
+
+		@Override
+		Object read(final BinaryInput in) throws IllegalArgumentException {
+			final int tag = in.readByte();
+			switch (tag) {
+			case NULL:
+				return null;
+			case FALSE:
+				return Boolean.FALSE;
+			case TRUE:
+				return Boolean.TRUE;
+			case Kinds.BYTE + PRIMITIVE_OFFSET:
+			case Kinds.CHAR + PRIMITIVE_OFFSET:
+			case Kinds.SHORT + PRIMITIVE_OFFSET:
+			case Kinds.INT + PRIMITIVE_OFFSET:
+			case Kinds.LONG + PRIMITIVE_OFFSET:
+			case Kinds.FLOAT + PRIMITIVE_OFFSET:
+			case Kinds.DOUBLE + PRIMITIVE_OFFSET:
+				return ValueCodecs.readPrimitive(tag - PRIMITIVE_OFFSET, in);
+			case STRING:
+				return in.readString();
+			case LIST:
+				return ValueCodecs.readElements(new ArrayList<>(), this, in);
+			case SET:
+				return ValueCodecs.readElements(new LinkedHashSet<>(), this, in);
+			case MAP:
+				return ValueCodecs.readEntries(new LinkedHashMap<>(), this, in);
+			case OBJECT: {
+				final Registration registration = registration(in.readVarInt());
+				if (registration.codec == null) {
+					throw new IllegalArgumentException("type number " + registration.id + " is an enum");
+				}
+				return registration.codec.readObject(in);
+			}
+			case ENUM: {
+				final Registration registration = registration(in.readVarInt());
+				final int ordinal = in.readVarInt();
+				if (registration.constants == null || ordinal >= registration.constants.length) {
+					throw new IllegalArgumentException("unknown constant " + ordinal + " of type number "
+					        + registration.id);
+				}
+				return registration.constants[ordinal];
+			}
+			default:
+				throw new IllegalArgumentException("unknown type tag " + tag + " at position " + (in.position() - 1));
+			}
+		}
+
+		@Override
+		boolean acceptsNull() {
+			return true;
+		}
+	}
+}
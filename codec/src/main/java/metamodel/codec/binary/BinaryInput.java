@@ -0,0 +1,200 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.binary;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Big-endian input, counterpart of {@link BinaryOutput}.
+ *
+ * @author Michael Kroll
+ */
+final class BinaryInput {
+
+	private static final ThreadLocal<byte[]> POOL = new ThreadLocal<>();
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * @param buffer buffer to read from, its byte order must be big-endian
+	 */
+	BinaryInput(final ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Take the byte array of the current thread, or create a new one if it is too small or already in use.
+	 *
+	 * @param size minimum size
+	 * @return array, to be given back by {@link #release(byte[])}
+	 */
+	static byte[] acquire(final int size) {
+		final byte[] bytes = POOL.get();
+		if (bytes == null || bytes.length < size) {
+			return new byte[Math.max(size, BinaryOutput.INITIAL_SIZE)];
+		}
+		POOL.set(null);
+		return bytes;
+	}
+
+	/**
+	 * Give a byte array back to the pool of the current thread.
+	 *
+	 * @param bytes array taken by {@link #acquire(int)}
+	 */
+	static void release(final byte[] bytes) {
+		if (bytes.length <= BinaryOutput.MAX_POOLED_SIZE) {
+			POOL.set(bytes);
+		}
+	}
+
+	int position() {
+		return buffer.position();
+	}
+
+	/**
+	 * Skip bytes, to be read later by {@link #getByte(int)}.
+	 *
+	 * @param count number of bytes
+	 * @return position of the first skipped byte
+	 * @throws BufferUnderflowException if less bytes remain
+	 */
+	int skip(final int count) throws BufferUnderflowException {
+		checkRemaining(count);
+		final int start = buffer.position();
+		buffer.position(start + count);
+		return start;
+	}
+
+	byte getByte(final int index) {
+		return buffer.get(index);
+	}
+
+	/**
+	 * Check, that a length read from the input can be satisfied by the remaining bytes, before allocating for it.
+	 *
+	 * @param count minimum number of bytes required
+	 * @throws BufferUnderflowException if less bytes remain
+	 */
+	void checkRemaining(final long count) throws BufferUnderflowException {
+		if (count > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+	}
+
+	boolean readBoolean() {
+		return buffer.get() != 0;
+	}
+
+	byte readByte() {
+		return buffer.get();
+	}
+
+	void readBytes(final byte[] values) {
+		buffer.get(values);
+	}
+
+	short readShort() {
+		return buffer.getShort();
+	}
+
+	char readChar() {
+		return buffer.getChar();
+	}
+
+	int readInt() {
+		return buffer.getInt();
+	}
+
+	long readLong() {
+		return buffer.getLong();
+	}
+
+	float readFloat() {
+		return buffer.getFloat();
+	}
+
+	double readDouble() {
+		return buffer.getDouble();
+	}
+
+	/**
+	 * Read a value written by {@link BinaryOutput#writeVarInt(int)}.
+	 *
+	 * @return non-negative value
+	 * @throws IllegalArgumentException if the value is negative or longer than 5 bytes
+	 */
+	int readVarInt() throws IllegalArgumentException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = buffer.get();
+			if (shift == 28 && (b & 0xF8) != 0) {
+				break;
+			}
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("malformed length at position " + buffer.position());
+	}
+
+	/**
+	 * Read a value written by {@link BinaryOutput#writeString(String)}.
+	 *
+	 * @return string
+	 * @throws IllegalArgumentException if the input is no modified UTF-8
+	 */
+	String readString() throws IllegalArgumentException {
+		final int length = readVarInt();
+		checkRemaining(length);
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			final int b = buffer.get() & 0xFF;
+			if (b < 0x80) {
+				chars[i] = (char) b;
+			} else if ((b & 0xE0) == 0xC0) {
+				chars[i] = (char) ((b & 0x1F) << 6 | continuation());
+			} else if ((b & 0xF0) == 0xE0) {
+				chars[i] = (char) ((b & 0x0F) << 12 | continuation() << 6 | continuation());
+			} else {
+				throw malformedString();
+			}
+		}
+		return new String(chars);
+	}
+
+	private int continuation() throws IllegalArgumentException {
+		final int b = buffer.get() & 0xFF;
+		if ((b & 0xC0) != 0x80) {
+			throw malformedString();
+		}
+		return b & 0x3F;
+	}
+
+	private IllegalArgumentException malformedString() {
+		return new IllegalArgumentException("malformed string at position " + buffer.position());
+	}
+}
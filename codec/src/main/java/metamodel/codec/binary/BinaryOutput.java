@@ -0,0 +1,231 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.binary;
+
+import java.util.Arrays;
+
+/**
+ * Growable big-endian output buffer. Instances are pooled per thread, see {@link #acquire()}.
+ *
+ * @author Michael Kroll
+ */
+final class BinaryOutput {
+
+	/** initial size of pooled buffers. */
+	static final int INITIAL_SIZE = 256;
+	/** buffers that grew beyond this size are not returned to the pool. */
+	static final int MAX_POOLED_SIZE = 64 * 1024;
+
+	private static final ThreadLocal<BinaryOutput> POOL = new ThreadLocal<>();
+
+	private byte[] buffer;
+	private int position;
+
+	BinaryOutput(final int size) {
+		buffer = new byte[size];
+	}
+
+	/**
+	 * Take the buffer of the current thread, or create a new one if it is already in use.
+	 *
+	 * @return empty buffer, to be given back by {@link #release()}
+	 */
+	static BinaryOutput acquire() {
+		final BinaryOutput output = POOL.get();
+		if (output == null) {
+			return new BinaryOutput(INITIAL_SIZE);
+		}
+		POOL.set(null);
+		return output;
+	}
+
+	/**
+	 * Give the buffer back to the pool of the current thread.
+	 */
+	void release() {
+		if (buffer.length <= MAX_POOLED_SIZE) {
+			position = 0;
+			POOL.set(this);
+		}
+	}
+
+	byte[] buffer() {
+		return buffer;
+	}
+
+	int size() {
+		return position;
+	}
+
+	byte[] toByteArray() {
+		return Arrays.copyOf(buffer, position);
+	}
+
+	private void ensure(final int count) {
+		if (buffer.length - position < count) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + count));
+		}
+	}
+
+	/**
+	 * Reserve zeroed bytes, to be filled later by {@link #or(int, int)}.
+	 *
+	 * @param count number of bytes
+	 * @return position of the first reserved byte
+	 */
+	int reserve(final int count) {
+		ensure(count);
+		final int start = position;
+		Arrays.fill(buffer, start, start + count, (byte) 0);
+		position += count;
+		return start;
+	}
+
+	void or(final int index, final int bits) {
+		buffer[index] |= bits;
+	}
+
+	void writeBoolean(final boolean value) {
+		writeByte(value ? 1 : 0);
+	}
+
+	void writeByte(final int value) {
+		ensure(1);
+		buffer[position++] = (byte) value;
+	}
+
+	void writeBytes(final byte[] values) {
+		ensure(values.length);
+		System.arraycopy(values, 0, buffer, position, values.length);
+		position += values.length;
+	}
+
+	void writeShort(final int value) {
+		ensure(2);
+		buffer[position++] = (byte) (value >>> 8);
+		buffer[position++] = (byte) value;
+	}
+
+	void writeChar(final int value) {
+		writeShort(value);
+	}
+
+	void writeInt(final int value) {
+		ensure(4);
+		final byte[] b = buffer;
+		int p = position;
+		b[p++] = (byte) (value >>> 24);
+		b[p++] = (byte) (value >>> 16);
+		b[p++] = (byte) (value >>> 8);
+		b[p++] = (byte) value;
+		position = p;
+	}
+
+	void writeLong(final long value) {
+		ensure(8);
+		final byte[] b = buffer;
+		int p = position;
+		b[p++] = (byte) (value >>> 56);
+		b[p++] = (byte) (value >>> 48);
+		b[p++] = (byte) (value >>> 40);
+		b[p++] = (byte) (value >>> 32);
+		b[p++] = (byte) (value >>> 24);
+		b[p++] = (byte) (value >>> 16);
+		b[p++] = (byte) (value >>> 8);
+		b[p++] = (byte) value;
+		position = p;
+	}
+
+	void writeFloat(final float value) {
+		writeInt(Float.floatToRawIntBits(value));
+	}
+
+	void writeDouble(final double value) {
+		writeLong(Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * Write a non-negative int in 1 to 5 bytes, 7 bits per byte.
+	 *
+	 * @param value value to write
+	 */
+	void writeVarInt(final int value) {
+		ensure(5);
+		int v = value;
+		while ((v & ~0x7F) != 0) {
+			buffer[position++] = (byte) (v & 0x7F | 0x80);
+			v >>>= 7;
+		}
+		buffer[position++] = (byte) v;
+	}
+
+	/**
+	 * Write a value like {@link #writeVarInt(int)}, but into the reserved bytes before a position.
+	 *
+	 * @param end position after the written value
+	 * @param value value to write
+	 * @return position of the first written byte
+	 */
+	int writeVarIntBefore(final int end, final int value) {
+		int start = end - 1;
+		for (int v = value >>> 7; v != 0; v >>>= 7) {
+			start--;
+		}
+		int v = value;
+		for (int p = start; p < end - 1; p++) {
+			buffer[p] = (byte) (v & 0x7F | 0x80);
+			v >>>= 7;
+		}
+		buffer[end - 1] = (byte) v;
+		return start;
+	}
+
+	/**
+	 * Write the number of chars followed by the chars in modified UTF-8, as {@link java.io.DataOutput#writeUTF(String)}
+	 * does.
+	 *
+	 * @param value string to write
+	 */
+	void writeString(final String value) {
+		final int length = value.length();
+		writeVarInt(length);
+		ensure(length * 3);
+		final byte[] b = buffer;
+		int p = position;
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c != 0 && c < 0x80) {
+				b[p++] = (byte) c;
+			} else if (c < 0x800) {
+				b[p++] = (byte) (0xC0 | c >> 6);
+				b[p++] = (byte) (0x80 | c & 0x3F);
+			} else {
+				b[p++] = (byte) (0xE0 | c >> 12);
+				b[p++] = (byte) (0x80 | c >> 6 & 0x3F);
+				b[p++] = (byte) (0x80 | c & 0x3F);
+			}
+		}
+		position = p;
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.binary;
+
+/**
+ * Writes and reads the values of one kind of field or element.
+ *
+ * @author Michael Kroll
+ * @see ValueCodecs
+ */
+abstract class ValueCodec {
+
+	/**
+	 * Write a value.
+	 *
+	 * @param value value to write, may only be {@code null} if the codec {@link #acceptsNull() accepts null}
+	 * @param out output to write to
+	 * @throws IllegalArgumentException if the value cannot be written by this codec
+	 */
+	abstract void write(Object value, BinaryOutput out) throws IllegalArgumentException;
+
+	/**
+	 * Read a value.
+	 *
+	 * @param in input to read from
+	 * @return value
+	 * @throws IllegalArgumentException if the input is malformed
+	 */
+	abstract Object read(BinaryInput in) throws IllegalArgumentException;
+
+	/**
+	 * @return {@code true} if the codec writes {@code null} values itself
+	 */
+	boolean acceptsNull() {
+		return false;
+	}
+}
@@ -0,0 +1,464 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.binary;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.RandomAccess;
+
+import metamodel.access.constructor.ConstructorFunction0;
+import metamodel.codec.Containers;
+import metamodel.codec.Kinds;
+
+/**
+ * Creates the {@link ValueCodec}s of declared field and element types.
+ *
+ * @author Michael Kroll
+ */
+final class ValueCodecs {
+
+	static final ValueCodec STRING = new ValueCodec() {
+		@Override
+		void write(final Object value, final BinaryOutput out) {
+			out.writeString((String) value);
+		}
+
+		@Override
+		Object read(final BinaryInput in) {
+			return in.readString();
+		}
+	};
+
+	/** Hide Utility Constructor. */
+	private ValueCodecs() {
+	}
+
+	/**
+	 * Get the codec of a declared type.
+	 * <p>
+	 * Strings, primitive wrappers, enums and arrays are written without type information, all other types by the
+	 * {@link BinaryCodecs#dynamic() dynamic codec}.
+	 *
+	 * @param type declared type
+	 * @param codecs registry of nested types
+	 * @return codec, that does not {@link ValueCodec#acceptsNull() accept null} unless it is the dynamic one
+	 */
+	static ValueCodec forType(final Class<?> type, final BinaryCodecs codecs) {
+		final int kind = Kinds.of(type);
+		if (kind != Kinds.REFERENCE) {
+			return new BoxedCodec(kind);
+		} else if (type == String.class) {
+			return STRING;
+		} else if (type.isEnum()) {
+			return new EnumCodec(type.getEnumConstants());
+		} else if (type.isArray()) {
+			return new ArrayCodec(type.getComponentType(), codecs);
+		}
+		return codecs.dynamic();
+	}
+
+	/**
+	 * Get the codec of a declared collection type. Elements are written by the dynamic codec.
+	 *
+	 * @param type declared type
+	 * @param codecs registry of nested types
+	 * @return codec
+	 * @throws IllegalArgumentException if no collection of the declared type can be created
+	 */
+	static ValueCodec forCollection(final Class<?> type, final BinaryCodecs codecs) throws IllegalArgumentException {
+		return new CollectionCodec(Containers.collectionFactory(type), codecs.dynamic());
+	}
+
+	/**
+	 * Get the codec of a declared map type. Keys and values are written by the dynamic codec.
+	 *
+	 * @param type declared type
+	 * @param codecs registry of nested types
+	 * @return codec
+	 * @throws IllegalArgumentException if no map of the declared type can be created
+	 */
+	static ValueCodec forMap(final Class<?> type, final BinaryCodecs codecs) throws IllegalArgumentException {
+		return new MapCodec(Containers.mapFactory(type), codecs.dynamic());
+	}
+
+	static void writePrimitive(final int kind, final Object value, final BinaryOutput out) {
+		switch (kind) {
+		case Kinds.BOOLEAN:
+			out.writeBoolean(((Boolean) value).booleanValue());
+			break;
+		case Kinds.BYTE:
+			out.writeByte(((Byte) value).byteValue());
+			break;
+		case Kinds.CHAR:
+			out.writeChar(((Character) value).charValue());
+			break;
+		case Kinds.SHORT:
+			out.writeShort(((Short) value).shortValue());
+			break;
+		case Kinds.INT:
+			out.writeInt(((Integer) value).intValue());
+			break;
+		case Kinds.LONG:
+			out.writeLong(((Long) value).longValue());
+			break;
+		case Kinds.FLOAT:
+			out.writeFloat(((Float) value).floatValue());
+			break;
+		default:
+			out.writeDouble(((Double) value).doubleValue());
+		}
+	}
+
+	static Object readPrimitive(final int kind, final BinaryInput in) {
+		switch (kind) {
+		case Kinds.BOOLEAN:
+			return Boolean.valueOf(in.readBoolean());
+		case Kinds.BYTE:
+			return Byte.valueOf(in.readByte());
+		case Kinds.CHAR:
+			return Character.valueOf(in.readChar());
+		case Kinds.SHORT:
+			return Short.valueOf(in.readShort());
+		case Kinds.INT:
+			return Integer.valueOf(in.readInt());
+		case Kinds.LONG:
+			return Long.valueOf(in.readLong());
+		case Kinds.FLOAT:
+			return Float.valueOf(in.readFloat());
+		default:
+			return Double.valueOf(in.readDouble());
+		}
+	}
+
+	/** Primitive wrappers. */
+	private static final class BoxedCodec extends ValueCodec {
+		private final int kind;
+
+		BoxedCodec(final int kind) {
+			this.kind = kind;
+		}
+
+		@Override
+		void write(final Object value, final BinaryOutput out) {
+			writePrimitive(kind, value, out);
+		}
+
+		@Override
+		Object read(final BinaryInput in) {
+			return readPrimitive(kind, in);
+		}
+	}
+
+	/** Enums of a known type, written by ordinal. */
+	private static final class EnumCodec extends ValueCodec {
+		private final Object[] constants;
+
+		EnumCodec(final Object[] constants) {
+			this.constants = constants;
+		}
+
+		@Override
+		void write(final Object value, final BinaryOutput out) {
+			out.writeVarInt(((Enum<?>) value).ordinal());
+		}
+
+		@Override
+		Object read(final BinaryInput in) {
+			final int ordinal = in.readVarInt();
+			if (ordinal >= constants.length) {
+				throw new IllegalArgumentException("unknown ordinal " + ordinal + " of "
+				        + constants.getClass().getComponentType().getName());
+			}
+			return constants[ordinal];
+		}
+	}
+
+	/** Arrays, primitive ones written without boxing. */
+	private static final class ArrayCodec extends ValueCodec {
+		private final Class<?> componentType;
+		private final int kind;
+		/** element codec of reference arrays. */
+		private final ValueCodec elements;
+
+		ArrayCodec(final Class<?> componentType, final BinaryCodecs codecs) {
+			this.componentType = componentType;
+			if (componentType.isPrimitive()) {
+				kind = Kinds.of(componentType);
+				elements = null;
+			} else {
+				kind = Kinds.REFERENCE;
+				final ValueCodec codec = forType(componentType, codecs);
+				elements = codec.acceptsNull() ? codec : new NullableCodec(codec);
+			}
+		}
+
+		@Override
+		void write(final Object value, final BinaryOutput out) {
+			final int length = Array.getLength(value);
+			out.writeVarInt(length);
+			switch (kind) {
+			case Kinds.BOOLEAN:
+				for (final boolean element : (boolean[]) value) {
+					out.writeBoolean(element);
+				}
+				break;
+			case Kinds.BYTE:
+				out.writeBytes((byte[]) value);
+				break;
+			case Kinds.CHAR:
+				for (final char element : (char[]) value) {
+					out.writeChar(element);
+				}
+				break;
+			case Kinds.SHORT:
+				for (final short element : (short[]) value) {
+					out.writeShort(element);
+				}
+				break;
+			case Kinds.INT:
+				for (final int element : (int[]) value) {
+					out.writeInt(element);
+				}
+				break;
+			case Kinds.LONG:
+				for (final long element : (long[]) value) {
+					out.writeLong(element);
+				}
+				break;
+			case Kinds.FLOAT:
+				for (final float element : (float[]) value) {
+					out.writeFloat(element);
+				}
+				break;
+			case Kinds.DOUBLE:
+				for (final double element : (double[]) value) {
+					out.writeDouble(element);
+				}
+				break;
+			default:
+				for (final Object element : (Object[]) value) {
+					elements.write(element, out);
+				}
+			}
+		}
+
+		@Override
+		Object read(final BinaryInput in) {
+			final int length = in.readVarInt();
+			// every element takes at least one byte
+			in.checkRemaining(length);
+			switch (kind) {
+			case Kinds.BOOLEAN: {
+				final boolean[] array = new boolean[length];
+				for (int i = 0; i < length; i++) {
+					array[i] = in.readBoolean();
+				}
+				return array;
+			}
+			case Kinds.BYTE: {
+				final byte[] array = new byte[length];
+				in.readBytes(array);
+				return array;
+			}
+			case Kinds.CHAR: {
+				in.checkRemaining(2L * length);
+				final char[] array = new char[length];
+				for (int i = 0; i < length; i++) {
+					array[i] = in.readChar();
+				}
+				return array;
+			}
+			case Kinds.SHORT: {
+				in.checkRemaining(2L * length);
+				final short[] array = new short[length];
+				for (int i = 0; i < length; i++) {
+					array[i] = in.readShort();
+				}
+				return array;
+			}
+			case Kinds.INT: {
+				in.checkRemaining(4L * length);
+				final int[] array = new int[length];
+				for (int i = 0; i < length; i++) {
+					array[i] = in.readInt();
+				}
+				return array;
+			}
+			case Kinds.LONG: {
+				in.checkRemaining(8L * length);
+				final long[] array = new long[length];
+				for (int i = 0; i < length; i++) {
+					array[i] = in.readLong();
+				}
+				return array;
+			}
+			case Kinds.FLOAT: {
+				in.checkRemaining(4L * length);
+				final float[] array = new float[length];
+				for (int i = 0; i < length; i++) {
+					array[i] = in.readFloat();
+				}
+				return array;
+			}
+			case Kinds.DOUBLE: {
+				in.checkRemaining(8L * length);
+				final double[] array = new double[length];
+				for (int i = 0; i < length; i++) {
+					array[i] = in.readDouble();
+				}
+				return array;
+			}
+			default:
+				final Object[] array = (Object[]) Array.newInstance(componentType, length);
+				for (int i = 0; i < length; i++) {
+					try {
+						array[i] = elements.read(in);
+					} catch (final ArrayStoreException e) {
+						throw new IllegalArgumentException("element " + i + " is no " + componentType.getName(), e);
+					}
+				}
+				return array;
+			}
+		}
+	}
+
+	/** Collections, elements written by the dynamic codec. */
+	private static final class CollectionCodec extends ValueCodec {
+		private final ConstructorFunction0<Collection<Object>> factory;
+		private final ValueCodec elements;
+
+		CollectionCodec(final ConstructorFunction0<Collection<Object>> factory, final ValueCodec elements) {
+			this.factory = factory;
+			this.elements = elements;
+		}
+
+		@Override
+		void write(final Object value, final BinaryOutput out) {
+			writeElements((Collection<?>) value, elements, out);
+		}
+
+		@Override
+		Object read(final BinaryInput in) {
+			return readElements(factory.newInstance(), elements, in);
+		}
+	}
+
+	/** Maps, keys and values written by the dynamic codec. */
+	private static final class MapCodec extends ValueCodec {
+		private final ConstructorFunction0<Map<Object, Object>> factory;
+		private final ValueCodec entries;
+
+		MapCodec(final ConstructorFunction0<Map<Object, Object>> factory, final ValueCodec entries) {
+			this.factory = factory;
+			this.entries = entries;
+		}
+
+		@Override
+		void write(final Object value, final BinaryOutput out) {
+			writeEntries((Map<?, ?>) value, entries, out);
+		}
+
+		@Override
+		Object read(final BinaryInput in) {
+			return readEntries(factory.newInstance(), entries, in);
+		}
+	}
+
+	/** Prefixes values of another codec by a presence byte. */
+	private static final class NullableCodec extends ValueCodec {
+		private final ValueCodec codec;
+
+		NullableCodec(final ValueCodec codec) {
+			this.codec = codec;
+		}
+
+		@Override
+		void write(final Object value, final BinaryOutput out) {
+			if (value == null) {
+				out.writeBoolean(false);
+			} else {
+				out.writeBoolean(true);
+				codec.write(value, out);
+			}
+		}
+
+		@Override
+		Object read(final BinaryInput in) {
+			return in.readBoolean() ? codec.read(in) : null;
+		}
+
+		@Override
+		boolean acceptsNull() {
+			return true;
+		}
+	}
+
+	static void writeElements(final Collection<?> collection, final ValueCodec elements, final BinaryOutput out) {
+		final int size = collection.size();
+		out.writeVarInt(size);
+		if (collection instanceof List && collection instanceof RandomAccess) {
+			final List<?> list = (List<?>) collection;
+			for (int i = 0; i < size; i++) {
+				elements.write(list.get(i), out);
+			}
+		} else {
+			for (final Object element : collection) {
+				elements.write(element, out);
+			}
+		}
+	}
+
+	static <C extends Collection<Object>> C readElements(final C collection, final ValueCodec elements,
+	        final BinaryInput in) {
+		final int size = in.readVarInt();
+		// every element takes at least one byte
+		in.checkRemaining(size);
+		for (int i = 0; i < size; i++) {
+			collection.add(elements.read(in));
+		}
+		return collection;
+	}
+
+	static void writeEntries(final Map<?, ?> map, final ValueCodec entries, final BinaryOutput out) {
+		out.writeVarInt(map.size());
+		for (final Entry<?, ?> entry : map.entrySet()) {
+			entries.write(entry.getKey(), out);
+			entries.write(entry.getValue(), out);
+		}
+	}
+
+	static <M extends Map<Object, Object>> M readEntries(final M map, final ValueCodec entries, final BinaryInput in) {
+		final int size = in.readVarInt();
+		// every entry takes at least two bytes
+		in.checkRemaining(2L * size);
+		for (int i = 0; i < size; i++) {
+			final Object key = entries.read(in);
+			map.put(key, entries.read(in));
+		}
+		return map;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * JSON output to a {@link Writer}.
+ *
+ * @author Michael Kroll
+ */
+final class CharJsonOutput extends JsonOutput {
+
+	private static final ThreadLocal<CharJsonOutput> POOL = new ThreadLocal<>();
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position;
+	private Writer out;
+
+	/**
+	 * Take the output of the current thread, or create a new one if it is already in use.
+	 *
+	 * @param out sink
+	 * @return output, to be given back by {@link #release()}
+	 */
+	static CharJsonOutput acquire(final Writer out) {
+		CharJsonOutput output = POOL.get();
+		if (output == null) {
+			output = new CharJsonOutput();
+		} else {
+			POOL.set(null);
+		}
+		output.out = out;
+		return output;
+	}
+
+	@Override
+	void release() {
+		out = null;
+		position = 0;
+		POOL.set(this);
+	}
+
+	@Override
+	void flush() throws IOException {
+		out.write(buffer, 0, position);
+		position = 0;
+	}
+
+	private void require(final int count) throws IOException {
+		if (BUFFER_SIZE - position < count) {
+			flush();
+		}
+	}
+
+	@Override
+	void writeToken(final JsonToken token) throws IOException {
+		final char[] chars = token.chars;
+		if (chars.length > BUFFER_SIZE - position) {
+			flush();
+			if (chars.length > BUFFER_SIZE) {
+				out.write(chars);
+				return;
+			}
+		}
+		System.arraycopy(chars, 0, buffer, position, chars.length);
+		position += chars.length;
+	}
+
+	@Override
+	void writeAscii(final char c) throws IOException {
+		require(1);
+		buffer[position++] = c;
+	}
+
+	@Override
+	void writeAscii(final char[] chars, final int offset, final int length) throws IOException {
+		require(length);
+		System.arraycopy(chars, offset, buffer, position, length);
+		position += length;
+	}
+
+	@Override
+	void writeStringContent(final CharSequence value) throws IOException {
+		final int length = value.length();
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (!isEscaped(c)) {
+				require(1);
+				buffer[position++] = c;
+			} else if (Character.isHighSurrogate(c) && i + 1 < length
+			        && Character.isLowSurrogate(value.charAt(i + 1))) {
+				require(2);
+				buffer[position++] = c;
+				buffer[position++] = value.charAt(++i);
+			} else {
+				writeEscaped(c);
+			}
+		}
+	}
+}
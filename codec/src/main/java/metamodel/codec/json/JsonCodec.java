@@ -0,0 +1,461 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import metamodel.access.constructor.ConstructorFunction0;
+import metamodel.access.constructor.ConstructorFunctions;
+import metamodel.access.field.FieldHandle;
+import metamodel.access.field.FieldHelper;
+import metamodel.codec.Kinds;
+import metamodel.constructor.Constructor0;
+import metamodel.field.AbstractField;
+
+/**
+ * Streaming JSON encoding and decoding of the fields of a class described by a metamodel:
+ *
+ * <pre>
+ * private static final JsonCodec&lt;POJO&gt; CODEC = JsonCodec.of(POJO.class, POJO_.class);
+ * 
+ * CODEC.write(pojo, response.getOutputStream());
+ * POJO copy = CODEC.read(request.getInputStream());
+ * </pre>
+ *
+ * Objects are written as JSON objects, with one member per field in the order of their definition. The member names
+ * are encoded once when the codec is created, primitive fields are formatted without boxing. The text is written
+ * through a buffer pooled per thread, without building an intermediate tree. Values of reference fields are written
+ * by their runtime class, see {@link JsonCodecs}.
+ * <p>
+ * Objects are read by a pull parser. Instances are created by the default constructor definition of the metamodel
+ * class and assigned through the field definitions. Member names are matched by a trie over the field names while
+ * they are read, unknown members are skipped. Numbers are parsed straight into primitive fields. Values of reference
+ * fields are read as their declared, possibly generic type. Arrays and other sequences of objects are read one object
+ * at a time by {@link #readEach(Reader, ObjectHandler)}.
+ * <p>
+ * Object graphs must be trees, shared objects are written once per reference and cycles are not detected. Codecs are
+ * immutable and may be shared between threads.
+ *
+ * @author Michael Kroll
+ * @param <BASE> type of written objects
+ */
+public final class JsonCodec<BASE> {
+
+	private final Class<BASE> type;
+	private final AbstractField<? super BASE, ?>[] fieldDefinitions;
+	private final FieldHandle[] handles;
+	/** {@link Kinds kinds} of the fields. */
+	private final int[] kinds;
+	/** <code>{"name":</code> for the first field, <code>,"name":</code> for all others. */
+	private final JsonToken[] names;
+	/** matches member names to field indices. */
+	private final NameTrie nameTrie;
+	/** index of the next field with the same name, -1 if there is none. */
+	private final int[] sameNames;
+	private final boolean hasSameNames;
+	private final Constructor0<BASE> constructorDefinition;
+	private final JsonCodecs registry;
+	/** created on first read, so that classes can be written without being readable. */
+	private volatile Binding<BASE> binding;
+
+	/**
+	 * Create a codec for all fields of a metamodel class, including the fields of its superclasses. Nested objects can
+	 * only be written by codecs of a {@link JsonCodecs} registry.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return codec
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type
+	 */
+	public static <BASE> JsonCodec<BASE> of(final Class<BASE> type, final Class<?> metamodelClass)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		return new JsonCodecs().register(type, metamodelClass).get(type);
+	}
+
+	JsonCodec(final Class<BASE> type, final AbstractField<? super BASE, ?>[] fieldDefinitions,
+	        final Constructor0<BASE> constructorDefinition, final JsonCodecs registry) throws NoSuchFieldException,
+	        SecurityException {
+		this.type = type;
+		this.fieldDefinitions = fieldDefinitions;
+		this.constructorDefinition = constructorDefinition;
+		this.registry = registry;
+		handles = new FieldHandle[fieldDefinitions.length];
+		kinds = new int[fieldDefinitions.length];
+		names = new JsonToken[fieldDefinitions.length];
+		sameNames = new int[fieldDefinitions.length];
+		final String[] fieldNames = new String[fieldDefinitions.length];
+		boolean sameNamesFound = false;
+		for (int i = 0; i < fieldDefinitions.length; i++) {
+			handles[i] = FieldHelper.getHandle(fieldDefinitions[i]);
+			final Class<?> fieldType = handles[i].getField().getType();
+			kinds[i] = fieldType.isPrimitive() ? Kinds.of(fieldType) : Kinds.REFERENCE;
+			fieldNames[i] = fieldDefinitions[i].getName();
+			names[i] = JsonToken.name(i == 0 ? "{" : ",", fieldNames[i]);
+			sameNames[i] = -1;
+			for (int j = i - 1; j >= 0; j--) {
+				if (fieldNames[j].equals(fieldNames[i])) {
+					// fields hidden by a subclass
+					sameNames[j] = i;
+					sameNamesFound = true;
+					break;
+				}
+			}
+		}
+		hasSameNames = sameNamesFound;
+		nameTrie = new NameTrie(fieldNames);
+	}
+
+	/**
+	 * @return type of written objects
+	 */
+	public Class<BASE> getType() {
+		return type;
+	}
+
+	/**
+	 * @return definitions of the written fields, in the order of writing
+	 */
+	public List<AbstractField<? super BASE, ?>> getFieldDefinitions() {
+		return Arrays.asList(fieldDefinitions.clone());
+	}
+
+	/**
+	 * Write an object as UTF-8 encoded JSON.
+	 *
+	 * @param object object to write, {@code null} is written as {@code null}
+	 * @param out stream to write to, is neither flushed nor closed
+	 * @throws IOException if writing to the stream fails
+	 * @throws IllegalArgumentException if object contains values that cannot be written
+	 */
+	public void write(final BASE object, final OutputStream out) throws IOException, IllegalArgumentException {
+		final JsonOutput output = Utf8JsonOutput.acquire(out);
+		try {
+			writeRoot(object, output);
+		} finally {
+			output.release();
+		}
+	}
+
+	/**
+	 * Write an object as JSON.
+	 *
+	 * @param object object to write, {@code null} is written as {@code null}
+	 * @param out writer to write to, is neither flushed nor closed
+	 * @throws IOException if writing to the writer fails
+	 * @throws IllegalArgumentException if object contains values that cannot be written
+	 */
+	public void write(final BASE object, final Writer out) throws IOException, IllegalArgumentException {
+		final JsonOutput output = CharJsonOutput.acquire(out);
+		try {
+			writeRoot(object, output);
+		} finally {
+			output.release();
+		}
+	}
+
+	/**
+	 * Write an object as JSON string.
+	 *
+	 * @param object object to write, {@code null} is written as {@code null}
+	 * @return JSON text
+	 * @throws IllegalArgumentException if object contains values that cannot be written
+	 */
+	public String toJson(final BASE object) throws IllegalArgumentException {
+		final StringWriter out = new StringWriter();
+		try {
+			write(object, out);
+		} catch (final IOException e) {
+			// StringWriter does not throw
+			throw new IllegalStateException(e);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Read an object from UTF-8 encoded JSON.
+	 *
+	 * @param in stream containing a single JSON object or {@code null}, is read to its end but not closed
+	 * @return read object
+	 * @see #readEach(InputStream, ObjectHandler)
+	 * @throws IOException if reading from the stream fails
+	 * @throws IllegalArgumentException if the JSON text is malformed or does not match the fields
+	 */
+	public BASE read(final InputStream in) throws IOException, IllegalArgumentException {
+		return read(new InputStreamReader(in, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Read an object from JSON.
+	 *
+	 * @param in reader containing a single JSON object or {@code null}, is read to its end but not closed
+	 * @return read object
+	 * @throws IOException if reading from the reader fails
+	 * @throws IllegalArgumentException if the JSON text is malformed or does not match the fields
+	 */
+	public BASE read(final Reader in) throws IOException, IllegalArgumentException {
+		return readRoot(new JsonParser(in));
+	}
+
+	/**
+	 * Read an object from a JSON string.
+	 *
+	 * @param json a single JSON object or {@code null}
+	 * @return read object
+	 * @throws IllegalArgumentException if the JSON text is malformed or does not match the fields
+	 */
+	public BASE fromJson(final String json) throws IllegalArgumentException {
+		try {
+			return readRoot(new JsonParser(json));
+		} catch (final IOException e) {
+			// there is no reader
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Read a sequence of objects from UTF-8 encoded JSON, one at a time.
+	 *
+	 * @param in stream containing a JSON array of objects, or objects separated by whitespace only, is read to its end
+	 *            but not closed
+	 * @param handler receives each object as soon as it is read
+	 * @return number of read objects
+	 * @throws IOException if reading from the stream or the handler fails
+	 * @throws IllegalArgumentException if the JSON text is malformed or does not match the fields
+	 * @see #readEach(Reader, ObjectHandler)
+	 */
+	public long readEach(final InputStream in, final ObjectHandler<? super BASE> handler) throws IOException,
+	        IllegalArgumentException {
+		return readEach(new InputStreamReader(in, StandardCharsets.UTF_8), handler);
+	}
+
+	/**
+	 * Read a sequence of objects from JSON, one at a time. The sequence is either a JSON array, whose elements are
+	 * objects or {@code null}, or the objects follow each other separated by whitespace only, eg. one per line. Each
+	 * object is passed to the handler before the next one is read, so memory does not grow with the length of the
+	 * sequence.
+	 *
+	 * @param in reader containing a JSON array of objects, or objects separated by whitespace only, is read to its end
+	 *            but not closed
+	 * @param handler receives each object as soon as it is read
+	 * @return number of read objects
+	 * @throws IOException if reading from the reader or the handler fails
+	 * @throws IllegalArgumentException if the JSON text is malformed or does not match the fields
+	 */
+	public long readEach(final Reader in, final ObjectHandler<? super BASE> handler) throws IOException,
+	        IllegalArgumentException {
+		final JsonParser parser = new JsonParser(in);
+		try {
+			long count = 0;
+			if (parser.peek() == '[') {
+				parser.beginArray();
+				while (parser.hasNext()) {
+					handler.handle(readObject(parser));
+					count++;
+				}
+				parser.endArray();
+				parser.endDocument();
+			} else {
+				while (parser.peek() >= 0) {
+					handler.handle(readObject(parser));
+					count++;
+				}
+			}
+			return count;
+		} finally {
+			parser.release();
+		}
+	}
+
+	private BASE readRoot(final JsonParser in) throws IOException, IllegalArgumentException {
+		try {
+			final BASE object = readObject(in);
+			in.endDocument();
+			return object;
+		} finally {
+			in.release();
+		}
+	}
+
+	private Binding<BASE> binding() throws IllegalArgumentException {
+		Binding<BASE> result = binding;
+		if (result == null) {
+			final ConstructorFunction0<BASE> constructor;
+			try {
+				constructor = ConstructorFunctions.compile(constructorDefinition);
+			} catch (final NoSuchMethodException | InstantiationException e) {
+				throw new IllegalArgumentException(type.getName() + " cannot be instantiated", e);
+			}
+			final ValueReader[] readers = new ValueReader[handles.length];
+			for (int i = 0; i < handles.length; i++) {
+				if (kinds[i] == Kinds.REFERENCE) {
+					readers[i] = ValueReaders.forType(handles[i].getField().getGenericType(), registry);
+				}
+			}
+			result = new Binding<>(constructor, readers);
+			binding = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Create an object and read its fields.
+	 *
+	 * @param in parser to read from
+	 * @return new object, {@code null} for JSON {@code null}
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if the JSON text is malformed or does not match the fields
+	 */
+	BASE readObject(final JsonParser in) throws IOException, IllegalArgumentException {
+		if (in.nextNull()) {
+			return null;
+		}
+		final Binding<BASE> binding = binding();
+		final BASE object = binding.constructor.newInstance();
+		final boolean[] assigned = hasSameNames ? new boolean[handles.length] : null;
+		in.beginObject();
+		while (in.hasNext()) {
+			int i = in.nextName(nameTrie);
+			if (i < 0) {
+				in.skipValue();
+				continue;
+			}
+			if (assigned != null) {
+				while (assigned[i] && sameNames[i] >= 0) {
+					i = sameNames[i];
+				}
+				assigned[i] = true;
+			}
+			final FieldHandle handle = handles[i];
+			switch (kinds[i]) {
+			case Kinds.BOOLEAN:
+				handle.setBoolean(object, in.nextBoolean());
+				break;
+			case Kinds.BYTE:
+				handle.setByte(object, in.nextByte());
+				break;
+			case Kinds.CHAR:
+				handle.setChar(object, in.nextChar());
+				break;
+			case Kinds.SHORT:
+				handle.setShort(object, in.nextShort());
+				break;
+			case Kinds.INT:
+				handle.setInt(object, in.nextInt());
+				break;
+			case Kinds.LONG:
+				handle.setLong(object, in.nextLong());
+				break;
+			case Kinds.FLOAT:
+				handle.setFloat(object, in.nextFloat());
+				break;
+			case Kinds.DOUBLE:
+				handle.setDouble(object, in.nextDouble());
+				break;
+			default:
+				handle.set(object, binding.readers[i].read(in));
+			}
+		}
+		in.endObject();
+		return object;
+	}
+
+	private void writeRoot(final BASE object, final JsonOutput out) throws IOException, IllegalArgumentException {
+		if (object == null) {
+			out.writeNull();
+		} else {
+			writeObject(object, out);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Write the fields of an object.
+	 *
+	 * @param object instance of a declaring class, not {@code null}
+	 * @param out output to write to
+	 * @throws IOException if writing to the sink fails
+	 * @throws IllegalArgumentException if object contains values that cannot be written
+	 */
+	void writeObject(final Object object, final JsonOutput out) throws IOException, IllegalArgumentException {
+		if (handles.length == 0) {
+			out.writeAscii('{');
+		}
+		for (int i = 0; i < handles.length; i++) {
+			final FieldHandle handle = handles[i];
+			out.writeToken(names[i]);
+			switch (kinds[i]) {
+			case Kinds.BOOLEAN:
+				out.writeBoolean(handle.getBoolean(object));
+				break;
+			case Kinds.BYTE:
+				out.writeInt(handle.getByte(object));
+				break;
+			case Kinds.CHAR:
+				out.writeChar(handle.getChar(object));
+				break;
+			case Kinds.SHORT:
+				out.writeInt(handle.getShort(object));
+				break;
+			case Kinds.INT:
+				out.writeInt(handle.getInt(object));
+				break;
+			case Kinds.LONG:
+				out.writeLong(handle.getLong(object));
+				break;
+			case Kinds.FLOAT:
+				out.writeFloat(handle.getFloat(object));
+				break;
+			case Kinds.DOUBLE:
+				out.writeDouble(handle.getDouble(object));
+				break;
+			default:
+				registry.writeValue(handle.get(object), out);
+			}
+		}
+		out.writeAscii('}');
+	}
+
+	/** Constructor and readers of reference fields. */
+	private static final class Binding<BASE> {
+		private final ConstructorFunction0<BASE> constructor;
+		/** readers of reference fields, null for primitive fields. */
+		private final ValueReader[] readers;
+
+		Binding(final ConstructorFunction0<BASE> constructor, final ValueReader[] readers) {
+			this.constructor = constructor;
+			this.readers = readers;
+		}
+	}
+}
@@ -0,0 +1,303 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+import metamodel.access.Metamodels;
+import metamodel.codec.Kinds;
+import metamodel.constructor.AbstractConstructor;
+import metamodel.constructor.Constructor0;
+import metamodel.constructor.impl.Constructor0Impl;
+import metamodel.field.AbstractField;
+
+/**
+ * Registry of the types, that are written and read as JSON objects by {@link JsonCodec}s:
+ *
+ * <pre>
+ * private static final JsonCodecs CODECS = new JsonCodecs().register(Order.class, Order_.class)
+ *         .register(Address.class, Address_.class);
+ * private static final JsonCodec&lt;Order&gt; ORDER = CODECS.get(Order.class);
+ * </pre>
+ *
+ * Values are written by their runtime class: instances of registered classes as objects, collections and arrays as
+ * arrays, maps as objects with the string value of their keys as names, enums by name, characters as strings and
+ * primitive wrappers as numbers or booleans. {@code char[]} is written as string. Values are read as their declared
+ * type, values declared as {@code Object} or interface as maps, lists, strings, booleans, longs and doubles.
+ * <p>
+ * Registration is synchronized, all other methods may be called concurrently.
+ *
+ * @author Michael Kroll
+ */
+public final class JsonCodecs {
+
+	/** codecs by registered class. */
+	private final Map<Class<?>, JsonCodec<?>> codecs = new ConcurrentHashMap<>();
+
+	/**
+	 * Register a class described by a metamodel.
+	 * <p>
+	 * All fields of the metamodel class are written in the order of their definition, after the fields of the
+	 * superclasses. Read instances are created by the default constructor definition of the metamodel class, or the
+	 * default constructor of the class if there is no definition.
+	 *
+	 * @param type class that is described by the metamodel
+	 * @param metamodelClass generated metamodel class, eg. {@code POJO_.class}
+	 * @return this registry
+	 * @throws NoSuchFieldException if a defined field does not exist
+	 * @throws SecurityException
+	 * @throws IllegalArgumentException if metamodelClass does not describe type or type is already registered
+	 */
+	public synchronized <BASE> JsonCodecs register(final Class<BASE> type, final Class<?> metamodelClass)
+	        throws NoSuchFieldException, SecurityException, IllegalArgumentException {
+		Metamodels.checkDescribes(type, metamodelClass);
+		if (codecs.containsKey(type)) {
+			throw new IllegalArgumentException(type.getName() + " is already registered");
+		}
+		final List<AbstractField<?, ?>> fields = Metamodels.getFields(metamodelClass);
+		final AbstractField<? super BASE, ?>[] fieldDefinitions = newArray(fields.size());
+		codecs.put(type, new JsonCodec<>(type, fields.toArray(fieldDefinitions), defaultConstructor(type,
+		        metamodelClass), this));
+		return this;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> AbstractField<? super BASE, ?>[] newArray(final int length) {
+		return (AbstractField<? super BASE, ?>[]) new AbstractField<?, ?>[length];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <BASE> Constructor0<BASE> defaultConstructor(final Class<BASE> type, final Class<?> metamodelClass) {
+		for (final AbstractConstructor<?> constructorDefinition : Metamodels.getConstructors(metamodelClass)) {
+			if (constructorDefinition instanceof Constructor0 && constructorDefinition.getDeclaringClass() == type) {
+				return (Constructor0<BASE>) constructorDefinition;
+			}
+		}
+		return new Constructor0Impl<>(type);
+	}
+
+	/**
+	 * Get the codec of a registered class.
+	 *
+	 * @param type registered class
+	 * @return codec
+	 * @throws IllegalArgumentException if type is not registered
+	 */
+	@SuppressWarnings("unchecked")
+	public <BASE> JsonCodec<BASE> get(final Class<BASE> type) throws IllegalArgumentException {
+		final JsonCodec<BASE> codec = (JsonCodec<BASE>) codecs.get(type);
+		if (codec == null) {
+			throw new IllegalArgumentException(type.getName() + " is not registered");
+		}
+		return codec;
+	}
+
+	/**
+	 * Write a value by its runtime class.
+	 *
+	 * @param value value to write, may be {@code null}
+	 * @param out output to write to
+	 * @throws IOException if writing to the sink fails
+	 * @throws IllegalArgumentException if the value cannot be written
+	 */
+	void writeValue(final Object value, final JsonOutput out) throws IOException, IllegalArgumentException {
+		if (value == null) {
+			out.writeNull();
+			return;
+		}
+		final Class<?> type = value.getClass();
+		if (type == String.class) {
+			out.writeString((String) value);
+			return;
+		}
+		switch (Kinds.of(type)) {
+		case Kinds.BOOLEAN:
+			out.writeBoolean(((Boolean) value).booleanValue());
+			return;
+		case Kinds.BYTE:
+		case Kinds.SHORT:
+		case Kinds.INT:
+			out.writeInt(((Number) value).intValue());
+			return;
+		case Kinds.CHAR:
+			out.writeChar(((Character) value).charValue());
+			return;
+		case Kinds.LONG:
+			out.writeLong(((Long) value).longValue());
+			return;
+		case Kinds.FLOAT:
+			out.writeFloat(((Float) value).floatValue());
+			return;
+		case Kinds.DOUBLE:
+			out.writeDouble(((Double) value).doubleValue());
+			return;
+		default:
+			break;
+		}
+		final JsonCodec<?> codec = codecs.get(type);
+		if (codec != null) {
+			codec.writeObject(value, out);
+		} else if (value instanceof Enum) {
+			out.writeString(((Enum<?>) value).name());
+		} else if (value instanceof Number) {
+			// BigDecimal, BigInteger, atomics
+			out.writeAscii(value.toString());
+		} else if (value instanceof Map) {
+			writeMap((Map<?, ?>) value, out);
+		} else if (value instanceof Collection) {
+			writeCollection((Collection<?>) value, out);
+		} else if (type.isArray()) {
+			writeArray(value, type.getComponentType(), out);
+		} else {
+			throw new IllegalArgumentException("no codec registered for " + type.getName());
+		}
+	}
+
+	private void writeMap(final Map<?, ?> map, final JsonOutput out) throws IOException {
+		out.writeAscii('{');
+		boolean first = true;
+		for (final Entry<?, ?> entry : map.entrySet()) {
+			if (!first) {
+				out.writeAscii(',');
+			}
+			first = false;
+			final Object key = entry.getKey();
+			out.writeString(key instanceof Enum ? ((Enum<?>) key).name() : String.valueOf(key));
+			out.writeAscii(':');
+			writeValue(entry.getValue(), out);
+		}
+		out.writeAscii('}');
+	}
+
+	private void writeCollection(final Collection<?> collection, final JsonOutput out) throws IOException {
+		out.writeAscii('[');
+		if (collection instanceof List && collection instanceof RandomAccess) {
+			final List<?> list = (List<?>) collection;
+			for (int i = 0; i < list.size(); i++) {
+				if (i > 0) {
+					out.writeAscii(',');
+				}
+				writeValue(list.get(i), out);
+			}
+		} else {
+			boolean first = true;
+			for (final Object element : collection) {
+				if (!first) {
+					out.writeAscii(',');
+				}
+				first = false;
+				writeValue(element, out);
+			}
+		}
+		out.writeAscii(']');
+	}
+
+	private void writeArray(final Object array, final Class<?> componentType, final JsonOutput out)
+	        throws IOException {
+		if (componentType == char.class) {
+			out.writeString(CharBuffer.wrap((char[]) array));
+			return;
+		}
+		out.writeAscii('[');
+		switch (componentType.isPrimitive() ? Kinds.of(componentType) : Kinds.REFERENCE) {
+		case Kinds.BOOLEAN: {
+			final boolean[] values = (boolean[]) array;
+			for (int i = 0; i < values.length; i++) {
+				separate(i, out);
+				out.writeBoolean(values[i]);
+			}
+			break;
+		}
+		case Kinds.BYTE: {
+			final byte[] values = (byte[]) array;
+			for (int i = 0; i < values.length; i++) {
+				separate(i, out);
+				out.writeInt(values[i]);
+			}
+			break;
+		}
+		case Kinds.SHORT: {
+			final short[] values = (short[]) array;
+			for (int i = 0; i < values.length; i++) {
+				separate(i, out);
+				out.writeInt(values[i]);
+			}
+			break;
+		}
+		case Kinds.INT: {
+			final int[] values = (int[]) array;
+			for (int i = 0; i < values.length; i++) {
+				separate(i, out);
+				out.writeInt(values[i]);
+			}
+			break;
+		}
+		case Kinds.LONG: {
+			final long[] values = (long[]) array;
+			for (int i = 0; i < values.length; i++) {
+				separate(i, out);
+				out.writeLong(values[i]);
+			}
+			break;
+		}
+		case Kinds.FLOAT: {
+			final float[] values = (float[]) array;
+			for (int i = 0; i < values.length; i++) {
+				separate(i, out);
+				out.writeFloat(values[i]);
+			}
+			break;
+		}
+		case Kinds.DOUBLE: {
+			final double[] values = (double[]) array;
+			for (int i = 0; i < values.length; i++) {
+				separate(i, out);
+				out.writeDouble(values[i]);
+			}
+			break;
+		}
+		default: {
+			final Object[] values = (Object[]) array;
+			for (int i = 0; i < values.length; i++) {
+				separate(i, out);
+				writeValue(values[i], out);
+			}
+		}
+		}
+		out.writeAscii(']');
+	}
+
+	private static void separate(final int index, final JsonOutput out) throws IOException {
+		if (index > 0) {
+			out.writeAscii(',');
+		}
+	}
+}
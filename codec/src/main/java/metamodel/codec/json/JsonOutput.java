@@ -0,0 +1,207 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.io.IOException;
+
+/**
+ * Buffered output of JSON text. Instances are pooled per thread, subclasses encode the text for their sink.
+ *
+ * @author Michael Kroll
+ */
+abstract class JsonOutput {
+
+	/** size of the buffers. */
+	static final int BUFFER_SIZE = 8192;
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final char[] MIN_LONG = Long.toString(Long.MIN_VALUE).toCharArray();
+
+	/** scratch space for formatting numbers. */
+	private final char[] digits = new char[20];
+
+	/**
+	 * @param c char of a string
+	 * @return {@code true} if the char must be escaped in a JSON string
+	 */
+	static boolean isEscaped(final char c) {
+		return c < 0x20 || c == '"' || c == '\\' || Character.isSurrogate(c);
+	}
+
+	/**
+	 * @param c char, that {@link #isEscaped(char) must be escaped}
+	 * @return escape sequence of the char
+	 */
+	static String escape(final char c) {
+		switch (c) {
+		case '"':
+			return "\\\"";
+		case '\\':
+			return "\\\\";
+		case '\b':
+			return "\\b";
+		case '\f':
+			return "\\f";
+		case '\n':
+			return "\\n";
+		case '\r':
+			return "\\r";
+		case '\t':
+			return "\\t";
+		default:
+			return new String(new char[] { '\\', 'u', HEX[c >>> 12], HEX[c >>> 8 & 0xF], HEX[c >>> 4 & 0xF],
+			        HEX[c & 0xF] });
+		}
+	}
+
+	/**
+	 * Write pre-encoded text.
+	 *
+	 * @param token text to write
+	 * @throws IOException if writing to the sink fails
+	 */
+	abstract void writeToken(JsonToken token) throws IOException;
+
+	/**
+	 * Write a single US-ASCII char.
+	 *
+	 * @param c char to write
+	 * @throws IOException if writing to the sink fails
+	 */
+	abstract void writeAscii(char c) throws IOException;
+
+	/**
+	 * Write US-ASCII chars.
+	 *
+	 * @param chars chars to write
+	 * @param offset index of the first char
+	 * @param length number of chars, at most {@link #BUFFER_SIZE}
+	 * @throws IOException if writing to the sink fails
+	 */
+	abstract void writeAscii(char[] chars, int offset, int length) throws IOException;
+
+	/**
+	 * Write the content of a string, escaping all chars that {@link #isEscaped(char) must be escaped} except
+	 * surrogate pairs.
+	 *
+	 * @param value string to write
+	 * @throws IOException if writing to the sink fails
+	 */
+	abstract void writeStringContent(CharSequence value) throws IOException;
+
+	/**
+	 * Write the buffered text to the sink.
+	 *
+	 * @throws IOException if writing to the sink fails
+	 */
+	abstract void flush() throws IOException;
+
+	/**
+	 * Discard the buffered text and give the output back to the pool of the current thread.
+	 */
+	abstract void release();
+
+	void writeAscii(final String ascii) throws IOException {
+		for (int i = 0; i < ascii.length(); i++) {
+			writeAscii(ascii.charAt(i));
+		}
+	}
+
+	/**
+	 * Write an escape sequence.
+	 *
+	 * @param c char, that {@link #isEscaped(char) must be escaped}
+	 * @throws IOException if writing to the sink fails
+	 */
+	void writeEscaped(final char c) throws IOException {
+		writeAscii(escape(c));
+	}
+
+	void writeNull() throws IOException {
+		writeToken(JsonToken.NULL);
+	}
+
+	void writeBoolean(final boolean value) throws IOException {
+		writeToken(value ? JsonToken.TRUE : JsonToken.FALSE);
+	}
+
+	void writeString(final CharSequence value) throws IOException {
+		writeAscii('"');
+		writeStringContent(value);
+		writeAscii('"');
+	}
+
+	void writeChar(final char value) throws IOException {
+		writeString(String.valueOf(value));
+	}
+
+	void writeInt(final int value) throws IOException {
+		writeLong(value);
+	}
+
+	void writeLong(final long value) throws IOException {
+		if (value == Long.MIN_VALUE) {
+			writeAscii(MIN_LONG, 0, MIN_LONG.length);
+			return;
+		}
+		long v = value < 0 ? -value : value;
+		int p = digits.length;
+		do {
+			digits[--p] = (char) ('0' + v % 10);
+			v /= 10;
+		} while (v != 0);
+		if (value < 0) {
+			digits[--p] = '-';
+		}
+		writeAscii(digits, p, digits.length - p);
+	}
+
+	/**
+	 * Write a number. NaN and infinite values, which JSON has no numbers for, are written as strings.
+	 *
+	 * @param value number to write
+	 * @throws IOException if writing to the sink fails
+	 */
+	void writeFloat(final float value) throws IOException {
+		if (Float.isNaN(value) || Float.isInfinite(value)) {
+			writeString(Float.toString(value));
+		} else {
+			writeAscii(Float.toString(value));
+		}
+	}
+
+	/**
+	 * Write a number. NaN and infinite values, which JSON has no numbers for, are written as strings.
+	 *
+	 * @param value number to write
+	 * @throws IOException if writing to the sink fails
+	 */
+	void writeDouble(final double value) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			writeString(Double.toString(value));
+		} else {
+			writeAscii(Double.toString(value));
+		}
+	}
+}
@@ -0,0 +1,680 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Pull parser of JSON text. Numbers are parsed from a scratch buffer without creating strings, member names are
+ * matched by a {@link NameTrie}.
+ *
+ * @author Michael Kroll
+ */
+final class JsonParser {
+
+	private static final ThreadLocal<char[]> POOL = new ThreadLocal<>();
+
+	/** powers of ten, that are exactly representable as double. */
+	private static final double[] DOUBLE_POWERS = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+	        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	/** powers of ten, that are exactly representable as float. */
+	private static final float[] FLOAT_POWERS = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+
+	/** source of the buffer, null if the buffer holds the whole text. */
+	private final Reader in;
+	private char[] buffer;
+	private int position;
+	private int limit;
+	/** number of chars before the buffer. */
+	private long offset;
+	/** per nesting level, whether the next element is the first. */
+	private boolean[] first = new boolean[16];
+	private int depth;
+	/** chars of the last number. */
+	private char[] number = new char[32];
+	/** digits of the last decimal, without leading zeros. */
+	private long mantissa;
+	/** number of significant digits in the mantissa. */
+	private int significant;
+	/** decimal exponent of the last decimal. */
+	private int exponent;
+	private final StringBuilder text = new StringBuilder();
+
+	/**
+	 * Create a parser reading from a reader through a buffer pooled per thread.
+	 *
+	 * @param in reader
+	 */
+	JsonParser(final Reader in) {
+		this.in = in;
+		final char[] pooled = POOL.get();
+		if (pooled == null) {
+			buffer = new char[JsonOutput.BUFFER_SIZE];
+		} else {
+			POOL.set(null);
+			buffer = pooled;
+		}
+	}
+
+	/**
+	 * Create a parser of a string.
+	 *
+	 * @param json JSON text
+	 */
+	JsonParser(final String json) {
+		in = null;
+		buffer = json.toCharArray();
+		limit = buffer.length;
+	}
+
+	/**
+	 * Give the buffer back to the pool of the current thread.
+	 */
+	void release() {
+		if (in != null) {
+			POOL.set(buffer);
+		}
+		buffer = null;
+	}
+
+	private boolean fill() throws IOException {
+		if (in == null) {
+			return false;
+		}
+		offset += limit;
+		position = 0;
+		limit = 0;
+		final int count = in.read(buffer, 0, buffer.length);
+		if (count <= 0) {
+			return false;
+		}
+		limit = count;
+		return true;
+	}
+
+	/**
+	 * @param message description of the error
+	 * @return exception, including the position of the error
+	 */
+	IllegalArgumentException syntaxError(final String message) {
+		return new IllegalArgumentException(message + " at offset " + (offset + position));
+	}
+
+	/**
+	 * Skip whitespace.
+	 *
+	 * @return the next char, without consuming it, or -1 at the end of input
+	 * @throws IOException if reading fails
+	 */
+	int peek() throws IOException {
+		do {
+			while (position < limit) {
+				final char c = buffer[position];
+				if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+					return c;
+				}
+				position++;
+			}
+		} while (fill());
+		return -1;
+	}
+
+	private int read() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return buffer[position++];
+	}
+
+	private void expect(final char c) throws IOException, IllegalArgumentException {
+		if (peek() != c) {
+			throw syntaxError("expected '" + c + "'");
+		}
+		position++;
+	}
+
+	private void expectLiteral(final String literal) throws IOException, IllegalArgumentException {
+		expect(literal.charAt(0));
+		for (int i = 1; i < literal.length(); i++) {
+			if (read() != literal.charAt(i)) {
+				throw syntaxError("expected " + literal);
+			}
+		}
+	}
+
+	void beginObject() throws IOException, IllegalArgumentException {
+		expect('{');
+		push();
+	}
+
+	void endObject() throws IOException, IllegalArgumentException {
+		expect('}');
+		depth--;
+	}
+
+	void beginArray() throws IOException, IllegalArgumentException {
+		expect('[');
+		push();
+	}
+
+	void endArray() throws IOException, IllegalArgumentException {
+		expect(']');
+		depth--;
+	}
+
+	private void push() {
+		if (depth == first.length) {
+			first = Arrays.copyOf(first, depth << 1);
+		}
+		first[depth++] = true;
+	}
+
+	/**
+	 * Check for another member of an object or element of an array, and consume the separating comma.
+	 *
+	 * @return {@code false} if the object or array ends
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is no comma between two elements
+	 */
+	boolean hasNext() throws IOException, IllegalArgumentException {
+		final int c = peek();
+		if (c == '}' || c == ']') {
+			return false;
+		}
+		if (first[depth - 1]) {
+			first[depth - 1] = false;
+		} else if (c == ',') {
+			position++;
+		} else {
+			throw syntaxError("expected ','");
+		}
+		return true;
+	}
+
+	/**
+	 * Read a member name and the following colon.
+	 *
+	 * @param names known names
+	 * @return index of the name, -1 if it is unknown
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is no member name
+	 */
+	int nextName(final NameTrie names) throws IOException, IllegalArgumentException {
+		final int index = nextString(names);
+		expect(':');
+		return index;
+	}
+
+	/**
+	 * Read a member name as string and the following colon.
+	 *
+	 * @return name
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is no member name
+	 */
+	String nextKey() throws IOException, IllegalArgumentException {
+		final String key = nextString();
+		expect(':');
+		return key;
+	}
+
+	/**
+	 * Read a string and match it against known strings.
+	 *
+	 * @param names known strings
+	 * @return index of the string, -1 if it is unknown
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is no string
+	 */
+	int nextString(final NameTrie names) throws IOException, IllegalArgumentException {
+		expect('"');
+		int node = NameTrie.ROOT;
+		for (int c = read(); c != '"'; c = read()) {
+			if (c == '\\') {
+				c = readEscaped();
+			} else if (c < 0x20) {
+				throw syntaxError(c < 0 ? "unterminated string" : "control character in string");
+			}
+			if (node != NameTrie.NO_MATCH) {
+				node = names.next(node, (char) c);
+			}
+		}
+		return names.value(node);
+	}
+
+	/**
+	 * Consume {@code null}, if it is next.
+	 *
+	 * @return {@code true} if {@code null} was consumed
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if the next value starts like, but is not {@code null}
+	 */
+	boolean nextNull() throws IOException, IllegalArgumentException {
+		if (peek() == 'n') {
+			expectLiteral("null");
+			return true;
+		}
+		return false;
+	}
+
+	boolean nextBoolean() throws IOException, IllegalArgumentException {
+		final int c = peek();
+		if (c == 't') {
+			expectLiteral("true");
+			return true;
+		} else if (c == 'f') {
+			expectLiteral("false");
+			return false;
+		}
+		throw syntaxError("expected boolean");
+	}
+
+	String nextString() throws IOException, IllegalArgumentException {
+		expect('"');
+		text.setLength(0);
+		while (true) {
+			final int start = position;
+			while (position < limit) {
+				final char c = buffer[position];
+				if (c == '"' || c == '\\' || c < 0x20) {
+					break;
+				}
+				position++;
+			}
+			text.append(buffer, start, position - start);
+			final int c = read();
+			if (c == '"') {
+				return text.toString();
+			} else if (c == '\\') {
+				text.append(readEscaped());
+			} else if (c < 0x20) {
+				throw syntaxError(c < 0 ? "unterminated string" : "control character in string");
+			} else {
+				// end of buffer
+				text.append((char) c);
+			}
+		}
+	}
+
+	char nextChar() throws IOException, IllegalArgumentException {
+		final String value = nextString();
+		if (value.length() != 1) {
+			throw syntaxError("expected single character");
+		}
+		return value.charAt(0);
+	}
+
+	private char readEscaped() throws IOException, IllegalArgumentException {
+		final int c = read();
+		switch (c) {
+		case '"':
+		case '\\':
+		case '/':
+			return (char) c;
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		case 'u':
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				final int digit = Character.digit(read(), 16);
+				if (digit < 0) {
+					throw syntaxError("malformed unicode escape");
+				}
+				value = value << 4 | digit;
+			}
+			return (char) value;
+		default:
+			throw syntaxError("malformed escape");
+		}
+	}
+
+	/**
+	 * Read the chars of a number into the scratch buffer.
+	 *
+	 * @return number of chars
+	 */
+	private int scanNumber() throws IOException, IllegalArgumentException {
+		int c = peek();
+		if (c != '-' && (c < '0' || c > '9')) {
+			throw syntaxError("expected number");
+		}
+		int length = 0;
+		while (c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+			if (length == number.length) {
+				number = Arrays.copyOf(number, length << 1);
+			}
+			number[length++] = (char) c;
+			position++;
+			if (position == limit && !fill()) {
+				break;
+			}
+			c = buffer[position];
+		}
+		return length;
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Parse the scratch buffer as integer.
+	 *
+	 * @param length number of chars
+	 * @param min minimum allowed value
+	 * @param max maximum allowed value
+	 * @return value
+	 * @throws IllegalArgumentException if the number is malformed, out of range or has a fraction
+	 */
+	private long parseInteger(final int length, final long min, final long max) throws IllegalArgumentException {
+		final boolean negative = number[0] == '-';
+		final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long value = 0;
+		int i = negative ? 1 : 0;
+		if (i == length) {
+			throw syntaxError("malformed number");
+		}
+		for (; i < length; i++) {
+			final char c = number[i];
+			if (!isDigit(c)) {
+				// fraction or exponent, eg. 1.0 or 1e3
+				final double d = parseDouble(length);
+				if (d < min || d > max || d != Math.rint(d)) {
+					throw syntaxError("expected integer between " + min + " and " + max);
+				}
+				return (long) d;
+			}
+			final int digit = c - '0';
+			if (value < limit / 10 || value * 10 < limit + digit) {
+				throw syntaxError("expected integer between " + min + " and " + max);
+			}
+			value = value * 10 - digit;
+		}
+		value = negative ? value : -value;
+		if (value < min || value > max) {
+			throw syntaxError("expected integer between " + min + " and " + max);
+		}
+		return value;
+	}
+
+	/**
+	 * Split the scratch buffer into {@link #mantissa} and {@link #exponent}.
+	 *
+	 * @param length number of chars
+	 * @param maxSignificant maximum number of significant digits in the mantissa
+	 * @throws IllegalArgumentException if the number is malformed
+	 */
+	private void scanDecimal(final int length, final int maxSignificant) throws IllegalArgumentException {
+		mantissa = 0;
+		significant = 0;
+		exponent = 0;
+		int i = number[0] == '-' ? 1 : 0;
+		final int integerStart = i;
+		for (; i < length && isDigit(number[i]); i++) {
+			addDigit(number[i], maxSignificant);
+		}
+		if (i == integerStart) {
+			throw syntaxError("malformed number");
+		}
+		if (i < length && number[i] == '.') {
+			final int fractionStart = ++i;
+			for (; i < length && isDigit(number[i]); i++) {
+				addDigit(number[i], maxSignificant);
+				exponent--;
+			}
+			if (i == fractionStart) {
+				throw syntaxError("malformed number");
+			}
+		}
+		if (i < length && (number[i] == 'e' || number[i] == 'E')) {
+			i++;
+			final boolean negative = i < length && number[i] == '-';
+			if (i < length && (number[i] == '-' || number[i] == '+')) {
+				i++;
+			}
+			final int exponentStart = i;
+			int value = 0;
+			for (; i < length && isDigit(number[i]); i++) {
+				if (value < 100000) {
+					value = value * 10 + number[i] - '0';
+				}
+			}
+			if (i == exponentStart) {
+				throw syntaxError("malformed number");
+			}
+			exponent += negative ? -value : value;
+		}
+		if (i != length) {
+			throw syntaxError("malformed number");
+		}
+	}
+
+	private void addDigit(final char c, final int maxSignificant) {
+		if (significant <= maxSignificant) {
+			mantissa = mantissa * 10 + c - '0';
+			if (mantissa != 0) {
+				significant++;
+			}
+		} else {
+			significant++;
+		}
+	}
+
+	/**
+	 * Parse the scratch buffer as double. Numbers with up to 15 significant digits and a decimal exponent of at most
+	 * 22 are computed exactly by a single multiplication or division, all others by {@link Double#parseDouble(String)}.
+	 */
+	private double parseDouble(final int length) throws IllegalArgumentException {
+		scanDecimal(length, 15);
+		if (significant <= 15 && exponent >= -22 && exponent <= 22) {
+			final double value = exponent < 0 ? mantissa / DOUBLE_POWERS[-exponent] : mantissa
+			        * DOUBLE_POWERS[exponent];
+			return number[0] == '-' ? -value : value;
+		}
+		try {
+			return Double.parseDouble(new String(number, 0, length));
+		} catch (final NumberFormatException e) {
+			throw syntaxError("malformed number");
+		}
+	}
+
+	/**
+	 * Parse the scratch buffer as float, like {@link #parseDouble(int)} with up to 7 significant digits and an exponent
+	 * of at most 10.
+	 */
+	private float parseFloat(final int length) throws IllegalArgumentException {
+		scanDecimal(length, 7);
+		if (significant <= 7 && exponent >= -10 && exponent <= 10) {
+			final float value = exponent < 0 ? mantissa / FLOAT_POWERS[-exponent] : mantissa
+			        * FLOAT_POWERS[exponent];
+			return number[0] == '-' ? -value : value;
+		}
+		try {
+			return Float.parseFloat(new String(number, 0, length));
+		} catch (final NumberFormatException e) {
+			throw syntaxError("malformed number");
+		}
+	}
+
+	byte nextByte() throws IOException, IllegalArgumentException {
+		return (byte) parseInteger(scanNumber(), Byte.MIN_VALUE, Byte.MAX_VALUE);
+	}
+
+	short nextShort() throws IOException, IllegalArgumentException {
+		return (short) parseInteger(scanNumber(), Short.MIN_VALUE, Short.MAX_VALUE);
+	}
+
+	int nextInt() throws IOException, IllegalArgumentException {
+		return (int) parseInteger(scanNumber(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	long nextLong() throws IOException, IllegalArgumentException {
+		return parseInteger(scanNumber(), Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Read a number, or one of the strings {@code "NaN"}, {@code "Infinity"} and {@code "-Infinity"}.
+	 *
+	 * @return value
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is no number
+	 */
+	float nextFloat() throws IOException, IllegalArgumentException {
+		if (peek() == '"') {
+			return Float.parseFloat(nextSpecial());
+		}
+		return parseFloat(scanNumber());
+	}
+
+	/**
+	 * Read a number, or one of the strings {@code "NaN"}, {@code "Infinity"} and {@code "-Infinity"}.
+	 *
+	 * @return value
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is no number
+	 */
+	double nextDouble() throws IOException, IllegalArgumentException {
+		if (peek() == '"') {
+			return Double.parseDouble(nextSpecial());
+		}
+		return parseDouble(scanNumber());
+	}
+
+	private String nextSpecial() throws IOException, IllegalArgumentException {
+		final String value = nextString();
+		if (!"NaN".equals(value) && !"Infinity".equals(value) && !"-Infinity".equals(value)) {
+			throw syntaxError("expected number");
+		}
+		return value;
+	}
+
+	/**
+	 * Read a number as {@link Long} if it is an integer in range, as {@link Double} otherwise.
+	 *
+	 * @return value
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is no number
+	 */
+	Number nextNumber() throws IOException, IllegalArgumentException {
+		final int length = scanNumber();
+		final int start = number[0] == '-' ? 1 : 0;
+		boolean integer = length > start && length - start <= 18;
+		for (int i = start; integer && i < length; i++) {
+			integer = isDigit(number[i]);
+		}
+		if (integer) {
+			return Long.valueOf(parseInteger(length, Long.MIN_VALUE, Long.MAX_VALUE));
+		}
+		return Double.valueOf(parseDouble(length));
+	}
+
+	/**
+	 * Read a number without loss of precision.
+	 *
+	 * @return value
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is no number
+	 */
+	BigDecimal nextBigDecimal() throws IOException, IllegalArgumentException {
+		final int length = scanNumber();
+		try {
+			return new BigDecimal(number, 0, length);
+		} catch (final NumberFormatException e) {
+			throw syntaxError("malformed number");
+		}
+	}
+
+	/**
+	 * Skip the next value, including all nested values.
+	 *
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if the value is malformed
+	 */
+	void skipValue() throws IOException, IllegalArgumentException {
+		switch (peek()) {
+		case '{':
+			beginObject();
+			while (hasNext()) {
+				skipString();
+				expect(':');
+				skipValue();
+			}
+			endObject();
+			break;
+		case '[':
+			beginArray();
+			while (hasNext()) {
+				skipValue();
+			}
+			endArray();
+			break;
+		case '"':
+			skipString();
+			break;
+		case 't':
+		case 'f':
+			nextBoolean();
+			break;
+		case 'n':
+			nextNull();
+			break;
+		default:
+			parseDouble(scanNumber());
+		}
+	}
+
+	private void skipString() throws IOException, IllegalArgumentException {
+		expect('"');
+		for (int c = read(); c != '"'; c = read()) {
+			if (c == '\\') {
+				readEscaped();
+			} else if (c < 0x20) {
+				throw syntaxError(c < 0 ? "unterminated string" : "control character in string");
+			}
+		}
+	}
+
+	/**
+	 * Check, that nothing but whitespace follows.
+	 *
+	 * @throws IOException if reading fails
+	 * @throws IllegalArgumentException if there is more text
+	 */
+	void endDocument() throws IOException, IllegalArgumentException {
+		if (peek() >= 0) {
+			throw syntaxError("expected end of input");
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Piece of JSON text, that is encoded once and then copied to each output.
+ *
+ * @author Michael Kroll
+ */
+final class JsonToken {
+
+	static final JsonToken NULL = new JsonToken("null");
+	static final JsonToken TRUE = new JsonToken("true");
+	static final JsonToken FALSE = new JsonToken("false");
+
+	/** UTF-8 encoding. */
+	final byte[] bytes;
+	/** UTF-16 encoding. */
+	final char[] chars;
+
+	JsonToken(final String json) {
+		bytes = json.getBytes(StandardCharsets.UTF_8);
+		chars = json.toCharArray();
+	}
+
+	/**
+	 * Create the token of a member name.
+	 *
+	 * @param prefix text before the name, eg. <code>","</code>
+	 * @param name member name
+	 * @return <code>prefix"name":</code>
+	 */
+	static JsonToken name(final String prefix, final String name) {
+		final StringBuilder json = new StringBuilder(prefix).append('"');
+		for (int i = 0; i < name.length(); i++) {
+			final char c = name.charAt(i);
+			if (JsonOutput.isEscaped(c)) {
+				json.append(JsonOutput.escape(c));
+			} else {
+				json.append(c);
+			}
+		}
+		return new JsonToken(json.append("\":").toString());
+	}
+}
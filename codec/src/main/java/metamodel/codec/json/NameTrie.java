@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Trie over the member names of a JSON object, that is walked char by char while a name is read, so that no string is
+ * created and no hash is computed.
+ *
+ * @author Michael Kroll
+ */
+final class NameTrie {
+
+	/** node that is entered when no name matches. */
+	static final int NO_MATCH = -1;
+	/** the start node. */
+	static final int ROOT = 0;
+
+	/** edges of node i are firstEdge[i] to firstEdge[i + 1] - 1. */
+	private final int[] firstEdge;
+	private final char[] labels;
+	private final int[] targets;
+	/** index of the name that ends in a node, -1 if none. */
+	private final int[] values;
+
+	/**
+	 * @param names member names, the index of the first occurrence of each name is its value
+	 */
+	NameTrie(final String[] names) {
+		final List<TreeMap<Character, Integer>> nodes = new ArrayList<>();
+		final List<Integer> nodeValues = new ArrayList<>();
+		nodes.add(new TreeMap<Character, Integer>());
+		nodeValues.add(-1);
+		int edges = 0;
+		for (int i = 0; i < names.length; i++) {
+			int node = ROOT;
+			for (int j = 0; j < names[i].length(); j++) {
+				final Character c = names[i].charAt(j);
+				Integer next = nodes.get(node).get(c);
+				if (next == null) {
+					next = nodes.size();
+					nodes.get(node).put(c, next);
+					nodes.add(new TreeMap<Character, Integer>());
+					nodeValues.add(-1);
+					edges++;
+				}
+				node = next;
+			}
+			if (nodeValues.get(node) < 0) {
+				nodeValues.set(node, i);
+			}
+		}
+		firstEdge = new int[nodes.size() + 1];
+		labels = new char[edges];
+		targets = new int[edges];
+		values = new int[nodes.size()];
+		int edge = 0;
+		for (int node = 0; node < nodes.size(); node++) {
+			firstEdge[node] = edge;
+			values[node] = nodeValues.get(node);
+			for (final Entry<Character, Integer> entry : nodes.get(node).entrySet()) {
+				labels[edge] = entry.getKey();
+				targets[edge] = entry.getValue();
+				edge++;
+			}
+		}
+		firstEdge[nodes.size()] = edge;
+	}
+
+	/**
+	 * Follow the edge of a char.
+	 *
+	 * @param node current node, not {@link #NO_MATCH}
+	 * @param c next char of the name
+	 * @return next node or {@link #NO_MATCH}
+	 */
+	int next(final int node, final char c) {
+		for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+			if (labels[edge] == c) {
+				return targets[edge];
+			}
+		}
+		return NO_MATCH;
+	}
+
+	/**
+	 * @param node node after the last char of a name
+	 * @return index of the name, -1 if the name is unknown
+	 */
+	int value(final int node) {
+		return node == NO_MATCH ? -1 : values[node];
+	}
+}
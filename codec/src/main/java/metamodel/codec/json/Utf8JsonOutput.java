@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * JSON output encoded in UTF-8.
+ *
+ * @author Michael Kroll
+ */
+final class Utf8JsonOutput extends JsonOutput {
+
+	private static final ThreadLocal<Utf8JsonOutput> POOL = new ThreadLocal<>();
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+	private OutputStream out;
+
+	/**
+	 * Take the output of the current thread, or create a new one if it is already in use.
+	 *
+	 * @param out sink
+	 * @return output, to be given back by {@link #release()}
+	 */
+	static Utf8JsonOutput acquire(final OutputStream out) {
+		Utf8JsonOutput output = POOL.get();
+		if (output == null) {
+			output = new Utf8JsonOutput();
+		} else {
+			POOL.set(null);
+		}
+		output.out = out;
+		return output;
+	}
+
+	@Override
+	void release() {
+		out = null;
+		position = 0;
+		POOL.set(this);
+	}
+
+	@Override
+	void flush() throws IOException {
+		out.write(buffer, 0, position);
+		position = 0;
+	}
+
+	private void require(final int count) throws IOException {
+		if (BUFFER_SIZE - position < count) {
+			flush();
+		}
+	}
+
+	@Override
+	void writeToken(final JsonToken token) throws IOException {
+		final byte[] bytes = token.bytes;
+		if (bytes.length > BUFFER_SIZE - position) {
+			flush();
+			if (bytes.length > BUFFER_SIZE) {
+				out.write(bytes);
+				return;
+			}
+		}
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	@Override
+	void writeAscii(final char c) throws IOException {
+		require(1);
+		buffer[position++] = (byte) c;
+	}
+
+	@Override
+	void writeAscii(final char[] chars, final int offset, final int length) throws IOException {
+		require(length);
+		for (int i = offset; i < offset + length; i++) {
+			buffer[position++] = (byte) chars[i];
+		}
+	}
+
+	@Override
+	void writeStringContent(final CharSequence value) throws IOException {
+		final int length = value.length();
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c < 0x80) {
+				if (isEscaped(c)) {
+					writeEscaped(c);
+				} else {
+					require(1);
+					buffer[position++] = (byte) c;
+				}
+			} else if (c < 0x800) {
+				require(2);
+				buffer[position++] = (byte) (0xC0 | c >> 6);
+				buffer[position++] = (byte) (0x80 | c & 0x3F);
+			} else if (!Character.isSurrogate(c)) {
+				require(3);
+				buffer[position++] = (byte) (0xE0 | c >> 12);
+				buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+				buffer[position++] = (byte) (0x80 | c & 0x3F);
+			} else if (Character.isHighSurrogate(c) && i + 1 < length
+			        && Character.isLowSurrogate(value.charAt(i + 1))) {
+				final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				require(4);
+				buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+				buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+				buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+				buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+			} else {
+				// unpaired surrogate
+				writeEscaped(c);
+			}
+		}
+	}
+}
@@ -0,0 +1,482 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import metamodel.access.constructor.ConstructorFunction0;
+import metamodel.codec.Containers;
+import metamodel.codec.Kinds;
+
+/**
+ * Creates the {@link ValueReader}s of declared field and element types.
+ *
+ * @author Michael Kroll
+ */
+final class ValueReaders {
+
+	static final ValueReader STRING = new ValueReader() {
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			return in.nextNull() ? null : in.nextString();
+		}
+	};
+
+	static final ValueReader BIG_DECIMAL = new ValueReader() {
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			return in.nextNull() ? null : in.nextBigDecimal();
+		}
+	};
+
+	static final ValueReader BIG_INTEGER = new ValueReader() {
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			if (in.nextNull()) {
+				return null;
+			}
+			try {
+				return in.nextBigDecimal().toBigIntegerExact();
+			} catch (final ArithmeticException e) {
+				throw in.syntaxError("expected integer");
+			}
+		}
+	};
+
+	/** Reads values without declared type as maps, lists, strings, booleans, longs and doubles. */
+	static final ValueReader DYNAMIC = new ValueReader() {
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			switch (in.peek()) {
+			case '{': {
+				final Map<String, Object> map = new LinkedHashMap<>();
+				in.beginObject();
+				while (in.hasNext()) {
+					final String key = in.nextKey();
+					map.put(key, read(in));
+				}
+				in.endObject();
+				return map;
+			}
+			case '[': {
+				final List<Object> list = new ArrayList<>();
+				in.beginArray();
+				while (in.hasNext()) {
+					list.add(read(in));
+				}
+				in.endArray();
+				return list;
+			}
+			case '"':
+				return in.nextString();
+			case 't':
+			case 'f':
+				return Boolean.valueOf(in.nextBoolean());
+			case 'n':
+				in.nextNull();
+				return null;
+			default:
+				return in.nextNumber();
+			}
+		}
+	};
+
+	/** Hide Utility Constructor. */
+	private ValueReaders() {
+	}
+
+	/**
+	 * Get the reader of a declared type.
+	 * <p>
+	 * Collections, maps and arrays are read with the reader of their declared element type. Interfaces, abstract
+	 * classes and {@link Object} are read by {@link #DYNAMIC}, all other classes must be registered.
+	 *
+	 * @param type declared, possibly generic type
+	 * @param registry registry of nested types
+	 * @return reader
+	 * @throws IllegalArgumentException if a collection or map of the declared type cannot be created or the map key
+	 *             type is not supported
+	 */
+	static ValueReader forType(final Type type, final JsonCodecs registry) throws IllegalArgumentException {
+		final Class<?> raw = rawType(type);
+		final int kind = Kinds.of(raw);
+		if (kind != Kinds.REFERENCE) {
+			return new BoxedReader(kind);
+		} else if (raw == String.class || raw == CharSequence.class) {
+			return STRING;
+		} else if (raw.isEnum()) {
+			return new EnumReader(raw.getEnumConstants());
+		} else if (raw.isArray()) {
+			final Type componentType = type instanceof GenericArrayType ? ((GenericArrayType) type)
+			        .getGenericComponentType() : raw.getComponentType();
+			return new ArrayReader(raw.getComponentType(), componentType, registry);
+		} else if (Collection.class.isAssignableFrom(raw)) {
+			return new CollectionReader(Containers.collectionFactory(raw), forType(typeArgument(type, 0), registry));
+		} else if (Map.class.isAssignableFrom(raw)) {
+			return new MapReader(Containers.mapFactory(raw), rawType(typeArgument(type, 0)), forType(typeArgument(
+			        type, 1), registry));
+		} else if (raw == BigDecimal.class) {
+			return BIG_DECIMAL;
+		} else if (raw == BigInteger.class) {
+			return BIG_INTEGER;
+		} else if (raw == Object.class || raw.isInterface() || Modifier.isAbstract(raw.getModifiers())) {
+			return DYNAMIC;
+		}
+		return new ObjectReader(raw, registry);
+	}
+
+	private static Class<?> rawType(final Type type) {
+		if (type instanceof Class) {
+			return (Class<?>) type;
+		} else if (type instanceof ParameterizedType) {
+			return rawType(((ParameterizedType) type).getRawType());
+		} else if (type instanceof GenericArrayType) {
+			return Array.newInstance(rawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+		} else if (type instanceof WildcardType) {
+			return rawType(((WildcardType) type).getUpperBounds()[0]);
+		} else if (type instanceof TypeVariable) {
+			return rawType(((TypeVariable<?>) type).getBounds()[0]);
+		}
+		return Object.class;
+	}
+
+	private static Type typeArgument(final Type type, final int index) {
+		if (type instanceof ParameterizedType) {
+			return ((ParameterizedType) type).getActualTypeArguments()[index];
+		}
+		return Object.class;
+	}
+
+	/** Primitive wrappers. */
+	private static final class BoxedReader extends ValueReader {
+		private final int kind;
+
+		BoxedReader(final int kind) {
+			this.kind = kind;
+		}
+
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			if (in.nextNull()) {
+				return null;
+			}
+			switch (kind) {
+			case Kinds.BOOLEAN:
+				return Boolean.valueOf(in.nextBoolean());
+			case Kinds.BYTE:
+				return Byte.valueOf(in.nextByte());
+			case Kinds.CHAR:
+				return Character.valueOf(in.nextChar());
+			case Kinds.SHORT:
+				return Short.valueOf(in.nextShort());
+			case Kinds.INT:
+				return Integer.valueOf(in.nextInt());
+			case Kinds.LONG:
+				return Long.valueOf(in.nextLong());
+			case Kinds.FLOAT:
+				return Float.valueOf(in.nextFloat());
+			default:
+				return Double.valueOf(in.nextDouble());
+			}
+		}
+	}
+
+	/** Enums by name, matched by a trie. */
+	private static final class EnumReader extends ValueReader {
+		private final Object[] constants;
+		private final NameTrie names;
+
+		EnumReader(final Object[] constants) {
+			this.constants = constants;
+			final String[] constantNames = new String[constants.length];
+			for (int i = 0; i < constants.length; i++) {
+				constantNames[i] = ((Enum<?>) constants[i]).name();
+			}
+			names = new NameTrie(constantNames);
+		}
+
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			if (in.nextNull()) {
+				return null;
+			}
+			final int index = in.nextString(names);
+			if (index < 0) {
+				throw in.syntaxError("unknown constant of " + constants.getClass().getComponentType().getName());
+			}
+			return constants[index];
+		}
+	}
+
+	/** Arrays, primitive ones read without boxing. */
+	private static final class ArrayReader extends ValueReader {
+		private final Class<?> componentType;
+		private final int kind;
+		/** element reader of reference arrays. */
+		private final ValueReader elements;
+
+		ArrayReader(final Class<?> componentType, final Type genericComponentType, final JsonCodecs registry) {
+			this.componentType = componentType;
+			if (componentType.isPrimitive()) {
+				kind = Kinds.of(componentType);
+				elements = null;
+			} else {
+				kind = Kinds.REFERENCE;
+				elements = forType(genericComponentType, registry);
+			}
+		}
+
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			if (in.nextNull()) {
+				return null;
+			} else if (kind == Kinds.CHAR) {
+				// written as string
+				return in.nextString().toCharArray();
+			}
+			in.beginArray();
+			int count = 0;
+			final Object array;
+			switch (kind) {
+			case Kinds.BOOLEAN: {
+				boolean[] values = new boolean[16];
+				for (; in.hasNext(); count++) {
+					if (count == values.length) {
+						values = Arrays.copyOf(values, count << 1);
+					}
+					values[count] = in.nextBoolean();
+				}
+				array = Arrays.copyOf(values, count);
+				break;
+			}
+			case Kinds.BYTE: {
+				byte[] values = new byte[16];
+				for (; in.hasNext(); count++) {
+					if (count == values.length) {
+						values = Arrays.copyOf(values, count << 1);
+					}
+					values[count] = in.nextByte();
+				}
+				array = Arrays.copyOf(values, count);
+				break;
+			}
+			case Kinds.SHORT: {
+				short[] values = new short[16];
+				for (; in.hasNext(); count++) {
+					if (count == values.length) {
+						values = Arrays.copyOf(values, count << 1);
+					}
+					values[count] = in.nextShort();
+				}
+				array = Arrays.copyOf(values, count);
+				break;
+			}
+			case Kinds.INT: {
+				int[] values = new int[16];
+				for (; in.hasNext(); count++) {
+					if (count == values.length) {
+						values = Arrays.copyOf(values, count << 1);
+					}
+					values[count] = in.nextInt();
+				}
+				array = Arrays.copyOf(values, count);
+				break;
+			}
+			case Kinds.LONG: {
+				long[] values = new long[16];
+				for (; in.hasNext(); count++) {
+					if (count == values.length) {
+						values = Arrays.copyOf(values, count << 1);
+					}
+					values[count] = in.nextLong();
+				}
+				array = Arrays.copyOf(values, count);
+				break;
+			}
+			case Kinds.FLOAT: {
+				float[] values = new float[16];
+				for (; in.hasNext(); count++) {
+					if (count == values.length) {
+						values = Arrays.copyOf(values, count << 1);
+					}
+					values[count] = in.nextFloat();
+				}
+				array = Arrays.copyOf(values, count);
+				break;
+			}
+			case Kinds.DOUBLE: {
+				double[] values = new double[16];
+				for (; in.hasNext(); count++) {
+					if (count == values.length) {
+						values = Arrays.copyOf(values, count << 1);
+					}
+					values[count] = in.nextDouble();
+				}
+				array = Arrays.copyOf(values, count);
+				break;
+			}
+			default: {
+				final List<Object> values = new ArrayList<>();
+				while (in.hasNext()) {
+					values.add(elements.read(in));
+				}
+				try {
+					array = values.toArray((Object[]) Array.newInstance(componentType, values.size()));
+				} catch (final ArrayStoreException e) {
+					throw new IllegalArgumentException("element is no " + componentType.getName(), e);
+				}
+			}
+			}
+			in.endArray();
+			return array;
+		}
+	}
+
+	/** Collections of the declared element type. */
+	private static final class CollectionReader extends ValueReader {
+		private final ConstructorFunction0<Collection<Object>> factory;
+		private final ValueReader elements;
+
+		CollectionReader(final ConstructorFunction0<Collection<Object>> factory, final ValueReader elements) {
+			this.factory = factory;
+			this.elements = elements;
+		}
+
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			if (in.nextNull()) {
+				return null;
+			}
+			final Collection<Object> collection = factory.newInstance();
+			in.beginArray();
+			while (in.hasNext()) {
+				collection.add(elements.read(in));
+			}
+			in.endArray();
+			return collection;
+		}
+	}
+
+	/** Maps of the declared key and value type. */
+	private static final class MapReader extends ValueReader {
+		private final ConstructorFunction0<Map<Object, Object>> factory;
+		private final Class<?> keyType;
+		private final int keyKind;
+		private final ValueReader values;
+
+		MapReader(final ConstructorFunction0<Map<Object, Object>> factory, final Class<?> keyType,
+		        final ValueReader values) throws IllegalArgumentException {
+			this.factory = factory;
+			this.keyType = keyType;
+			keyKind = Kinds.of(keyType);
+			this.values = values;
+			if (keyKind == Kinds.REFERENCE && !keyType.isEnum() && !keyType.isAssignableFrom(String.class)) {
+				throw new IllegalArgumentException("unsupported map key type " + keyType.getName());
+			}
+		}
+
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			if (in.nextNull()) {
+				return null;
+			}
+			final Map<Object, Object> map = factory.newInstance();
+			in.beginObject();
+			while (in.hasNext()) {
+				final Object key = toKey(in.nextKey(), in);
+				map.put(key, values.read(in));
+			}
+			in.endObject();
+			return map;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Object toKey(final String name, final JsonParser in) throws IllegalArgumentException {
+			try {
+				switch (keyKind) {
+				case Kinds.BOOLEAN:
+					return Boolean.valueOf(name);
+				case Kinds.BYTE:
+					return Byte.valueOf(name);
+				case Kinds.CHAR:
+					if (name.length() != 1) {
+						throw new IllegalArgumentException(name);
+					}
+					return Character.valueOf(name.charAt(0));
+				case Kinds.SHORT:
+					return Short.valueOf(name);
+				case Kinds.INT:
+					return Integer.valueOf(name);
+				case Kinds.LONG:
+					return Long.valueOf(name);
+				case Kinds.FLOAT:
+					return Float.valueOf(name);
+				case Kinds.DOUBLE:
+					return Double.valueOf(name);
+				default:
+					return keyType.isEnum() ? Enum.valueOf((Class) keyType, name) : name;
+				}
+			} catch (final IllegalArgumentException e) {
+				throw in.syntaxError("malformed key " + name);
+			}
+		}
+	}
+
+	/** Instances of registered classes, resolved on first use. */
+	private static final class ObjectReader extends ValueReader {
+		private final Class<?> type;
+		private final JsonCodecs registry;
+		private volatile JsonCodec<?> codec;
+
+		ObjectReader(final Class<?> type, final JsonCodecs registry) {
+			this.type = type;
+			this.registry = registry;
+		}
+
+		@Override
+		Object read(final JsonParser in) throws IOException {
+			JsonCodec<?> resolved = codec;
+			if (resolved == null) {
+				resolved = registry.get(type);
+				codec = resolved;
+			}
+			return resolved.readObject(in);
+		}
+	}
+}
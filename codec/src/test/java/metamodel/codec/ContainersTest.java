@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.Test;
+
+/**
+ * Tests Containers.
+ *
+ * @author Michael Kroll
+ */
+public class ContainersTest {
+
+	@Test
+	public void testCollections() {
+		assertEquals(ArrayList.class, Containers.collectionFactory(Collection.class).newInstance().getClass());
+		assertEquals(ArrayList.class, Containers.collectionFactory(List.class).newInstance().getClass());
+		assertEquals(ArrayList.class, Containers.collectionFactory(AbstractList.class).newInstance().getClass());
+		assertEquals(LinkedHashSet.class, Containers.collectionFactory(Set.class).newInstance().getClass());
+		assertEquals(TreeSet.class, Containers.collectionFactory(SortedSet.class).newInstance().getClass());
+		assertEquals(ArrayDeque.class, Containers.collectionFactory(Deque.class).newInstance().getClass());
+		assertEquals(LinkedList.class, Containers.collectionFactory(LinkedList.class).newInstance().getClass());
+	}
+
+	@Test
+	public void testMaps() {
+		assertEquals(LinkedHashMap.class, Containers.mapFactory(Map.class).newInstance().getClass());
+		assertEquals(TreeMap.class, Containers.mapFactory(NavigableMap.class).newInstance().getClass());
+		assertEquals(ConcurrentHashMap.class, Containers.mapFactory(ConcurrentMap.class).newInstance().getClass());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoImplementation() {
+		Containers.collectionFactory(EnumSet.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoCollection() {
+		Containers.collectionFactory(Map.class);
+	}
+}
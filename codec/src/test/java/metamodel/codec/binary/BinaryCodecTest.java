@@ -0,0 +1,312 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.binary;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import metamodel.codec.testobject.Address;
+import metamodel.codec.testobject.Address_;
+import metamodel.codec.testobject.Order;
+import metamodel.codec.testobject.Order_;
+import metamodel.codec.testobject.Status;
+import metamodel.field.AbstractField;
+
+import org.junit.Test;
+
+/**
+ * Tests BinaryCodec and BinaryCodecs.
+ *
+ * @author Michael Kroll
+ */
+public class BinaryCodecTest {
+
+	/** bitmap of the 11 reference fields and the primitive fields of an order. */
+	private static final int EMPTY_ORDER_SIZE = 2 + 8 + 4 + 8 + 1 + 2 + 1 + 2 + 4;
+
+	private static BinaryCodecs codecs() throws Exception {
+		return new BinaryCodecs().register(Order.class, Order_.class).register(Address.class, Address_.class)
+		        .register(Status.class);
+	}
+
+	private static Order order() {
+		final Order order = new Order();
+		order.id = Long.MAX_VALUE;
+		order.quantity = -42;
+		order.price = 12.5;
+		order.paid = true;
+		order.grade = 'ä';
+		order.flags = (byte) 0xA5;
+		order.priority = Short.MIN_VALUE;
+		order.discount = 0.25f;
+		order.customer = "Hello Wörld €\u0000";
+		order.rating = 5;
+		order.status = Status.SHIPPED;
+		order.shipping = new Address("Main Street", 12345);
+		order.note = Status.PAID;
+		order.tags = Arrays.asList("a", null, "c");
+		order.lots = new TreeSet<>(Arrays.asList(3, 1, 2));
+		order.attributes = new LinkedHashMap<>();
+		order.attributes.put("weight", 1.5d);
+		order.attributes.put("billing", new Address("Side Street", 1));
+		order.attributes.put("codes", new LinkedHashSet<>(Arrays.asList('x', (byte) 1, (short) 2, 3L, 4f)));
+		order.attributes.put("empty", Collections.emptyMap());
+		order.attributes.put("none", null);
+		order.sizes = new int[] { 1, -1, Integer.MAX_VALUE };
+		order.comments = new String[] { "first", null };
+		order.payload = new byte[] { 1, 2, 3 };
+		return order;
+	}
+
+	private static void assertOrder(final Order expected, final Order actual) {
+		assertEquals(expected.id, actual.id);
+		assertEquals(expected.quantity, actual.quantity);
+		assertEquals(expected.price, actual.price, 0d);
+		assertEquals(expected.paid, actual.paid);
+		assertEquals(expected.grade, actual.grade);
+		assertEquals(expected.flags, actual.flags);
+		assertEquals(expected.priority, actual.priority);
+		assertEquals(expected.discount, actual.discount, 0f);
+		assertEquals(expected.customer, actual.customer);
+		assertEquals(expected.rating, actual.rating);
+		assertSame(expected.status, actual.status);
+		assertEquals(expected.shipping, actual.shipping);
+		assertEquals(expected.note, actual.note);
+		assertEquals(expected.tags, actual.tags);
+		assertEquals(expected.lots, actual.lots);
+		assertEquals(expected.attributes, actual.attributes);
+		assertArrayEquals(expected.sizes, actual.sizes);
+		assertArrayEquals(expected.comments, actual.comments);
+		assertArrayEquals(expected.payload, actual.payload);
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final Order order = order();
+
+		final Order decoded = codec.decode(codec.encode(order));
+		assertOrder(order, decoded);
+		assertTrue(decoded.lots instanceof TreeSet);
+		assertTrue(decoded.attributes.get("codes") instanceof LinkedHashSet);
+	}
+
+	@Test
+	public void testNullFields() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final Order order = new Order();
+
+		final byte[] bytes = codec.encode(order);
+		assertEquals(EMPTY_ORDER_SIZE, bytes.length);
+		final Order decoded = codec.decode(bytes);
+		assertOrder(order, decoded);
+		assertNull(decoded.shipping);
+	}
+
+	@Test
+	public void testStandaloneCodec() throws Exception {
+		final BinaryCodec<Address> codec = BinaryCodec.of(Address.class, Address_.class);
+		assertEquals(Arrays.asList(Address_.street, Address_.zip), codec.getFieldDefinitions());
+		assertSame(Address.class, codec.getType());
+
+		final Address address = new Address("über", 7);
+		// bitmap, char count, 5 bytes of chars, zip
+		assertEquals(1 + 1 + 5 + 4, codec.encode(address).length);
+		assertEquals(address, codec.decode(codec.encode(address)));
+	}
+
+	@Test
+	public void testFieldsOrderedByName() throws Exception {
+		final List<AbstractField<? super Order, ?>> fields = codecs().get(Order.class).getFieldDefinitions();
+		for (int i = 1; i < fields.size(); i++) {
+			assertTrue(fields.get(i - 1).getName().compareTo(fields.get(i).getName()) < 0);
+		}
+	}
+
+	@Test
+	public void testByteBuffer() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final Order first = order();
+		final Order second = new Order();
+		second.customer = "second";
+
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(1024).order(ByteOrder.LITTLE_ENDIAN);
+		codec.encode(first, buffer);
+		codec.encode(second, buffer);
+		buffer.flip();
+
+		assertOrder(first, codec.decode(buffer));
+		assertOrder(second, codec.decode(buffer));
+		assertEquals(0, buffer.remaining());
+	}
+
+	@Test
+	public void testStream() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final Order first = order();
+		final Order second = new Order();
+		second.payload = new byte[1000];
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.encode(first, out);
+		codec.encode(second, out);
+		final InputStream in = new ByteArrayInputStream(out.toByteArray());
+
+		assertOrder(first, codec.decode(in));
+		assertOrder(second, codec.decode(in));
+		try {
+			codec.decode(in);
+			fail("stream is exhausted");
+		} catch (final EOFException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testLargeObject() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final Order order = new Order();
+		order.tags = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			order.tags.add(String.valueOf(i));
+		}
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.encode(order, out);
+		assertOrder(order, codec.decode(new ByteArrayInputStream(out.toByteArray())));
+		assertOrder(order, codec.decode(codec.encode(order)));
+	}
+
+	@Test(expected = EOFException.class)
+	public void testTruncatedStreamWithLargeLength() throws Exception {
+		// announces Integer.MAX_VALUE bytes, but contains only 3
+		final byte[] bytes = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3 };
+		codecs().get(Order.class).decode(new ByteArrayInputStream(bytes));
+	}
+
+	@Test
+	public void testMaxLength() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final Order order = order();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.encode(order, out);
+		final int length = codec.encode(order).length;
+
+		assertOrder(order, codec.decode(new ByteArrayInputStream(out.toByteArray()), length));
+		try {
+			codec.decode(new ByteArrayInputStream(out.toByteArray()), length - 1);
+			fail("object is too long");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnregisteredNestedType() throws Exception {
+		final BinaryCodec<Order> codec = BinaryCodec.of(Order.class, Order_.class);
+		final Order order = new Order();
+		order.note = new Address();
+		codec.encode(order);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownTypeNumber() throws Exception {
+		final Order order = new Order();
+		order.note = new Address();
+		final byte[] bytes = codecs().get(Order.class).encode(order);
+		BinaryCodec.of(Order.class, Order_.class).decode(bytes);
+	}
+
+	@Test(expected = BufferUnderflowException.class)
+	public void testTruncated() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final byte[] bytes = codec.encode(order());
+		codec.decode(Arrays.copyOf(bytes, bytes.length - 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTrailingBytes() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final byte[] bytes = codec.encode(order());
+		codec.decode(Arrays.copyOf(bytes, bytes.length + 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEncodeNull() throws Exception {
+		codecs().get(Order.class).encode(null);
+	}
+
+	@Test
+	public void testRegistration() throws Exception {
+		final BinaryCodecs codecs = codecs();
+		try {
+			codecs.register(Address.class, Address_.class);
+			fail("already registered");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			codecs.get(Status.class);
+			fail("enums have no codec");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			codecs.register(Address.class, Order_.class);
+			fail("wrong metamodel");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testMapOfNestedObjects() throws Exception {
+		final BinaryCodec<Order> codec = codecs().get(Order.class);
+		final Order order = new Order();
+		order.attributes = Collections.<String, Object> singletonMap("nested", order());
+
+		final Map<String, Object> attributes = codec.decode(codec.encode(order)).attributes;
+		assertOrder((Order) order.attributes.get("nested"), (Order) attributes.get("nested"));
+	}
+}
@@ -0,0 +1,357 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+import metamodel.codec.testobject.Address;
+import metamodel.codec.testobject.Address_;
+import metamodel.codec.testobject.Order;
+import metamodel.codec.testobject.Order_;
+import metamodel.codec.testobject.Status;
+
+import org.junit.Test;
+
+/**
+ * Tests JsonCodec and JsonCodecs.
+ *
+ * @author Michael Kroll
+ */
+public class JsonCodecTest {
+
+	private static JsonCodec<Order> codec() throws Exception {
+		return new JsonCodecs().register(Order.class, Order_.class).register(Address.class, Address_.class)
+		        .get(Order.class);
+	}
+
+	@Test
+	public void testEmptyOrder() throws Exception {
+		assertEquals("{\"id\":0,\"quantity\":0,\"price\":0.0,\"paid\":false,\"grade\":\"\\u0000\",\"flags\":0,"
+		        + "\"priority\":0,\"discount\":0.0,\"customer\":null,\"rating\":null,\"status\":null,"
+		        + "\"shipping\":null,\"note\":null,\"tags\":null,\"lots\":null,\"attributes\":null,\"sizes\":null,"
+		        + "\"comments\":null,\"payload\":null}", codec().toJson(new Order()));
+	}
+
+	@Test
+	public void testOrder() throws Exception {
+		final Order order = new Order();
+		order.id = Long.MIN_VALUE;
+		order.quantity = -42;
+		order.price = 1e300;
+		order.paid = true;
+		order.grade = 'A';
+		order.flags = -1;
+		order.priority = 7;
+		order.discount = Float.NaN;
+		order.customer = "Hello \"Wörld\"\n";
+		order.rating = 5;
+		order.status = Status.PAID;
+		order.shipping = new Address("Main Street", 12345);
+		order.note = new BigDecimal("1.50");
+		order.tags = Arrays.asList("a", null);
+		order.lots = new TreeSet<>(Arrays.asList(2, 1));
+		order.attributes = new LinkedHashMap<>();
+		order.attributes.put("status", Status.NEW);
+		order.attributes.put("chars", new char[] { 'x', 'y' });
+		order.attributes.put("matrix", new long[][] { { 1L }, {} });
+		order.sizes = new int[] { 1, 2 };
+		order.comments = new String[] { null };
+		order.payload = new byte[0];
+
+		assertEquals("{\"id\":-9223372036854775808,\"quantity\":-42,\"price\":1.0E300,\"paid\":true,\"grade\":\"A\","
+		        + "\"flags\":-1,\"priority\":7,\"discount\":\"NaN\",\"customer\":\"Hello \\\"Wörld\\\"\\n\","
+		        + "\"rating\":5,\"status\":\"PAID\",\"shipping\":{\"street\":\"Main Street\",\"zip\":12345},"
+		        + "\"note\":1.50,\"tags\":[\"a\",null],\"lots\":[1,2],\"attributes\":{\"status\":\"NEW\","
+		        + "\"chars\":\"xy\",\"matrix\":[[1],[]]},\"sizes\":[1,2],\"comments\":[null],\"payload\":[]}",
+		        codec().toJson(order));
+	}
+
+	@Test
+	public void testUtf8() throws Exception {
+		final JsonCodec<Address> codec = JsonCodec.of(Address.class, Address_.class);
+		final Address address = new Address("\u00e4\u20ac\ud83d\ude00\ud83d\t", 1);
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.write(address, out);
+		assertEquals("{\"street\":\"\u00e4\u20ac\ud83d\ude00\\ud83d\\t\",\"zip\":1}",
+		        new String(out.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(out.toString("UTF-8"), codec.toJson(address));
+	}
+
+	@Test
+	public void testLargeOutput() throws Exception {
+		final JsonCodec<Order> codec = codec();
+		final Order order = new Order();
+		order.tags = new ArrayList<>();
+		final StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			order.tags.add("tag\u00e4" + i);
+			expected.append(i == 0 ? "" : ",").append("\"tag\u00e4").append(i).append('"');
+		}
+		order.customer = new String(new char[20000]).replace('\0', 'c');
+
+		final String json = codec.toJson(order);
+		assertTrue(json.contains("\"tags\":[" + expected + "]"));
+		assertTrue(json.contains("\"customer\":\"" + order.customer + "\""));
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.write(order, out);
+		assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+	}
+
+	@Test
+	public void testReadOrder() throws Exception {
+		final Order order = new Order();
+		order.id = Long.MIN_VALUE;
+		order.quantity = -42;
+		order.price = 0.1;
+		order.paid = true;
+		order.grade = '\u20ac';
+		order.flags = -1;
+		order.priority = 7;
+		order.discount = Float.NEGATIVE_INFINITY;
+		order.customer = "Hello \"Wörld\"\n\ud83d\ude00";
+		order.rating = 5;
+		order.status = Status.SHIPPED;
+		order.shipping = new Address("Main Street", 12345);
+		order.note = "note";
+		order.tags = Arrays.asList("a", null);
+		order.lots = new TreeSet<>(Arrays.asList(2, 1));
+		order.attributes = new LinkedHashMap<>();
+		order.attributes.put("status", "NEW");
+		order.attributes.put("count", 3L);
+		order.attributes.put("list", Arrays.asList(1.5, true, null));
+		order.attributes.put("map", Collections.singletonMap("key", "value"));
+		order.sizes = new int[] { 1, 2 };
+		order.comments = new String[] { null, "c" };
+		order.payload = new byte[] { -128, 127 };
+
+		final JsonCodec<Order> codec = codec();
+		final Order copy = codec.fromJson(codec.toJson(order));
+		assertEquals(order.id, copy.id);
+		assertEquals(order.quantity, copy.quantity);
+		assertEquals(order.price, copy.price, 0d);
+		assertEquals(order.paid, copy.paid);
+		assertEquals(order.grade, copy.grade);
+		assertEquals(order.flags, copy.flags);
+		assertEquals(order.priority, copy.priority);
+		assertEquals(order.discount, copy.discount, 0f);
+		assertEquals(order.customer, copy.customer);
+		assertEquals(order.rating, copy.rating);
+		assertEquals(order.status, copy.status);
+		assertEquals(order.shipping, copy.shipping);
+		assertEquals(order.note, copy.note);
+		assertEquals(order.tags, copy.tags);
+		assertEquals(order.lots, copy.lots);
+		assertTrue(copy.lots instanceof TreeSet);
+		assertEquals(order.attributes, copy.attributes);
+		assertArrayEquals(order.sizes, copy.sizes);
+		assertArrayEquals(order.comments, copy.comments);
+		assertArrayEquals(order.payload, copy.payload);
+		assertEquals(codec.toJson(order), codec.toJson(copy));
+	}
+
+	@Test
+	public void testReadStream() throws Exception {
+		final JsonCodec<Address> codec = JsonCodec.of(Address.class, Address_.class);
+		final Address address = new Address("\u00e4\u20ac\ud83d\ude00", 1);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.write(address, out);
+		assertEquals(address, codec.read(new ByteArrayInputStream(out.toByteArray())));
+		assertEquals(address, codec.read(new StringReader(codec.toJson(address))));
+	}
+
+	@Test
+	public void testReadEachArray() throws Exception {
+		final int count = 100000;
+		final AddressArrayReader in = new AddressArrayReader(count);
+		final int[] handled = new int[1];
+		final long read = JsonCodec.of(Address.class, Address_.class).readEach(in, new ObjectHandler<Address>() {
+			@Override
+			public void handle(final Address address) {
+				// objects are handled while the rest of the input is not even generated
+				assertFalse(in.isExhausted());
+				assertEquals(new Address("street " + handled[0], handled[0]), address);
+				handled[0]++;
+			}
+		});
+		assertEquals(count, read);
+		assertEquals(count, handled[0]);
+		assertTrue(in.isExhausted());
+	}
+
+	@Test
+	public void testReadEachConcatenated() throws Exception {
+		final JsonCodec<Address> codec = JsonCodec.of(Address.class, Address_.class);
+		final String json = codec.toJson(new Address("a", 1)) + "\n" + codec.toJson(new Address("b", 2)) + "\nnull\n";
+		final List<Address> addresses = new ArrayList<>();
+		final ObjectHandler<Address> handler = new ObjectHandler<Address>() {
+			@Override
+			public void handle(final Address address) {
+				addresses.add(address);
+			}
+		};
+		assertEquals(3, codec.readEach(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), handler));
+		assertEquals(Arrays.asList(new Address("a", 1), new Address("b", 2), null), addresses);
+
+		addresses.clear();
+		assertEquals(0, codec.readEach(new StringReader(" [ ] "), handler));
+		assertEquals(0, codec.readEach(new StringReader(""), handler));
+		assertTrue(addresses.isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadEachTrailingContent() throws Exception {
+		JsonCodec.of(Address.class, Address_.class).readEach(new StringReader("[{}] {}"),
+		        new ObjectHandler<Address>() {
+			        @Override
+			        public void handle(final Address address) {
+				        // ignore
+			        }
+		        });
+	}
+
+	@Test
+	public void testReadUnknownMembers() throws Exception {
+		assertEquals(new Address("x", 5), JsonCodec.of(Address.class, Address_.class).fromJson(
+		        " { \"zip\" : 5 , \"zipCode\" : { \"a\" : [ 1, {}, \"}\" ] } , \"street\" : \"x\" , \"s\" : null } "));
+	}
+
+	@Test
+	public void testReadConversions() throws Exception {
+		final Order order = codec().fromJson("{\"quantity\":3.0,\"price\":1e2,\"discount\":\"NaN\",\"rating\":null,"
+		        + "\"lots\":[3,1,2],\"sizes\":[1e2,-0],\"customer\":\"\\u0041\\/\"}");
+		assertEquals(3, order.quantity);
+		assertEquals(100d, order.price, 0d);
+		assertTrue(Float.isNaN(order.discount));
+		assertNull(order.rating);
+		assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(order.lots));
+		assertArrayEquals(new int[] { 100, 0 }, order.sizes);
+		assertEquals("A/", order.customer);
+	}
+
+	@Test
+	public void testReadNull() throws Exception {
+		assertNull(codec().fromJson(" null "));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadMalformed() throws Exception {
+		codec().fromJson("{\"quantity\":}");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadTrailingContent() throws Exception {
+		codec().fromJson("{} {}");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadOutOfRange() throws Exception {
+		codec().fromJson("{\"quantity\":3000000000}");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadUnknownConstant() throws Exception {
+		codec().fromJson("{\"status\":\"LOST\"}");
+	}
+
+	@Test
+	public void testNull() throws Exception {
+		final StringWriter out = new StringWriter();
+		codec().write(null, out);
+		assertEquals("null", out.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnregisteredNestedType() throws Exception {
+		final Order order = new Order();
+		order.note = new Address();
+		JsonCodec.of(Order.class, Order_.class).toJson(order);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotRegistered() throws Exception {
+		new JsonCodecs().get(Order.class);
+	}
+
+	/** Generates a JSON array of addresses while it is read. */
+	private static final class AddressArrayReader extends Reader {
+		private final int count;
+		private int next;
+		private String pending = "[";
+
+		AddressArrayReader(final int count) {
+			this.count = count;
+		}
+
+		boolean isExhausted() {
+			return pending == null;
+		}
+
+		@Override
+		public int read(final char[] buffer, final int offset, final int length) {
+			if (pending == null) {
+				return -1;
+			}
+			final int n = Math.min(length, pending.length());
+			pending.getChars(0, n, buffer, offset);
+			pending = pending.substring(n);
+			if (pending.isEmpty()) {
+				if (next < count) {
+					pending = (next > 0 ? "," : "") + "{\"street\":\"street " + next + "\",\"zip\":" + next + "}";
+					next++;
+				} else if (next == count) {
+					pending = "]";
+					next++;
+				} else {
+					pending = null;
+				}
+			}
+			return n;
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	}
+}
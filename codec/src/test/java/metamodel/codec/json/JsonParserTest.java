@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2014 Michael Kroll
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package metamodel.codec.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+/**
+ * Tests JsonParser and NameTrie.
+ *
+ * @author Michael Kroll
+ */
+public class JsonParserTest {
+
+	private static final String[] DECIMALS = { "0", "-0", "0.0", "-0.0", "1", "0.1", "0.5", "123.456", "1e-7",
+	        "1E22", "1e23", "-2.5E+3", "123456789012345678", "0.30000000000000004", "1.7976931348623157e308",
+	        "4.9e-324", "2.2250738585072014E-308", "3.4028235E38", "1.4E-45", "9007199254740993", "0.000001234",
+	        "100000000000000000000000" };
+
+	/** Reader returning one char per call, to cross buffer boundaries everywhere. */
+	private static Reader slow(final String json) {
+		return new StringReader(json) {
+			@Override
+			public int read(final char[] cbuf, final int off, final int len) throws IOException {
+				return super.read(cbuf, off, Math.min(len, 1));
+			}
+		};
+	}
+
+	@Test
+	public void testDoubles() throws Exception {
+		for (final String decimal : DECIMALS) {
+			assertEquals(decimal, Double.doubleToLongBits(Double.parseDouble(decimal)),
+			        Double.doubleToLongBits(new JsonParser(decimal).nextDouble()));
+			assertEquals(decimal, Double.doubleToLongBits(Double.parseDouble(decimal)),
+			        Double.doubleToLongBits(new JsonParser(slow(decimal)).nextDouble()));
+		}
+	}
+
+	@Test
+	public void testFloats() throws Exception {
+		for (final String decimal : DECIMALS) {
+			assertEquals(decimal, Float.floatToIntBits(Float.parseFloat(decimal)),
+			        Float.floatToIntBits(new JsonParser(decimal).nextFloat()));
+		}
+	}
+
+	@Test
+	public void testSpecialNumbers() throws Exception {
+		assertTrue(Double.isNaN(new JsonParser("\"NaN\"").nextDouble()));
+		assertEquals(Double.NEGATIVE_INFINITY, new JsonParser("\"-Infinity\"").nextDouble(), 0d);
+		assertEquals(Float.POSITIVE_INFINITY, new JsonParser("\"Infinity\"").nextFloat(), 0f);
+	}
+
+	@Test
+	public void testIntegers() throws Exception {
+		assertEquals(Long.MIN_VALUE, new JsonParser("-9223372036854775808").nextLong());
+		assertEquals(Long.MAX_VALUE, new JsonParser("9223372036854775807").nextLong());
+		assertEquals(-128, new JsonParser("-128").nextByte());
+		assertEquals(1000, new JsonParser("1e3").nextInt());
+		assertEquals(Long.valueOf(-12), new JsonParser("-12").nextNumber());
+		assertEquals(Double.valueOf(1.5), new JsonParser("1.5").nextNumber());
+		assertEquals(new BigDecimal("12345678901234567890.5"), new JsonParser("12345678901234567890.5")
+		        .nextBigDecimal());
+		for (final String invalid : new String[] { "9223372036854775808", "128", "1.5", "-", "1e", "1.", "x" }) {
+			try {
+				new JsonParser(invalid).nextByte();
+				fail(invalid);
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testStrings() throws Exception {
+		final String json = "\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\\u00e4\\ud83d\\ude00\u20ac\"";
+		final String expected = "a\"b\\c/d\b\f\n\r\t\u00e4\ud83d\ude00\u20ac";
+		assertEquals(expected, new JsonParser(json).nextString());
+		assertEquals(expected, new JsonParser(slow(json)).nextString());
+		for (final String invalid : new String[] { "\"abc", "\"a\nb\"", "\"\\x\"", "\"\\u12g4\"", "abc" }) {
+			try {
+				new JsonParser(invalid).nextString();
+				fail(invalid);
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testNames() throws Exception {
+		final NameTrie names = new NameTrie(new String[] { "id", "ids", "name", "id", "\u00e4" });
+		final JsonParser parser = new JsonParser(slow(" { \"id\" : 1, \"i\":2 ,\"ids\":3,\"idx\":4,\"nam\\u0065\":5,"
+		        + "\"\u00e4\":6, \"\":7}"));
+		parser.beginObject();
+		final int[] expected = { 0, -1, 1, -1, 2, 4, -1 };
+		for (int i = 0; i < expected.length; i++) {
+			assertTrue(parser.hasNext());
+			assertEquals(expected[i], parser.nextName(names));
+			assertEquals(i + 1, parser.nextInt());
+		}
+		assertFalse(parser.hasNext());
+		parser.endObject();
+		parser.endDocument();
+	}
+
+	@Test
+	public void testSkipValue() throws Exception {
+		final JsonParser parser = new JsonParser(slow("[{\"a\":[1,2.5e3,{\"b\":null}],\"c\\\"\":\"}\"},true,false,"
+		        + "\"x\",-1,[]] 7"));
+		parser.skipValue();
+		assertEquals(7, parser.nextInt());
+		parser.endDocument();
+	}
+
+	@Test
+	public void testSyntaxErrors() throws Exception {
+		for (final String invalid : new String[] { "[1 2]", "[1,]", "{\"a\" 1}", "{\"a\":1,}", "[1}", "nul",
+		        "[1] 2" }) {
+			try {
+				final JsonParser parser = new JsonParser(invalid);
+				parser.skipValue();
+				parser.endDocument();
+				fail(invalid);
+			} catch (final IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package metamodel.codec.testobject;
+
+import javax.annotation.Generated;
+import metamodel.field.IntField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+
+
+/**
+ * @see Address
+ * 
+ * 
+ */
+@Generated(value = "metamodel.generator.ModelFromSourceBuilder", date = "Sat Oct 17 10:12:41 CEST 2026")
+public abstract class Address_ {
+
+    /**
+     * @see Address#street
+     * 
+     */
+    public final static SingularField<Address, String> street = new SingularFieldImpl<>("street", Address.class);
+    /**
+     * @see Address#zip
+     * 
+     */
+    public final static IntField<Address> zip = new IntFieldImpl<>("zip", Address.class);
+
+}
@@ -0,0 +1,138 @@
+package metamodel.codec.testobject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import javax.annotation.Generated;
+import metamodel.field.ArrayField;
+import metamodel.field.BooleanField;
+import metamodel.field.ByteField;
+import metamodel.field.CharField;
+import metamodel.field.CollectionField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.MapField;
+import metamodel.field.ShortField;
+import metamodel.field.SingularField;
+import metamodel.field.impl.ArrayFieldImpl;
+import metamodel.field.impl.BooleanFieldImpl;
+import metamodel.field.impl.ByteFieldImpl;
+import metamodel.field.impl.CharFieldImpl;
+import metamodel.field.impl.CollectionFieldImpl;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.FloatFieldImpl;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.LongFieldImpl;
+import metamodel.field.impl.MapFieldImpl;
+import metamodel.field.impl.ShortFieldImpl;
+import metamodel.field.impl.SingularFieldImpl;
+
+
+
+/**
+ * @see Order
+ * 
+ * 
+ */
+@Generated(value = "metamodel.generator.ModelFromSourceBuilder", date = "Sat Oct 17 10:12:41 CEST 2026")
+public abstract class Order_ {
+
+    /**
+     * @see Order#id
+     * 
+     */
+    public final static LongField<Order> id = new LongFieldImpl<>("id", Order.class);
+    /**
+     * @see Order#quantity
+     * 
+     */
+    public final static IntField<Order> quantity = new IntFieldImpl<>("quantity", Order.class);
+    /**
+     * @see Order#price
+     * 
+     */
+    public final static DoubleField<Order> price = new DoubleFieldImpl<>("price", Order.class);
+    /**
+     * @see Order#paid
+     * 
+     */
+    public final static BooleanField<Order> paid = new BooleanFieldImpl<>("paid", Order.class);
+    /**
+     * @see Order#grade
+     * 
+     */
+    public final static CharField<Order> grade = new CharFieldImpl<>("grade", Order.class);
+    /**
+     * @see Order#flags
+     * 
+     */
+    public final static ByteField<Order> flags = new ByteFieldImpl<>("flags", Order.class);
+    /**
+     * @see Order#priority
+     * 
+     */
+    public final static ShortField<Order> priority = new ShortFieldImpl<>("priority", Order.class);
+    /**
+     * @see Order#discount
+     * 
+     */
+    public final static FloatField<Order> discount = new FloatFieldImpl<>("discount", Order.class);
+    /**
+     * @see Order#customer
+     * 
+     */
+    public final static SingularField<Order, String> customer = new SingularFieldImpl<>("customer", Order.class);
+    /**
+     * @see Order#rating
+     * 
+     */
+    public final static SingularField<Order, Integer> rating = new SingularFieldImpl<>("rating", Order.class);
+    /**
+     * @see Order#status
+     * 
+     */
+    public final static SingularField<Order, Status> status = new SingularFieldImpl<>("status", Order.class);
+    /**
+     * @see Order#shipping
+     * 
+     */
+    public final static SingularField<Order, Address> shipping = new SingularFieldImpl<>("shipping", Order.class);
+    /**
+     * @see Order#note
+     * 
+     */
+    public final static SingularField<Order, Object> note = new SingularFieldImpl<>("note", Order.class);
+    /**
+     * @see Order#tags
+     * 
+     */
+    public final static CollectionField<Order, List<String> , String> tags = new CollectionFieldImpl<>("tags", Order.class);
+    /**
+     * @see Order#lots
+     * 
+     */
+    public final static CollectionField<Order, SortedSet<Integer> , Integer> lots = new CollectionFieldImpl<>("lots", Order.class);
+    /**
+     * @see Order#attributes
+     * 
+     */
+    public final static MapField<Order, Map<String, Object> , String, Object> attributes = new MapFieldImpl<>("attributes", Order.class);
+    /**
+     * @see Order#sizes
+     * 
+     */
+    public final static ArrayField<Order, int[]> sizes = new ArrayFieldImpl<>("sizes", Order.class);
+    /**
+     * @see Order#comments
+     * 
+     */
+    public final static ArrayField<Order, String[]> comments = new ArrayFieldImpl<>("comments", Order.class);
+    /**
+     * @see Order#payload
+     * 
+     */
+    public final static ArrayField<Order, byte[]> payload = new ArrayFieldImpl<>("payload", Order.class);
+
+}
@@ -55,6 +55,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,9 +67,23 @@ import javax.annotation.Generated;
 import metamodel.constructor.Constructor0;
 import metamodel.constructor.impl.Constructor0Impl;
 import metamodel.field.ArrayField;
-import metamodel.field.SingularField;
+import metamodel.field.BooleanField;
+import metamodel.field.ByteField;
+import metamodel.field.CharField;
+import metamodel.field.DoubleField;
+import metamodel.field.FloatField;
+import metamodel.field.IntField;
+import metamodel.field.LongField;
+import metamodel.field.ShortField;
 import metamodel.field.impl.ArrayFieldImpl;
-import metamodel.field.impl.SingularFieldImpl;
+import metamodel.field.impl.BooleanFieldImpl;
+import metamodel.field.impl.ByteFieldImpl;
+import metamodel.field.impl.CharFieldImpl;
+import metamodel.field.impl.DoubleFieldImpl;
+import metamodel.field.impl.FloatFieldImpl;
+import metamodel.field.impl.IntFieldImpl;
+import metamodel.field.impl.LongFieldImpl;
+import metamodel.field.impl.ShortFieldImpl;
 import metamodel.generator.converter.CollectionConverter;
 import metamodel.generator.converter.FieldConverter;
 import metamodel.generator.converter.FieldConverter.FieldDefinition;
@@ -104,6 +119,29 @@ public class ModelFromSourceBuilder {
 	        new ObjectConverter()
 	        );
 
+	/** Field definitions for primitive fields, they allow access without boxing. */
+	private static final Map<Primitive, Class<?>> PRIMITIVE_FIELDS = new EnumMap<>(Primitive.class);
+	/** Implementations of {@link #PRIMITIVE_FIELDS}. */
+	private static final Map<Primitive, Class<?>> PRIMITIVE_FIELD_IMPLS = new EnumMap<>(Primitive.class);
+	static {
+		PRIMITIVE_FIELDS.put(Primitive.Boolean, BooleanField.class);
+		PRIMITIVE_FIELDS.put(Primitive.Char, CharField.class);
+		PRIMITIVE_FIELDS.put(Primitive.Byte, ByteField.class);
+		PRIMITIVE_FIELDS.put(Primitive.Short, ShortField.class);
+		PRIMITIVE_FIELDS.put(Primitive.Int, IntField.class);
+		PRIMITIVE_FIELDS.put(Primitive.Long, LongField.class);
+		PRIMITIVE_FIELDS.put(Primitive.Float, FloatField.class);
+		PRIMITIVE_FIELDS.put(Primitive.Double, DoubleField.class);
+		PRIMITIVE_FIELD_IMPLS.put(Primitive.Boolean, BooleanFieldImpl.class);
+		PRIMITIVE_FIELD_IMPLS.put(Primitive.Char, CharFieldImpl.class);
+		PRIMITIVE_FIELD_IMPLS.put(Primitive.Byte, ByteFieldImpl.class);
+		PRIMITIVE_FIELD_IMPLS.put(Primitive.Short, ShortFieldImpl.class);
+		PRIMITIVE_FIELD_IMPLS.put(Primitive.Int, IntFieldImpl.class);
+		PRIMITIVE_FIELD_IMPLS.put(Primitive.Long, LongFieldImpl.class);
+		PRIMITIVE_FIELD_IMPLS.put(Primitive.Float, FloatFieldImpl.class);
+		PRIMITIVE_FIELD_IMPLS.put(Primitive.Double, DoubleFieldImpl.class);
+	}
+
 	/**
 	 * Build metamodel for classes in source files.
 	 *
@@ -332,10 +370,12 @@ public class ModelFromSourceBuilder {
 		for (final VariableDeclarator variable : nullSafe(field.getVariables())) {
 			final JClass fieldClazz;
 			final JInvocation fieldInit;
-			if (convertedType.isPrimitive()) {
-				final JClass rawLLclazz = codeModel.ref(SingularField.class);
-				fieldClazz = rawLLclazz.narrow(baseType, convertedType);
-				fieldInit = JExpr._new(codeModel.ref(SingularFieldImpl.class).narrow(FieldConverter.DIAMOND))
+			if (fieldType instanceof PrimitiveType) {
+				// int, boolean, ...: specialized definition, values can be accessed without boxing
+				final Primitive primitive = ((PrimitiveType) fieldType).getType();
+				fieldClazz = codeModel.ref(PRIMITIVE_FIELDS.get(primitive)).narrow(baseType);
+				fieldInit = JExpr._new(
+				        codeModel.ref(PRIMITIVE_FIELD_IMPLS.get(primitive)).narrow(FieldConverter.DIAMOND))
 				        .arg(variable.getId().getName()).arg(baseType.dotclass());
 			} else if (convertedType.isArray()) {
 				final JClass rawLLclazz = codeModel.ref(ArrayField.class);
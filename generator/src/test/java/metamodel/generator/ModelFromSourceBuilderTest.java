@@ -25,12 +25,16 @@ package metamodel.generator;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
 import java.util.HashSet;
 import java.util.Set;
 
+import metamodel.field.BooleanField;
+import metamodel.field.SingularField;
+
 import org.example.test.POJOTestClass;
 import org.junit.Test;
 
@@ -87,5 +91,8 @@ public class ModelFromSourceBuilderTest {
 		assertThat(metaClass.fields().keySet(), hasItem("set"));
 		assertThat(metaClass.fields().keySet(), hasItem("map"));
 		assertThat(metaClass.fields().keySet(), not(hasItem("staticField")));
+
+		assertEquals(BooleanField.class.getName(), metaClass.fields().get("boolPrim").type().erasure().fullName());
+		assertEquals(SingularField.class.getName(), metaClass.fields().get("bool").type().erasure().fullName());
 	}
 }